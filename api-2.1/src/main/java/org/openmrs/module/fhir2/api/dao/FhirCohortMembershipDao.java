@@ -13,9 +13,12 @@ import javax.annotation.Nonnull;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.CohortMembership;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -40,4 +43,20 @@ public interface FhirCohortMembershipDao extends FhirDao<CohortMembership> {
 	@Override
 	@Authorized(PrivilegeConstants.GET_PATIENT_COHORTS)
 	List<CohortMembership> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENT_COHORTS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENT_COHORTS)
+	Optional<KeysetPage<CohortMembership>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENT_COHORTS)
+	List<CohortMembership> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENT_COHORTS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -16,6 +16,7 @@ import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -72,6 +73,8 @@ public class FhirGroupMemberService_2_1Test {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		groupMemberService = new FhirGroupMemberService_2_1();
 		groupMemberService.setFhirCohortMembershipDao(dao);
 		groupMemberService.setGroupMemberTranslator21(translator);
@@ -98,7 +101,7 @@ public class FhirGroupMemberService_2_1Test {
 		when(translator.toFhirResource(cohortMembership)).thenReturn(groupMember);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = groupMemberService.getGroupMembers(GROUP_MEMBER_UUID);
 		
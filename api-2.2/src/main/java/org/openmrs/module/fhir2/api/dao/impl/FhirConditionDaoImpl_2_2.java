@@ -13,6 +13,8 @@ import static org.hibernate.criterion.Restrictions.eq;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +32,8 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.annotation.OpenmrsProfile;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirConditionDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 import org.springframework.stereotype.Component;
@@ -39,6 +43,9 @@ import org.springframework.stereotype.Component;
 @OpenmrsProfile(openmrsPlatformVersion = "2.2.* - 2.*")
 public class FhirConditionDaoImpl_2_2 extends BaseFhirDao<Condition> implements FhirConditionDao<Condition> {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("condition.coded",
+	    "patient"));
+	
 	@Override
 	@Authorized(PrivilegeConstants.GET_CONDITIONS)
 	public Condition get(@Nonnull String uuid) {
@@ -63,6 +70,30 @@ public class FhirConditionDaoImpl_2_2 extends BaseFhirDao<Condition> implements
 		return super.getSearchResults(theParams);
 	}
 	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONDITIONS)
+	public Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults) {
+		return super.getSearchResultIds(theParams, maxResults);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONDITIONS)
+	public Optional<KeysetPage<Condition>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor) {
+		return super.getSearchResultsPage(theParams, cursor);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONDITIONS)
+	public List<Condition> getByIds(@Nonnull List<Integer> ids) {
+		return super.getByIds(ids);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONDITIONS)
+	public void prefetchByIds(@Nonnull List<Integer> ids) {
+		super.prefetchByIds(ids);
+	}
+	
 	private ConditionClinicalStatus convertStatus(String status) {
 		if ("active".equalsIgnoreCase(status)) {
 			return ConditionClinicalStatus.ACTIVE;
@@ -137,4 +168,9 @@ public class FhirConditionDaoImpl_2_2 extends BaseFhirDao<Condition> implements
 		
 		return super.paramToProp(param);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -96,6 +97,8 @@ public class FhirConditionServiceImpl_2_2Test {
 	
 	@Before
 	public void setup() {
+		translateEachElement(conditionTranslator);
+		
 		conditionService = new FhirConditionServiceImpl_2_2() {
 			
 			@Override
@@ -260,7 +263,7 @@ public class FhirConditionServiceImpl_2_2Test {
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openmrsCondition));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, conditionTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(conditionTranslator.toFhirResource(openmrsCondition)).thenReturn(fhirCondition);
 		
 		IBundleProvider result = conditionService.searchConditions(new ConditionSearchParams(patientReference, codeList,
@@ -11,6 +11,8 @@ package org.openmrs.module.fhir2.api.dao.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,8 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.annotation.OpenmrsProfile;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirMedicationDispenseDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 import org.springframework.stereotype.Component;
@@ -34,6 +38,9 @@ import org.springframework.stereotype.Component;
 @OpenmrsProfile(openmrsPlatformVersion = "2.6.* - 2.*")
 public class FhirMedicationDispenseDaoImpl_2_6 extends BaseFhirDao<MedicationDispense> implements FhirMedicationDispenseDao<MedicationDispense> {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("concept", "drug",
+	    "drugOrder", "encounter", "location", "patient", "dispenser"));
+	
 	@Override
 	@Authorized(PrivilegeConstants.GET_MEDICATION_DISPENSE)
 	public MedicationDispense get(@Nonnull String uuid) {
@@ -58,6 +65,31 @@ public class FhirMedicationDispenseDaoImpl_2_6 extends BaseFhirDao<MedicationDis
 		return super.getSearchResults(theParams);
 	}
 	
+	@Override
+	@Authorized(PrivilegeConstants.GET_MEDICATION_DISPENSE)
+	public Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults) {
+		return super.getSearchResultIds(theParams, maxResults);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_MEDICATION_DISPENSE)
+	public Optional<KeysetPage<MedicationDispense>> getSearchResultsPage(@Nonnull SearchParameterMap theParams,
+	        KeysetCursor cursor) {
+		return super.getSearchResultsPage(theParams, cursor);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_MEDICATION_DISPENSE)
+	public List<MedicationDispense> getByIds(@Nonnull List<Integer> ids) {
+		return super.getByIds(ids);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_MEDICATION_DISPENSE)
+	public void prefetchByIds(@Nonnull List<Integer> ids) {
+		super.prefetchByIds(ids);
+	}
+	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		theParams.getParameters().forEach(entry -> {
@@ -91,4 +123,9 @@ public class FhirMedicationDispenseDaoImpl_2_6 extends BaseFhirDao<MedicationDis
 	protected String paramToProp(@Nonnull String param) {
 		return super.paramToProp(param);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
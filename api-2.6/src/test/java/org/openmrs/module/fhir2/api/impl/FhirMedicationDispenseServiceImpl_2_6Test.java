@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -85,6 +86,8 @@ public class FhirMedicationDispenseServiceImpl_2_6Test {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		dispenseService = new FhirMedicationDispenseServiceImpl_2_6() {
 			
 			@Override
@@ -236,7 +239,7 @@ public class FhirMedicationDispenseServiceImpl_2_6Test {
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openmrsDispense));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(openmrsDispense)).thenReturn(fhirDispense);
 		
 		MedicationDispenseSearchParams params = new MedicationDispenseSearchParams();
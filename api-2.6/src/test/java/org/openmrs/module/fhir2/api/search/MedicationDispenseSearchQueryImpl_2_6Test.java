@@ -13,11 +13,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.iterableWithSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hl7.fhir.r4.model.Patient.SP_IDENTIFIER;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.ReferenceAndListParam;
 import ca.uhn.fhir.rest.param.ReferenceOrListParam;
@@ -238,4 +243,27 @@ public class MedicationDispenseSearchQueryImpl_2_6Test extends BaseModuleContext
 			    anyOf(endsWith(order1.getUuid()), endsWith(order2.getUuid())));
 		}
 	}
+	
+	@Test
+	public void shouldIncludeMedicationRequestsAndIterateToTheirMedications() {
+		ReferenceAndListParam param = new ReferenceAndListParam();
+		param.addAnd(new ReferenceOrListParam().addOr(new ReferenceParam(order1.getUuid())));
+		theParams.addParameter(FhirConstants.MEDICATION_REQUEST_REFERENCE_SEARCH_HANDLER, param);
+		
+		HashSet<Include> includes = new HashSet<>();
+		includes.add(new Include("MedicationDispense:prescription"));
+		includes.add(new Include("MedicationRequest:medication", true));
+		theParams.addParameter(FhirConstants.INCLUDE_SEARCH_HANDLER, includes);
+		
+		IBundleProvider results = search(theParams);
+		List<IBaseResource> resultList = get(results);
+		
+		assertThat(results, notNullValue());
+		assertThat(results.size(), equalTo(1));
+		assertThat(resultList.size(), equalTo(3));
+		assertThat(resultList.stream().filter(org.hl7.fhir.r4.model.MedicationRequest.class::isInstance)
+		        .collect(Collectors.toList()), is(iterableWithSize(1)));
+		assertThat(resultList.stream().filter(org.hl7.fhir.r4.model.Medication.class::isInstance)
+		        .collect(Collectors.toList()), is(iterableWithSize(1)));
+	}
 }
@@ -121,6 +121,20 @@ public final class FhirConstants {
 	
 	public static final String OPENMRS_FHIR_MAXIMUM_PAGE_SIZE = "fhir2.paging.maximum";
 	
+	public static final String OPENMRS_FHIR_TOTAL_ESTIMATE_SAMPLE_SIZE = "fhir2.paging.totalEstimateSampleSize";
+	
+	public static final String OPENMRS_FHIR_SEARCH_SNAPSHOT_TTL = "fhir2.paging.snapshotTtl";
+	
+	public static final String OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_COUNT = "fhir2.paging.snapshotMaximumCount";
+	
+	public static final String OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_RESULTS = "fhir2.paging.snapshotMaximumResults";
+	
+	public static final String OPENMRS_FHIR_REV_INCLUDE_PARALLELISM = "fhir2.search.revIncludeParallelism";
+	
+	public static final String OPENMRS_FHIR_ITERATE_MAXIMUM_DEPTH = "fhir2.search.includeIterateMaximumDepth";
+	
+	public static final String OPENMRS_FHIR_ITERATE_MAXIMUM_RESOURCES = "fhir2.search.includeIterateMaximumResources";
+	
 	public static final String ALLERGY_INTOLERANCE = "AllergyIntolerance";
 	
 	public static final String CONDITION = "Condition";
@@ -337,6 +351,12 @@ public final class FhirConstants {
 	
 	public static final String EVERYTHING_SEARCH_HANDLER = "everything.search.handler";
 	
+	public static final String SINCE_PARAMETER = "_since";
+	
+	public static final String TYPE_PARAMETER = "_type";
+	
+	public static final String COUNT_PARAMETER = "_count";
+	
 	public static final String TITLE_SEARCH_HANDLER = "title.search.handler";
 	
 	public static final String HAS_SEARCH_HANDLER = "_has";
@@ -20,6 +20,8 @@ public interface FhirPatientIdentifierSystemService {
 	
 	String getUrlByPatientIdentifierType(PatientIdentifierType patientIdentifierType);
 	
+	Optional<PatientIdentifierType> getPatientIdentifierTypeByUrl(@Nonnull String url);
+	
 	Optional<FhirPatientIdentifierSystem> getFhirPatientIdentifierSystem(@Nonnull PatientIdentifierType identifierType);
 	
 	FhirPatientIdentifierSystem saveFhirPatientIdentifierSystem(
@@ -13,8 +13,10 @@ import javax.annotation.Nonnull;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Patient;
@@ -40,4 +42,25 @@ public interface FhirPatientService extends FhirService<Patient> {
 	IBundleProvider getPatientEverything(TokenParam identifier);
 	
 	IBundleProvider getPatientEverything();
+	
+	/**
+	 * Pages through the record of the given patient, i.e., the patient and the resources in the
+	 * patient's compartment
+	 *
+	 * @param identifier the id of the patient
+	 * @param lastUpdated if not null, only resources from the patient's compartment last updated in this
+	 *            range are returned
+	 * @param types if not null or empty, only resources of these types are returned
+	 * @param count the preferred page size or null to use the default page size
+	 * @return the record of the patient
+	 */
+	IBundleProvider getPatientEverything(TokenParam identifier, DateRangeParam lastUpdated, Set<String> types,
+	        Integer count);
+	
+	/**
+	 * Pages through the records of all patients
+	 *
+	 * @see #getPatientEverything(TokenParam, DateRangeParam, Set, Integer)
+	 */
+	IBundleProvider getPatientEverything(DateRangeParam lastUpdated, Set<String> types, Integer count);
 }
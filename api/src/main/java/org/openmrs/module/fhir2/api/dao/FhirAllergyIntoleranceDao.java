@@ -12,9 +12,12 @@ package org.openmrs.module.fhir2.api.dao;
 import javax.annotation.Nonnull;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.Allergy;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -35,4 +38,20 @@ public interface FhirAllergyIntoleranceDao extends FhirDao<Allergy> {
 	@Override
 	@Authorized(PrivilegeConstants.GET_ALLERGIES)
 	List<Allergy> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ALLERGIES)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ALLERGIES)
+	Optional<KeysetPage<Allergy>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ALLERGIES)
+	List<Allergy> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ALLERGIES)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -17,6 +17,8 @@ import java.util.Optional;
 import org.openmrs.Concept;
 import org.openmrs.ConceptSource;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -41,6 +43,22 @@ public interface FhirConceptDao extends FhirDao<Concept> {
 	@Authorized(PrivilegeConstants.GET_CONCEPTS)
 	List<Concept> getSearchResults(@Nonnull SearchParameterMap theParams);
 	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	Optional<KeysetPage<Concept>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	List<Concept> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
+	
 	@Authorized(PrivilegeConstants.GET_CONCEPTS)
 	List<Concept> getConceptsWithAnyMappingInSource(ConceptSource conceptSource, String mappingCode);
 	
@@ -24,6 +24,9 @@ public interface FhirConceptSourceDao {
 	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
 	Collection<FhirConceptSource> getFhirConceptSources();
 	
+	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
+	Optional<FhirConceptSource> getFhirConceptSourceById(@Nonnull Integer id);
+	
 	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
 	Optional<FhirConceptSource> getFhirConceptSourceByUrl(@Nonnull String url);
 	
@@ -33,6 +36,12 @@ public interface FhirConceptSourceDao {
 	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
 	Optional<FhirConceptSource> getFhirConceptSourceByConceptSource(@Nonnull ConceptSource conceptSource);
 	
+	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
+	Collection<ConceptSource> getConceptSources();
+	
+	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
+	Optional<ConceptSource> getConceptSourceById(@Nonnull Integer id);
+	
 	@Authorized(PrivilegeConstants.GET_CONCEPT_SOURCES)
 	Optional<ConceptSource> getConceptSourceByHl7Code(@Nonnull String hl7Code);
 	
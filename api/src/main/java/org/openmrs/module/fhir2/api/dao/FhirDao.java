@@ -14,9 +14,12 @@ import javax.annotation.Nonnull;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.Auditable;
 import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 
 /**
@@ -34,5 +37,56 @@ public interface FhirDao<T extends OpenmrsObject & Auditable> extends Serializab
 	
 	int getSearchResultsCount(@Nonnull SearchParameterMap theParams);
 	
+	/**
+	 * Estimates the number of results of a search by counting the results among the first sampleSize
+	 * ids of the table and extrapolating that count to the whole range of ids. Tables with no more than
+	 * sampleSize ids are counted exactly.
+	 *
+	 * @param theParams the parameters for this search
+	 * @param sampleSize the number of ids to count the results of
+	 * @return the estimated number of results
+	 */
+	int getSearchResultsCountEstimate(@Nonnull SearchParameterMap theParams, int sampleSize);
+	
 	List<T> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	/**
+	 * Loads the same page of results as {@link #getSearchResults(SearchParameterMap)} using keyset
+	 * pagination, i.e., by seeking past the given cursor instead of skipping the preceding results
+	 *
+	 * @param theParams the parameters for this search
+	 * @param cursor the cursor for the result at {@link SearchParameterMap#getFromIndex()} or null to
+	 *            skip the preceding results
+	 * @return the page of results with the cursor for the page that follows it or an empty optional if
+	 *         the search cannot be paged using keyset pagination
+	 */
+	Optional<KeysetPage<T>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	/**
+	 * Loads the ids of every result of a search, in the order the results would be returned by
+	 * {@link #getSearchResults(SearchParameterMap)}
+	 *
+	 * @param theParams the parameters for this search
+	 * @param maxResults the maximum number of ids to load
+	 * @return the ordered ids of the search results or an empty optional if the search has more than
+	 *         maxResults results or its results cannot be described by an ordered list of ids
+	 */
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	/**
+	 * Loads the objects with the given ids, preserving the order of the ids
+	 *
+	 * @param ids the ids of the objects to load
+	 * @return the objects with the given ids that still exist, in the order of the ids
+	 */
+	List<T> getByIds(@Nonnull List<Integer> ids);
+	
+	/**
+	 * Loads the objects with the given ids into the current session without returning them, so that
+	 * references to these objects held by other entities are resolved from the session instead of
+	 * being loaded one at a time
+	 *
+	 * @param ids the ids of the objects to load
+	 */
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -12,8 +12,11 @@ package org.openmrs.module.fhir2.api.dao;
 import javax.annotation.Nonnull;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.model.FhirDiagnosticReport;
 import org.openmrs.util.PrivilegeConstants;
@@ -35,4 +38,21 @@ public interface FhirDiagnosticReportDao extends FhirDao<FhirDiagnosticReport> {
 	@Override
 	@Authorized(PrivilegeConstants.GET_OBS)
 	List<FhirDiagnosticReport> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	Optional<KeysetPage<FhirDiagnosticReport>> getSearchResultsPage(@Nonnull SearchParameterMap theParams,
+	        KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	List<FhirDiagnosticReport> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -12,9 +12,13 @@ package org.openmrs.module.fhir2.api.dao;
 import javax.annotation.Nonnull;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.criterion.DetachedCriteria;
 import org.openmrs.Encounter;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -32,10 +36,35 @@ public interface FhirEncounterDao extends FhirDao<Encounter> {
 	@Authorized(PrivilegeConstants.DELETE_ENCOUNTERS)
 	Encounter delete(@Nonnull String uuid);
 	
+	/**
+	 * Creates a subquery that selects the ids of the encounters matching the given parameters, so that
+	 * other searches can be restricted to these encounters without loading them. For
+	 * {@code $lastn-encounters} searches, only the encounters within the {@code max} most recent
+	 * encounter dates are selected.
+	 *
+	 * @param theParams the parameters for the encounter search
+	 * @return a subquery projecting the ids of the matching encounters
+	 */
 	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
-	List<String> getSearchResultUuids(@Nonnull SearchParameterMap theParams);
+	DetachedCriteria getSearchResultIdsCriteria(@Nonnull SearchParameterMap theParams);
 	
 	@Override
 	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
 	List<Encounter> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
+	Optional<KeysetPage<Encounter>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
+	List<Encounter> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_ENCOUNTERS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -13,10 +13,13 @@ import javax.annotation.Nonnull;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.Patient;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -46,4 +49,20 @@ public interface FhirPatientDao extends FhirDao<Patient> {
 	@Override
 	@Authorized(PrivilegeConstants.GET_PATIENTS)
 	List<Patient> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENTS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENTS)
+	Optional<KeysetPage<Patient>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENTS)
+	List<Patient> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PATIENTS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
@@ -11,6 +11,7 @@ package org.openmrs.module.fhir2.api.dao;
 
 import javax.annotation.Nonnull;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.openmrs.PatientIdentifierType;
@@ -25,6 +26,12 @@ public interface FhirPatientIdentifierSystemDao {
 	@Authorized(PrivilegeConstants.GET_IDENTIFIER_TYPES)
 	Optional<FhirPatientIdentifierSystem> getFhirPatientIdentifierSystem(@Nonnull PatientIdentifierType identifierType);
 	
+	@Authorized(PrivilegeConstants.GET_IDENTIFIER_TYPES)
+	Collection<FhirPatientIdentifierSystem> getFhirPatientIdentifierSystems();
+	
+	@Authorized(PrivilegeConstants.GET_IDENTIFIER_TYPES)
+	Optional<PatientIdentifierType> getPatientIdentifierTypeById(@Nonnull Integer id);
+	
 	@Authorized(PrivilegeConstants.MANAGE_IDENTIFIER_TYPES)
 	FhirPatientIdentifierSystem saveFhirPatientIdentifierSystem(
 	        @Nonnull FhirPatientIdentifierSystem fhirPatientIdentifierSystem);
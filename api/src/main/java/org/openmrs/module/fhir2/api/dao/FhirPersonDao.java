@@ -11,11 +11,15 @@ package org.openmrs.module.fhir2.api.dao;
 
 import javax.annotation.Nonnull;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.openmrs.Person;
 import org.openmrs.PersonAttribute;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 
@@ -29,6 +33,10 @@ public interface FhirPersonDao extends FhirDao<Person> {
 	List<PersonAttribute> getActiveAttributesByPersonAndAttributeTypeUuid(@Nonnull Person person,
 	        @Nonnull String personAttributeTypeUuid);
 	
+	@Authorized(PrivilegeConstants.GET_PERSONS)
+	List<PersonAttribute> getActiveAttributesByPersonIdsAndAttributeTypeUuid(@Nonnull Collection<Integer> personIds,
+	        @Nonnull String personAttributeTypeUuid);
+	
 	@Override
 	@Authorized({ PrivilegeConstants.ADD_PERSONS, PrivilegeConstants.EDIT_PERSONS })
 	Person createOrUpdate(@Nonnull Person newEntry);
@@ -40,4 +48,20 @@ public interface FhirPersonDao extends FhirDao<Person> {
 	@Override
 	@Authorized(PrivilegeConstants.GET_PERSONS)
 	List<Person> getSearchResults(@Nonnull SearchParameterMap theParams);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PERSONS)
+	Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PERSONS)
+	Optional<KeysetPage<Person>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PERSONS)
+	List<Person> getByIds(@Nonnull List<Integer> ids);
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_PERSONS)
+	void prefetchByIds(@Nonnull List<Integer> ids);
 }
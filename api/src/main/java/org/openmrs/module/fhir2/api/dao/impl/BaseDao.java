@@ -13,6 +13,7 @@ import static org.hibernate.criterion.Projections.property;
 import static org.hibernate.criterion.Restrictions.and;
 import static org.hibernate.criterion.Restrictions.between;
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.eqProperty;
 import static org.hibernate.criterion.Restrictions.ge;
 import static org.hibernate.criterion.Restrictions.gt;
 import static org.hibernate.criterion.Restrictions.ilike;
@@ -24,6 +25,8 @@ import static org.hibernate.criterion.Restrictions.ne;
 import static org.hibernate.criterion.Restrictions.not;
 import static org.hibernate.criterion.Restrictions.or;
 import static org.hibernate.criterion.Subqueries.propertyEq;
+import static org.openmrs.module.fhir2.api.util.InListUtils.chunkInList;
+import static org.openmrs.module.fhir2.api.util.InListUtils.padInList;
 
 import javax.annotation.Nonnull;
 
@@ -41,13 +44,16 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -79,7 +85,9 @@ import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
 import org.hibernate.internal.CriteriaImpl;
 import org.hibernate.sql.JoinType;
 import org.hl7.fhir.dstu3.model.Encounter;
@@ -88,6 +96,10 @@ import org.hl7.fhir.r4.model.Location;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Practitioner;
 import org.hl7.fhir.r4.model.codesystems.AdministrativeGender;
+import org.openmrs.ConceptMap;
+import org.openmrs.EncounterProvider;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PersonName;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.search.param.PropParam;
 import org.openmrs.module.fhir2.api.util.LocalDateTimeFactory;
@@ -133,16 +145,13 @@ import org.springframework.beans.factory.annotation.Autowired;
  *             in("c.conceptId", tokensToParams(tokens).map(NumberUtils::toInt).collect(Collectors.toList())),
  * 	               in("c.uuid", tokensToList(tokens))));
  *     } else {
- *         if (!containsAlias(criteria, "cm")) {
- *             criteria.createAlias("c.conceptMappings", "cm").createAlias("cm.conceptReferenceTerm", "crt");
- *         }
  *         DetachedCriteria conceptSourceCriteria = DetachedCriteria.forClass(FhirConceptSource.class).add(eq("url", system))
  *             .setProjection(property("conceptSource"));
- * 	       if (codes.size() > 1) {
- *            return Optional.of(and(propertyEq("crt.conceptSource", conceptSourceCriteria), in("crt.code", codes)));
- *         } else {
- *             return Optional.of(and(propertyEq("crt.conceptSource", conceptSourceCriteria), eq("crt.code", codes.get(0))));
- *         };
+ *         DetachedCriteria conceptMapCriteria = DetachedCriteria.forClass(ConceptMap.class, "cm")
+ *             .createAlias("cm.conceptReferenceTerm", "crt").add(eqProperty("cm.concept", "c.id"))
+ *             .add(propertyEq("crt.conceptSource", conceptSourceCriteria)).add(in("crt.code", codes))
+ *             .setProjection(Projections.id());
+ *         return Optional.of(Subqueries.exists(conceptMapCriteria));
  *     }
  *  }).ifPresent(criteria::add);
  * }</pre>
@@ -152,20 +161,30 @@ import org.springframework.beans.factory.annotation.Autowired;
  *   SELECT *
  *   FROM obs this_
  *       JOIN concept c ON this_.concept_id = c.concept_id
- *       JOIN concept_reference_map cm on c.concept_id = cm.concept_id
- *       JOIN concept_reference_term crt on cm.concept_reference_term_id = crt.concept_reference_term_id
- *   WHERE ((
- *         crt.concept_source_id = (select concept_source_id from fhir_concept_source where url = ?)
- *     AND crt.code in (?, ?, ?)
- *   ) OR (
- *         crt.concept_source_id = (select concept_source_id from fhir_concept_source where url = ?)
- *     AND crt.code = ?
- *   )) AND (
- *         crt.concept_source_id = (select concept_source_id from fhir_concept_source where url = ?)
- *     AND crt.code in (?, ?, ?)
+ *   WHERE EXISTS (
+ *       SELECT cm.concept_map_id
+ *       FROM concept_reference_map cm
+ *           JOIN concept_reference_term crt on cm.concept_reference_term_id = crt.concept_reference_term_id
+ *       WHERE cm.concept_id = c.concept_id
+ *         AND crt.concept_source_id = (select concept_source_id from fhir_concept_source where url = ?)
+ *         AND crt.code in (?, ?, ?)
+ *   ) AND EXISTS (
+ *       SELECT cm.concept_map_id
+ *       FROM concept_reference_map cm
+ *           JOIN concept_reference_term crt on cm.concept_reference_term_id = crt.concept_reference_term_id
+ *       WHERE cm.concept_id = c.concept_id
+ *         AND crt.concept_source_id = (select concept_source_id from fhir_concept_source where url = ?)
+ *         AND crt.code = ?
  *   );
  * }</pre>
  * </p>
+ * <p>
+ * Matching against a to-many association (concept mappings, encounter providers, obs group members,
+ * etc.) should be done with a correlated {@code EXISTS} subquery like the one above rather than by
+ * joining the association into the main query. Joins multiply the rows of the main query, which
+ * forces the page and count queries to use {@code DISTINCT} or a second round-trip, whereas the
+ * subquery keeps them as single statements over the root entity.
+ * </p>
  */
 public abstract class BaseDao {
 	
@@ -220,6 +239,48 @@ public abstract class BaseDao {
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), true);
 	}
 	
+	/**
+	 * Runs a query restricted by an {@code IN} clause over a collection of keys of any size. The keys
+	 * are split into chunks of at most {@link InListUtils#MAX_IN_LIST_SIZE} values, each padded to a bucket size,
+	 * and the query is run once per chunk. The results are returned in the order of the keys that
+	 * produced them; keys without a result are skipped.
+	 *
+	 * @param keys the keys to load results for
+	 * @param query runs the query for a single chunk of keys
+	 * @param keyFunction extracts the key from a result
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the results
+	 * @return the results of the query for every key, in the order of the keys
+	 */
+	protected static <K, V> List<V> getInChunks(@Nonnull Collection<K> keys, @Nonnull Function<List<K>, List<V>> query,
+	        @Nonnull Function<V, K> keyFunction) {
+		List<List<K>> chunks = chunkInList(keys);
+		if (chunks.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		Map<K, V> resultsByKey = new HashMap<>();
+		for (List<K> chunk : chunks) {
+			for (V result : query.apply(padInList(chunk))) {
+				if (result != null) {
+					resultsByKey.putIfAbsent(keyFunction.apply(result), result);
+				}
+			}
+		}
+		
+		List<V> results = new ArrayList<>(resultsByKey.size());
+		for (List<K> chunk : chunks) {
+			for (K key : chunk) {
+				V result = resultsByKey.get(key);
+				if (result != null) {
+					results.add(result);
+				}
+			}
+		}
+		
+		return results;
+	}
+	
 	/**
 	 * Determines whether or not the given criteria object already has a given alias. This is useful to
 	 * determine whether a mapping has already been made or whether a given alias is already in use.
@@ -587,61 +648,68 @@ public abstract class BaseDao {
 		
 	}
 	
-	protected void handleParticipantReference(Criteria criteria, ReferenceAndListParam participantReference) {
-		if (participantReference != null) {
-			if (lacksAlias(criteria, "ep")) {
-				return;
-			}
+	/**
+	 * Handles a participant reference by matching each participant token against the encounter
+	 * providers with a correlated {@code EXISTS} subquery, so that encounters with several providers do
+	 * not multiply the rows of the main query.
+	 *
+	 * @param participantReference the participant reference to handle
+	 * @param encounterProviderCriteria supplies a new query over {@link EncounterProvider} with the
+	 *            alias {@code ep}, already correlated with the row of the main query
+	 * @return the criterion, if any
+	 */
+	protected Optional<Criterion> handleParticipantReference(ReferenceAndListParam participantReference,
+	        @Nonnull Supplier<DetachedCriteria> encounterProviderCriteria) {
+		if (participantReference == null) {
+			return Optional.empty();
+		}
+		
+		return handleAndListParam(participantReference, participantToken -> {
+			DetachedCriteria subquery = encounterProviderCriteria.get();
+			Criterion participantCriterion = null;
 			
-			handleAndListParam(participantReference, participantToken -> {
-				if (participantToken.getChain() != null) {
-					switch (participantToken.getChain()) {
-						case Practitioner.SP_IDENTIFIER:
-							if (lacksAlias(criteria, "p")) {
-								criteria.createAlias("ep.provider", "p");
-							}
-							return Optional.of(ilike("p.identifier", participantToken.getValue()));
-						case Practitioner.SP_GIVEN:
-							if ((lacksAlias(criteria, "pro")
-							        && (lacksAlias(criteria, "ps") && (lacksAlias(criteria, "pn"))))) {
-								criteria.createAlias("ep.provider", "pro").createAlias("pro.person", "ps")
-								        .createAlias("ps.names", "pn");
-							}
-							return Optional.of(ilike("pn.givenName", participantToken.getValue(), MatchMode.START));
-						case Practitioner.SP_FAMILY:
-							if ((lacksAlias(criteria, "pro")
-							        && (lacksAlias(criteria, "ps") && (lacksAlias(criteria, "pn"))))) {
-								criteria.createAlias("ep.provider", "pro").createAlias("pro.person", "ps")
-								        .createAlias("ps.names", "pn");
-							}
-							return Optional.of(ilike("pn.familyName", participantToken.getValue(), MatchMode.START));
-						case Practitioner.SP_NAME:
-							if ((lacksAlias(criteria, "pro")
-							        && (lacksAlias(criteria, "ps") && (lacksAlias(criteria, "pn"))))) {
-								criteria.createAlias("ep.provider", "pro").createAlias("pro.person", "ps")
-								        .createAlias("ps.names", "pn");
-							}
-							
-							List<Optional<? extends Criterion>> criterionList = new ArrayList<>();
-							
-							for (String token : StringUtils.split(participantToken.getValue(), " \t,")) {
-								criterionList.add(propertyLike("pn.givenName", token));
-								criterionList.add(propertyLike("pn.middleName", token));
-								criterionList.add(propertyLike("pn.familyName", token));
-							}
-							
-							return Optional.of(or(toCriteriaArray(criterionList)));
-					}
-				} else {
-					if (lacksAlias(criteria, "pro")) {
-						criteria.createAlias("ep.provider", "pro");
-					}
-					return Optional.of(eq("pro.uuid", participantToken.getValue()));
+			if (participantToken.getChain() != null) {
+				switch (participantToken.getChain()) {
+					case Practitioner.SP_IDENTIFIER:
+						subquery.createAlias("ep.provider", "p");
+						participantCriterion = ilike("p.identifier", participantToken.getValue());
+						break;
+					case Practitioner.SP_GIVEN:
+						subquery.createAlias("ep.provider", "pro").createAlias("pro.person", "ps").createAlias("ps.names",
+						    "pn");
+						participantCriterion = ilike("pn.givenName", participantToken.getValue(), MatchMode.START);
+						break;
+					case Practitioner.SP_FAMILY:
+						subquery.createAlias("ep.provider", "pro").createAlias("pro.person", "ps").createAlias("ps.names",
+						    "pn");
+						participantCriterion = ilike("pn.familyName", participantToken.getValue(), MatchMode.START);
+						break;
+					case Practitioner.SP_NAME:
+						subquery.createAlias("ep.provider", "pro").createAlias("pro.person", "ps").createAlias("ps.names",
+						    "pn");
+						
+						List<Optional<? extends Criterion>> criterionList = new ArrayList<>();
+						
+						for (String token : StringUtils.split(participantToken.getValue(), " \t,")) {
+							criterionList.add(propertyLike("pn.givenName", token));
+							criterionList.add(propertyLike("pn.middleName", token));
+							criterionList.add(propertyLike("pn.familyName", token));
+						}
+						
+						participantCriterion = or(toCriteriaArray(criterionList));
+						break;
 				}
-				
+			} else {
+				subquery.createAlias("ep.provider", "pro");
+				participantCriterion = eq("pro.uuid", participantToken.getValue());
+			}
+			
+			if (participantCriterion == null) {
 				return Optional.empty();
-			}).ifPresent(criteria::add);
-		}
+			}
+			
+			return Optional.of(Subqueries.exists(subquery.add(participantCriterion).setProjection(Projections.id())));
+		});
 	}
 	
 	//Added this method to allow handling classes with provider instead  of encounterProvider
@@ -701,12 +769,13 @@ public abstract class BaseDao {
 				        tokensToParams(tokens).map(NumberUtils::toInt).collect(Collectors.toList())),
 				    in(String.format("%s.uuid", conceptAlias), tokensToList(tokens))));
 			} else {
-				if (lacksAlias(criteria, conceptMapAlias)) {
-					criteria.createAlias(String.format("%s.conceptMappings", conceptAlias), conceptMapAlias).createAlias(
-					    String.format("%s.conceptReferenceTerm", conceptMapAlias), conceptReferenceTermAlias);
-				}
+				DetachedCriteria conceptMapCriteria = DetachedCriteria.forClass(ConceptMap.class, conceptMapAlias)
+				        .createAlias(String.format("%s.conceptReferenceTerm", conceptMapAlias), conceptReferenceTermAlias)
+				        .add(eqProperty(String.format("%s.concept", conceptMapAlias), String.format("%s.id", conceptAlias)))
+				        .add(generateSystemQuery(system, tokensToList(tokens), conceptReferenceTermAlias))
+				        .setProjection(Projections.id());
 				
-				return Optional.of(generateSystemQuery(system, tokensToList(tokens), conceptReferenceTermAlias));
+				return Optional.of(Subqueries.exists(conceptMapCriteria));
 			}
 		});
 	}
@@ -754,6 +823,16 @@ public abstract class BaseDao {
 		handlePatientReference(criteria, patientReference, "patient");
 	}
 	
+	/**
+	 * Handles a patient reference. The identifiers and names of the patient are matched with a
+	 * correlated {@code EXISTS} subquery for each token, so that patients with several identifiers or
+	 * names do not multiply the rows of the main query.
+	 *
+	 * @param criteria the criteria of the main query
+	 * @param patientReference the patient reference to handle
+	 * @param associationPath the path from the root entity to the patient, which is given the alias
+	 *            {@code p}
+	 */
 	protected void handlePatientReference(Criteria criteria, ReferenceAndListParam patientReference,
 	        String associationPath) {
 		if (patientReference != null) {
@@ -763,24 +842,14 @@ public abstract class BaseDao {
 				if (patientToken.getChain() != null) {
 					switch (patientToken.getChain()) {
 						case Patient.SP_IDENTIFIER:
-							if (lacksAlias(criteria, "pi")) {
-								criteria.createAlias("p.identifiers", "pi");
-							}
-							return Optional.of(ilike("pi.identifier", patientToken.getValue()));
+							return Optional.of(existsPatientIdentifier(ilike("pi.identifier", patientToken.getValue())));
 						case Patient.SP_GIVEN:
-							if (lacksAlias(criteria, "pn")) {
-								criteria.createAlias("p.names", "pn");
-							}
-							return Optional.of(ilike("pn.givenName", patientToken.getValue(), MatchMode.START));
+							return Optional
+							        .of(existsPatientName(ilike("pn.givenName", patientToken.getValue(), MatchMode.START)));
 						case Patient.SP_FAMILY:
-							if (lacksAlias(criteria, "pn")) {
-								criteria.createAlias("p.names", "pn");
-							}
-							return Optional.of(ilike("pn.familyName", patientToken.getValue(), MatchMode.START));
+							return Optional
+							        .of(existsPatientName(ilike("pn.familyName", patientToken.getValue(), MatchMode.START)));
 						case Patient.SP_NAME:
-							if (lacksAlias(criteria, "pn")) {
-								criteria.createAlias("p.names", "pn");
-							}
 							List<Optional<? extends Criterion>> criterionList = new ArrayList<>();
 							
 							for (String token : StringUtils.split(patientToken.getValue(), " \t,")) {
@@ -789,7 +858,7 @@ public abstract class BaseDao {
 								criterionList.add(propertyLike("pn.familyName", token));
 							}
 							
-							return Optional.of(or(toCriteriaArray(criterionList)));
+							return Optional.of(existsPatientName(or(toCriteriaArray(criterionList))));
 					}
 				} else {
 					return Optional.of(eq("p.uuid", patientToken.getValue()));
@@ -800,6 +869,16 @@ public abstract class BaseDao {
 		}
 	}
 	
+	private Criterion existsPatientIdentifier(Criterion identifierCriterion) {
+		return Subqueries.exists(DetachedCriteria.forClass(PatientIdentifier.class, "pi")
+		        .add(eqProperty("pi.patient", "p.id")).add(identifierCriterion).setProjection(Projections.id()));
+	}
+	
+	private Criterion existsPatientName(Criterion nameCriterion) {
+		return Subqueries.exists(DetachedCriteria.forClass(PersonName.class, "pn").add(eqProperty("pn.person", "p.id"))
+		        .add(nameCriterion).setProjection(Projections.id()));
+	}
+	
 	protected Optional<Criterion> handleCommonSearchParameters(List<PropParam<?>> theCommonParams) {
 		List<Optional<? extends Criterion>> criterionList = new ArrayList<>();
 		
@@ -9,9 +9,12 @@
  */
 package org.openmrs.module.fhir2.api.dao.impl;
 
+import static org.hibernate.criterion.Restrictions.eqProperty;
 import static org.openmrs.module.fhir2.FhirConstants.ENCOUNTER_TYPE_REFERENCE_SEARCH_HANDLER;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import ca.uhn.fhir.rest.param.DateRangeParam;
@@ -22,7 +25,10 @@ import ca.uhn.fhir.rest.param.TokenAndListParam;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Criteria;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
 import org.hl7.fhir.r4.model.MedicationRequest;
 import org.openmrs.Auditable;
 import org.openmrs.DrugOrder;
@@ -73,6 +79,7 @@ public abstract class BaseEncounterDao<T extends OpenmrsObject & Auditable> exte
 	protected void handleHasAndListParam(Criteria criteria, HasAndListParam hasAndListParam) {
 		if (hasAndListParam != null) {
 			log.debug("Handling hasAndListParam");
+			List<Criterion> orderRestrictions = new ArrayList<>();
 			hasAndListParam.getValuesAsQueryTokens().forEach(hasOrListParam -> {
 				if (!hasOrListParam.getValuesAsQueryTokens().isEmpty()) {
 					
@@ -90,20 +97,11 @@ public abstract class BaseEncounterDao<T extends OpenmrsObject & Auditable> exte
 					// Support constraining encounter resources to those that contain only certain Medication Requests
 					if (FhirConstants.MEDICATION_REQUEST.equals(hasParam.getTargetResourceType())) {
 						if (MedicationRequest.SP_ENCOUNTER.equals(hasParam.getReferenceFieldName())) {
-							if (lacksAlias(criteria, "orders")) {
-								if (Encounter.class.isAssignableFrom(typeToken.getRawType())) {
-									criteria.createAlias("orders", "orders");
-								} else {
-									if (lacksAlias(criteria, "en")) {
-										criteria.createAlias("encounters", "en");
-									}
-									criteria.createAlias("en.orders", "orders");
-								}
-							}
 							// Constrain only on non-voided Drug Orders
-							criteria.add(Restrictions.eq("orders.class", DrugOrder.class));
-							criteria.add(Restrictions.eq("orders.voided", false));
-							criteria.add(Restrictions.ne("orders.action", Order.Action.DISCONTINUE));
+							if (orderRestrictions.isEmpty()) {
+								orderRestrictions.add(Restrictions.eq("orders.voided", false));
+								orderRestrictions.add(Restrictions.ne("orders.action", Order.Action.DISCONTINUE));
+							}
 							
 							String paramName = hasParam.getParameterName();
 							String paramValue = hasParam.getParameterValue();
@@ -117,7 +115,7 @@ public abstract class BaseEncounterDao<T extends OpenmrsObject & Auditable> exte
 								if (paramValue != null) {
 									if (MedicationRequest.MedicationRequestStatus.ACTIVE.toString()
 									        .equalsIgnoreCase(paramValue)) {
-										criteria.add(generateActiveOrderQuery("orders"));
+										orderRestrictions.add(generateActiveOrderQuery("orders"));
 									}
 								}
 								handled = true;
@@ -125,24 +123,24 @@ public abstract class BaseEncounterDao<T extends OpenmrsObject & Auditable> exte
 								if (paramValue != null) {
 									if (MedicationRequest.MedicationRequestStatus.CANCELLED.toString()
 									        .equalsIgnoreCase(paramValue)) {
-										criteria.add(generateNotCancelledOrderQuery("orders"));
+										orderRestrictions.add(generateNotCancelledOrderQuery("orders"));
 									}
 									if (MedicationRequest.MedicationRequestStatus.COMPLETED.toString()
 									        .equalsIgnoreCase(paramValue)) {
 										Criterion notCompletedCriterion = generateNotCompletedOrderQuery("orders");
 										if (notCompletedCriterion != null) {
-											criteria.add(notCompletedCriterion);
+											orderRestrictions.add(notCompletedCriterion);
 										}
 									}
 								}
 								handled = true;
 							} else if ((FhirConstants.SP_FULFILLER_STATUS).equalsIgnoreCase(paramName)) {
 								if (paramValue != null) {
-									criteria.add(generateFulfillerStatusRestriction("orders", paramValue));
+									orderRestrictions.add(generateFulfillerStatusRestriction("orders", paramValue));
 								}
 							} else if ((FhirConstants.SP_FULFILLER_STATUS + ":not").equalsIgnoreCase(paramName)) {
 								if (paramValue != null) {
-									criteria.add(generateNotFulfillerStatusRestriction("orders", paramValue));
+									orderRestrictions.add(generateNotFulfillerStatusRestriction("orders", paramValue));
 								}
 							}
 						}
@@ -153,7 +151,31 @@ public abstract class BaseEncounterDao<T extends OpenmrsObject & Auditable> exte
 					
 				}
 			});
+			
+			if (!orderRestrictions.isEmpty()) {
+				DetachedCriteria ordersCriteria = createOrdersCriteria(criteria.getAlias());
+				orderRestrictions.forEach(ordersCriteria::add);
+				criteria.add(Subqueries.exists(ordersCriteria.setProjection(Projections.id())));
+			}
+		}
+	}
+	
+	/**
+	 * Creates the query over {@link DrugOrder}s used to handle _has parameters. The orders have the
+	 * alias {@code orders} and must be correlated with the row of the main query, so that the
+	 * restrictions can be applied as an {@code EXISTS} subquery instead of a join on the orders.
+	 *
+	 * @param rootAlias the alias of the root entity of the main query
+	 * @return a query over the drug orders that belong to the current row of the main query
+	 */
+	protected DetachedCriteria createOrdersCriteria(String rootAlias) {
+		if (Encounter.class.isAssignableFrom(typeToken.getRawType())) {
+			return DetachedCriteria.forClass(DrugOrder.class, "orders")
+			        .add(eqProperty("orders.encounter", rootAlias + ".id"));
 		}
+		
+		return DetachedCriteria.forClass(DrugOrder.class, "orders").createAlias("orders.encounter", "en")
+		        .add(eqProperty("en.visit", rootAlias + ".id"));
 	}
 	
 	protected abstract void handleDate(Criteria criteria, DateRangeParam dateRangeParam);
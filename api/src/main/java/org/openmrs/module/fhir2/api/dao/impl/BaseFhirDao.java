@@ -10,24 +10,31 @@
 package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hibernate.criterion.Restrictions.and;
+import static org.hibernate.criterion.Restrictions.between;
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.gt;
 import static org.hibernate.criterion.Restrictions.in;
 import static org.hibernate.criterion.Restrictions.isNull;
+import static org.hibernate.criterion.Restrictions.lt;
 import static org.hibernate.criterion.Restrictions.or;
 import static org.openmrs.module.fhir2.FhirConstants.COUNT_QUERY_CACHE;
 import static org.openmrs.module.fhir2.FhirConstants.EXACT_TOTAL_SEARCH_PARAMETER;
+import static org.openmrs.module.fhir2.api.util.InListUtils.chunkInList;
+import static org.openmrs.module.fhir2.api.util.InListUtils.padInList;
 
 import javax.annotation.Nonnull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import com.google.common.reflect.TypeToken;
 import lombok.AccessLevel;
@@ -35,11 +42,13 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.CacheMode;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.Hibernate;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
+import org.hibernate.metadata.ClassMetadata;
 import org.hibernate.proxy.HibernateProxy;
 import org.hl7.fhir.r4.model.DomainResource;
 import org.openmrs.Auditable;
@@ -53,6 +62,8 @@ import org.openmrs.api.handler.RetireHandler;
 import org.openmrs.api.handler.VoidHandler;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.PropParam;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -115,18 +126,22 @@ public abstract class BaseFhirDao<T extends OpenmrsObject & Auditable> extends B
 	@Transactional(readOnly = true)
 	@SuppressWarnings("unchecked")
 	public List<T> get(@Nonnull Collection<String> uuids) {
-		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType());
-		criteria.add(in("uuid", uuids));
-		
-		if (isVoidable) {
-			handleVoidable(criteria);
-		} else if (isRetireable) {
-			handleRetireable(criteria);
-		}
+		List<T> results = getInChunks(uuids, chunk -> {
+			Criteria criteria = sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType());
+			criteria.add(in("uuid", chunk));
+			
+			if (isVoidable) {
+				handleVoidable(criteria);
+			} else if (isRetireable) {
+				handleRetireable(criteria);
+			}
+			
+			return (List<T>) criteria.list();
+		}, OpenmrsObject::getUuid);
 		
-		List<T> results = criteria.list();
+		prefetch(results);
 		
-		return results.stream().filter(Objects::nonNull).map(this::deproxyResult).collect(Collectors.toList());
+		return results.stream().map(this::deproxyResult).collect(Collectors.toList());
 	}
 	
 	@Override
@@ -155,6 +170,12 @@ public abstract class BaseFhirDao<T extends OpenmrsObject & Auditable> extends B
 		return existing;
 	}
 	
+	/**
+	 * Builds the criteria for a search. The criteria are built again for every search rather than cached
+	 * by the shape of the search parameters: Hibernate translates a {@link Criteria} to SQL each time it
+	 * is executed and offers no compiled form of it that could be reused with new values, so a cache of
+	 * search plans would only save building the criteria, which is cheap compared to running the query.
+	 */
 	private Criteria getSearchResultCriteria(SearchParameterMap theParams) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType());
 		
@@ -193,7 +214,45 @@ public abstract class BaseFhirDao<T extends OpenmrsObject & Auditable> extends B
 		}
 	}
 	
+	@Override
+	public int getSearchResultsCountEstimate(@Nonnull SearchParameterMap theParams, int sampleSize) {
+		Object[] idRange = (Object[]) sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType())
+		        .setProjection(Projections.projectionList().add(Projections.min("id")).add(Projections.max("id")))
+		        .uniqueResult();
+		if (idRange == null || idRange[0] == null) {
+			return 0;
+		}
+		
+		// only the results within the first sampleSize ids of the table are counted; the rest of the table is
+		// assumed to match the search at the same rate
+		int minId = (Integer) idRange[0];
+		long idCount = (long) (Integer) idRange[1] - minId + 1;
+		int windowSize = Math.max(sampleSize, 1);
+		
+		Criteria criteria = getSearchResultCriteria(theParams);
+		if (idCount > windowSize) {
+			criteria.add(between("id", minId, (int) Math.min(Integer.MAX_VALUE, (long) minId + windowSize - 1)));
+		}
+		
+		if (hasDistinctResults()) {
+			criteria.setProjection(Projections.rowCount());
+		} else {
+			criteria.setProjection(Projections.countDistinct("id"));
+		}
+		
+		long sampledResults = (Long) criteria.uniqueResult();
+		if (idCount <= windowSize) {
+			return (int) sampledResults;
+		}
+		
+		return (int) Math.min(Integer.MAX_VALUE, Math.round((double) sampledResults * idCount / windowSize));
+	}
+	
 	protected void applyExactTotal(SearchParameterMap theParams, Criteria criteria) {
+		if (theParams.getTotalMode() == SearchTotalModeEnum.ACCURATE) {
+			criteria.setCacheMode(CacheMode.REFRESH);
+			return;
+		}
 		
 		List<PropParam<?>> exactTotal = theParams.getParameters(EXACT_TOTAL_SEARCH_PARAMETER);
 		if (!exactTotal.isEmpty()) {
@@ -203,6 +262,7 @@ public abstract class BaseFhirDao<T extends OpenmrsObject & Auditable> extends B
 			}
 		} else {
 			criteria.setCacheable(true);
+			// cached counts are invalidated by Hibernate whenever one of the tables they were read from is written
 			criteria.setCacheRegion(COUNT_QUERY_CACHE);
 		}
 	}
@@ -210,46 +270,250 @@ public abstract class BaseFhirDao<T extends OpenmrsObject & Auditable> extends B
 	@Override
 	public List<T> getSearchResults(@Nonnull SearchParameterMap theParams) {
 		Criteria criteria = getSearchResultCriteria(theParams);
+		List<org.hibernate.criterion.Order> orders = addSearchResultOrders(criteria, theParams);
+		criteria.setFirstResult(theParams.getFromIndex());
+		
+		List<T> results = listSearchResults(criteria, theParams, orders);
+		
+		prefetch(results);
+		
+		return results.stream().map(this::deproxyResult).collect(Collectors.toList());
+	}
+	
+	@Override
+	public Optional<KeysetPage<T>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor) {
+		Criteria criteria = getSearchResultCriteria(theParams);
+		List<org.hibernate.criterion.Order> orders = addSearchResultOrders(criteria, theParams);
+		if (!supportsKeysetPaging(orders)) {
+			return Optional.empty();
+		}
 		
-		handleSort(criteria, theParams.getSortSpec());
+		if (cursor != null && cursor.getOffset() == theParams.getFromIndex()) {
+			criteria.add(handleKeysetCursor(orders, cursor));
+		} else {
+			criteria.setFirstResult(theParams.getFromIndex());
+		}
+		
+		List<T> results = listSearchResults(criteria, theParams, orders);
+		KeysetCursor nextCursor = createKeysetCursor(orders, theParams.getFromIndex(), results).orElse(null);
+		
+		prefetch(results);
+		
+		return Optional.of(
+		    new KeysetPage<>(results.stream().map(this::deproxyResult).collect(Collectors.toList()), nextCursor));
+	}
+	
+	private List<org.hibernate.criterion.Order> addSearchResultOrders(Criteria criteria, SearchParameterMap theParams) {
+		List<org.hibernate.criterion.Order> orders = handleSort(criteria, theParams.getSortSpec(), this::paramToProps)
+		        .orElse(Collections.emptyList());
+		orders.forEach(criteria::addOrder);
 		criteria.addOrder(org.hibernate.criterion.Order.asc("id"));
 		
-		criteria.setFirstResult(theParams.getFromIndex());
+		return orders;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<T> listSearchResults(Criteria criteria, SearchParameterMap theParams,
+	        List<org.hibernate.criterion.Order> orders) {
 		if (theParams.getToIndex() != Integer.MAX_VALUE) {
 			int maxResults = theParams.getToIndex() - theParams.getFromIndex();
 			criteria.setMaxResults(maxResults);
 		}
 		
-		List<T> results;
 		if (hasDistinctResults()) {
-			results = criteria.list();
+			return criteria.list();
+		}
+		
+		ProjectionList projectionList = Projections.projectionList();
+		projectionList.add(Projections.distinct(Projections.projectionList().add(Projections.property("id"))));
+		// Sort parameters must be included in projections
+		orders.forEach(order -> projectionList.add(Projections.property(order.getPropertyName())));
+		criteria.setProjection(projectionList);
+		List<Integer> ids = new ArrayList<>();
+		if (projectionList.getLength() > 1) {
+			for (Object[] o : ((List<Object[]>) criteria.list())) {
+				ids.add((Integer) o[0]);
+			}
 		} else {
-			ProjectionList projectionList = Projections.projectionList();
-			projectionList.add(Projections.distinct(Projections.projectionList().add(Projections.property("id"))));
-			// Sort parameters must be included in projections
-			handleSort(criteria, theParams.getSortSpec(), this::paramToProps).ifPresent(orders -> orders.forEach(order -> {
-				projectionList.add(Projections.property(order.getPropertyName()));
-			}));
-			criteria.setProjection(projectionList);
-			List<Integer> ids = new ArrayList<>();
-			if (projectionList.getLength() > 1) {
-				for (Object[] o : ((List<Object[]>) criteria.list())) {
-					ids.add((Integer) o[0]);
+			ids = criteria.list();
+		}
+		
+		// Use distinct ids from the original query to return entire objects; these are loaded in the order of
+		// the ids, which already reflects the requested sort
+		return getByIdsInOrder(ids);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	@SuppressWarnings("unchecked")
+	public Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults) {
+		Criteria criteria = getSearchResultCriteria(theParams);
+		
+		handleSort(criteria, theParams.getSortSpec(), this::paramToProps).orElse(Collections.emptyList())
+		        .forEach(criteria::addOrder);
+		criteria.addOrder(org.hibernate.criterion.Order.asc("id"));
+		
+		criteria.setProjection(Projections.id());
+		// a search that produces duplicate rows may need more than maxResults rows to fill maxResults ids; in that
+		// case we give up rather than risk truncating the results
+		criteria.setMaxResults(maxResults + 1);
+		
+		List<Integer> rows = criteria.list();
+		if (rows.size() > maxResults) {
+			return Optional.empty();
+		}
+		
+		return Optional.of(new ArrayList<>(new LinkedHashSet<>(rows)));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	@SuppressWarnings("unchecked")
+	public List<T> getByIds(@Nonnull List<Integer> ids) {
+		List<T> results = getByIdsInOrder(ids);
+		
+		prefetch(results);
+		
+		return results.stream().map(this::deproxyResult).collect(Collectors.toList());
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public void prefetchByIds(@Nonnull List<Integer> ids) {
+		if (!ids.isEmpty()) {
+			prefetch(getByIdsInOrder(ids));
+		}
+	}
+	
+	/**
+	 * Override to return the association paths, e.g. {@code "concept.names"}, that the translator for
+	 * this Dao's entities navigates. After a page of search results or a set of entities requested by
+	 * uuid or id has been loaded, every association along each of these paths is initialised for the
+	 * whole page with one join-fetch query per path, rather than one query per entity and association
+	 * while the page is translated. Since each path is fetched by a separate query, a path should
+	 * contain at most one collection.
+	 *
+	 * @return the association paths to prefetch for loaded entities
+	 */
+	protected List<String> getPrefetchPaths() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Initialises the associations returned by {@link #getPrefetchPaths()} for the given entities, which
+	 * must be attached to the current session
+	 *
+	 * @param entities the entities to initialise the associations of
+	 */
+	protected void prefetch(List<T> entities) {
+		List<String> prefetchPaths = getPrefetchPaths();
+		if (prefetchPaths.isEmpty() || entities.isEmpty()) {
+			return;
+		}
+		
+		List<List<Integer>> idChunks = chunkInList(entities.stream().map(OpenmrsObject::getId).collect(Collectors.toList()));
+		for (String prefetchPath : prefetchPaths) {
+			for (List<Integer> idChunk : idChunks) {
+				Criteria criteria = sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType())
+				        .add(in("id", padInList(idChunk)));
+				
+				// every association along the path needs to be join fetched for the last one to be reached
+				for (int i = prefetchPath.indexOf('.'); i >= 0; i = prefetchPath.indexOf('.', i + 1)) {
+					criteria.setFetchMode(prefetchPath.substring(0, i), FetchMode.JOIN);
 				}
-			} else {
-				ids = criteria.list();
+				criteria.setFetchMode(prefetchPath, FetchMode.JOIN);
+				
+				// the results are the entities already in the session, now with the fetched associations initialised
+				criteria.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY).list();
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<T> getByIdsInOrder(List<Integer> ids) {
+		return getInChunks(ids, chunk -> (List<T>) sessionFactory.getCurrentSession()
+		        .createCriteria(typeToken.getRawType()).add(in("id", chunk)).list(), OpenmrsObject::getId);
+	}
+	
+	/**
+	 * Determines whether the given orderings can be used for keyset pagination. This is only the case
+	 * if every ordering is a plain ordering on a non-nullable property of the entity itself, since the
+	 * position of nulls in the sort order differs between databases.
+	 *
+	 * @param orders the orderings applied to the search, not including the final ordering by id
+	 * @return true if keyset pagination can be used for this search, false otherwise
+	 */
+	protected boolean supportsKeysetPaging(List<org.hibernate.criterion.Order> orders) {
+		ClassMetadata metadata = sessionFactory.getClassMetadata(typeToken.getRawType());
+		if (metadata == null) {
+			return false;
+		}
+		
+		List<String> propertyNames = Arrays.asList(metadata.getPropertyNames());
+		boolean[] propertyNullability = metadata.getPropertyNullability();
+		for (org.hibernate.criterion.Order order : orders) {
+			if (order.getClass() != org.hibernate.criterion.Order.class) {
+				return false;
 			}
 			
-			// Use distinct ids from the original query to return entire objects
-			Criteria idsCriteria = sessionFactory.getCurrentSession().createCriteria(typeToken.getRawType())
-			        .add(in("id", ids));
-			// Need to reapply ordering
-			handleSort(idsCriteria, theParams.getSortSpec());
-			idsCriteria.addOrder(org.hibernate.criterion.Order.asc("id"));
+			int propertyIndex = propertyNames.indexOf(order.getPropertyName());
+			if (propertyIndex < 0 || propertyNullability[propertyIndex]) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Generates the seek predicate for a keyset cursor, i.e., the expanded form of
+	 * {@code (sortKey1, ..., sortKeyN, id) > (?, ..., ?, ?)} honouring the direction of each ordering.
+	 *
+	 * @param orders the orderings applied to the search, not including the final ordering by id
+	 * @param cursor the cursor describing the last row of the previous page
+	 * @return a criterion that matches only rows after the cursor
+	 */
+	protected Criterion handleKeysetCursor(List<org.hibernate.criterion.Order> orders, KeysetCursor cursor) {
+		Object[] sortValues = cursor.getSortValues();
+		List<Criterion> equalities = new ArrayList<>(orders.size());
+		List<Criterion> seekCriteria = new ArrayList<>(orders.size() + 1);
+		
+		for (int i = 0; i < orders.size(); i++) {
+			org.hibernate.criterion.Order order = orders.get(i);
+			String propertyName = order.getPropertyName();
+			
+			List<Criterion> seekCriterion = new ArrayList<>(equalities);
+			seekCriterion.add(order.isAscending() ? gt(propertyName, sortValues[i]) : lt(propertyName, sortValues[i]));
+			seekCriteria.add(and(seekCriterion.toArray(new Criterion[0])));
 			
-			results = idsCriteria.list();
+			equalities.add(eq(propertyName, sortValues[i]));
 		}
-		return results.stream().map(this::deproxyResult).collect(Collectors.toList());
+		
+		equalities.add(gt("id", cursor.getId()));
+		seekCriteria.add(and(equalities.toArray(new Criterion[0])));
+		
+		return or(seekCriteria.toArray(new Criterion[0]));
+	}
+	
+	protected Optional<KeysetCursor> createKeysetCursor(List<org.hibernate.criterion.Order> orders, int fromIndex,
+	        List<T> results) {
+		if (results.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		T lastResult = results.get(results.size() - 1);
+		ClassMetadata metadata = sessionFactory.getClassMetadata(typeToken.getRawType());
+		
+		Object[] sortValues = new Object[orders.size()];
+		for (int i = 0; i < orders.size(); i++) {
+			sortValues[i] = metadata.getPropertyValue(lastResult, orders.get(i).getPropertyName());
+			if (sortValues[i] == null) {
+				return Optional.empty();
+			}
+		}
+		
+		return Optional.of(new KeysetCursor(fromIndex + results.size(), sortValues,
+		        sessionFactory.getCurrentSession().getIdentifier(lastResult)));
 	}
 	
 	@Override
@@ -13,6 +13,9 @@ import static org.hibernate.criterion.Restrictions.eq;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -38,6 +41,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PROTECTED)
 public class FhirAllergyIntoleranceDaoImpl extends BaseFhirDao<Allergy> implements FhirAllergyIntoleranceDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("allergen.codedAllergen",
+	    "patient", "reactions.reaction"));
+	
 	@Autowired
 	private FhirGlobalPropertyService globalPropertyService;
 	
@@ -167,4 +173,9 @@ public class FhirAllergyIntoleranceDaoImpl extends BaseFhirDao<Allergy> implemen
 		
 		return super.paramToProp(param);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -17,6 +17,7 @@ import static org.openmrs.module.fhir2.FhirConstants.TITLE_SEARCH_HANDLER;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +42,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirConceptDaoImpl extends BaseFhirDao<Concept> implements FhirConceptDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("names",
+	    "conceptSets.concept"));
+	
 	@Autowired
 	private ConceptService conceptService;
 	
@@ -118,4 +122,9 @@ public class FhirConceptDaoImpl extends BaseFhirDao<Concept> implements FhirConc
 		criteria.createAlias("names", "csn");
 		handleAndListParam(titlePattern, (title) -> propertyLike("csn.name", title)).ifPresent(criteria::add);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -46,6 +46,11 @@ public class FhirConceptSourceDaoImpl implements FhirConceptSourceDao {
 		return sessionFactory.getCurrentSession().createCriteria(FhirConceptSource.class).list();
 	}
 	
+	@Override
+	public Optional<FhirConceptSource> getFhirConceptSourceById(@Nonnull Integer id) {
+		return Optional.ofNullable((FhirConceptSource) sessionFactory.getCurrentSession().get(FhirConceptSource.class, id));
+	}
+	
 	@Override
 	public Optional<FhirConceptSource> getFhirConceptSourceByUrl(@Nonnull String url) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(FhirConceptSource.class);
@@ -68,6 +73,18 @@ public class FhirConceptSourceDaoImpl implements FhirConceptSourceDao {
 		return Optional.ofNullable((FhirConceptSource) criteria.uniqueResult());
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	@SuppressWarnings("unchecked")
+	public Collection<ConceptSource> getConceptSources() {
+		return sessionFactory.getCurrentSession().createCriteria(ConceptSource.class).list();
+	}
+	
+	@Override
+	public Optional<ConceptSource> getConceptSourceById(@Nonnull Integer id) {
+		return Optional.ofNullable((ConceptSource) sessionFactory.getCurrentSession().get(ConceptSource.class, id));
+	}
+	
 	@Override
 	public Optional<ConceptSource> getConceptSourceByHl7Code(@Nonnull String hl7Code) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(ConceptSource.class);
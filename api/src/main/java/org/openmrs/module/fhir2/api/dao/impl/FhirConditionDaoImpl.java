@@ -13,6 +13,8 @@ import static org.hibernate.criterion.Restrictions.eq;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +32,8 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.annotation.OpenmrsProfile;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirConditionDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.util.PrivilegeConstants;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +45,8 @@ import org.springframework.stereotype.Component;
 @OpenmrsProfile(openmrsPlatformVersion = "2.0.5 - 2.1.*")
 public class FhirConditionDaoImpl extends BaseFhirDao<Obs> implements FhirConditionDao<Obs> {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("valueCoded", "person"));
+	
 	@Qualifier("sessionFactory")
 	@Autowired
 	private SessionFactory sessionFactory;
@@ -69,6 +75,30 @@ public class FhirConditionDaoImpl extends BaseFhirDao<Obs> implements FhirCondit
 		return super.getSearchResults(theParams);
 	}
 	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults) {
+		return super.getSearchResultIds(theParams, maxResults);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public Optional<KeysetPage<Obs>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor) {
+		return super.getSearchResultsPage(theParams, cursor);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public List<Obs> getByIds(@Nonnull List<Integer> ids) {
+		return super.getByIds(ids);
+	}
+	
+	@Override
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public void prefetchByIds(@Nonnull List<Integer> ids) {
+		super.prefetchByIds(ids);
+	}
+	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		criteria.createAlias("concept", "c");
@@ -125,4 +155,9 @@ public class FhirConditionDaoImpl extends BaseFhirDao<Obs> implements FhirCondit
 		
 		return super.paramToProp(param);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
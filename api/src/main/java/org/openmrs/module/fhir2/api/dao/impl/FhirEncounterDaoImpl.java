@@ -9,16 +9,17 @@
  */
 package org.openmrs.module.fhir2.api.dao.impl;
 
-import static org.hibernate.criterion.Projections.property;
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.eqProperty;
+import static org.hibernate.criterion.Restrictions.gtProperty;
 import static org.hl7.fhir.r4.model.Encounter.SP_DATE;
-import static org.openmrs.module.fhir2.api.util.LastnOperationUtils.getTopNRankedIds;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.NumberParam;
@@ -27,13 +28,15 @@ import ca.uhn.fhir.rest.param.TokenAndListParam;
 import lombok.AccessLevel;
 import lombok.Setter;
 import org.hibernate.Criteria;
+import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Subqueries;
 import org.openmrs.Encounter;
+import org.openmrs.EncounterProvider;
 import org.openmrs.annotation.OpenmrsProfile;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirEncounterDao;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
-import org.openmrs.module.fhir2.api.util.LastnResult;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -41,40 +44,36 @@ import org.springframework.stereotype.Component;
 @OpenmrsProfile(openmrsPlatformVersion = "2.0.5 - 2.1.*")
 public class FhirEncounterDaoImpl extends BaseEncounterDao<Encounter> implements FhirEncounterDao {
 	
-	@Override
-	public boolean hasDistinctResults() {
-		return false;
-	}
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(
+	    Arrays.asList("encounterProviders.provider", "encounterType", "location", "patient", "visit"));
 	
 	@Override
-	public List<String> getSearchResultUuids(@Nonnull SearchParameterMap theParams) {
+	public DetachedCriteria getSearchResultIdsCriteria(@Nonnull SearchParameterMap theParams) {
+		DetachedCriteria encounterCriteria = createSearchCriteria("enc", theParams);
+		
 		if (!theParams.getParameters(FhirConstants.LASTN_ENCOUNTERS_SEARCH_HANDLER).isEmpty()) {
-			Criteria criteria = getSessionFactory().getCurrentSession().createCriteria(Encounter.class);
-			
-			setupSearchParams(criteria, theParams);
-			
-			criteria.setProjection(Projections.projectionList().add(property("uuid")).add(property("encounterDatetime")));
-			
-			@SuppressWarnings("unchecked")
-			List<LastnResult<String>> results = ((List<Object[]>) criteria.list()).stream()
-			        .map(array -> new LastnResult<String>(array)).collect(Collectors.toList());
-			
-			return getTopNRankedIds(results, getMaxParameter(theParams));
+			// an encounter is within the top N if fewer than N distinct later dates match the search, i.e. its date has
+			// a dense rank of at most N; encounters sharing a date are either all kept or all dropped
+			DetachedCriteria laterDates = createSearchCriteria("laterEnc", theParams)
+			        .add(gtProperty("laterEnc.encounterDatetime", "enc.encounterDatetime"))
+			        .setProjection(Projections.countDistinct("laterEnc.encounterDatetime"));
+			encounterCriteria.add(Subqueries.gt((long) getMaxParameter(theParams), laterDates));
 		}
 		
-		Criteria criteria = getSessionFactory().getCurrentSession().createCriteria(Encounter.class);
-		
+		return encounterCriteria.setProjection(Projections.id());
+	}
+	
+	/**
+	 * Creates a query over the encounters which match the given search and are not voided. The search
+	 * handlers work on a {@link Criteria}, so they are applied once through the executable view of the
+	 * detached criteria, which holds the same restrictions and aliases.
+	 */
+	private DetachedCriteria createSearchCriteria(String alias, SearchParameterMap theParams) {
+		DetachedCriteria detachedCriteria = DetachedCriteria.forClass(Encounter.class, alias);
+		Criteria criteria = detachedCriteria.getExecutableCriteria(getSessionFactory().getCurrentSession());
 		handleVoidable(criteria);
-		
 		setupSearchParams(criteria, theParams);
-		handleSort(criteria, theParams.getSortSpec());
-		
-		criteria.setProjection(Projections.property("uuid"));
-		
-		@SuppressWarnings("unchecked")
-		List<String> results = criteria.list();
-		
-		return results.stream().distinct().collect(Collectors.toList());
+		return detachedCriteria;
 	}
 	
 	private int getMaxParameter(SearchParameterMap theParams) {
@@ -95,8 +94,8 @@ public class FhirEncounterDaoImpl extends BaseEncounterDao<Encounter> implements
 	
 	@Override
 	protected void handleParticipant(Criteria criteria, ReferenceAndListParam referenceAndListParam) {
-		criteria.createAlias("encounterProviders", "ep");
-		handleParticipantReference(criteria, referenceAndListParam);
+		handleParticipantReference(referenceAndListParam, () -> DetachedCriteria.forClass(EncounterProvider.class, "ep")
+		        .add(eqProperty("ep.encounter", criteria.getAlias() + ".id"))).ifPresent(criteria::add);
 	}
 	
 	@Override
@@ -108,4 +107,9 @@ public class FhirEncounterDaoImpl extends BaseEncounterDao<Encounter> implements
 				return null;
 		}
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
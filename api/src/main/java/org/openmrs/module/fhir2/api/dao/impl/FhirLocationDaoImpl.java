@@ -13,6 +13,8 @@ import static org.hibernate.criterion.Restrictions.eq;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +40,8 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirLocationDaoImpl extends BaseFhirDao<Location> implements FhirLocationDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("tags", "parentLocation"));
+	
 	@Autowired
 	LocationService locationService;
 	
@@ -148,4 +152,9 @@ public class FhirLocationDaoImpl extends BaseFhirDao<Location> implements FhirLo
 	public LocationAttributeType getLocationAttributeTypeByUuid(String uuid) {
 		return locationService.getLocationAttributeTypeByUuid(uuid);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -9,6 +9,10 @@
  */
 package org.openmrs.module.fhir2.api.dao.impl;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import lombok.AccessLevel;
 import lombok.Setter;
@@ -27,6 +31,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirMedicationDaoImpl extends BaseFhirDao<Drug> implements FhirMedicationDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("concept", "dosageForm",
+	    "ingredients.ingredient"));
+	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		theParams.getParameters().forEach(entry -> {
@@ -71,4 +78,9 @@ public class FhirMedicationDaoImpl extends BaseFhirDao<Drug> implements FhirMedi
 			handleCodeableConcept(criteria, dosageForm, "dc", "dcm", "dcrt").ifPresent(criteria::add);
 		}
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -11,7 +11,9 @@ package org.openmrs.module.fhir2.api.dao.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -29,6 +31,8 @@ import org.openmrs.Order;
 import org.openmrs.annotation.OpenmrsProfile;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirMedicationRequestDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +42,9 @@ import org.springframework.transaction.annotation.Transactional;
 @OpenmrsProfile(openmrsPlatformVersion = "2.0.5 - 2.1.*")
 public class FhirMedicationRequestDaoImpl extends BaseFhirDao<DrugOrder> implements FhirMedicationRequestDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("drug", "concept",
+	    "orderer", "encounter", "patient", "previousOrder"));
+	
 	@Override
 	@Transactional(readOnly = true)
 	public DrugOrder get(@Nonnull String uuid) {
@@ -73,6 +80,15 @@ public class FhirMedicationRequestDaoImpl extends BaseFhirDao<DrugOrder> impleme
 		
 	}
 	
+	@Override
+	public Optional<KeysetPage<DrugOrder>> getSearchResultsPage(@Nonnull SearchParameterMap theParams,
+	        KeysetCursor cursor) {
+		// the cursor still describes the last row loaded, so the following page starts after any filtered order
+		return super.getSearchResultsPage(theParams, cursor).map(page -> new KeysetPage<>(page.getResults().stream()
+		        .filter(order -> order.getAction() == null || order.getAction() != Order.Action.DISCONTINUE)
+		        .collect(Collectors.toList()), page.getNextCursor()));
+	}
+	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		theParams.getParameters().forEach(entry -> {
@@ -139,4 +155,9 @@ public class FhirMedicationRequestDaoImpl extends BaseFhirDao<DrugOrder> impleme
 		// exclude "discontinue" orders, see: https://issues.openmrs.org/browse/FM2-532
 		criteria.add(Restrictions.ne("action", Order.Action.DISCONTINUE));
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
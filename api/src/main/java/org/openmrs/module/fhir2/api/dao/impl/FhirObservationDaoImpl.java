@@ -10,11 +10,16 @@
 package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.eqProperty;
+import static org.hibernate.criterion.Restrictions.gtProperty;
+import static org.hibernate.criterion.Restrictions.in;
+import static org.hibernate.criterion.Restrictions.sqlRestriction;
+import static org.openmrs.module.fhir2.api.util.InListUtils.padInList;
 
 import javax.annotation.Nonnull;
 
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -23,24 +28,24 @@ import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.NumberParam;
 import ca.uhn.fhir.rest.param.QuantityAndListParam;
 import ca.uhn.fhir.rest.param.ReferenceAndListParam;
-import ca.uhn.fhir.rest.param.ReferenceOrListParam;
-import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.StringAndListParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Subqueries;
 import org.hl7.fhir.r4.model.Observation;
-import org.openmrs.Concept;
 import org.openmrs.Obs;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirEncounterDao;
 import org.openmrs.module.fhir2.api.dao.FhirObservationDao;
 import org.openmrs.module.fhir2.api.mappings.ObservationCategoryMap;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -48,6 +53,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObservationDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("concept.names",
+	    "concept.conceptMappings.conceptReferenceTerm.conceptSource", "concept.conceptClass", "encounter", "person",
+	    "groupMembers", "order"));
+	
 	@Autowired
 	private ObservationCategoryMap categoryMap;
 	
@@ -55,108 +64,104 @@ public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObse
 	private FhirEncounterDao encounterDao;
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public List<Obs> getSearchResults(@Nonnull SearchParameterMap theParams) {
 		if (!theParams.getParameters(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER).isEmpty()) {
-			Criteria criteria = getSessionFactory().getCurrentSession().createCriteria(typeToken.getRawType());
+			Criteria criteria = createLastnCriteria(theParams);
+			criteria.addOrder(Order.asc("concept")).addOrder(Order.desc("obsDatetime")).addOrder(Order.asc("id"));
 			
-			setupSearchParams(criteria, theParams);
+			criteria.setFirstResult(theParams.getFromIndex());
+			if (theParams.getToIndex() != Integer.MAX_VALUE) {
+				criteria.setMaxResults(theParams.getToIndex() - theParams.getFromIndex());
+			}
 			
-			criteria.addOrder(Order.asc("concept")).addOrder(Order.desc("obsDatetime"));
+			List<Obs> results = criteria.list();
 			
-			List<Obs> results = new ArrayList<>();
-			int firstResult = 0;
-			final int maxGroupCount = getMaxParameter(theParams);
-			final int batchSize = 100;
-			Concept prevConcept = null;
-			Date prevObsDatetime = null;
-			int groupCount = maxGroupCount;
-			while (results.size() < theParams.getToIndex()) {
-				criteria.setFirstResult(firstResult);
-				criteria.setMaxResults(batchSize);
-				List<Obs> observations = criteria.list();
-				for (Obs obs : observations) {
-					if (prevConcept == obs.getConcept()) {
-						if (groupCount > 0 || obs.getObsDatetime().equals(prevObsDatetime)) {
-							//Load only as many results as requested per group or more if time matches
-							if (!obs.getObsDatetime().equals(prevObsDatetime)) {
-								groupCount--;
-							}
-							prevObsDatetime = obs.getObsDatetime();
-							results.add(obs);
-						}
-					} else {
-						prevConcept = obs.getConcept();
-						prevObsDatetime = obs.getObsDatetime();
-						groupCount = maxGroupCount;
-						results.add(obs);
-						groupCount--;
-					}
-					
-					if (results.size() >= theParams.getToIndex()) {
-						//Load only as many results as requested per page
-						break;
-					}
-				}
-				
-				if (observations.size() < batchSize) {
-					break;
-				} else {
-					firstResult += batchSize;
-				}
-			}
+			prefetch(results);
 			
-			int toIndex = results.size() > theParams.getToIndex() ? theParams.getToIndex() : results.size();
-			return results.subList(theParams.getFromIndex(), toIndex).stream().map(this::deproxyResult)
-			        .collect(Collectors.toList());
+			return results.stream().map(this::deproxyResult).collect(Collectors.toList());
 		}
 		
 		return super.getSearchResults(theParams);
 	}
 	
+	@Override
+	public Optional<KeysetPage<Obs>> getSearchResultsPage(@Nonnull SearchParameterMap theParams, KeysetCursor cursor) {
+		// the rank limit of $lastn is not expressed by the sort order, so those results are always paged by offset
+		if (!theParams.getParameters(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER).isEmpty()) {
+			return Optional.empty();
+		}
+		
+		return super.getSearchResultsPage(theParams, cursor);
+	}
+	
 	@Override
 	public int getSearchResultsCount(@Nonnull SearchParameterMap theParams) {
 		if (!theParams.getParameters(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER).isEmpty()) {
-			Criteria criteria = getSessionFactory().getCurrentSession().createCriteria(typeToken.getRawType());
-			setupSearchParams(criteria, theParams);
-			criteria.addOrder(Order.asc("concept")).addOrder(Order.desc("obsDatetime"));
-			criteria.setProjection(Projections.projectionList().add(Projections.groupProperty("concept.id"))
-			        .add(Projections.groupProperty("obsDatetime")).add(Projections.rowCount()));
+			Criteria criteria = createLastnCriteria(theParams);
 			applyExactTotal(theParams, criteria);
-			List<Object[]> rows = criteria.list();
-			final int maxGroupCount = getMaxParameter(theParams);
-			int groupCount = maxGroupCount;
-			int count = 0;
-			Integer prevConceptId = null;
-			for (Object[] row : rows) {
-				Integer conceptId = (Integer) row[0];
-				Long rowCount = (Long) row[2];
-				if (!conceptId.equals(prevConceptId)) {
-					groupCount = maxGroupCount;
-				}
-				if (groupCount > 0) {
-					count += rowCount;
-					groupCount--;
-				}
-				prevConceptId = conceptId;
+			return ((Long) criteria.setProjection(Projections.rowCount()).uniqueResult()).intValue();
+		}
+		
+		return super.getSearchResultsCount(theParams);
+	}
+	
+	@Override
+	public int getSearchResultsCountEstimate(@Nonnull SearchParameterMap theParams, int sampleSize) {
+		// $lastn results are bounded by the number of concepts and dates requested, so they are always counted
+		if (!theParams.getParameters(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER).isEmpty()) {
+			return getSearchResultsCount(theParams);
+		}
+		
+		return super.getSearchResultsCountEstimate(theParams, sampleSize);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public Optional<List<Integer>> getSearchResultIds(@Nonnull SearchParameterMap theParams, int maxResults) {
+		if (!theParams.getParameters(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER).isEmpty()) {
+			Criteria criteria = createLastnCriteria(theParams);
+			criteria.addOrder(Order.asc("concept")).addOrder(Order.desc("obsDatetime")).addOrder(Order.asc("id"));
+			criteria.setProjection(Projections.id()).setMaxResults(maxResults + 1);
+			
+			List<Integer> ids = criteria.list();
+			if (ids.size() > maxResults) {
+				return Optional.empty();
 			}
 			
-			return count;
+			return Optional.of(ids);
 		}
-		return super.getSearchResultsCount(theParams);
+		
+		return super.getSearchResultIds(theParams, maxResults);
+	}
+	
+	/**
+	 * Creates the criteria for a $lastn search, i.e. the obs matching the search parameters that fall
+	 * within the {@code max} most recent distinct dates for their concept. The rank of each obs is
+	 * applied in the database as a correlated subquery counting the distinct later dates of the
+	 * matching obs for the same concept, which must be fewer than {@code max}. Obs sharing a date are
+	 * therefore ranked together.
+	 *
+	 * @param theParams the parameters for the search
+	 * @return the criteria matching the obs to return
+	 */
+	private Criteria createLastnCriteria(SearchParameterMap theParams) {
+		Criteria criteria = getSessionFactory().getCurrentSession().createCriteria(typeToken.getRawType());
+		setupSearchParams(criteria, theParams);
+		
+		DetachedCriteria laterObs = DetachedCriteria.forClass(Obs.class, "laterObs");
+		setupSearchParams(laterObs.getExecutableCriteria(getSessionFactory().getCurrentSession()), theParams);
+		laterObs.add(eqProperty("laterObs.concept", criteria.getAlias() + ".concept"))
+		        .add(gtProperty("laterObs.obsDatetime", criteria.getAlias() + ".obsDatetime"))
+		        .setProjection(Projections.countDistinct("laterObs.obsDatetime"));
+		
+		return criteria.add(Subqueries.gt((long) getMaxParameter(theParams), laterObs));
 	}
 	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		if (!theParams.getParameters(FhirConstants.LASTN_ENCOUNTERS_SEARCH_HANDLER).isEmpty()) {
-			ReferenceAndListParam encountersReferences = new ReferenceAndListParam();
-			ReferenceOrListParam referenceOrListParam = new ReferenceOrListParam();
-			
-			List<String> encounters = encounterDao.getSearchResultUuids(theParams);
-			
-			encounters.forEach(encounter -> referenceOrListParam.addOr(new ReferenceParam().setValue(encounter)));
-			encountersReferences.addAnd(referenceOrListParam);
-			
-			theParams.addParameter(FhirConstants.ENCOUNTER_REFERENCE_SEARCH_HANDLER, encountersReferences);
+			criteria.add(Subqueries.propertyIn("encounter", encounterDao.getSearchResultIdsCriteria(theParams)));
 		}
 		
 		theParams.getParameters().forEach(entry -> {
@@ -206,32 +211,28 @@ public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObse
 	}
 	
 	private void handleHasMemberReference(Criteria criteria, ReferenceAndListParam hasMemberReference) {
-		if (hasMemberReference != null) {
-			if (lacksAlias(criteria, "gm")) {
-				criteria.createAlias("groupMembers", "gm");
-			}
+		handleAndListParam(hasMemberReference, hasMemberRef -> {
+			DetachedCriteria groupMemberCriteria = DetachedCriteria.forClass(Obs.class, "gm")
+			        .add(eqProperty("gm.obsGroup", criteria.getAlias() + ".id")).add(eq("gm.voided", false))
+			        .setProjection(Projections.id());
 			
-			handleAndListParam(hasMemberReference, hasMemberRef -> {
-				if (hasMemberRef.getChain() != null) {
-					if (Observation.SP_CODE.equals(hasMemberRef.getChain())) {
-						TokenAndListParam code = new TokenAndListParam()
-						        .addAnd(new TokenParam().setValue(hasMemberRef.getValue()));
-						
-						if (lacksAlias(criteria, "c")) {
-							criteria.createAlias("gm.concept", "c");
-						}
-						
-						return handleCodeableConcept(criteria, code, "c", "cm", "crt");
-					}
-				} else {
-					if (StringUtils.isNotBlank(hasMemberRef.getIdPart())) {
-						return Optional.of(eq("gm.uuid", hasMemberRef.getIdPart()));
-					}
+			if (hasMemberRef.getChain() != null) {
+				if (Observation.SP_CODE.equals(hasMemberRef.getChain())) {
+					TokenAndListParam code = new TokenAndListParam()
+					        .addAnd(new TokenParam().setValue(hasMemberRef.getValue()));
+					
+					groupMemberCriteria.createAlias("gm.concept", "gmc");
+					return handleCodeableConcept(criteria, code, "gmc", "gmcm", "gmcrt")
+					        .map(c -> Subqueries.exists(groupMemberCriteria.add(c)));
 				}
-				
-				return Optional.empty();
-			}).ifPresent(criteria::add);
-		}
+			} else {
+				if (StringUtils.isNotBlank(hasMemberRef.getIdPart())) {
+					return Optional.of(Subqueries.exists(groupMemberCriteria.add(eq("gm.uuid", hasMemberRef.getIdPart()))));
+				}
+			}
+			
+			return Optional.empty();
+		}).ifPresent(criteria::add);
 	}
 	
 	private Optional<Criterion> handleValueStringParam(@Nonnull String propertyName, StringAndListParam valueStringParam) {
@@ -253,10 +254,6 @@ public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObse
 			if (lacksAlias(criteria, "c")) {
 				criteria.createAlias("concept", "c");
 			}
-			
-			if (lacksAlias(criteria, "cc")) {
-				criteria.createAlias("c.conceptClass", "cc");
-			}
 		}
 		
 		handleAndListParam(category, (param) -> {
@@ -264,7 +261,13 @@ public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObse
 				return Optional.empty();
 			}
 			
-			return Optional.of(Subqueries.propertyIn("cc.uuid", categoryMap.queryConceptClassByCategory(param.getValue())));
+			// the concept classes are inlined rather than queried so that the concept index can be used
+			List<Integer> conceptClassIds = categoryMap.getConceptClassIdsByCategory(param.getValue());
+			if (conceptClassIds.isEmpty()) {
+				return Optional.of(sqlRestriction("1=0"));
+			}
+			
+			return Optional.of(in("c.conceptClass.id", padInList(conceptClassIds)));
 		}).ifPresent(criteria::add);
 	}
 	
@@ -286,6 +289,11 @@ public class FhirObservationDaoImpl extends BaseFhirDao<Obs> implements FhirObse
 		return null;
 	}
 	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
+	
 	@Override
 	protected Obs deproxyResult(Obs result) {
 		Obs obs = super.deproxyResult(result);
@@ -18,7 +18,9 @@ import static org.hl7.fhir.r4.model.Patient.SP_DEATH_DATE;
 import javax.annotation.Nonnull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -36,14 +38,22 @@ import org.hibernate.sql.JoinType;
 import org.openmrs.Patient;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirPatientIdentifierSystemService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 @Setter(AccessLevel.PACKAGE)
 public class FhirPatientDaoImpl extends BasePersonDao<Patient> implements FhirPatientDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections
+	        .unmodifiableList(Arrays.asList("identifiers.identifierType", "names", "addresses"));
+	
+	@Autowired
+	private FhirPatientIdentifierSystemService patientIdentifierSystemService;
+	
 	@Override
 	public Patient getPatientById(@Nonnull Integer id) {
 		return (Patient) getSessionFactory().getCurrentSession().createCriteria(Patient.class).add(eq("patientId", id))
@@ -53,7 +63,8 @@ public class FhirPatientDaoImpl extends BasePersonDao<Patient> implements FhirPa
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<Patient> getPatientsByIds(@Nonnull Collection<Integer> ids) {
-		return getSessionFactory().getCurrentSession().createCriteria(Patient.class).add(in("id", ids)).list();
+		return getInChunks(ids, chunk -> (List<Patient>) getSessionFactory().getCurrentSession()
+		        .createCriteria(Patient.class).add(in("id", chunk)).list(), Patient::getId);
 	}
 	
 	@Override
@@ -157,10 +168,20 @@ public class FhirPatientDaoImpl extends BasePersonDao<Patient> implements FhirPa
 			if (system.isEmpty()) {
 				return Optional.of(in("pi.identifier", tokensToList(tokens)));
 			} else {
+				// the identifier type is joined in either case, so that a retired type is never matched, even if the
+				// in-memory systems were resolved before it was retired
 				if (lacksAlias(criteria, "pit")) {
 					criteria.createAlias("pi.identifierType", "pit", JoinType.INNER_JOIN, eq("pit.retired", false));
 				}
 				
+				// systems registered for an identifier type are resolved in memory, other systems are type names
+				Optional<PatientIdentifierType> identifierType = patientIdentifierSystemService
+				        .getPatientIdentifierTypeByUrl(system);
+				if (identifierType.isPresent()) {
+					return Optional.of(
+					    and(eq("pit.id", identifierType.get().getId()), in("pi.identifier", tokensToList(tokens))));
+				}
+				
 				return Optional.of(and(eq("pit.name", system), in("pi.identifier", tokensToList(tokens))));
 			}
 		}).ifPresent(criteria::add);
@@ -184,4 +205,9 @@ public class FhirPatientDaoImpl extends BasePersonDao<Patient> implements FhirPa
 	public boolean hasDistinctResults() {
 		return false;
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
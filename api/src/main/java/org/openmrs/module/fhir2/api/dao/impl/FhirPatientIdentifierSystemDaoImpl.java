@@ -13,12 +13,14 @@ import static org.hibernate.criterion.Restrictions.eq;
 
 import javax.annotation.Nonnull;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Projections;
 import org.openmrs.PatientIdentifierType;
@@ -52,6 +54,19 @@ public class FhirPatientIdentifierSystemDaoImpl implements FhirPatientIdentifier
 		return Optional.ofNullable((FhirPatientIdentifierSystem) criteria.uniqueResult());
 	}
 	
+	@Override
+	@SuppressWarnings("unchecked")
+	public Collection<FhirPatientIdentifierSystem> getFhirPatientIdentifierSystems() {
+		return sessionFactory.getCurrentSession().createCriteria(FhirPatientIdentifierSystem.class)
+		        .setFetchMode("patientIdentifierType", FetchMode.JOIN).list();
+	}
+	
+	@Override
+	public Optional<PatientIdentifierType> getPatientIdentifierTypeById(@Nonnull Integer id) {
+		return Optional.ofNullable(
+		    (PatientIdentifierType) sessionFactory.getCurrentSession().get(PatientIdentifierType.class, id));
+	}
+	
 	@Override
 	public FhirPatientIdentifierSystem saveFhirPatientIdentifierSystem(
 	        @Nonnull FhirPatientIdentifierSystem fhirPatientIdentifierSystem) {
@@ -11,11 +11,18 @@ package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hibernate.criterion.Restrictions.and;
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.in;
 import static org.hibernate.criterion.Restrictions.isNull;
 import static org.hibernate.criterion.Restrictions.or;
+import static org.openmrs.module.fhir2.api.util.InListUtils.chunkInList;
+import static org.openmrs.module.fhir2.api.util.InListUtils.padInList;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -38,6 +45,8 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirPersonDaoImpl extends BasePersonDao<Person> implements FhirPersonDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("names", "addresses"));
+	
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<PersonAttribute> getActiveAttributesByPersonAndAttributeTypeUuid(@Nonnull Person person,
@@ -48,6 +57,20 @@ public class FhirPersonDaoImpl extends BasePersonDao<Person> implements FhirPers
 		        .list();
 	}
 	
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<PersonAttribute> getActiveAttributesByPersonIdsAndAttributeTypeUuid(@Nonnull Collection<Integer> personIds,
+	        @Nonnull String personAttributeTypeUuid) {
+		List<PersonAttribute> results = new ArrayList<>();
+		for (List<Integer> chunk : chunkInList(personIds)) {
+			results.addAll(getSessionFactory().getCurrentSession().createCriteria(PersonAttribute.class)
+			        .add(in("person.id", padInList(chunk))).createAlias("attributeType", "pat")
+			        .add(eq("pat.uuid", personAttributeTypeUuid)).add(eq("voided", false)).list());
+		}
+		
+		return results;
+	}
+	
 	@Override
 	protected void setupSearchParams(Criteria criteria, SearchParameterMap theParams) {
 		theParams.getParameters().forEach(entry -> {
@@ -89,4 +112,8 @@ public class FhirPersonDaoImpl extends BasePersonDao<Person> implements FhirPers
 		criteria.add(eq("personVoided", false));
 	}
 	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
@@ -0,0 +1,78 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.dao.impl;
+
+import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.gt;
+
+import javax.annotation.Nonnull;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.AccessLevel;
+import lombok.Setter;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.openmrs.module.fhir2.api.dao.FhirSearchSnapshotDao;
+import org.openmrs.module.fhir2.model.FhirSearchSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@Transactional
+@Setter(AccessLevel.PACKAGE)
+public class FhirSearchSnapshotDaoImpl implements FhirSearchSnapshotDao {
+	
+	private static final int DELETE_BATCH_SIZE = 500;
+	
+	@Autowired
+	@Qualifier("sessionFactory")
+	private SessionFactory sessionFactory;
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<FhirSearchSnapshot> getSnapshotByUuid(@Nonnull String uuid, @Nonnull Date now) {
+		return Optional.ofNullable((FhirSearchSnapshot) sessionFactory.getCurrentSession()
+		        .createCriteria(FhirSearchSnapshot.class).add(eq("uuid", uuid)).add(gt("expires", now)).uniqueResult());
+	}
+	
+	@Override
+	public FhirSearchSnapshot saveSnapshot(@Nonnull FhirSearchSnapshot snapshot) {
+		sessionFactory.getCurrentSession().saveOrUpdate(snapshot);
+		return snapshot;
+	}
+	
+	@Override
+	public int deleteExpiredSnapshots(@Nonnull Date now) {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("delete from FhirSearchSnapshot fss where fss.expires <= :now").setParameter("now", now)
+		        .executeUpdate();
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public int deleteOldestSnapshots(int maximumCount) {
+		List<Integer> ids = sessionFactory.getCurrentSession().createCriteria(FhirSearchSnapshot.class)
+		        .setProjection(Projections.id()).addOrder(Order.desc("dateCreated")).addOrder(Order.desc("id"))
+		        .setFirstResult(maximumCount).setMaxResults(DELETE_BATCH_SIZE).list();
+		
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		
+		return sessionFactory.getCurrentSession().createQuery("delete from FhirSearchSnapshot fss where fss.id in (:ids)")
+		        .setParameterList("ids", ids).executeUpdate();
+	}
+}
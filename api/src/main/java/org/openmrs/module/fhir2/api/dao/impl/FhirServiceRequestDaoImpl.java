@@ -12,6 +12,9 @@ package org.openmrs.module.fhir2.api.dao.impl;
 import static org.hibernate.criterion.Restrictions.and;
 import static org.hibernate.criterion.Restrictions.or;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -32,6 +35,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirServiceRequestDaoImpl extends BaseFhirDao<TestOrder> implements FhirServiceRequestDao<TestOrder> {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("concept", "orderer",
+	    "encounter", "patient", "previousOrder"));
+	
 	@Override
 	public boolean hasDistinctResults() {
 		return false;
@@ -89,4 +95,8 @@ public class FhirServiceRequestDaoImpl extends BaseFhirDao<TestOrder> implements
 		        handleDate("autoExpireDate", dateRangeParam.getUpperBound())))))))));
 	}
 	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
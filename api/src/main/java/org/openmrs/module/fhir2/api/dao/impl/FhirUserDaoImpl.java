@@ -11,6 +11,9 @@ package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hibernate.criterion.Restrictions.eq;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import ca.uhn.fhir.rest.param.TokenAndListParam;
@@ -25,6 +28,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirUserDaoImpl extends BasePractitionerDao<User> implements FhirUserDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("person.names",
+	    "person.addresses"));
+	
 	@Override
 	public User getUserByUserName(String username) {
 		return (User) getSessionFactory().getCurrentSession().createCriteria(User.class).add(eq("username", username))
@@ -35,4 +41,9 @@ public class FhirUserDaoImpl extends BasePractitionerDao<User> implements FhirUs
 	protected void handleIdentifier(Criteria criteria, TokenAndListParam identifier) {
 		handleAndListParam(identifier, param -> Optional.of(eq("username", param.getValue()))).ifPresent(criteria::add);
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
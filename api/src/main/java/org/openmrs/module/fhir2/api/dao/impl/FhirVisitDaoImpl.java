@@ -10,10 +10,14 @@
 package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.eqProperty;
 import static org.hl7.fhir.r4.model.Encounter.SP_DATE;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import ca.uhn.fhir.rest.param.DateRangeParam;
@@ -22,6 +26,8 @@ import ca.uhn.fhir.rest.param.TokenAndListParam;
 import lombok.AccessLevel;
 import lombok.Setter;
 import org.hibernate.Criteria;
+import org.hibernate.criterion.DetachedCriteria;
+import org.openmrs.EncounterProvider;
 import org.openmrs.Visit;
 import org.openmrs.module.fhir2.api.dao.FhirVisitDao;
 import org.springframework.stereotype.Component;
@@ -30,6 +36,9 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 public class FhirVisitDaoImpl extends BaseEncounterDao<Visit> implements FhirVisitDao {
 	
+	private static final List<String> PREFETCH_PATHS = Collections.unmodifiableList(Arrays.asList("visitType", "patient",
+	    "location"));
+	
 	@Override
 	protected void handleDate(Criteria criteria, DateRangeParam dateRangeParam) {
 		handleDateRange("startDatetime", dateRangeParam).ifPresent(criteria::add);
@@ -43,9 +52,9 @@ public class FhirVisitDaoImpl extends BaseEncounterDao<Visit> implements FhirVis
 	
 	@Override
 	protected void handleParticipant(Criteria criteria, ReferenceAndListParam referenceAndListParam) {
-		criteria.createAlias("encounters", "en");
-		criteria.createAlias("en.encounterProviders", "ep");
-		handleParticipantReference(criteria, (ReferenceAndListParam) referenceAndListParam);
+		handleParticipantReference(referenceAndListParam,
+		    () -> DetachedCriteria.forClass(EncounterProvider.class, "ep").createAlias("ep.encounter", "en")
+		            .add(eqProperty("en.visit", criteria.getAlias() + ".id"))).ifPresent(criteria::add);
 	}
 	
 	@Override
@@ -57,4 +66,9 @@ public class FhirVisitDaoImpl extends BaseEncounterDao<Visit> implements FhirVis
 				return null;
 		}
 	}
+	
+	@Override
+	protected List<String> getPrefetchPaths() {
+		return PREFETCH_PATHS;
+	}
 }
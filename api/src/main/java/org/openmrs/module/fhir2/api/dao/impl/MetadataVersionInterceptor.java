@@ -0,0 +1,188 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.dao.impl;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.type.Type;
+import org.openmrs.Concept;
+import org.openmrs.ConceptMap;
+import org.openmrs.ConceptMapType;
+import org.openmrs.ConceptName;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
+import org.openmrs.LocationAttributeType;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.PersonAttributeType;
+import org.openmrs.ProviderAttributeType;
+import org.openmrs.module.fhir2.model.FhirConceptSource;
+import org.openmrs.module.fhir2.model.FhirEncounterClassMap;
+import org.openmrs.module.fhir2.model.FhirObservationCategoryMap;
+import org.openmrs.module.fhir2.model.FhirPatientIdentifierSystem;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a version number for each group of metadata listed in {@link Metadata}, which is incremented
+ * whenever a transaction that wrote one of the entities in that group completes. This allows data
+ * derived from the metadata to be held in memory and reloaded only once it has changed, whether the
+ * change was made by this module or by core services.
+ * <p/>
+ * Changes made on other servers sharing the database or made directly in the database are not seen
+ * by this interceptor, so every version also moves on once every {@link #REFRESH_INTERVAL}
+ * milliseconds. Data held against a version is therefore never used for longer than that.
+ */
+@Component
+public class MetadataVersionInterceptor extends EmptyInterceptor {
+	
+	private static final long serialVersionUID = 1L;
+	
+	static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+	
+	/**
+	 * The groups of metadata that a version is kept for, each listing the entities it is derived from
+	 */
+	public enum Metadata {
+		
+		/**
+		 * Concepts together with their names, their mappings and the sources those mappings refer to.
+		 * Editing the names or mappings of a concept does not always update the concept itself.
+		 */
+		CONCEPTS(Concept.class, ConceptName.class, ConceptMap.class, ConceptReferenceTerm.class, ConceptMapType.class,
+		        ConceptSource.class, FhirConceptSource.class),
+		
+		/**
+		 * The concept sources and their FHIR URLs
+		 */
+		CONCEPT_SOURCES(ConceptSource.class, FhirConceptSource.class),
+		
+		/**
+		 * The attribute types that contact points are stored as
+		 */
+		CONTACT_POINT_ATTRIBUTE_TYPES(PersonAttributeType.class, LocationAttributeType.class, ProviderAttributeType.class),
+		
+		/**
+		 * The tables mapping OpenMRS metadata to FHIR codes
+		 */
+		FHIR_MAPPINGS(FhirObservationCategoryMap.class, FhirEncounterClassMap.class),
+		
+		/**
+		 * The metadata that immunizations are stored with
+		 */
+		IMMUNIZATION_METADATA(Concept.class, ConceptMap.class, ConceptReferenceTerm.class, EncounterType.class,
+		        EncounterRole.class),
+		
+		/**
+		 * The patient identifier types and their FHIR system URLs
+		 */
+		PATIENT_IDENTIFIER_SYSTEMS(PatientIdentifierType.class, FhirPatientIdentifierSystem.class);
+		
+		private final Class<?>[] entityClasses;
+		
+		Metadata(Class<?>... entityClasses) {
+			this.entityClasses = entityClasses;
+		}
+		
+		private boolean includes(Class<?> entityClass) {
+			for (Class<?> metadataClass : entityClasses) {
+				if (metadataClass.isAssignableFrom(entityClass)) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+	
+	private final Map<Metadata, AtomicLong> versions = new EnumMap<>(Metadata.class);
+	
+	// the metadata each entity class written so far belongs to
+	private final Map<Class<?>, Set<Metadata>> metadataByEntityClass = new ConcurrentHashMap<>();
+	
+	private final ThreadLocal<Set<Metadata>> modifiedMetadata = ThreadLocal
+	        .withInitial(() -> EnumSet.noneOf(Metadata.class));
+	
+	public MetadataVersionInterceptor() {
+		for (Metadata metadata : Metadata.values()) {
+			versions.put(metadata, new AtomicLong());
+		}
+	}
+	
+	/**
+	 * @param metadata the group of metadata
+	 * @return the current version of the given group of metadata
+	 */
+	public long getVersion(Metadata metadata) {
+		return versions.get(metadata).get() + System.currentTimeMillis() / REFRESH_INTERVAL;
+	}
+	
+	@Override
+	public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		recordModification(entity);
+		return false;
+	}
+	
+	@Override
+	public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+	        String[] propertyNames, Type[] types) {
+		recordModification(entity);
+		return false;
+	}
+	
+	@Override
+	public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		recordModification(entity);
+	}
+	
+	@Override
+	public void onCollectionUpdate(Object collection, Serializable key) {
+		if (collection instanceof PersistentCollection) {
+			recordModification(((PersistentCollection) collection).getOwner());
+		}
+	}
+	
+	@Override
+	public void afterTransactionCompletion(Transaction tx) {
+		Set<Metadata> modified = modifiedMetadata.get();
+		modifiedMetadata.remove();
+		modified.forEach(metadata -> versions.get(metadata).incrementAndGet());
+	}
+	
+	private void recordModification(Object entity) {
+		if (entity == null) {
+			return;
+		}
+		
+		Set<Metadata> metadata = metadataByEntityClass.computeIfAbsent(entity.getClass(), entityClass -> {
+			Set<Metadata> result = EnumSet.noneOf(Metadata.class);
+			for (Metadata candidate : Metadata.values()) {
+				if (candidate.includes(entityClass)) {
+					result.add(candidate);
+				}
+			}
+			return result;
+		});
+		
+		if (!metadata.isEmpty()) {
+			modifiedMetadata.get().addAll(metadata);
+		}
+	}
+}
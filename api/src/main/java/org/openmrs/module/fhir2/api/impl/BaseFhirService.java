@@ -13,7 +13,6 @@ import javax.annotation.Nonnull;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.rest.api.Constants;
@@ -81,8 +80,7 @@ public abstract class BaseFhirService<T extends IAnyResource, U extends OpenmrsO
 	
 	@Override
 	public List<T> get(@Nonnull Collection<String> uuids) {
-		OpenmrsFhirTranslator<U, T> translator = getTranslator();
-		return getDao().get(uuids).stream().map(translator::toFhirResource).collect(Collectors.toList());
+		return getTranslator().toFhirResources(getDao().get(uuids));
 	}
 	
 	@Override
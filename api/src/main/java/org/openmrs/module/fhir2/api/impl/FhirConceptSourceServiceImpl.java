@@ -12,6 +12,11 @@ package org.openmrs.module.fhir2.api.impl;
 import javax.annotation.Nonnull;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 import lombok.AccessLevel;
@@ -21,11 +26,20 @@ import org.openmrs.Duration;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
 import org.openmrs.module.fhir2.api.dao.FhirConceptSourceDao;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.model.FhirConceptSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * The ids of the FHIR concept sources and concept sources, keyed the way they are looked up, and the
+ * URL of each concept source are held in an immutable snapshot, so that the lookups made while
+ * translating concepts and codings do not need to query the database. The sources themselves are
+ * loaded by id in the current session, so no entity is shared between sessions. The snapshot is
+ * loaded when it is first used and replaced as a whole whenever the concept sources change, see
+ * {@link MetadataVersionInterceptor}.
+ */
 @Component
 @Transactional
 @Setter(AccessLevel.PACKAGE)
@@ -34,6 +48,11 @@ public class FhirConceptSourceServiceImpl implements FhirConceptSourceService {
 	@Autowired
 	private FhirConceptSourceDao dao;
 	
+	@Autowired
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private volatile ConceptSourceSnapshot snapshot;
+	
 	@Override
 	@Transactional(readOnly = true)
 	public Collection<FhirConceptSource> getFhirConceptSources() {
@@ -43,22 +62,30 @@ public class FhirConceptSourceServiceImpl implements FhirConceptSourceService {
 	@Override
 	@Transactional(readOnly = true)
 	public Optional<FhirConceptSource> getFhirConceptSourceByUrl(@Nonnull String url) {
-		return dao.getFhirConceptSourceByUrl(url);
+		return getFhirConceptSourceById(getSnapshot().fhirConceptSourceIdsByUrl.get(url));
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public Optional<FhirConceptSource> getFhirConceptSource(@Nonnull ConceptSource conceptSource) {
-		return dao.getFhirConceptSourceByConceptSource(conceptSource);
+		if (conceptSource == null || conceptSource.getId() == null) {
+			return Optional.empty();
+		}
+		
+		return getFhirConceptSourceById(getSnapshot().fhirConceptSourceIdsByConceptSourceId.get(conceptSource.getId()));
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public String getUrlForConceptSource(@Nonnull ConceptSource conceptSource) {
-		return getFhirConceptSource(conceptSource).map(FhirConceptSource::getUrl)
-		        .orElseGet(() -> Duration.SNOMED_CT_CONCEPT_SOURCE_HL7_CODE.equals(conceptSource.getHl7Code())
-		                ? FhirConstants.SNOMED_SYSTEM_URI
-		                : null);
+		String url = conceptSource.getId() == null ? null : getSnapshot().urlsByConceptSourceId.get(conceptSource.getId());
+		if (url != null) {
+			return url;
+		}
+		
+		return Duration.SNOMED_CT_CONCEPT_SOURCE_HL7_CODE.equals(conceptSource.getHl7Code())
+		        ? FhirConstants.SNOMED_SYSTEM_URI
+		        : null;
 	}
 	
 	@Override
@@ -74,7 +101,7 @@ public class FhirConceptSourceServiceImpl implements FhirConceptSourceService {
 		}
 		
 		if (url.equals(FhirConstants.SNOMED_SYSTEM_URI)) {
-			return dao.getConceptSourceByHl7Code(Duration.SNOMED_CT_CONCEPT_SOURCE_HL7_CODE);
+			return getConceptSourceByHl7Code(Duration.SNOMED_CT_CONCEPT_SOURCE_HL7_CODE);
 		}
 		
 		return Optional.empty();
@@ -83,12 +110,83 @@ public class FhirConceptSourceServiceImpl implements FhirConceptSourceService {
 	@Override
 	@Transactional(readOnly = true)
 	public Optional<ConceptSource> getConceptSourceByHl7Code(@Nonnull String hl7Code) {
-		return dao.getConceptSourceByHl7Code(hl7Code);
+		if (hl7Code == null) {
+			return Optional.empty();
+		}
+		
+		Integer id = getSnapshot().conceptSourceIdsByHl7Code.get(hl7Code.toLowerCase(Locale.ROOT));
+		return id == null ? Optional.empty() : dao.getConceptSourceById(id);
 	}
 	
 	@Override
 	@Transactional
 	public FhirConceptSource saveFhirConceptSource(@Nonnull FhirConceptSource fhirConceptSource) {
+		// the snapshot is only reloaded after the transaction completes, so an uncommitted change is never shared
 		return dao.saveFhirConceptSource(fhirConceptSource);
 	}
+	
+	private Optional<FhirConceptSource> getFhirConceptSourceById(Integer id) {
+		return id == null ? Optional.empty() : dao.getFhirConceptSourceById(id);
+	}
+	
+	private ConceptSourceSnapshot getSnapshot() {
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.CONCEPT_SOURCES);
+		ConceptSourceSnapshot current = snapshot;
+		if (current == null || current.version != version) {
+			current = loadSnapshot(version);
+			snapshot = current;
+		}
+		
+		return current;
+	}
+	
+	private ConceptSourceSnapshot loadSnapshot(long version) {
+		return new ConceptSourceSnapshot(version, dao.getConceptSources(), dao.getFhirConceptSources());
+	}
+	
+	private static class ConceptSourceSnapshot {
+		
+		private final long version;
+		
+		private final Map<String, Integer> fhirConceptSourceIdsByUrl;
+		
+		private final Map<Integer, Integer> fhirConceptSourceIdsByConceptSourceId;
+		
+		private final Map<Integer, String> urlsByConceptSourceId;
+		
+		private final Map<String, Integer> conceptSourceIdsByHl7Code;
+		
+		private ConceptSourceSnapshot(long version, Collection<ConceptSource> conceptSources,
+		    Collection<FhirConceptSource> fhirConceptSources) {
+			this.version = version;
+			
+			Map<String, Integer> byUrl = new HashMap<>();
+			Map<Integer, Integer> byConceptSourceId = new HashMap<>();
+			Map<Integer, String> urls = new HashMap<>();
+			for (FhirConceptSource fhirConceptSource : fhirConceptSources) {
+				if (!Boolean.TRUE.equals(fhirConceptSource.getRetired()) && fhirConceptSource.getUrl() != null) {
+					byUrl.put(fhirConceptSource.getUrl(), fhirConceptSource.getId());
+				}
+				
+				if (fhirConceptSource.getConceptSource() != null) {
+					byConceptSourceId.put(fhirConceptSource.getConceptSource().getId(), fhirConceptSource.getId());
+					if (fhirConceptSource.getUrl() != null) {
+						urls.put(fhirConceptSource.getConceptSource().getId(), fhirConceptSource.getUrl());
+					}
+				}
+			}
+			
+			// sources that are not retired take precedence
+			Map<String, Integer> byHl7Code = new HashMap<>();
+			conceptSources.stream().filter(conceptSource -> conceptSource.getHl7Code() != null)
+			        .sorted(Comparator.comparing(conceptSource -> Boolean.TRUE.equals(conceptSource.getRetired())))
+			        .forEach(conceptSource -> byHl7Code.putIfAbsent(conceptSource.getHl7Code().toLowerCase(Locale.ROOT),
+			            conceptSource.getId()));
+			
+			this.fhirConceptSourceIdsByUrl = Collections.unmodifiableMap(byUrl);
+			this.fhirConceptSourceIdsByConceptSourceId = Collections.unmodifiableMap(byConceptSourceId);
+			this.urlsByConceptSourceId = Collections.unmodifiableMap(urls);
+			this.conceptSourceIdsByHl7Code = Collections.unmodifiableMap(byHl7Code);
+		}
+	}
 }
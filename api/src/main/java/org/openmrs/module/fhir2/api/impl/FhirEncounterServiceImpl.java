@@ -11,6 +11,7 @@ package org.openmrs.module.fhir2.api.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 
@@ -31,9 +32,10 @@ import org.openmrs.module.fhir2.api.FhirEncounterService;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.FhirVisitService;
 import org.openmrs.module.fhir2.api.dao.FhirEncounterDao;
+import org.openmrs.module.fhir2.api.search.MergedSearchQueryBundleProvider;
 import org.openmrs.module.fhir2.api.search.SearchQuery;
 import org.openmrs.module.fhir2.api.search.SearchQueryInclude;
-import org.openmrs.module.fhir2.api.search.TwoSearchQueryBundleProvider;
+import org.openmrs.module.fhir2.api.search.SearchResultComparator;
 import org.openmrs.module.fhir2.api.search.param.EncounterSearchParams;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.api.translators.EncounterTranslator;
@@ -159,7 +161,8 @@ public class FhirEncounterServiceImpl extends BaseFhirService<Encounter, org.ope
 		}
 		
 		if (encounterBundle != null && visitBundle != null) {
-			return new TwoSearchQueryBundleProvider(visitBundle, encounterBundle, globalPropertyService);
+			return new MergedSearchQueryBundleProvider(Arrays.asList(visitBundle, encounterBundle),
+			        SearchResultComparator.forSort(getFhirContext(), theParams.getSortSpec()), globalPropertyService);
 		} else if (encounterBundle == null && visitBundle != null) {
 			return visitBundle;
 		}
@@ -193,13 +196,8 @@ public class FhirEncounterServiceImpl extends BaseFhirService<Encounter, org.ope
 		IBundleProvider visitBundle = visitService.searchForVisits(theParams);
 		IBundleProvider encounterBundle = searchQuery.getQueryResults(theParams, dao, translator, searchQueryInclude);
 		
-		if (!encounterBundle.isEmpty() && !visitBundle.isEmpty()) {
-			return new TwoSearchQueryBundleProvider(encounterBundle, visitBundle, globalPropertyService);
-		} else if (encounterBundle.isEmpty() && !visitBundle.isEmpty()) {
-			return visitBundle;
-		}
-		
-		return encounterBundle;
+		return new MergedSearchQueryBundleProvider(Arrays.asList(encounterBundle, visitBundle), null,
+		        globalPropertyService);
 	}
 	
 	private void populateReverseIncludeForEverythingOperationParams(SearchParameterMap theParams) {
@@ -9,51 +9,265 @@
  */
 package org.openmrs.module.fhir2.api.impl;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.AccessLevel;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmrs.GlobalProperty;
 import org.openmrs.api.APIException;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.dao.FhirGlobalPropertyDao;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Global properties are read while translating every resource, so the values of the properties this
+ * module reads are held in memory once they have been read. A {@link GlobalPropertyListener}, which
+ * is notified of every change made through the {@link AdministrationService}, evicts a changed
+ * property once the change has been committed, so that the next read loads the committed value.
+ * Other properties are always read from the database.
+ * <p/>
+ * The listener is not notified of changes made on other servers sharing the database or made
+ * directly in the database, and a transaction that started before a change was committed may still
+ * read and cache the previous value. So values are also read again once they have been held for
+ * {@link #REFRESH_INTERVAL} milliseconds, which bounds how long a stale value is returned.
+ */
+@Slf4j
 @Component
 @Transactional
 @Setter(AccessLevel.PACKAGE)
 public class FhirGlobalPropertyServiceImpl implements FhirGlobalPropertyService {
 	
+	static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+	
+	private static final String MODULE_PROPERTY_PREFIX = "fhir2.";
+	
+	// properties owned by core that the module reads
+	private static final Set<String> CORE_PROPERTIES = Collections.unmodifiableSet(
+	    new HashSet<>(Arrays.asList(FhirConstants.GLOBAL_PROPERTY_MILD, FhirConstants.GLOBAL_PROPERTY_MODERATE,
+	        FhirConstants.GLOBAL_PROPERTY_SEVERE, FhirConstants.GLOBAL_PROPERTY_OTHER)));
+	
 	@Autowired
 	private FhirGlobalPropertyDao dao;
 	
+	@Autowired(required = false)
+	@Qualifier("adminService")
+	private AdministrationService administrationService;
+	
+	private long refreshInterval = REFRESH_INTERVAL;
+	
+	private final Map<String, CachedGlobalProperty> globalProperties = new ConcurrentHashMap<>();
+	
+	// incremented for every eviction, so that a value read from the database before it is not cached
+	private final AtomicLong evictions = new AtomicLong();
+	
+	private final GlobalPropertyListener globalPropertyListener = new GlobalPropertyListener() {
+		
+		@Override
+		public boolean supportsPropertyName(String propertyName) {
+			return isCached(propertyName);
+		}
+		
+		@Override
+		public void globalPropertyChanged(GlobalProperty newValue) {
+			evictAfterCommit(newValue.getProperty());
+		}
+		
+		@Override
+		public void globalPropertyDeleted(String propertyName) {
+			evictAfterCommit(propertyName);
+		}
+	};
+	
+	@PostConstruct
+	public void addGlobalPropertyListener() {
+		if (administrationService != null) {
+			administrationService.addGlobalPropertyListener(globalPropertyListener);
+		}
+	}
+	
+	@PreDestroy
+	public void removeGlobalPropertyListener() {
+		if (administrationService != null) {
+			administrationService.removeGlobalPropertyListener(globalPropertyListener);
+		}
+	}
+	
 	@Override
 	@Transactional(readOnly = true)
 	public String getGlobalProperty(String property) throws APIException {
-		return dao.getGlobalProperty(property);
+		return getCachedGlobalProperty(property).getValue();
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public Integer getGlobalProperty(String property, Integer defaultValue) {
-		try {
-			return Integer.valueOf(getGlobalProperty(property, String.valueOf(defaultValue)));
-		}
-		catch (NumberFormatException e) {
-			return defaultValue;
-		}
+		Integer value = getCachedGlobalProperty(property).getIntegerValue();
+		return value == null ? defaultValue : value;
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public String getGlobalProperty(String property, String defaultValue) {
-		return this.getGlobalProperty(property) == null ? defaultValue : this.getGlobalProperty(property);
+		String value = this.getGlobalProperty(property);
+		return value == null ? defaultValue : value;
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public Map<String, String> getGlobalProperties(String... properties) {
-		return dao.getGlobalProperties(properties);
+		Map<String, String> result = new HashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String property : properties) {
+			CachedGlobalProperty globalProperty = globalProperties.get(property);
+			if (globalProperty == null || globalProperty.isExpired()) {
+				missing.add(property);
+			} else if (globalProperty.getValue() != null) {
+				result.put(property, globalProperty.getValue());
+			}
+		}
+		
+		if (!missing.isEmpty()) {
+			long evictionCount = evictions.get();
+			Map<String, String> values = dao.getGlobalProperties(missing.toArray(new String[0]));
+			for (String property : missing) {
+				String value = cache(property, newCachedGlobalProperty(property, values.get(property)), evictionCount)
+				        .getValue();
+				if (value != null) {
+					result.put(property, value);
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	private CachedGlobalProperty getCachedGlobalProperty(String property) {
+		CachedGlobalProperty globalProperty = globalProperties.get(property);
+		if (globalProperty == null || globalProperty.isExpired()) {
+			long evictionCount = evictions.get();
+			globalProperty = cache(property, newCachedGlobalProperty(property, dao.getGlobalProperty(property)),
+			    evictionCount);
+		}
+		
+		return globalProperty;
+	}
+	
+	private CachedGlobalProperty cache(String property, CachedGlobalProperty globalProperty, long evictionCount) {
+		if (!isCached(property)) {
+			return globalProperty;
+		}
+		
+		CachedGlobalProperty existing = globalProperties.putIfAbsent(property, globalProperty);
+		if (existing != null) {
+			if (!existing.isExpired()) {
+				return existing;
+			}
+			
+			globalProperties.replace(property, existing, globalProperty);
+		}
+		
+		// a change committed while we were reading may not be part of the value we read
+		if (evictions.get() != evictionCount) {
+			globalProperties.remove(property, globalProperty);
+		}
+		
+		return globalProperty;
+	}
+	
+	private CachedGlobalProperty newCachedGlobalProperty(String property, String value) {
+		return new CachedGlobalProperty(property, value, System.currentTimeMillis() + refreshInterval);
+	}
+	
+	private void evictAfterCommit(String property) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCommit() {
+					evict(property);
+				}
+			});
+		} else {
+			evict(property);
+		}
+	}
+	
+	private void evict(String property) {
+		evictions.incrementAndGet();
+		globalProperties.remove(property);
+	}
+	
+	private static boolean isCached(String property) {
+		return property != null && (property.startsWith(MODULE_PROPERTY_PREFIX) || CORE_PROPERTIES.contains(property));
+	}
+	
+	/**
+	 * The value of a global property, along with its value parsed as an integer, so that a property
+	 * read as a number is only parsed once per read from the database, and the time after which it is
+	 * read again
+	 */
+	private static class CachedGlobalProperty {
+		
+		private final String property;
+		
+		private final String value;
+		
+		private final long expiresAt;
+		
+		private volatile boolean parsed;
+		
+		private volatile Integer integerValue;
+		
+		private CachedGlobalProperty(String property, String value, long expiresAt) {
+			this.property = property;
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+		
+		private boolean isExpired() {
+			return expiresAt <= System.currentTimeMillis();
+		}
+		
+		private String getValue() {
+			return value;
+		}
+		
+		private Integer getIntegerValue() {
+			if (!parsed) {
+				if (value != null) {
+					try {
+						integerValue = Integer.valueOf(value);
+					}
+					catch (NumberFormatException e) {
+						log.warn("Global property {} is not an integer: {}", property, value);
+					}
+				}
+				parsed = true;
+			}
+			
+			return integerValue;
+		}
 	}
 }
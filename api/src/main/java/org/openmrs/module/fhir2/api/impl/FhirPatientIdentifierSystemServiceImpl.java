@@ -11,6 +11,10 @@ package org.openmrs.module.fhir2.api.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import lombok.AccessLevel;
@@ -18,11 +22,19 @@ import lombok.Setter;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.api.FhirPatientIdentifierSystemService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientIdentifierSystemDao;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.model.FhirPatientIdentifierSystem;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * The system URLs of the patient identifier types are held in an immutable snapshot, so that the
+ * identifiers of every patient can be translated without querying the database. The snapshot only
+ * holds ids; an identifier type resolved from its URL is loaded in the current session. The snapshot
+ * is loaded when it is first used and replaced as a whole whenever the identifier types or their
+ * systems change, see {@link MetadataVersionInterceptor}.
+ */
 @Component
 @Transactional
 @Setter(AccessLevel.PACKAGE)
@@ -31,10 +43,35 @@ public class FhirPatientIdentifierSystemServiceImpl implements FhirPatientIdenti
 	@Autowired
 	private FhirPatientIdentifierSystemDao dao;
 	
+	@Autowired
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private volatile PatientIdentifierSystemSnapshot snapshot;
+	
 	@Override
 	@Transactional(readOnly = true)
 	public String getUrlByPatientIdentifierType(@Nonnull PatientIdentifierType patientIdentifierType) {
-		return dao.getUrlByPatientIdentifierType(patientIdentifierType);
+		if (patientIdentifierType == null || patientIdentifierType.getId() == null) {
+			return null;
+		}
+		
+		return getSnapshot().urlsByPatientIdentifierTypeId.get(patientIdentifierType.getId());
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<PatientIdentifierType> getPatientIdentifierTypeByUrl(@Nonnull String url) {
+		if (url == null) {
+			return Optional.empty();
+		}
+		
+		Integer patientIdentifierTypeId = getSnapshot().patientIdentifierTypeIdsByUrl.get(url);
+		if (patientIdentifierTypeId == null) {
+			return Optional.empty();
+		}
+		
+		// the snapshot is shared between sessions, so the identifier type itself is loaded in the current one
+		return dao.getPatientIdentifierTypeById(patientIdentifierTypeId);
 	}
 	
 	@Override
@@ -48,6 +85,54 @@ public class FhirPatientIdentifierSystemServiceImpl implements FhirPatientIdenti
 	@Transactional
 	public FhirPatientIdentifierSystem saveFhirPatientIdentifierSystem(
 	        @Nonnull FhirPatientIdentifierSystem fhirPatientIdentifierSystem) {
+		// the snapshot is only reloaded after the transaction completes, so an uncommitted change is never shared
 		return dao.saveFhirPatientIdentifierSystem(fhirPatientIdentifierSystem);
 	}
+	
+	private PatientIdentifierSystemSnapshot getSnapshot() {
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.PATIENT_IDENTIFIER_SYSTEMS);
+		PatientIdentifierSystemSnapshot current = snapshot;
+		if (current == null || current.version != version) {
+			current = loadSnapshot(version);
+			snapshot = current;
+		}
+		
+		return current;
+	}
+	
+	private PatientIdentifierSystemSnapshot loadSnapshot(long version) {
+		return new PatientIdentifierSystemSnapshot(version, dao.getFhirPatientIdentifierSystems());
+	}
+	
+	private static class PatientIdentifierSystemSnapshot {
+		
+		private final long version;
+		
+		private final Map<Integer, String> urlsByPatientIdentifierTypeId;
+		
+		private final Map<String, Integer> patientIdentifierTypeIdsByUrl;
+		
+		private PatientIdentifierSystemSnapshot(long version, Collection<FhirPatientIdentifierSystem> systems) {
+			this.version = version;
+			
+			Map<Integer, String> urlsByPatientIdentifierTypeId = new HashMap<>();
+			Map<String, Integer> patientIdentifierTypeIdsByUrl = new HashMap<>();
+			for (FhirPatientIdentifierSystem system : systems) {
+				PatientIdentifierType patientIdentifierType = system.getPatientIdentifierType();
+				if (patientIdentifierType == null || system.getUrl() == null) {
+					continue;
+				}
+				
+				urlsByPatientIdentifierTypeId.put(patientIdentifierType.getId(), system.getUrl());
+				
+				// only identifier types that are still in use are resolved from their system
+				if (!Boolean.TRUE.equals(system.getRetired()) && !Boolean.TRUE.equals(patientIdentifierType.getRetired())) {
+					patientIdentifierTypeIdsByUrl.put(system.getUrl(), patientIdentifierType.getId());
+				}
+			}
+			
+			this.urlsByPatientIdentifierTypeId = Collections.unmodifiableMap(urlsByPatientIdentifierTypeId);
+			this.patientIdentifierTypeIdsByUrl = Collections.unmodifiableMap(patientIdentifierTypeIdsByUrl);
+		}
+	}
 }
@@ -11,13 +11,15 @@ package org.openmrs.module.fhir2.api.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import lombok.AccessLevel;
@@ -28,8 +30,11 @@ import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Patient;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.FhirPatientIdentifierSystemService;
 import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
+import org.openmrs.module.fhir2.api.search.PatientEverythingBundleProvider;
 import org.openmrs.module.fhir2.api.search.SearchQuery;
 import org.openmrs.module.fhir2.api.search.SearchQueryInclude;
 import org.openmrs.module.fhir2.api.search.param.OpenmrsPatientSearchParams;
@@ -46,6 +51,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Getter(AccessLevel.PROTECTED)
 public class FhirPatientServiceImpl extends BaseFhirService<Patient, org.openmrs.Patient> implements FhirPatientService {
 	
+	/**
+	 * The types of resources returned from the compartment of a patient by the {@code $everything}
+	 * operation, in the order they are returned in
+	 */
+	private static final List<String> EVERYTHING_COMPARTMENT_TYPES = Collections.unmodifiableList(
+	    Arrays.asList(FhirConstants.ALLERGY_INTOLERANCE, FhirConstants.ENCOUNTER, FhirConstants.OBSERVATION,
+	        FhirConstants.DIAGNOSTIC_REPORT, FhirConstants.MEDICATION_REQUEST, FhirConstants.SERVICE_REQUEST));
+	
 	@Autowired
 	private PatientTranslator translator;
 	
@@ -55,6 +68,12 @@ public class FhirPatientServiceImpl extends BaseFhirService<Patient, org.openmrs
 	@Autowired
 	private SearchQueryInclude<Patient> searchQueryInclude;
 	
+	@Autowired
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Autowired
+	private FhirPatientIdentifierSystemService patientIdentifierSystemService;
+	
 	@Autowired
 	private SearchQuery<org.openmrs.Patient, Patient, FhirPatientDao, PatientTranslator, SearchQueryInclude<Patient>> searchQuery;
 	
@@ -73,6 +92,11 @@ public class FhirPatientServiceImpl extends BaseFhirService<Patient, org.openmrs
 	@Transactional(readOnly = true)
 	public PatientIdentifierType getPatientIdentifierTypeByIdentifier(Identifier identifier) {
 		if (identifier.getType() == null || StringUtils.isBlank(identifier.getType().getText())) {
+			// fall back to the system of the identifier, if it is the system of an identifier type
+			if (identifier.hasSystem()) {
+				return patientIdentifierSystemService.getPatientIdentifierTypeByUrl(identifier.getSystem()).orElse(null);
+			}
+			
 			return null;
 		}
 		
@@ -94,34 +118,46 @@ public class FhirPatientServiceImpl extends BaseFhirService<Patient, org.openmrs
 	@Override
 	@Transactional(readOnly = true)
 	public IBundleProvider getPatientEverything(TokenParam patientId) {
-		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.EVERYTHING_SEARCH_HANDLER, "")
-		        .addParameter(FhirConstants.COMMON_SEARCH_HANDLER, FhirConstants.ID_PROPERTY,
-		            new TokenAndListParam().addAnd(patientId));
-		
-		populateEverythingOperationParams(theParams);
-		return searchQuery.getQueryResults(theParams, dao, translator, searchQueryInclude);
+		return getPatientEverything(patientId, null, null, null);
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
 	public IBundleProvider getPatientEverything() {
-		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.EVERYTHING_SEARCH_HANDLER, "");
+		return getPatientEverything(null, null, null);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public IBundleProvider getPatientEverything(TokenParam patientId, DateRangeParam lastUpdated, Set<String> types,
+	        Integer count) {
+		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.COMMON_SEARCH_HANDLER,
+		    FhirConstants.ID_PROPERTY, new TokenAndListParam().addAnd(patientId));
 		
-		populateEverythingOperationParams(theParams);
-		return searchQuery.getQueryResults(theParams, dao, translator, searchQueryInclude);
+		return getPatientEverything(theParams, lastUpdated, types, count);
 	}
 	
-	private void populateEverythingOperationParams(SearchParameterMap theParams) {
-		HashSet<Include> revIncludes = new HashSet<>();
+	@Override
+	@Transactional(readOnly = true)
+	public IBundleProvider getPatientEverything(DateRangeParam lastUpdated, Set<String> types, Integer count) {
+		return getPatientEverything(new SearchParameterMap(), lastUpdated, types, count);
+	}
+	
+	private IBundleProvider getPatientEverything(SearchParameterMap theParams, DateRangeParam lastUpdated,
+	        Set<String> types, Integer count) {
+		IBundleProvider patients = searchQuery.getQueryResults(theParams, dao, translator, searchQueryInclude);
 		
-		revIncludes.add(new Include(FhirConstants.OBSERVATION + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ALLERGY_INTOLERANCE + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.DIAGNOSTIC_REPORT + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ENCOUNTER + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.MEDICATION_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.SERVICE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.PROCEDURE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
+		boolean includePatients = types == null || types.isEmpty() || types.contains(FhirConstants.PATIENT);
+		List<String> compartmentTypes = EVERYTHING_COMPARTMENT_TYPES;
+		if (types != null && !types.isEmpty()) {
+			// ProcedureRequest is the STU3 name of ServiceRequest
+			compartmentTypes = EVERYTHING_COMPARTMENT_TYPES.stream()
+			        .filter(type -> types.contains(type) || (FhirConstants.SERVICE_REQUEST.equals(type)
+			                && types.contains(FhirConstants.PROCEDURE_REQUEST)))
+			        .collect(Collectors.toList());
+		}
 		
-		theParams.addParameter(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER, revIncludes);
+		return new PatientEverythingBundleProvider(patients, compartmentTypes, includePatients, lastUpdated, count,
+		        searchQueryInclude, globalPropertyService);
 	}
 }
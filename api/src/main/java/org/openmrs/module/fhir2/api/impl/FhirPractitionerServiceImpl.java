@@ -11,6 +11,8 @@ package org.openmrs.module.fhir2.api.impl;
 
 import javax.annotation.Nonnull;
 
+import java.util.Arrays;
+
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
@@ -26,9 +28,10 @@ import org.openmrs.module.fhir2.api.FhirPractitionerService;
 import org.openmrs.module.fhir2.api.FhirUserService;
 import org.openmrs.module.fhir2.api.dao.FhirPractitionerDao;
 import org.openmrs.module.fhir2.api.dao.FhirUserDao;
+import org.openmrs.module.fhir2.api.search.MergedSearchQueryBundleProvider;
 import org.openmrs.module.fhir2.api.search.SearchQuery;
 import org.openmrs.module.fhir2.api.search.SearchQueryInclude;
-import org.openmrs.module.fhir2.api.search.TwoSearchQueryBundleProvider;
+import org.openmrs.module.fhir2.api.search.SearchResultComparator;
 import org.openmrs.module.fhir2.api.search.param.PractitionerSearchParams;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.api.translators.PractitionerTranslator;
@@ -94,15 +97,11 @@ public class FhirPractitionerServiceImpl extends BaseFhirService<Practitioner, P
 	public IBundleProvider searchForPractitioners(PractitionerSearchParams practitionerSearchParams) {
 		IBundleProvider providerBundle = searchQuery.getQueryResults(practitionerSearchParams.toSearchParameterMap(), dao,
 		    translator, searchQueryInclude);
-		SearchParameterMap theParams = new SearchParameterMap();
+		// the users are sorted the same way as the providers, so that both can be merged
+		SearchParameterMap theParams = new SearchParameterMap().setSortSpec(practitionerSearchParams.getSort());
 		IBundleProvider userBundle = userService.searchForUsers(theParams);
 		
-		if (!providerBundle.isEmpty() && !userBundle.isEmpty()) {
-			return new TwoSearchQueryBundleProvider(providerBundle, userBundle, globalPropertyService);
-		} else if (providerBundle.isEmpty() && !userBundle.isEmpty()) {
-			return userBundle;
-		}
-		
-		return providerBundle;
+		return new MergedSearchQueryBundleProvider(Arrays.asList(providerBundle, userBundle),
+		        SearchResultComparator.forSort(getFhirContext(), practitionerSearchParams.getSort()), globalPropertyService);
 	}
 }
@@ -0,0 +1,88 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.mappings;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.Setter;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Base class for the mappings that are held in memory as an immutable snapshot of a small mapping
+ * table. The snapshot is loaded when it is first used and reloaded once the version of the mappings
+ * kept by {@link MetadataVersionInterceptor} changes, which it also does periodically to pick up
+ * changes made directly in the database.
+ *
+ * @param <T> the type of the snapshot
+ */
+public abstract class BaseCachedMapping<T> {
+	
+	@Autowired
+	@Setter(AccessLevel.PUBLIC)
+	private MetadataVersionInterceptor metadataVersion;
+	
+	// incremented by refresh(), so that a snapshot loaded before it is not kept
+	private final AtomicLong generation = new AtomicLong();
+	
+	private volatile Snapshot<T> snapshot;
+	
+	/**
+	 * Discards the current snapshot, so that the mapping table is read again when next used
+	 */
+	public void refresh() {
+		generation.incrementAndGet();
+		snapshot = null;
+	}
+	
+	/**
+	 * @return the current snapshot of the mapping table or {@code null} if it could not be loaded
+	 */
+	protected T getSnapshot() {
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.FHIR_MAPPINGS);
+		Snapshot<T> current = snapshot;
+		if (current != null && current.version == version) {
+			return current.value;
+		}
+		
+		long currentGeneration = generation.get();
+		T value = loadSnapshot();
+		if (value == null) {
+			return null;
+		}
+		
+		current = new Snapshot<>(value, version);
+		if (generation.get() == currentGeneration) {
+			snapshot = current;
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Reads the mapping table
+	 *
+	 * @return the snapshot of the mapping table or {@code null} if it could not be loaded
+	 */
+	protected abstract T loadSnapshot();
+	
+	private static class Snapshot<T> {
+		
+		private final T value;
+		
+		private final long version;
+		
+		private Snapshot(T value, long version) {
+			this.value = value;
+			this.version = version;
+		}
+	}
+}
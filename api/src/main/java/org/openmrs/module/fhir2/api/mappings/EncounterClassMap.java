@@ -9,10 +9,13 @@
  */
 package org.openmrs.module.fhir2.api.mappings;
 
-import static org.hibernate.criterion.Restrictions.eq;
-
 import javax.annotation.Nonnull;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.HibernateException;
 import org.hibernate.SessionFactory;
@@ -25,22 +28,37 @@ import org.springframework.stereotype.Component;
 // A class for mapping OpenMRS locations to FHIR encounter classes
 @Component
 @Slf4j
-public class EncounterClassMap {
+public class EncounterClassMap extends BaseCachedMapping<Map<String, String>> {
 	
 	@Autowired
 	@Qualifier("sessionFactory")
 	private SessionFactory sessionFactory;
 	
 	public String getFhirClass(@Nonnull String locationUuid) {
+		Map<String, String> encounterClasses = getSnapshot();
+		return encounterClasses == null ? null : encounterClasses.get(locationUuid);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	protected Map<String, String> loadSnapshot() {
+		List<Object[]> rows;
 		try {
-			return (String) sessionFactory.getCurrentSession().createCriteria(FhirEncounterClassMap.class)
-			        .createAlias("location", "l").add(eq("l.uuid", locationUuid))
-			        .setProjection(Projections.property("encounterClass")).uniqueResult();
+			rows = sessionFactory.getCurrentSession().createCriteria(FhirEncounterClassMap.class)
+			        .createAlias("location", "l").setProjection(Projections.projectionList()
+			                .add(Projections.property("l.uuid")).add(Projections.property("encounterClass")))
+			        .list();
 		}
 		catch (HibernateException e) {
-			log.error("Exception caught while trying to load encounter type for location '{}'", locationUuid);
+			log.error("Exception caught while trying to load the encounter classes", e);
+			return null;
+		}
+		
+		Map<String, String> encounterClasses = new HashMap<>();
+		for (Object[] row : rows) {
+			encounterClasses.put((String) row[0], (String) row[1]);
 		}
 		
-		return null;
+		return Collections.unmodifiableMap(encounterClasses);
 	}
 }
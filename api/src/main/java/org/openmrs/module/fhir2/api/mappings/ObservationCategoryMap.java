@@ -9,16 +9,20 @@
  */
 package org.openmrs.module.fhir2.api.mappings;
 
-import static org.hibernate.criterion.Restrictions.eq;
-
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.HibernateException;
 import org.hibernate.SessionFactory;
-import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Projections;
 import org.openmrs.module.fhir2.model.FhirObservationCategoryMap;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,27 +32,71 @@ import org.springframework.stereotype.Component;
 @Component
 @Slf4j
 @Setter(AccessLevel.PUBLIC)
-public class ObservationCategoryMap {
+public class ObservationCategoryMap extends BaseCachedMapping<ObservationCategoryMap.Categories> {
 	
 	@Autowired
 	@Qualifier("sessionFactory")
 	private SessionFactory sessionFactory;
 	
 	public String getCategory(@Nonnull String conceptClassUuid) {
+		Categories categories = getSnapshot();
+		return categories == null ? null : categories.categoriesByConceptClassUuid.get(conceptClassUuid);
+	}
+	
+	/**
+	 * @param category the observation category
+	 * @return the ids of the concept classes mapped to the given category; empty if there are none
+	 */
+	public List<Integer> getConceptClassIdsByCategory(@Nonnull String category) {
+		Categories categories = getSnapshot();
+		if (categories == null) {
+			return Collections.emptyList();
+		}
+		
+		return categories.conceptClassIdsByCategory.getOrDefault(category.toLowerCase(Locale.ROOT),
+		    Collections.emptyList());
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	protected Categories loadSnapshot() {
+		List<Object[]> rows;
 		try {
-			return (String) sessionFactory.getCurrentSession().createCriteria(FhirObservationCategoryMap.class)
-			        .createAlias("conceptClass", "cc").add(eq("cc.uuid", conceptClassUuid))
-			        .setProjection(Projections.property("observationCategory")).uniqueResult();
+			rows = sessionFactory.getCurrentSession().createCriteria(FhirObservationCategoryMap.class)
+			        .createAlias("conceptClass", "cc")
+			        .setProjection(Projections.projectionList().add(Projections.property("cc.id"))
+			                .add(Projections.property("cc.uuid")).add(Projections.property("observationCategory")))
+			        .list();
 		}
 		catch (HibernateException e) {
-			log.error("Exception caught while trying to load category for concept class '{}'", conceptClassUuid, e);
+			log.error("Exception caught while trying to load the observation categories", e);
+			return null;
+		}
+		
+		Map<String, String> categoriesByConceptClassUuid = new HashMap<>();
+		Map<String, List<Integer>> conceptClassIdsByCategory = new HashMap<>();
+		for (Object[] row : rows) {
+			String category = (String) row[2];
+			categoriesByConceptClassUuid.put((String) row[1], category);
+			conceptClassIdsByCategory.computeIfAbsent(category.toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+			        .add((Integer) row[0]);
 		}
 		
-		return null;
+		conceptClassIdsByCategory.replaceAll((category, ids) -> Collections.unmodifiableList(ids));
+		return new Categories(Collections.unmodifiableMap(categoriesByConceptClassUuid),
+		        Collections.unmodifiableMap(conceptClassIdsByCategory));
 	}
 	
-	public DetachedCriteria queryConceptClassByCategory(@Nonnull String category) {
-		return DetachedCriteria.forClass(FhirObservationCategoryMap.class).createAlias("conceptClass", "cmcc")
-		        .add(eq("observationCategory", category)).setProjection(Projections.property("cmcc.uuid"));
+	static class Categories {
+		
+		private final Map<String, String> categoriesByConceptClassUuid;
+		
+		private final Map<String, List<Integer>> conceptClassIdsByCategory;
+		
+		private Categories(Map<String, String> categoriesByConceptClassUuid,
+		    Map<String, List<Integer>> conceptClassIdsByCategory) {
+			this.categoriesByConceptClassUuid = categoriesByConceptClassUuid;
+			this.conceptClassIdsByCategory = conceptClassIdsByCategory;
+		}
 	}
 }
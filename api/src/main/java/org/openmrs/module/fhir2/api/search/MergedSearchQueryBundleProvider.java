@@ -0,0 +1,375 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import ca.uhn.fhir.model.primitive.InstantDt;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.openmrs.Auditable;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Combines the results of several searches for the same resource type into a single result set. If
+ * a sort order is given, the results of the searches, each of which is already sorted, are merged in
+ * that order; otherwise the results of each search follow those of the previous one.
+ * <p/>
+ * The searches are only counted when the size of the combined results is requested. Each page reads
+ * at most as many rows from each search as the page contains. The position reached in each search is
+ * remembered for the most recently requested pages, so that the following page continues where the
+ * previous one stopped instead of merging the results from the start again.
+ */
+public class MergedSearchQueryBundleProvider implements IBundleProvider {
+	
+	private static final int MAX_MERGE_STATES = 20;
+	
+	private final List<IBundleProvider> sources;
+	
+	private final Comparator<IBaseResource> comparator;
+	
+	private final FhirGlobalPropertyService globalPropertyService;
+	
+	private final TreeMap<Integer, MergeState> mergeStates = new TreeMap<>();
+	
+	private transient Integer pageSize;
+	
+	private transient Integer size;
+	
+	@Getter
+	private final IPrimitiveType<Date> published;
+	
+	@Getter
+	private final String uuid;
+	
+	/**
+	 * @param sources the searches to combine
+	 * @param comparator the order in which to merge the results of the searches or null to return the
+	 *            results of the searches one after the other
+	 * @param globalPropertyService used to read the default page size
+	 */
+	public MergedSearchQueryBundleProvider(List<IBundleProvider> sources, @Nullable Comparator<IBaseResource> comparator,
+	    FhirGlobalPropertyService globalPropertyService) {
+		this.sources = new ArrayList<>(sources);
+		this.comparator = comparator;
+		this.globalPropertyService = globalPropertyService;
+		this.published = InstantDt.withCurrentTime();
+		this.uuid = UUID.randomUUID().toString();
+	}
+	
+	@Transactional(readOnly = true)
+	@Nonnull
+	@Override
+	public synchronized List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		int firstResult = Math.max(fromIndex, 0);
+		int lastResult = size == null ? toIndex : Math.min(toIndex, size);
+		if (lastResult <= firstResult) {
+			return Collections.emptyList();
+		}
+		
+		Map.Entry<Integer, MergeState> checkpoint = mergeStates.floorEntry(firstResult);
+		int position = checkpoint == null ? 0 : checkpoint.getKey();
+		MergeState state = checkpoint == null ? new MergeState(sources.size()) : checkpoint.getValue().copy();
+		
+		if (comparator == null) {
+			position = skipAhead(state, position, firstResult);
+		}
+		
+		List<List<Row>> selectedRows = new ArrayList<>(sources.size());
+		for (int i = 0; i < sources.size(); i++) {
+			selectedRows.add(new ArrayList<>());
+		}
+		
+		List<IBaseResource> resultList = new ArrayList<>();
+		Set<IBaseResource> includedResources = new LinkedHashSet<>();
+		while (position < lastResult) {
+			int sourceIndex = nextSource(state, lastResult - position, includedResources);
+			if (sourceIndex < 0) {
+				// every search has been read to the end, so the total is now known
+				size = position;
+				break;
+			}
+			
+			Row row = state.buffers.get(sourceIndex).poll();
+			if (row.resource == null) {
+				continue;
+			}
+			
+			if (position >= firstResult) {
+				selectedRows.get(sourceIndex).add(row);
+				resultList.add(row.resource);
+			}
+			
+			position++;
+		}
+		
+		saveState(position, state);
+		
+		for (int i = 0; i < sources.size(); i++) {
+			IBundleProvider source = sources.get(i);
+			List<Row> rows = selectedRows.get(i);
+			if (source instanceof SearchQueryBundleProvider && !rows.isEmpty()) {
+				includedResources.addAll(getIncludedResources((SearchQueryBundleProvider<?, ?>) source, rows));
+			}
+		}
+		
+		Set<String> resultKeys = new HashSet<>();
+		resultList.forEach(resource -> resultKeys.add(getResourceKey(resource)));
+		for (IBaseResource includedResource : includedResources) {
+			if (resultKeys.add(getResourceKey(includedResource))) {
+				resultList.add(includedResource);
+			}
+		}
+		
+		return resultList;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		// reading the first result is cheaper than counting every search
+		return size == null ? getResources(0, 1).isEmpty() : size == 0;
+	}
+	
+	@Override
+	public Integer preferredPageSize() {
+		if (pageSize == null) {
+			pageSize = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_DEFAULT_PAGE_SIZE, 10);
+		}
+		
+		return pageSize;
+	}
+	
+	@Nullable
+	@Override
+	public Integer size() {
+		if (size == null) {
+			long total = 0;
+			for (IBundleProvider source : sources) {
+				Integer sourceSize = source.size();
+				if (sourceSize == null) {
+					return null;
+				}
+				
+				total += sourceSize;
+			}
+			
+			size = (int) Math.min(total, Integer.MAX_VALUE);
+		}
+		
+		return size;
+	}
+	
+	/**
+	 * When the results are not merged, whole searches can be skipped using their sizes rather than
+	 * reading the rows before the requested page
+	 */
+	private int skipAhead(MergeState state, int position, int firstResult) {
+		for (int i = 0; i < sources.size() && position < firstResult; i++) {
+			if (!state.buffers.get(i).isEmpty()) {
+				break;
+			}
+			
+			if (state.exhausted[i]) {
+				continue;
+			}
+			
+			Integer sourceSize = sources.get(i).size();
+			if (sourceSize == null) {
+				break;
+			}
+			
+			int skipped = Math.min(Math.max(sourceSize - state.fetched[i], 0), firstResult - position);
+			state.fetched[i] += skipped;
+			state.exhausted[i] = state.fetched[i] >= sourceSize;
+			position += skipped;
+		}
+		
+		return position;
+	}
+	
+	/**
+	 * Finds the search which supplies the next result, reading the next window of that search if
+	 * necessary
+	 *
+	 * @return the index of the search or -1 if all the searches have been read to the end
+	 */
+	private int nextSource(MergeState state, int windowSize, Set<IBaseResource> includedResources) {
+		int result = -1;
+		for (int i = 0; i < sources.size(); i++) {
+			Deque<Row> buffer = state.buffers.get(i);
+			if (buffer.isEmpty() && !state.exhausted[i]) {
+				fill(state, i, windowSize, includedResources);
+			}
+			
+			if (buffer.isEmpty()) {
+				continue;
+			}
+			
+			if (comparator == null || buffer.peek().resource == null) {
+				return i;
+			}
+			
+			// on ties, the result of the earlier search comes first
+			if (result < 0 || comparator.compare(buffer.peek().resource, state.buffers.get(result).peek().resource) < 0) {
+				result = i;
+			}
+		}
+		
+		return result;
+	}
+	
+	private void fill(MergeState state, int sourceIndex, int windowSize, Set<IBaseResource> includedResources) {
+		IBundleProvider source = sources.get(sourceIndex);
+		int offset = state.fetched[sourceIndex];
+		int end = (int) Math.min((long) offset + windowSize, Integer.MAX_VALUE);
+		Deque<Row> buffer = state.buffers.get(sourceIndex);
+		
+		int rowCount;
+		if (source instanceof SearchQueryBundleProvider) {
+			// rows which could not be translated are buffered too, so that the position in the search stays
+			// in step with the rows read from the database
+			SearchQueryBundleProvider.SearchResults<?, ?> results = ((SearchQueryBundleProvider<?, ?>) source)
+			        .getSearchResults(offset, end);
+			rowCount = results.getRows().size();
+			for (int i = 0; i < rowCount; i++) {
+				buffer.add(new Row(results.getRows().get(i), (IBaseResource) results.getTranslations().get(i)));
+			}
+		} else {
+			// other providers, such as the ones holding the results of $everything, only return their own
+			// rows; anything beyond the requested range is treated as included
+			List<IBaseResource> resources = source.getResources(offset, end);
+			rowCount = Math.min(resources.size(), end - offset);
+			for (int i = 0; i < resources.size(); i++) {
+				if (i < rowCount) {
+					buffer.add(new Row(null, resources.get(i)));
+				} else {
+					includedResources.add(resources.get(i));
+				}
+			}
+		}
+		
+		state.fetched[sourceIndex] += rowCount;
+		state.exhausted[sourceIndex] = rowCount < end - offset;
+	}
+	
+	private void saveState(int position, MergeState state) {
+		// only the latest state keeps the rows that have been read but not returned yet
+		mergeStates.values().forEach(MergeState::dropBuffers);
+		mergeStates.put(position, state.withoutEntities());
+		
+		while (mergeStates.size() > MAX_MERGE_STATES) {
+			mergeStates.pollFirstEntry();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T extends OpenmrsObject & Auditable, U extends IBaseResource> Set<IBaseResource> getIncludedResources(
+	        SearchQueryBundleProvider<T, U> source, List<Row> rows) {
+		List<T> entities = new ArrayList<>(rows.size());
+		List<U> resources = new ArrayList<>(rows.size());
+		for (Row row : rows) {
+			resources.add((U) row.resource);
+			if (row.entity != null) {
+				entities.add((T) row.entity);
+			}
+		}
+		
+		return source.getIncludedResources(entities.size() == resources.size() ? entities : Collections.emptyList(),
+		    resources);
+	}
+	
+	private static String getResourceKey(IBaseResource resource) {
+		if (resource.getIdElement() == null || resource.getIdElement().getIdPart() == null) {
+			return UUID.randomUUID().toString();
+		}
+		
+		return resource.getClass().getSimpleName() + "/" + resource.getIdElement().getIdPart();
+	}
+	
+	@AllArgsConstructor
+	private static class Row {
+		
+		private final Object entity;
+		
+		private final IBaseResource resource;
+	}
+	
+	private static class MergeState {
+		
+		private final int[] fetched;
+		
+		private final boolean[] exhausted;
+		
+		private final List<Deque<Row>> buffers;
+		
+		private MergeState(int sourceCount) {
+			this.fetched = new int[sourceCount];
+			this.exhausted = new boolean[sourceCount];
+			this.buffers = new ArrayList<>(sourceCount);
+			for (int i = 0; i < sourceCount; i++) {
+				buffers.add(new ArrayDeque<>());
+			}
+		}
+		
+		private MergeState copy() {
+			MergeState copy = new MergeState(fetched.length);
+			System.arraycopy(fetched, 0, copy.fetched, 0, fetched.length);
+			System.arraycopy(exhausted, 0, copy.exhausted, 0, exhausted.length);
+			for (int i = 0; i < buffers.size(); i++) {
+				copy.buffers.get(i).addAll(buffers.get(i));
+			}
+			
+			return copy;
+		}
+		
+		private MergeState withoutEntities() {
+			MergeState copy = copy();
+			for (Deque<Row> buffer : copy.buffers) {
+				int rowCount = buffer.size();
+				for (int i = 0; i < rowCount; i++) {
+					buffer.add(new Row(null, buffer.poll().resource));
+				}
+			}
+			
+			return copy;
+		}
+		
+		private void dropBuffers() {
+			for (int i = 0; i < buffers.size(); i++) {
+				if (!buffers.get(i).isEmpty()) {
+					fetched[i] -= buffers.get(i).size();
+					exhausted[i] = false;
+					buffers.get(i).clear();
+				}
+			}
+		}
+	}
+}
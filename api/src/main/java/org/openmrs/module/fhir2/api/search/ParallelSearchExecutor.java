@@ -0,0 +1,277 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.translators.TranslationMemo;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs independent searches, e.g. the searches for the resources of a {@code _revinclude}, at the
+ * same time. Searches are only run in parallel if
+ * {@link FhirConstants#OPENMRS_FHIR_REV_INCLUDE_PARALLELISM} is set to more than 1; otherwise they
+ * are run one after another on the calling thread.
+ * <p/>
+ * Each worker thread opens its own Hibernate session, runs as the user of the calling thread and
+ * runs its searches in a read-only transaction, so searches must not return Hibernate entities,
+ * only the translated resources. Virtual threads are used where the JVM supports them.
+ * <p/>
+ * Since each worker holds a database connection, the number of workers running at the same time is
+ * bounded across all requests by {@link #getMaximumWorkers()}. A call which cannot start any worker
+ * runs its searches on the calling thread instead of waiting for one.
+ */
+@Slf4j
+@Component
+@Setter(AccessLevel.PACKAGE)
+public class ParallelSearchExecutor implements DisposableBean {
+	
+	private static final int MAXIMUM_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+	
+	private static final String CONNECTION_POOL_SIZE_PROPERTY = "hibernate.c3p0.max_size";
+	
+	// the size of the connection pool OpenMRS configures unless it is overridden in the runtime properties
+	private static final int DEFAULT_CONNECTION_POOL_SIZE = 50;
+	
+	@Autowired
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Autowired
+	@Qualifier("transactionManager")
+	private PlatformTransactionManager transactionManager;
+	
+	private static final ThreadLocal<Boolean> IS_WORKER = ThreadLocal.withInitial(() -> false);
+	
+	private volatile ExecutorService executor;
+	
+	private volatile Semaphore workerPermits;
+	
+	/**
+	 * Runs the given searches and returns their results in the order of the searches, regardless of
+	 * the order in which they complete
+	 *
+	 * @param searches the searches to run
+	 * @return the results of the searches
+	 */
+	public <T> List<T> invokeAll(List<Supplier<T>> searches) {
+		// searches started by a worker, e.g. for a recursive _revinclude, are not fanned out again so that workers
+		// never wait for other workers
+		int parallelism = IS_WORKER.get() ? 1 : Math.min(getParallelism(), searches.size());
+		if (parallelism <= 1) {
+			return runOnCallingThread(searches);
+		}
+		
+		UserContext userContext = Context.getUserContext();
+		TranslationMemo translationMemo = TranslationMemo.getCurrent();
+		AtomicInteger nextSearch = new AtomicInteger();
+		Object[] results = new Object[searches.size()];
+		
+		// at most parallelism workers are started for each call, each taking the next search until none are left
+		ExecutorService executorService = getExecutor();
+		List<Future<?>> workers = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism && workerPermits.tryAcquire(); i++) {
+			Worker worker = new Worker(() -> runWorker(userContext, translationMemo, searches, nextSearch, results));
+			executorService.execute(worker);
+			workers.add(worker);
+		}
+		
+		if (workers.isEmpty()) {
+			log.debug("No worker is available for parallel searches, running them on the calling thread");
+			return runOnCallingThread(searches);
+		}
+		
+		try {
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			workers.forEach(worker -> worker.cancel(true));
+			throw new InternalErrorException("Interrupted while waiting for searches to complete", e);
+		}
+		catch (ExecutionException e) {
+			workers.forEach(worker -> worker.cancel(true));
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			
+			throw new InternalErrorException("Error while running searches", e.getCause());
+		}
+		
+		List<T> orderedResults = new ArrayList<>(results.length);
+		for (Object result : results) {
+			@SuppressWarnings("unchecked")
+			T typedResult = (T) result;
+			orderedResults.add(typedResult);
+		}
+		
+		return orderedResults;
+	}
+	
+	private <T> List<T> runOnCallingThread(List<Supplier<T>> searches) {
+		List<T> results = new ArrayList<>(searches.size());
+		searches.forEach(search -> results.add(search.get()));
+		return results;
+	}
+	
+	private <T> void runWorker(UserContext userContext, TranslationMemo translationMemo, List<Supplier<T>> searches,
+	        AtomicInteger nextSearch, Object[] results) {
+		IS_WORKER.set(true);
+		TranslationMemo.setCurrent(translationMemo);
+		openSession(userContext);
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setReadOnly(true);
+			transactionTemplate.execute(status -> {
+				int search = nextSearch.getAndIncrement();
+				while (search < searches.size() && !Thread.currentThread().isInterrupted()) {
+					results[search] = searches.get(search).get();
+					search = nextSearch.getAndIncrement();
+				}
+				return null;
+			});
+		}
+		finally {
+			closeSession();
+			TranslationMemo.setCurrent(null);
+			IS_WORKER.remove();
+		}
+	}
+	
+	protected void openSession(UserContext userContext) {
+		Context.openSession();
+		Context.setUserContext(userContext);
+	}
+	
+	protected void closeSession() {
+		Context.clearUserContext();
+		Context.closeSession();
+	}
+	
+	protected int getParallelism() {
+		Integer parallelism = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_REV_INCLUDE_PARALLELISM,
+		    1);
+		return parallelism == null ? 1 : parallelism;
+	}
+	
+	/**
+	 * @return the number of workers which may run at the same time across all searches, kept well below
+	 *         the size of the database connection pool so that parallel searches cannot exhaust it
+	 */
+	protected int getMaximumWorkers() {
+		int connectionPoolSize = NumberUtils.toInt(Context.getRuntimeProperties().getProperty(CONNECTION_POOL_SIZE_PROPERTY),
+		    DEFAULT_CONNECTION_POOL_SIZE);
+		return Math.max(1, Math.min(MAXIMUM_POOL_SIZE, connectionPoolSize / 2));
+	}
+	
+	private ExecutorService getExecutor() {
+		if (executor == null) {
+			synchronized (this) {
+				if (executor == null) {
+					int maximumWorkers = getMaximumWorkers();
+					workerPermits = new Semaphore(maximumWorkers);
+					executor = createExecutor(maximumWorkers);
+				}
+			}
+		}
+		
+		return executor;
+	}
+	
+	private static ExecutorService createExecutor(int maximumWorkers) {
+		// Executors.newVirtualThreadPerTaskExecutor() is only available from Java 21
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			log.debug("Virtual threads are not available, using a thread pool for parallel searches");
+		}
+		
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "fhir2-search-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		
+		// a worker is only submitted once it holds a permit, so the queue never needs to hold more workers than that
+		ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maximumWorkers, maximumWorkers, 60L, TimeUnit.SECONDS,
+		        new LinkedBlockingQueue<>(maximumWorkers), threadFactory);
+		threadPool.allowCoreThreadTimeOut(true);
+		return threadPool;
+	}
+	
+	/**
+	 * A worker which returns its permit once it has run, or once it is cancelled before it has started
+	 */
+	private class Worker extends FutureTask<Void> {
+		
+		private final AtomicBoolean permitClaimed = new AtomicBoolean();
+		
+		Worker(Runnable runnable) {
+			super(runnable, null);
+		}
+		
+		@Override
+		public void run() {
+			if (permitClaimed.compareAndSet(false, true)) {
+				try {
+					super.run();
+				}
+				finally {
+					workerPermits.release();
+				}
+			}
+		}
+		
+		@Override
+		protected void done() {
+			if (permitClaimed.compareAndSet(false, true)) {
+				workerPermits.release();
+			}
+		}
+	}
+	
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+}
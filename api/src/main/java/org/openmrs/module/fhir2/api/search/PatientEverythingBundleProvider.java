@@ -0,0 +1,398 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import ca.uhn.fhir.model.primitive.InstantDt;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.openmrs.Auditable;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.util.InListUtils;
+
+/**
+ * Pages through the results of a Patient {@code $everything} operation without loading the whole
+ * record of every patient at once. The patients are processed in blocks; each block consists of the
+ * patients themselves followed by the resources of each requested type in the compartment of these
+ * patients. The resources of a block are read from separate searches, one for each resource type,
+ * which are only paged through as far as needed for the requested results.
+ * <p/>
+ * The end of a search is found from the rows read from the database rather than from the resources
+ * returned, because rows which cannot be translated are left out of the resources, so a page of a
+ * search can come back short before the search has ended.
+ */
+public class PatientEverythingBundleProvider implements IBundleProvider {
+	
+	private final IBundleProvider patients;
+	
+	private final List<String> compartmentTypes;
+	
+	private final boolean includePatients;
+	
+	private final DateRangeParam lastUpdated;
+	
+	private final SearchQueryInclude<?> searchQueryInclude;
+	
+	private final FhirGlobalPropertyService globalPropertyService;
+	
+	private final int blockSize;
+	
+	private final List<Integer[]> sourceSizes = new ArrayList<>();
+	
+	private final List<int[]> sourceResultCounts = new ArrayList<>();
+	
+	private Integer pageSize;
+	
+	private Block currentBlock;
+	
+	@Getter
+	private final IPrimitiveType<Date> published;
+	
+	@Getter
+	private final String uuid;
+	
+	/**
+	 * @param patients the search for the patients whose records should be returned
+	 * @param compartmentTypes the types of resources to return from the compartment of each patient
+	 * @param includePatients whether the patients themselves should be returned
+	 * @param lastUpdated if not null, only resources from the compartments of the patients last updated in
+	 *            this range are returned
+	 * @param pageSize the preferred page size or null to use the default page size
+	 * @param searchQueryInclude used to create the searches for the resources in the patient compartments
+	 * @param globalPropertyService used to read the default page size
+	 */
+	public PatientEverythingBundleProvider(IBundleProvider patients, List<String> compartmentTypes,
+	    boolean includePatients, DateRangeParam lastUpdated, Integer pageSize, SearchQueryInclude<?> searchQueryInclude,
+	    FhirGlobalPropertyService globalPropertyService) {
+		this(patients, compartmentTypes, includePatients, lastUpdated, pageSize, searchQueryInclude, globalPropertyService,
+		        InListUtils.MAX_IN_LIST_SIZE);
+	}
+	
+	PatientEverythingBundleProvider(IBundleProvider patients, List<String> compartmentTypes, boolean includePatients,
+	    DateRangeParam lastUpdated, Integer pageSize, SearchQueryInclude<?> searchQueryInclude,
+	    FhirGlobalPropertyService globalPropertyService, int blockSize) {
+		this.patients = patients;
+		this.compartmentTypes = compartmentTypes;
+		this.includePatients = includePatients;
+		this.lastUpdated = lastUpdated;
+		this.pageSize = pageSize;
+		this.searchQueryInclude = searchQueryInclude;
+		this.globalPropertyService = globalPropertyService;
+		this.blockSize = blockSize;
+		this.published = InstantDt.withCurrentTime();
+		this.uuid = UUID.randomUUID().toString();
+	}
+	
+	@Nonnull
+	@Override
+	public synchronized List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		int firstResult = Math.max(fromIndex, 0);
+		if (toIndex <= firstResult) {
+			return Collections.emptyList();
+		}
+		
+		List<IBaseResource> resources = new ArrayList<>();
+		int blockStart = 0;
+		for (int blockIndex = 0; blockStart < toIndex; blockIndex++) {
+			// skip the blocks before the requested results without loading them again
+			Integer knownBlockSize = getKnownBlockSize(blockIndex);
+			if (knownBlockSize != null && blockStart + knownBlockSize <= firstResult) {
+				blockStart += knownBlockSize;
+				continue;
+			}
+			
+			Block block = getBlock(blockIndex);
+			if (block == null) {
+				break;
+			}
+			
+			resources.addAll(block.getResources(Math.max(firstResult - blockStart, 0), toIndex - blockStart));
+			
+			// the requested results only continue into the next block if this block was read to its end
+			Integer blockSize = block.getKnownSize();
+			if (block.isLast() || blockSize == null) {
+				break;
+			}
+			
+			blockStart += blockSize;
+		}
+		
+		return resources;
+	}
+	
+	@Override
+	public Integer preferredPageSize() {
+		if (pageSize == null) {
+			pageSize = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_DEFAULT_PAGE_SIZE, 10);
+		}
+		
+		return pageSize;
+	}
+	
+	/**
+	 * The total number of results is only known once the size of every block is known. To avoid loading
+	 * the record of every patient just to count it, the searches of a block are only counted if there
+	 * is a single block of patients, e.g., for the {@code $everything} operation on a single patient.
+	 * Otherwise, the size is reported once every block has been paged through.
+	 */
+	@Nullable
+	@Override
+	public synchronized Integer size() {
+		Integer patientCount = patients.size();
+		if (patientCount == null) {
+			return null;
+		}
+		
+		int blockCount = (patientCount + blockSize - 1) / blockSize;
+		if (blockCount == 0) {
+			return 0;
+		}
+		
+		if (blockCount == 1) {
+			Block block = getBlock(0);
+			return block == null ? Integer.valueOf(0) : block.count();
+		}
+		
+		int size = 0;
+		for (int blockIndex = 0; blockIndex < blockCount; blockIndex++) {
+			Integer knownBlockSize = getKnownBlockSize(blockIndex);
+			if (knownBlockSize == null) {
+				return null;
+			}
+			
+			size += knownBlockSize;
+		}
+		
+		return size;
+	}
+	
+	private Integer getKnownBlockSize(int blockIndex) {
+		if (blockIndex >= sourceSizes.size()) {
+			return null;
+		}
+		
+		int size = 0;
+		for (Integer sourceSize : sourceSizes.get(blockIndex)) {
+			if (sourceSize == null) {
+				return null;
+			}
+			
+			size += sourceSize;
+		}
+		
+		return size;
+	}
+	
+	private Block getBlock(int blockIndex) {
+		if (currentBlock != null && currentBlock.getIndex() == blockIndex) {
+			return currentBlock;
+		}
+		
+		Page blockPatients = readPage(patients, blockIndex * blockSize, (blockIndex + 1) * blockSize);
+		if (blockPatients.getRowCount() == 0) {
+			return null;
+		}
+		
+		List<String> patientIds = blockPatients.getResources().stream().map(patient -> patient.getIdElement().getIdPart())
+		        .collect(Collectors.toList());
+		
+		List<IBundleProvider> sources = new ArrayList<>();
+		if (includePatients) {
+			sources.add(new SimpleBundleProvider(blockPatients.getAllResources()));
+		}
+		
+		// a block whose patients could not be translated has no compartments; searching them without any
+		// patient would return the resources of every patient
+		if (!patientIds.isEmpty()) {
+			sources.addAll(searchQueryInclude.getPatientCompartmentResources(compartmentTypes, patientIds, lastUpdated));
+		}
+		
+		// the sizes learned while paging through a block are kept, so that loading it again costs no counts
+		if (blockIndex == sourceSizes.size()) {
+			sourceSizes.add(new Integer[sources.size()]);
+			sourceResultCounts.add(new int[sources.size()]);
+		}
+		
+		currentBlock = new Block(blockIndex, sources, sourceSizes.get(blockIndex), sourceResultCounts.get(blockIndex),
+		        blockPatients.getRowCount() < blockSize);
+		return currentBlock;
+	}
+	
+	/**
+	 * Reads a range of a search, counting the rows read from the database where the search reports them
+	 */
+	private static Page readPage(IBundleProvider source, int fromIndex, int toIndex) {
+		if (source instanceof SearchQueryBundleProvider) {
+			return readPage((SearchQueryBundleProvider<?, ?>) source, fromIndex, toIndex);
+		}
+		
+		// other providers only return their own rows; anything beyond the requested range is treated as included
+		List<IBaseResource> resources = source.getResources(fromIndex, toIndex);
+		int rowCount = Math.min(resources.size(), Math.max(toIndex - fromIndex, 0));
+		return new Page(rowCount, new ArrayList<>(resources.subList(0, rowCount)),
+		        new ArrayList<>(resources.subList(rowCount, resources.size())));
+	}
+	
+	private static <T extends OpenmrsObject & Auditable, U extends IBaseResource> Page readPage(
+	        SearchQueryBundleProvider<T, U> source, int fromIndex, int toIndex) {
+		SearchQueryBundleProvider.SearchResults<T, U> results = source.getSearchResults(fromIndex, toIndex);
+		return new Page(results.getRows().size(), new ArrayList<>(results.getResources()),
+		        new ArrayList<>(source.getIncludedResources(results.getEntities(), results.getResources())));
+	}
+	
+	/**
+	 * A range of a search together with the number of rows it took up in the search
+	 */
+	@Getter
+	@AllArgsConstructor
+	private static class Page {
+		
+		private final int rowCount;
+		
+		private final List<IBaseResource> resources;
+		
+		private final List<IBaseResource> includedResources;
+		
+		List<IBaseResource> getAllResources() {
+			List<IBaseResource> allResources = new ArrayList<>(resources);
+			allResources.addAll(includedResources);
+			return allResources;
+		}
+	}
+	
+	/**
+	 * The patients of a block and the searches for their compartments. The searches are neither counted
+	 * nor read up front; the size of a search is learned from the first page which reaches its end and is
+	 * only counted if results after a search which has not been read to its end are requested.
+	 */
+	private class Block {
+		
+		@Getter
+		private final int index;
+		
+		private final List<IBundleProvider> sources;
+		
+		private final Integer[] sourceSizes;
+		
+		// the number of results each search is known to have, from the pages already read
+		private final int[] sourceResultCounts;
+		
+		@Getter
+		private final boolean last;
+		
+		Block(int index, List<IBundleProvider> sources, Integer[] sourceSizes, int[] sourceResultCounts, boolean last) {
+			this.index = index;
+			this.sources = sources;
+			this.sourceSizes = sourceSizes;
+			this.sourceResultCounts = sourceResultCounts;
+			this.last = last;
+		}
+		
+		List<IBaseResource> getResources(int fromIndex, int toIndex) {
+			List<IBaseResource> resources = new ArrayList<>();
+			int sourceStart = 0;
+			for (int i = 0; i < sources.size() && sourceStart < toIndex; i++) {
+				int sourceFrom = Math.max(fromIndex - sourceStart, 0);
+				int sourceTo = sourceSizes[i] == null ? toIndex - sourceStart
+				        : Math.min(toIndex - sourceStart, sourceSizes[i]);
+				
+				if (sourceFrom < sourceTo) {
+					Page page = readPage(sources.get(i), sourceFrom, sourceTo);
+					resources.addAll(page.getAllResources());
+					
+					if (sourceSizes[i] == null && page.getRowCount() < sourceTo - sourceFrom) {
+						if (page.getRowCount() > 0 || sourceFrom <= sourceResultCounts[i]) {
+							// a page which is cut short ends the search, which gives its size without counting it
+							sourceSizes[i] = sourceFrom + page.getRowCount();
+						}
+					} else if (sourceSizes[i] == null) {
+						// the requested results end within this search
+						sourceResultCounts[i] = Math.max(sourceResultCounts[i], sourceTo);
+						break;
+					}
+				}
+				
+				sourceStart += getSourceSize(i);
+			}
+			
+			return resources;
+		}
+		
+		Integer getKnownSize() {
+			int size = 0;
+			for (Integer sourceSize : sourceSizes) {
+				if (sourceSize == null) {
+					return null;
+				}
+				
+				size += sourceSize;
+			}
+			
+			return size;
+		}
+		
+		/**
+		 * @return the size of this block, counting the searches whose size is not known yet, or null if
+		 *         one of these searches cannot be counted
+		 */
+		Integer count() {
+			int size = 0;
+			for (int i = 0; i < sources.size(); i++) {
+				if (sourceSizes[i] == null) {
+					sourceSizes[i] = sources.get(i).size();
+					if (sourceSizes[i] == null) {
+						return null;
+					}
+				}
+				
+				size += sourceSizes[i];
+			}
+			
+			return size;
+		}
+		
+		private int getSourceSize(int sourceIndex) {
+			if (sourceSizes[sourceIndex] == null) {
+				IBundleProvider source = sources.get(sourceIndex);
+				Integer size = source.size();
+				if (size == null) {
+					// the search cannot be counted, e.g. because of _total=none, so it is read to its end page by page
+					int readSize = preferredPageSize();
+					int rowCount;
+					size = 0;
+					do {
+						rowCount = readPage(source, size, size + readSize).getRowCount();
+						size += rowCount;
+					} while (rowCount == readSize);
+				}
+				
+				sourceSizes[sourceIndex] = size;
+			}
+			
+			return sourceSizes[sourceIndex];
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.api.IQueryParameterAnd;
+import ca.uhn.fhir.model.api.IQueryParameterOr;
+import ca.uhn.fhir.model.api.IQueryParameterType;
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.rest.api.QualifiedParamList;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.SortOrderEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openmrs.module.fhir2.api.search.param.PropParam;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+
+/**
+ * Writes the parameters of a search as JSON and reads them back, so they can be stored with a
+ * {@link org.openmrs.module.fhir2.model.FhirSearchSnapshot}. HAPI FHIR parameters are written as the
+ * query tokens they would be parsed from and are read back by having HAPI FHIR parse those tokens
+ * again. Only the parameter types in {@code ca.uhn.fhir.rest.param}, includes and simple values are
+ * supported; other parameters are rejected rather than written, so that reading a snapshot never
+ * instantiates an arbitrary class.
+ */
+final class SearchParameterMapCodec {
+	
+	private static final String HAPI_PARAM_PACKAGE = "ca.uhn.fhir.rest.param.";
+	
+	private static final String INCLUDE_TYPE = "include";
+	
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	
+	private SearchParameterMapCodec() {
+	}
+	
+	/**
+	 * @param fhirContext the context used to write the query tokens of the parameters
+	 * @param searchParameterMap the search parameters to write
+	 * @return the search parameters as JSON
+	 * @throws IllegalArgumentException if the search has a parameter of an unsupported type
+	 */
+	static String encode(FhirContext fhirContext, SearchParameterMap searchParameterMap) {
+		ObjectNode root = MAPPER.createObjectNode();
+		
+		if (searchParameterMap.getTotalMode() != null) {
+			root.put("total", searchParameterMap.getTotalMode().name());
+		}
+		
+		ArrayNode sort = root.putArray("sort");
+		for (SortSpec sortSpec = searchParameterMap.getSortSpec(); sortSpec != null; sortSpec = sortSpec.getChain()) {
+			ObjectNode sortNode = sort.addObject().put("param", sortSpec.getParamName());
+			if (sortSpec.getOrder() != null) {
+				sortNode.put("order", sortSpec.getOrder().name());
+			}
+		}
+		
+		ArrayNode parameters = root.putArray("parameters");
+		for (Map.Entry<String, List<PropParam<?>>> entry : searchParameterMap.getParameters()) {
+			for (PropParam<?> propParam : entry.getValue()) {
+				ObjectNode parameter = parameters.addObject().put("key", entry.getKey()).put("property",
+				    propParam.getPropertyName());
+				encodeParam(fhirContext, parameter, propParam.getParam());
+			}
+		}
+		
+		return root.toString();
+	}
+	
+	/**
+	 * @param fhirContext the context used to parse the query tokens of the parameters
+	 * @param json search parameters written by {@link #encode(FhirContext, SearchParameterMap)}
+	 * @return the search parameters
+	 * @throws IllegalArgumentException if the JSON cannot be read or names an unsupported type
+	 */
+	static SearchParameterMap decode(FhirContext fhirContext, String json) {
+		JsonNode root;
+		try {
+			root = MAPPER.readTree(json);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read search parameters", e);
+		}
+		
+		SearchParameterMap searchParameterMap = new SearchParameterMap();
+		
+		if (root.hasNonNull("total")) {
+			searchParameterMap.setTotalMode(SearchTotalModeEnum.valueOf(root.get("total").asText()));
+		}
+		
+		SortSpec sortSpec = null;
+		JsonNode sort = root.path("sort");
+		for (int i = sort.size() - 1; i >= 0; i--) {
+			JsonNode sortNode = sort.get(i);
+			SortOrderEnum order = sortNode.hasNonNull("order") ? SortOrderEnum.valueOf(sortNode.get("order").asText())
+			        : null;
+			sortSpec = new SortSpec(sortNode.get("param").asText(), order, sortSpec);
+		}
+		searchParameterMap.setSortSpec(sortSpec);
+		
+		for (JsonNode parameter : root.path("parameters")) {
+			String key = parameter.get("key").asText();
+			String propertyName = parameter.hasNonNull("property") ? parameter.get("property").asText() : null;
+			searchParameterMap.addParameter(key, propertyName, decodeParam(fhirContext, key, parameter));
+		}
+		
+		return searchParameterMap;
+	}
+	
+	private static void encodeParam(FhirContext fhirContext, ObjectNode parameter, Object param) {
+		if (param instanceof String || param instanceof Boolean || param instanceof Integer) {
+			parameter.put("type", param.getClass().getName()).put("value", param.toString());
+		} else if (param instanceof Collection && ((Collection<?>) param).stream().allMatch(Include.class::isInstance)) {
+			parameter.put("type", INCLUDE_TYPE);
+			ArrayNode includes = parameter.putArray("value");
+			for (Object include : (Collection<?>) param) {
+				includes.addObject().put("value", ((Include) include).getValue()).put("recurse",
+				    ((Include) include).isRecurse());
+			}
+		} else if (param != null && isSupportedHapiParam(param.getClass())) {
+			parameter.put("type", param.getClass().getName());
+			if (param instanceof IQueryParameterAnd) {
+				ArrayNode and = parameter.putArray("value");
+				for (IQueryParameterOr<?> or : ((IQueryParameterAnd<?>) param).getValuesAsQueryTokens()) {
+					encodeOr(fhirContext, and.addObject(), or.getValuesAsQueryTokens());
+				}
+			} else if (param instanceof IQueryParameterType) {
+				encodeOr(fhirContext, parameter.putObject("value"), (IQueryParameterType) param);
+			} else {
+				encodeOr(fhirContext, parameter.putObject("value"), ((IQueryParameterOr<?>) param).getValuesAsQueryTokens());
+			}
+		} else {
+			throw new IllegalArgumentException(
+			        "Unsupported search parameter type " + (param == null ? null : param.getClass().getName()));
+		}
+	}
+	
+	private static void encodeOr(FhirContext fhirContext, ObjectNode or, IQueryParameterType param) {
+		or.put("qualifier", param.getQueryParameterQualifier());
+		or.putArray("values").add(param.getValueAsQueryToken(fhirContext));
+	}
+	
+	private static void encodeOr(FhirContext fhirContext, ObjectNode or, List<? extends IQueryParameterType> params) {
+		or.put("qualifier", params.isEmpty() ? null : params.get(0).getQueryParameterQualifier());
+		ArrayNode values = or.putArray("values");
+		for (IQueryParameterType param : params) {
+			values.add(param.getValueAsQueryToken(fhirContext));
+		}
+	}
+	
+	private static Serializable decodeParam(FhirContext fhirContext, String key, JsonNode parameter) {
+		String type = parameter.get("type").asText();
+		JsonNode value = parameter.get("value");
+		
+		if (String.class.getName().equals(type)) {
+			return value.asText();
+		} else if (Boolean.class.getName().equals(type)) {
+			return Boolean.valueOf(value.asText());
+		} else if (Integer.class.getName().equals(type)) {
+			return Integer.valueOf(value.asText());
+		} else if (INCLUDE_TYPE.equals(type)) {
+			HashSet<Include> includes = new HashSet<>();
+			for (JsonNode include : value) {
+				includes.add(new Include(include.get("value").asText(), include.get("recurse").asBoolean()));
+			}
+			return includes;
+		}
+		
+		Object param = newHapiParam(type);
+		if (param instanceof IQueryParameterAnd) {
+			List<QualifiedParamList> and = new ArrayList<>(value.size());
+			for (JsonNode or : value) {
+				and.add(decodeOr(or));
+			}
+			((IQueryParameterAnd<?>) param).setValuesAsQueryTokens(fhirContext, key, and);
+		} else if (param instanceof IQueryParameterType) {
+			QualifiedParamList or = decodeOr(value);
+			((IQueryParameterType) param).setValueAsQueryToken(fhirContext, key, or.getQualifier(),
+			    or.isEmpty() ? null : or.get(0));
+		} else {
+			((IQueryParameterOr<?>) param).setValuesAsQueryTokens(fhirContext, key, decodeOr(value));
+		}
+		
+		return (Serializable) param;
+	}
+	
+	private static QualifiedParamList decodeOr(JsonNode or) {
+		JsonNode values = or.path("values");
+		QualifiedParamList paramList = new QualifiedParamList(values.size());
+		paramList.setQualifier(or.hasNonNull("qualifier") ? or.get("qualifier").asText() : null);
+		for (JsonNode value : values) {
+			paramList.add(value.isNull() ? null : value.asText());
+		}
+		return paramList;
+	}
+	
+	private static Object newHapiParam(String type) {
+		try {
+			Class<?> paramClass = Class.forName(type, false, SearchParameterMapCodec.class.getClassLoader());
+			if (!isSupportedHapiParam(paramClass)) {
+				throw new IllegalArgumentException("Unsupported search parameter type " + type);
+			}
+			
+			return paramClass.getConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unable to create search parameter of type " + type, e);
+		}
+	}
+	
+	private static boolean isSupportedHapiParam(Class<?> paramClass) {
+		return paramClass.getName().startsWith(HAPI_PARAM_PACKAGE) && Serializable.class.isAssignableFrom(paramClass)
+		        && (IQueryParameterAnd.class.isAssignableFrom(paramClass)
+		                || IQueryParameterOr.class.isAssignableFrom(paramClass)
+		                || IQueryParameterType.class.isAssignableFrom(paramClass));
+	}
+}
@@ -53,6 +53,10 @@ public class SearchQuery<T extends OpenmrsObject & Auditable, U extends IBaseRes
 			result.setPreferredPageSize(result.size());
 			return result;
 		}
+		if (theParams.getTotalMode() == null) {
+			theParams.setTotalMode(SearchTotalModeHolder.getTotalMode());
+		}
+		
 		return new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude);
 	}
 }
@@ -14,14 +14,18 @@ import javax.annotation.Nullable;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import ca.uhn.fhir.model.primitive.InstantDt;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
@@ -30,6 +34,8 @@ import org.openmrs.OpenmrsObject;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.dao.FhirDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.api.translators.ToFhirTranslator;
 import org.openmrs.module.fhir2.api.util.FhirUtils;
@@ -39,13 +45,18 @@ public class SearchQueryBundleProvider<T extends OpenmrsObject & Auditable, U ex
 	
 	private static final long serialVersionUID = 4L;
 	
+	private static final int MAX_KEYSET_CURSORS = 20;
+	
+	@Getter(AccessLevel.PACKAGE)
 	private final FhirDao<T> dao;
 	
 	@Getter
 	private final IPrimitiveType<Date> published;
 	
+	@Getter(AccessLevel.PACKAGE)
 	private final SearchParameterMap searchParameterMap;
 	
+	@Getter(AccessLevel.PACKAGE)
 	private final ToFhirTranslator<T, U> translator;
 	
 	@Getter
@@ -57,6 +68,9 @@ public class SearchQueryBundleProvider<T extends OpenmrsObject & Auditable, U ex
 	
 	private transient Integer size;
 	
+	private transient Map<Integer, KeysetCursor> keysetCursors;
+	
+	@Getter(AccessLevel.PACKAGE)
 	private final SearchQueryInclude<U> searchQueryInclude;
 	
 	public SearchQueryBundleProvider(SearchParameterMap searchParameterMap, FhirDao<T> dao,
@@ -75,19 +89,81 @@ public class SearchQueryBundleProvider<T extends OpenmrsObject & Auditable, U ex
 	@Override
 	@Nonnull
 	public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		SearchResults<T, U> results = getSearchResults(fromIndex, toIndex);
+		
+		List<IBaseResource> resultList = new ArrayList<>(results.getResources());
+		resultList.addAll(getIncludedResources(results.getEntities(), results.getResources()));
+		
+		return resultList;
+	}
+	
+	/**
+	 * Loads the given range of search results without the resources they include
+	 *
+	 * @param fromIndex the index of the first result to load
+	 * @param toIndex the index after the last result to load
+	 * @return the results and the OpenMRS objects they were translated from
+	 */
+	SearchResults<T, U> getSearchResults(int fromIndex, int toIndex) {
+		// without a total, we load one extra row to find out whether there is another page
+		boolean loadExtraResult = searchParameterMap.getTotalMode() == SearchTotalModeEnum.NONE
+		        && toIndex < Integer.MAX_VALUE;
+		
 		searchParameterMap.setFromIndex(fromIndex);
-		searchParameterMap.setToIndex(toIndex);
+		searchParameterMap.setToIndex(loadExtraResult ? toIndex + 1 : toIndex);
 		
-		List<U> returnedResourceList = dao.getSearchResults(searchParameterMap).stream().map(translator::toFhirResource)
-		        .filter(Objects::nonNull).collect(Collectors.toList());
+		List<T> results;
+		Optional<KeysetPage<T>> page = dao.getSearchResultsPage(searchParameterMap, getKeysetCursors().get(fromIndex));
+		if (page.isPresent()) {
+			results = page.get().getResults();
+			
+			// remember where the next page starts, so sequential paging can seek instead of skipping rows
+			KeysetCursor nextCursor = page.get().getNextCursor();
+			if (nextCursor != null && nextCursor.getOffset() > fromIndex && !loadExtraResult) {
+				getKeysetCursors().put(nextCursor.getOffset(), nextCursor);
+			}
+		} else {
+			results = dao.getSearchResults(searchParameterMap);
+		}
 		
-		Set<IBaseResource> includedResources = searchQueryInclude.getIncludedResources(returnedResourceList,
-		    this.searchParameterMap);
+		if (loadExtraResult) {
+			if (results.size() > toIndex - fromIndex) {
+				results = results.subList(0, toIndex - fromIndex);
+			} else {
+				size = fromIndex + results.size();
+			}
+		}
 		
-		List<IBaseResource> resultList = new ArrayList<>(returnedResourceList);
-		resultList.addAll(includedResources);
+		return new SearchResults<>(results, translator.toFhirResources(results));
+	}
+	
+	/**
+	 * Loads the resources included by the given search results
+	 *
+	 * @param entities the OpenMRS objects the results were translated from or an empty list if these
+	 *            are no longer available
+	 * @param resources the search results
+	 * @return the included resources
+	 */
+	Set<IBaseResource> getIncludedResources(List<T> entities, List<U> resources) {
+		return searchQueryInclude.getIncludedResources(entities, resources, this.searchParameterMap);
+	}
+	
+	private Map<Integer, KeysetCursor> getKeysetCursors() {
+		if (keysetCursors == null) {
+			// only the most recently visited pages are retained; other offsets fall back to offset paging
+			keysetCursors = Collections.synchronizedMap(new LinkedHashMap<Integer, KeysetCursor>(16, 0.75f, true) {
+				
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, KeysetCursor> eldest) {
+					return size() > MAX_KEYSET_CURSORS;
+				}
+			});
+		}
 		
-		return resultList;
+		return keysetCursors;
 	}
 	
 	@Override
@@ -103,8 +179,53 @@ public class SearchQueryBundleProvider<T extends OpenmrsObject & Auditable, U ex
 	@Nullable
 	public Integer size() {
 		if (size == null) {
-			size = dao.getSearchResultsCount(searchParameterMap);
+			SearchTotalModeEnum totalMode = searchParameterMap.getTotalMode();
+			if (totalMode == SearchTotalModeEnum.NONE) {
+				// the size is only known once a page reaches the end of the results
+				return null;
+			} else if (totalMode == SearchTotalModeEnum.ESTIMATED) {
+				size = dao.getSearchResultsCountEstimate(searchParameterMap,
+				    globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_TOTAL_ESTIMATE_SAMPLE_SIZE, 1000));
+			} else {
+				size = dao.getSearchResultsCount(searchParameterMap);
+			}
 		}
 		return size;
 	}
+	
+	/**
+	 * A range of search results together with the OpenMRS objects they were translated from. The rows
+	 * read from the database are kept as well, because rows which cannot be translated are left out
+	 * of the results but still take up a position in the search.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	static class SearchResults<T, U> {
+		
+		private final List<T> rows;
+		
+		private final List<U> translations;
+		
+		private final List<T> entities;
+		
+		private final List<U> resources;
+		
+		/**
+		 * @param rows the rows read from the database
+		 * @param translations the translation of each row, which is null if the row could not be
+		 *            translated
+		 */
+		SearchResults(List<T> rows, List<U> translations) {
+			this.rows = rows;
+			this.translations = translations;
+			this.entities = new ArrayList<>(rows.size());
+			this.resources = new ArrayList<>(rows.size());
+			for (int i = 0; i < rows.size(); i++) {
+				U resource = translations.get(i);
+				if (resource != null) {
+					entities.add(rows.get(i));
+					resources.add(resource);
+				}
+			}
+		}
+	}
 }
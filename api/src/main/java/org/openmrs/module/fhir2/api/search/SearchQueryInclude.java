@@ -10,14 +10,23 @@
 package org.openmrs.module.fhir2.api.search;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.ReferenceAndListParam;
 import ca.uhn.fhir.rest.param.ReferenceOrListParam;
 import ca.uhn.fhir.rest.param.ReferenceParam;
@@ -35,12 +44,22 @@ import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Person;
 import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.RelatedPerson;
+import org.hl7.fhir.r4.model.Resource;
 import org.hl7.fhir.r4.model.ServiceRequest;
 import org.hl7.fhir.r4.model.Task;
+import org.openmrs.Allergy;
+import org.openmrs.Obs;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Order;
+import org.openmrs.Retireable;
+import org.openmrs.Visit;
+import org.openmrs.Voidable;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirAllergyIntoleranceService;
 import org.openmrs.module.fhir2.api.FhirDiagnosticReportService;
 import org.openmrs.module.fhir2.api.FhirEncounterService;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.FhirLocationService;
 import org.openmrs.module.fhir2.api.FhirMedicationDispenseService;
 import org.openmrs.module.fhir2.api.FhirMedicationRequestService;
@@ -58,6 +77,12 @@ import org.openmrs.module.fhir2.api.search.param.MedicationRequestSearchParams;
 import org.openmrs.module.fhir2.api.search.param.ObservationSearchParams;
 import org.openmrs.module.fhir2.api.search.param.PropParam;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.EncounterTranslator;
+import org.openmrs.module.fhir2.api.translators.LocationTranslator;
+import org.openmrs.module.fhir2.api.translators.PatientTranslator;
+import org.openmrs.module.fhir2.api.util.InListUtils;
+import org.openmrs.module.fhir2.model.FhirDiagnosticReport;
+import org.openmrs.util.PrivilegeConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -65,6 +90,48 @@ import org.springframework.stereotype.Component;
 @NoArgsConstructor
 public class SearchQueryInclude<U extends IBaseResource> {
 	
+	private static final Map<Class<?>, Function<Object, Object>> PATIENT_REFERENCES = new LinkedHashMap<>();
+	
+	private static final Map<Class<?>, Function<Object, Object>> ENCOUNTER_REFERENCES = new LinkedHashMap<>();
+	
+	private static final Map<Class<?>, Function<Object, Object>> LOCATION_REFERENCES = new LinkedHashMap<>();
+	
+	private static final Map<String, String> REVERSE_INCLUDE_TARGET_TYPES = new HashMap<>();
+	
+	private static final int DEFAULT_ITERATE_MAXIMUM_DEPTH = 3;
+	
+	private static final int DEFAULT_ITERATE_MAXIMUM_RESOURCES = 1000;
+	
+	static {
+		PATIENT_REFERENCES.put(Obs.class, obs -> ((Obs) obs).getPerson());
+		PATIENT_REFERENCES.put(org.openmrs.Encounter.class, encounter -> ((org.openmrs.Encounter) encounter).getPatient());
+		PATIENT_REFERENCES.put(Visit.class, visit -> ((Visit) visit).getPatient());
+		PATIENT_REFERENCES.put(Order.class, order -> ((Order) order).getPatient());
+		PATIENT_REFERENCES.put(Allergy.class, allergy -> ((Allergy) allergy).getPatient());
+		PATIENT_REFERENCES.put(FhirDiagnosticReport.class, report -> ((FhirDiagnosticReport) report).getSubject());
+		
+		ENCOUNTER_REFERENCES.put(Obs.class, obs -> ((Obs) obs).getEncounter());
+		ENCOUNTER_REFERENCES.put(Order.class, order -> ((Order) order).getEncounter());
+		ENCOUNTER_REFERENCES.put(FhirDiagnosticReport.class, report -> ((FhirDiagnosticReport) report).getEncounter());
+		
+		LOCATION_REFERENCES.put(org.openmrs.Encounter.class, encounter -> ((org.openmrs.Encounter) encounter).getLocation());
+		LOCATION_REFERENCES.put(Visit.class, visit -> ((Visit) visit).getLocation());
+		
+		// the type of the resources referenced by each parameter that may be reverse included
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_PART_OF_PARAM, FhirConstants.LOCATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_LOCATION_PARAM, FhirConstants.LOCATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_CONTEXT_PARAM, FhirConstants.ENCOUNTER);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_ENCOUNTER_PARAM, FhirConstants.ENCOUNTER);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_MEDICATION_PARAM, FhirConstants.MEDICATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_PATIENT_PARAM, FhirConstants.PATIENT);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_HAS_MEMBER_PARAM, FhirConstants.OBSERVATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_RESULT_PARAM, FhirConstants.OBSERVATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_RELATED_TYPE_PARAM, FhirConstants.OBSERVATION);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_REQUESTER_PARAM, FhirConstants.PRACTITIONER);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_PARTICIPANT_PARAM, FhirConstants.PRACTITIONER);
+		REVERSE_INCLUDE_TARGET_TYPES.put(FhirConstants.INCLUDE_PRESCRIPTION_PARAMETER, FhirConstants.MEDICATION_REQUEST);
+	}
+	
 	@Autowired
 	private FhirLocationService locationService;
 	
@@ -98,8 +165,38 @@ public class SearchQueryInclude<U extends IBaseResource> {
 	@Autowired
 	private FhirMedicationDispenseService medicationDispenseService;
 	
-	@SuppressWarnings("unchecked")
+	@Autowired
+	private ParallelSearchExecutor parallelSearchExecutor;
+	
+	@Autowired
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Autowired
+	private PatientTranslator patientTranslator;
+	
+	@Autowired
+	private EncounterTranslator<org.openmrs.Encounter> encounterTranslator;
+	
+	@Autowired
+	private LocationTranslator locationTranslator;
+	
 	public Set<IBaseResource> getIncludedResources(List<U> resourceList, SearchParameterMap theParams) {
+		return getIncludedResources(Collections.emptyList(), resourceList, theParams);
+	}
+	
+	/**
+	 * Loads the resources included by the given search results. Where possible, {@code _include}s are
+	 * resolved from the associations of the OpenMRS objects that the results were translated from,
+	 * which are usually already loaded, instead of searching for the referenced resources by id.
+	 *
+	 * @param entities the OpenMRS objects the results were translated from, or an empty list if these
+	 *            are not available
+	 * @param resourceList the search results
+	 * @param theParams the search parameters
+	 * @return the included resources
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<IBaseResource> getIncludedResources(List<?> entities, List<U> resourceList, SearchParameterMap theParams) {
 		
 		List<PropParam<?>> includeParamList = theParams.getParameters(FhirConstants.INCLUDE_SEARCH_HANDLER);
 		List<PropParam<?>> revIncludeParamList = theParams.getParameters(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER);
@@ -115,82 +212,168 @@ public class SearchQueryInclude<U extends IBaseResource> {
 			revIncludeSet = (HashSet<Include>) revIncludeParamList.get(0).getParam();
 		}
 		
-		Set<IBaseResource> _includeResources = handleInclude(resourceList, includeSet);
-		Set<IBaseResource> _revIncludeResources = handleRevInclude(resourceList, includeSet, revIncludeSet);
+		Set<IBaseResource> _includeResources = handleInclude(entities, resourceList, includeSet);
+		Set<IBaseResource> _revIncludeResources = handleRevInclude(resourceList, revIncludeSet);
 		
 		Set<IBaseResource> resourcesToBeReturned = new HashSet<>();
 		resourcesToBeReturned.addAll(_includeResources);
 		resourcesToBeReturned.addAll(_revIncludeResources);
+		resourcesToBeReturned.addAll(handleIterate(resourceList, resourcesToBeReturned, includeSet, revIncludeSet));
 		
 		return resourcesToBeReturned;
 	}
 	
+	/**
+	 * Applies the {@code :iterate} includes and reverse includes to the included resources, then to the
+	 * resources these include and so on. Each level is resolved with one search per include and resource
+	 * type, resources which were already returned are not visited again and the iteration stops after
+	 * {@link FhirConstants#OPENMRS_FHIR_ITERATE_MAXIMUM_DEPTH} levels or once
+	 * {@link FhirConstants#OPENMRS_FHIR_ITERATE_MAXIMUM_RESOURCES} resources have been included.
+	 */
+	@SuppressWarnings("unchecked")
+	private Set<IBaseResource> handleIterate(List<U> resourceList, Set<IBaseResource> includedResources,
+	        HashSet<Include> includeSet, HashSet<Include> revIncludeSet) {
+		Set<IBaseResource> iteratedResources = new HashSet<>();
+		
+		List<Include> iterateIncludes = includeSet.stream().filter(Include::isRecurse).collect(Collectors.toList());
+		List<Include> iterateRevIncludes = revIncludeSet.stream().filter(Include::isRecurse).collect(Collectors.toList());
+		if (includedResources.isEmpty() || (iterateIncludes.isEmpty() && iterateRevIncludes.isEmpty())) {
+			return iteratedResources;
+		}
+		
+		int maximumDepth = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_ITERATE_MAXIMUM_DEPTH,
+		    DEFAULT_ITERATE_MAXIMUM_DEPTH);
+		int maximumResources = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_ITERATE_MAXIMUM_RESOURCES,
+		    DEFAULT_ITERATE_MAXIMUM_RESOURCES);
+		
+		Set<String> visited = new HashSet<>();
+		resourceList.forEach(resource -> visited.add(getResourceKey(resource)));
+		includedResources.forEach(resource -> visited.add(getResourceKey(resource)));
+		
+		int resourceCount = includedResources.size();
+		List<IBaseResource> level = new ArrayList<>(includedResources);
+		for (int depth = 1; depth <= maximumDepth && !level.isEmpty() && resourceCount < maximumResources; depth++) {
+			Map<String, List<IBaseResource>> levelByType = level.stream()
+			        .collect(Collectors.groupingBy(SearchQueryInclude::getResourceType));
+			
+			Set<IBaseResource> found = new HashSet<>();
+			for (Include include : iterateIncludes) {
+				List<IBaseResource> sources = levelByType.get(normalizeResourceType(include.getParamType()));
+				if (sources != null) {
+					found.addAll(handleInclude((List<U>) sources, new HashSet<>(Collections.singleton(include))));
+				}
+			}
+			
+			for (Include revInclude : iterateRevIncludes) {
+				List<IBaseResource> sources = levelByType.get(getReverseIncludeTargetType(revInclude));
+				if (sources != null) {
+					found.addAll(handleRevInclude((List<U>) sources, new HashSet<>(Collections.singleton(revInclude))));
+				}
+			}
+			
+			level = new ArrayList<>();
+			for (IBaseResource resource : found) {
+				if (resourceCount >= maximumResources) {
+					break;
+				}
+				
+				if (visited.add(getResourceKey(resource))) {
+					level.add(resource);
+					resourceCount++;
+				}
+			}
+			
+			iteratedResources.addAll(level);
+		}
+		
+		return iteratedResources;
+	}
+	
 	@SuppressWarnings("unchecked")
-	private Set<IBaseResource> handleRevInclude(List<U> resourceList, HashSet<Include> includeSet,
-	        HashSet<Include> revIncludeSet) {
+	private Set<IBaseResource> handleRevInclude(List<U> resourceList, HashSet<Include> revIncludeSet) {
 		Set<IBaseResource> revIncludedResourcesSet = new HashSet<>();
 		
 		if (CollectionUtils.isEmpty(revIncludeSet)) {
 			return revIncludedResourcesSet;
 		}
 		
-		ReferenceAndListParam referenceParams = new ReferenceAndListParam();
-		ReferenceOrListParam params = new ReferenceOrListParam();
-		resourceList.forEach(resource -> params.addOr(new ReferenceParam(resource.getIdElement().getIdPart())));
-		referenceParams.addAnd(params);
-		
-		revIncludeSet.forEach(revIncludeParam -> {
-			IBundleProvider bundleProvider = null;
-			switch (revIncludeParam.getParamName()) {
-				case FhirConstants.INCLUDE_PART_OF_PARAM:
-				case FhirConstants.INCLUDE_LOCATION_PARAM:
-					bundleProvider = handleLocationReverseInclude(referenceParams, revIncludeParam.getParamType());
-					break;
-				case FhirConstants.INCLUDE_CONTEXT_PARAM:
-				case FhirConstants.INCLUDE_ENCOUNTER_PARAM:
-					bundleProvider = handleEncounterReverseInclude(referenceParams, revIncludeParam.getParamType(),
-					    getRecursiveIncludes(includeSet), getRecursiveIncludes(revIncludeSet));
-					break;
-				case FhirConstants.INCLUDE_MEDICATION_PARAM:
-					bundleProvider = handleMedicationReverseInclude(referenceParams, revIncludeParam.getParamType(),
-					    getRecursiveIncludes(includeSet), getRecursiveIncludes(revIncludeSet));
-					break;
-				case FhirConstants.INCLUDE_PATIENT_PARAM:
-					bundleProvider = handlePatientReverseInclude(referenceParams, revIncludeParam.getParamType(),
-					    getRecursiveIncludes(includeSet), getRecursiveIncludes(revIncludeSet));
-					break;
-				case FhirConstants.INCLUDE_HAS_MEMBER_PARAM:
-				case FhirConstants.INCLUDE_RESULT_PARAM:
-				case FhirConstants.INCLUDE_RELATED_TYPE_PARAM:
-					bundleProvider = handleObservationReverseInclude(referenceParams, revIncludeParam.getParamType());
-					break;
-				case FhirConstants.INCLUDE_REQUESTER_PARAM:
-				case FhirConstants.INCLUDE_PARTICIPANT_PARAM:
-					bundleProvider = handlePractitionerReverseInclude(referenceParams, revIncludeParam.getParamType(),
-					    getRecursiveIncludes(includeSet), getRecursiveIncludes(revIncludeSet));
-					break;
-				case FhirConstants.INCLUDE_PRESCRIPTION_PARAMETER:
-					bundleProvider = handlePrescriptionReverseInclude(referenceParams, revIncludeParam.getParamType());
-					break;
-			}
+		// the ids are split so that no single search has to match an unbounded list of references
+		List<String> resourceIds = resourceList.stream().map(resource -> resource.getIdElement().getIdPart())
+		        .collect(Collectors.toList());
+		List<Supplier<List<IBaseResource>>> searches = new ArrayList<>();
+		for (List<String> chunk : InListUtils.chunkInList(resourceIds)) {
+			ReferenceAndListParam referenceParams = new ReferenceAndListParam();
+			ReferenceOrListParam params = new ReferenceOrListParam();
+			chunk.forEach(id -> params.addOr(new ReferenceParam(id)));
+			referenceParams.addAnd(params);
 			
-			if (bundleProvider != null && !bundleProvider.isEmpty()) {
-				revIncludedResourcesSet.addAll(bundleProvider.getResources(0, -1));
-			}
-		});
+			revIncludeSet.forEach(revIncludeParam -> searches.add(() -> {
+				IBundleProvider bundleProvider = null;
+				switch (revIncludeParam.getParamName()) {
+					case FhirConstants.INCLUDE_PART_OF_PARAM:
+					case FhirConstants.INCLUDE_LOCATION_PARAM:
+						bundleProvider = handleLocationReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+					case FhirConstants.INCLUDE_CONTEXT_PARAM:
+					case FhirConstants.INCLUDE_ENCOUNTER_PARAM:
+						bundleProvider = handleEncounterReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+					case FhirConstants.INCLUDE_MEDICATION_PARAM:
+						bundleProvider = handleMedicationReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+					case FhirConstants.INCLUDE_PATIENT_PARAM:
+						bundleProvider = handlePatientReverseInclude(referenceParams, revIncludeParam.getParamType(), null);
+						break;
+					case FhirConstants.INCLUDE_HAS_MEMBER_PARAM:
+					case FhirConstants.INCLUDE_RESULT_PARAM:
+					case FhirConstants.INCLUDE_RELATED_TYPE_PARAM:
+						bundleProvider = handleObservationReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+					case FhirConstants.INCLUDE_REQUESTER_PARAM:
+					case FhirConstants.INCLUDE_PARTICIPANT_PARAM:
+						bundleProvider = handlePractitionerReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+					case FhirConstants.INCLUDE_PRESCRIPTION_PARAMETER:
+						bundleProvider = handlePrescriptionReverseInclude(referenceParams, revIncludeParam.getParamType());
+						break;
+				}
+				
+				if (bundleProvider != null && !bundleProvider.isEmpty()) {
+					return bundleProvider.getResources(0, -1);
+				}
+				
+				return Collections.<IBaseResource> emptyList();
+			}));
+		}
+		
+		// the searches are independent of each other, so they may be run at the same time
+		parallelSearchExecutor.invokeAll(searches).forEach(revIncludedResourcesSet::addAll);
 		
 		return revIncludedResourcesSet;
 	}
 	
-	@SuppressWarnings("unchecked")
 	public Set<IBaseResource> handleInclude(List<U> resourceList, HashSet<Include> includeSet) {
+		return handleInclude(Collections.emptyList(), resourceList, includeSet);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Set<IBaseResource> handleInclude(List<?> entities, List<U> resourceList, HashSet<Include> includeSet) {
 		Set<IBaseResource> includedResourcesSet = new HashSet<>();
 		
 		if (CollectionUtils.isEmpty(includeSet)) {
 			return includedResourcesSet;
 		}
 		
+		// each referenced object is only translated once, even if it is included by several results or parameters
+		Map<String, IBaseResource> translatedEntities = new HashMap<>();
 		includeSet.forEach(includeParam -> {
+			Optional<Set<IBaseResource>> entityIncludedResources = handleEntityInclude(entities, resourceList,
+			    includeParam, translatedEntities);
+			if (entityIncludedResources.isPresent()) {
+				includedResourcesSet.addAll(entityIncludedResources.get());
+				return;
+			}
+			
 			switch (includeParam.getParamName()) {
 				case FhirConstants.INCLUDE_PART_OF_PARAM:
 					includedResourcesSet.addAll(handleParentLocationInclude((List<Location>) resourceList));
@@ -236,6 +419,104 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return includedResourcesSet;
 	}
 	
+	private Optional<Set<IBaseResource>> handleEntityInclude(List<?> entities, List<U> resourceList,
+	        Include includeParam, Map<String, IBaseResource> translatedEntities) {
+		if (entities.isEmpty() || entities.size() != resourceList.size()) {
+			return Optional.empty();
+		}
+		
+		// the include only applies to results of the type it names, e.g., Observation:patient to observations
+		String sourceType = normalizeResourceType(includeParam.getParamType());
+		if (!resourceList.stream().allMatch(resource -> getResourceType(resource).equals(sourceType))) {
+			return Optional.empty();
+		}
+		
+		switch (includeParam.getParamName()) {
+			case FhirConstants.INCLUDE_PATIENT_PARAM:
+				return handleEntityInclude(entities, PATIENT_REFERENCES, org.openmrs.Patient.class,
+				    PrivilegeConstants.GET_PATIENTS, patientTranslator::toFhirResource, patientService::get,
+				    translatedEntities);
+			case FhirConstants.INCLUDE_CONTEXT_PARAM:
+			case FhirConstants.INCLUDE_ENCOUNTER_PARAM:
+				return handleEntityInclude(entities, ENCOUNTER_REFERENCES, org.openmrs.Encounter.class,
+				    PrivilegeConstants.GET_ENCOUNTERS, encounterTranslator::toFhirResource, encounterService::get,
+				    translatedEntities);
+			case FhirConstants.INCLUDE_LOCATION_PARAM:
+				return handleEntityInclude(entities, LOCATION_REFERENCES, org.openmrs.Location.class,
+				    PrivilegeConstants.GET_LOCATIONS, locationTranslator::toFhirResource, locationService::get,
+				    translatedEntities);
+		}
+		
+		return Optional.empty();
+	}
+	
+	/**
+	 * Resolves an {@code _include} by following the associations of the given OpenMRS objects. Objects
+	 * which are referenced but not yet loaded as the expected type, e.g. a patient loaded as a person,
+	 * are loaded by uuid.
+	 *
+	 * @return the included resources or an empty optional if the include cannot be resolved from the
+	 *         given objects, in which case it should be resolved from the references in the resources
+	 */
+	private <E extends OpenmrsObject> Optional<Set<IBaseResource>> handleEntityInclude(List<?> entities,
+	        Map<Class<?>, Function<Object, Object>> references, Class<E> referencedType, String privilege,
+	        Function<E, ? extends IBaseResource> translator,
+	        Function<Collection<String>, List<? extends IBaseResource>> loader,
+	        Map<String, IBaseResource> translatedEntities) {
+		List<Function<Object, Object>> entityReferences = new ArrayList<>(entities.size());
+		for (Object entity : entities) {
+			Optional<Function<Object, Object>> reference = references.entrySet().stream()
+			        .filter(entry -> entry.getKey().isInstance(entity)).map(Map.Entry::getValue).findFirst();
+			if (!reference.isPresent()) {
+				return Optional.empty();
+			}
+			
+			entityReferences.add(reference.get());
+		}
+		
+		// the referenced objects must be checked for the same privilege that loading them would require
+		if (!Context.hasPrivilege(privilege)) {
+			return Optional.empty();
+		}
+		
+		Set<IBaseResource> includedResources = new HashSet<>();
+		Set<String> uuidsToLoad = new HashSet<>();
+		for (int i = 0; i < entities.size(); i++) {
+			Object referenced = entityReferences.get(i).apply(entities.get(i));
+			if (referenced == null || isVoidedOrRetired(referenced)) {
+				continue;
+			}
+			
+			if (referencedType.isInstance(referenced)) {
+				E referencedEntity = referencedType.cast(referenced);
+				IBaseResource resource = translatedEntities.computeIfAbsent(
+				    referencedType.getSimpleName() + "/" + referencedEntity.getUuid(),
+				    key -> translator.apply(referencedEntity));
+				if (resource != null) {
+					includedResources.add(resource);
+				}
+			} else if (referenced instanceof OpenmrsObject) {
+				uuidsToLoad.add(((OpenmrsObject) referenced).getUuid());
+			}
+		}
+		
+		if (!uuidsToLoad.isEmpty()) {
+			includedResources.addAll(loader.apply(uuidsToLoad));
+		}
+		
+		return Optional.of(includedResources);
+	}
+	
+	private static boolean isVoidedOrRetired(Object object) {
+		if (object instanceof Voidable) {
+			return Boolean.TRUE.equals(((Voidable) object).getVoided());
+		} else if (object instanceof Retireable) {
+			return Boolean.TRUE.equals(((Retireable) object).getRetired());
+		}
+		
+		return false;
+	}
+	
 	private IBundleProvider handleLocationReverseInclude(ReferenceAndListParam params, String targetType) {
 		switch (targetType) {
 			case FhirConstants.LOCATION:
@@ -265,8 +546,7 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return null;
 	}
 	
-	private IBundleProvider handlePractitionerReverseInclude(ReferenceAndListParam params, String targetType,
-	        HashSet<Include> recursiveIncludes, HashSet<Include> recursiveRevIncludes) {
+	private IBundleProvider handlePractitionerReverseInclude(ReferenceAndListParam params, String targetType) {
 		switch (targetType) {
 			case FhirConstants.ENCOUNTER:
 				EncounterSearchParams encounterSearchParams = new EncounterSearchParams();
@@ -274,7 +554,7 @@ public class SearchQueryInclude<U extends IBaseResource> {
 				return encounterService.searchForEncounters(encounterSearchParams);
 			case FhirConstants.MEDICATION_REQUEST:
 				return medicationRequestService.searchForMedicationRequests(new MedicationRequestSearchParams(null, null,
-				        null, params, null, null, null, null, null, recursiveIncludes, recursiveRevIncludes));
+				        null, params, null, null, null, null, null, null, null));
 			case FhirConstants.PROCEDURE_REQUEST:
 			case FhirConstants.SERVICE_REQUEST:
 				return serviceRequestService.searchForServiceRequests(null, null, null, params, null, null, null, null);
@@ -283,8 +563,7 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return null;
 	}
 	
-	private IBundleProvider handleEncounterReverseInclude(ReferenceAndListParam params, String targetType,
-	        HashSet<Include> recursiveIncludes, HashSet<Include> recursiveRevIncludes) {
+	private IBundleProvider handleEncounterReverseInclude(ReferenceAndListParam params, String targetType) {
 		switch (targetType) {
 			case FhirConstants.OBSERVATION:
 				ObservationSearchParams observationSearchParams = new ObservationSearchParams();
@@ -295,7 +574,7 @@ public class SearchQueryInclude<U extends IBaseResource> {
 				    new DiagnosticReportSearchParams(params, null, null, null, null, null, null, null, null));
 			case FhirConstants.MEDICATION_REQUEST:
 				return medicationRequestService.searchForMedicationRequests(new MedicationRequestSearchParams(null, params,
-				        null, null, null, null, null, null, null, recursiveIncludes, recursiveRevIncludes));
+				        null, null, null, null, null, null, null, null, null));
 			case FhirConstants.PROCEDURE_REQUEST:
 			case FhirConstants.SERVICE_REQUEST:
 				return serviceRequestService.searchForServiceRequests(null, null, params, null, null, null, null, null);
@@ -304,12 +583,11 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return null;
 	}
 	
-	private IBundleProvider handleMedicationReverseInclude(ReferenceAndListParam params, String targetType,
-	        HashSet<Include> recursiveIncludes, HashSet<Include> recursiveRevIncludes) {
+	private IBundleProvider handleMedicationReverseInclude(ReferenceAndListParam params, String targetType) {
 		switch (targetType) {
 			case FhirConstants.MEDICATION_REQUEST:
 				return medicationRequestService.searchForMedicationRequests(new MedicationRequestSearchParams(null, null,
-				        null, null, params, null, null, null, null, recursiveIncludes, recursiveRevIncludes));
+				        null, null, params, null, null, null, null, null, null));
 		}
 		
 		return null;
@@ -325,29 +603,69 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return null;
 	}
 	
+	/**
+	 * Creates the searches for the resources of each of the given types which belong to the compartment
+	 * of the given patients, see {@link #getPatientCompartmentResources(String, List, DateRangeParam)}.
+	 * None of the searches is executed or counted here.
+	 *
+	 * @param resourceTypes the types of the resources to search for
+	 * @param patientIds the ids of the patients
+	 * @param lastUpdated if not null, restricts the searches to resources last updated in this range
+	 * @return the searches, in the order of the given types, leaving out the types which cannot be
+	 *         searched for by patient
+	 */
+	public List<IBundleProvider> getPatientCompartmentResources(List<String> resourceTypes, List<String> patientIds,
+	        DateRangeParam lastUpdated) {
+		return resourceTypes.stream()
+		        .map(resourceType -> getPatientCompartmentResources(resourceType, patientIds, lastUpdated))
+		        .filter(Objects::nonNull).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Creates the search for the resources of the given type which belong to the compartment of the
+	 * given patients, i.e., the search a {@code _revinclude} of {@code <resourceType>:patient} performs
+	 * for these patients. Unlike a {@code _revinclude}, the search is returned without being executed so
+	 * that it can be paged through.
+	 *
+	 * @param resourceType the type of the resources to search for
+	 * @param patientIds the ids of the patients
+	 * @param lastUpdated if not null, restricts the search to resources last updated in this range
+	 * @return the search or null if resources of the given type cannot be searched for by patient
+	 */
+	public IBundleProvider getPatientCompartmentResources(String resourceType, List<String> patientIds,
+	        DateRangeParam lastUpdated) {
+		ReferenceOrListParam params = new ReferenceOrListParam();
+		patientIds.forEach(id -> params.addOr(new ReferenceParam(id)));
+		
+		return handlePatientReverseInclude(new ReferenceAndListParam().addAnd(params), resourceType, lastUpdated);
+	}
+	
 	private IBundleProvider handlePatientReverseInclude(ReferenceAndListParam params, String targetType,
-	        HashSet<Include> recursiveIncludes, HashSet<Include> recursiveRevIncludes) {
+	        DateRangeParam lastUpdated) {
 		switch (targetType) {
 			case FhirConstants.OBSERVATION:
 				ObservationSearchParams observationSearchParams = new ObservationSearchParams();
 				observationSearchParams.setPatient(params);
+				observationSearchParams.setLastUpdated(lastUpdated);
 				return observationService.searchForObservations(observationSearchParams);
 			case FhirConstants.DIAGNOSTIC_REPORT:
 				return diagnosticReportService.searchForDiagnosticReports(
-				    new DiagnosticReportSearchParams(null, params, null, null, null, null, null, null, null));
+				    new DiagnosticReportSearchParams(null, params, null, null, null, null, lastUpdated, null, null));
 			case FhirConstants.ALLERGY_INTOLERANCE:
-				return allergyIntoleranceService.searchForAllergies(
-				    new FhirAllergyIntoleranceSearchParams(params, null, null, null, null, null, null, null, null, null));
+				return allergyIntoleranceService.searchForAllergies(new FhirAllergyIntoleranceSearchParams(params, null,
+				        null, null, null, null, null, lastUpdated, null, null));
 			case FhirConstants.ENCOUNTER:
 				EncounterSearchParams encounterSearchParams = new EncounterSearchParams();
 				encounterSearchParams.setSubject(params);
+				encounterSearchParams.setLastUpdated(lastUpdated);
 				return encounterService.searchForEncounters(encounterSearchParams);
 			case FhirConstants.MEDICATION_REQUEST:
 				return medicationRequestService.searchForMedicationRequests(new MedicationRequestSearchParams(params, null,
-				        null, null, null, null, null, null, null, recursiveIncludes, recursiveRevIncludes));
+				        null, null, null, null, null, null, lastUpdated, null, null));
 			case FhirConstants.SERVICE_REQUEST:
 			case FhirConstants.PROCEDURE_REQUEST:
-				return serviceRequestService.searchForServiceRequests(params, null, null, null, null, null, null, null);
+				return serviceRequestService.searchForServiceRequests(params, null, null, null, null, null, lastUpdated,
+				    null);
 		}
 		
 		return null;
@@ -632,8 +950,25 @@ public class SearchQueryInclude<U extends IBaseResource> {
 		return includedResources;
 	}
 	
-	private HashSet<Include> getRecursiveIncludes(HashSet<Include> includeSet) {
-		return (HashSet<Include>) includeSet.stream().filter(res -> res.isRecurse()).collect(Collectors.toSet());
+	private static String getReverseIncludeTargetType(Include revInclude) {
+		if (revInclude.getParamTargetType() != null) {
+			return normalizeResourceType(revInclude.getParamTargetType());
+		}
+		
+		return REVERSE_INCLUDE_TARGET_TYPES.get(revInclude.getParamName());
+	}
+	
+	private static String normalizeResourceType(String resourceType) {
+		// ProcedureRequests are translated to ServiceRequests
+		return FhirConstants.PROCEDURE_REQUEST.equals(resourceType) ? FhirConstants.SERVICE_REQUEST : resourceType;
+	}
+	
+	private static String getResourceType(IBaseResource resource) {
+		return resource instanceof Resource ? ((Resource) resource).fhirType() : resource.getClass().getSimpleName();
+	}
+	
+	private static String getResourceKey(IBaseResource resource) {
+		return getResourceType(resource) + "/" + resource.getIdElement().getIdPart();
 	}
 	
 	private static List<String> getIdsFromReferenceList(List<Reference> referenceList) {
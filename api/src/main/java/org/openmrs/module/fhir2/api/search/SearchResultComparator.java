@@ -0,0 +1,161 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.rest.api.SortOrderEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.util.FhirTerser;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Period;
+import org.hl7.fhir.r4.model.StringType;
+
+/**
+ * Orders translated FHIR resources the way the search requested with {@code _sort}. This is used to
+ * merge the results of several searches for the same resource type, each of which is already sorted
+ * in the database. Only search parameters with a simple path are supported; the values of other
+ * parameters are treated as missing.
+ */
+public class SearchResultComparator implements Comparator<IBaseResource> {
+	
+	private static final Pattern SIMPLE_PATH = Pattern.compile("[A-Za-z]+(\\.[A-Za-z]+)+");
+	
+	private final FhirContext fhirContext;
+	
+	private final List<Comparator<IBaseResource>> comparators = new ArrayList<>();
+	
+	private FhirTerser terser;
+	
+	private SearchResultComparator(FhirContext fhirContext, SortSpec sortSpec) {
+		this.fhirContext = fhirContext;
+		
+		for (SortSpec sort = sortSpec; sort != null; sort = sort.getChain()) {
+			Comparator<IBaseResource> comparator = Comparator.comparing(valueExtractor(sort.getParamName()),
+			    Comparator.nullsFirst(SearchResultComparator::compareValues));
+			comparators.add(sort.getOrder() == SortOrderEnum.DESC ? comparator.reversed() : comparator);
+		}
+	}
+	
+	/**
+	 * Creates a comparator for the given sort
+	 *
+	 * @param fhirContext the context used to evaluate the paths of the search parameters
+	 * @param sortSpec the requested sort
+	 * @return the comparator or null if the results do not need to be sorted
+	 */
+	@Nullable
+	public static Comparator<IBaseResource> forSort(@Nullable FhirContext fhirContext, @Nullable SortSpec sortSpec) {
+		if (fhirContext == null || sortSpec == null || sortSpec.getParamName() == null) {
+			return null;
+		}
+		
+		return new SearchResultComparator(fhirContext, sortSpec);
+	}
+	
+	@Override
+	public int compare(IBaseResource first, IBaseResource second) {
+		for (Comparator<IBaseResource> comparator : comparators) {
+			int result = comparator.compare(first, second);
+			if (result != 0) {
+				return result;
+			}
+		}
+		
+		return 0;
+	}
+	
+	private Function<IBaseResource, Object> valueExtractor(@Nonnull String paramName) {
+		switch (paramName) {
+			case "_lastUpdated":
+				return resource -> resource.getMeta() == null ? null : resource.getMeta().getLastUpdated();
+			case "_id":
+				return resource -> resource.getIdElement() == null ? null : resource.getIdElement().getIdPart();
+			default:
+				return resource -> getSortValue(resource, paramName);
+		}
+	}
+	
+	private Object getSortValue(IBaseResource resource, String paramName) {
+		RuntimeSearchParam searchParam = fhirContext.getResourceDefinition(resource).getSearchParam(paramName);
+		if (searchParam == null || searchParam.getPath() == null
+		        || !SIMPLE_PATH.matcher(searchParam.getPath().trim()).matches()) {
+			return null;
+		}
+		
+		if (terser == null) {
+			terser = fhirContext.newTerser();
+		}
+		
+		List<IBase> values = terser.getValues(resource, searchParam.getPath().trim());
+		return values.isEmpty() ? null : toComparable(values.get(0));
+	}
+	
+	private static Object toComparable(IBase value) {
+		if (value instanceof IPrimitiveType) {
+			return ((IPrimitiveType<?>) value).getValue();
+		} else if (value instanceof Period) {
+			return ((Period) value).getStart();
+		} else if (value instanceof HumanName) {
+			return value;
+		}
+		
+		return null;
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareValues(Object first, Object second) {
+		if (first instanceof Date && second instanceof Date) {
+			return ((Date) first).compareTo((Date) second);
+		} else if (first instanceof String && second instanceof String) {
+			return ((String) first).compareToIgnoreCase((String) second);
+		} else if (first instanceof HumanName && second instanceof HumanName) {
+			return compareNames((HumanName) first, (HumanName) second);
+		} else if (first instanceof Comparable && first.getClass().equals(second.getClass())) {
+			return ((Comparable) first).compareTo(second);
+		}
+		
+		return first.toString().compareTo(second.toString());
+	}
+	
+	/**
+	 * Names are sorted in the database by family name and then by each given name, so they are
+	 * compared part by part rather than as a single string, where a longer family name would be
+	 * compared against the given names of the other name
+	 */
+	private static int compareNames(HumanName first, HumanName second) {
+		int result = defaultString(first.getFamily()).compareToIgnoreCase(defaultString(second.getFamily()));
+		
+		List<StringType> firstGiven = first.getGiven();
+		List<StringType> secondGiven = second.getGiven();
+		for (int i = 0; result == 0 && i < Math.max(firstGiven.size(), secondGiven.size()); i++) {
+			String firstValue = i < firstGiven.size() ? firstGiven.get(i).getValue() : null;
+			String secondValue = i < secondGiven.size() ? secondGiven.get(i).getValue() : null;
+			result = defaultString(firstValue).compareToIgnoreCase(defaultString(secondValue));
+		}
+		
+		return result;
+	}
+}
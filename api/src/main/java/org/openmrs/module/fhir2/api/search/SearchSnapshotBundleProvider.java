@@ -0,0 +1,117 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.openmrs.Auditable;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirDao;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.ToFhirTranslator;
+
+/**
+ * A bundle provider for a search whose results have been captured as an ordered list of ids. Each
+ * page is loaded by id, so paging neither re-runs the search nor depends on the offset of the page.
+ *
+ * @see SearchSnapshotPagingProvider
+ */
+public class SearchSnapshotBundleProvider<T extends OpenmrsObject & Auditable, U extends IBaseResource> implements IBundleProvider, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Getter
+	private final String uuid;
+	
+	@Getter
+	private final IPrimitiveType<Date> published;
+	
+	@Getter(AccessLevel.PACKAGE)
+	private final Date expires;
+	
+	private final List<Integer> resultIds;
+	
+	private final SearchParameterMap searchParameterMap;
+	
+	private final FhirDao<T> dao;
+	
+	private final ToFhirTranslator<T, U> translator;
+	
+	private final FhirGlobalPropertyService globalPropertyService;
+	
+	private final SearchQueryInclude<U> searchQueryInclude;
+	
+	private transient Integer pageSize;
+	
+	public SearchSnapshotBundleProvider(String uuid, IPrimitiveType<Date> published, Date expires,
+	    List<Integer> resultIds, SearchParameterMap searchParameterMap, FhirDao<T> dao, ToFhirTranslator<T, U> translator,
+	    FhirGlobalPropertyService globalPropertyService, SearchQueryInclude<U> searchQueryInclude) {
+		this.uuid = uuid;
+		this.published = published;
+		this.expires = expires;
+		this.resultIds = resultIds;
+		this.searchParameterMap = searchParameterMap;
+		this.dao = dao;
+		this.translator = translator;
+		this.globalPropertyService = globalPropertyService;
+		this.searchQueryInclude = searchQueryInclude;
+	}
+	
+	@Override
+	@Nonnull
+	public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		int fromIdx = Math.max(fromIndex, 0);
+		int toIdx = Math.min(toIndex, resultIds.size());
+		if (fromIdx >= toIdx) {
+			return new ArrayList<>();
+		}
+		
+		List<T> rows = dao.getByIds(resultIds.subList(fromIdx, toIdx));
+		SearchQueryBundleProvider.SearchResults<T, U> results = new SearchQueryBundleProvider.SearchResults<>(rows,
+		        translator.toFhirResources(rows));
+		
+		Set<IBaseResource> includedResources = searchQueryInclude.getIncludedResources(results.getEntities(),
+		    results.getResources(), searchParameterMap);
+		
+		List<IBaseResource> resultList = new ArrayList<>(results.getResources());
+		resultList.addAll(includedResources);
+		
+		return resultList;
+	}
+	
+	@Override
+	public Integer preferredPageSize() {
+		if (pageSize == null) {
+			pageSize = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_DEFAULT_PAGE_SIZE, 10);
+		}
+		
+		return pageSize;
+	}
+	
+	@Override
+	@Nullable
+	public Integer size() {
+		return resultIds.size();
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import java.util.Date;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirSearchSnapshotDao;
+import org.openmrs.scheduler.tasks.AbstractTask;
+
+/**
+ * Removes the search snapshots stored by {@link SearchSnapshotPagingProvider} that have expired and,
+ * when more than {@link FhirConstants#OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_COUNT} snapshots are
+ * stored, the oldest ones. Running this from the scheduler keeps the deletes off the requests that
+ * store snapshots.
+ */
+@Slf4j
+public class SearchSnapshotCleanupTask extends AbstractTask {
+	
+	@Override
+	public void execute() {
+		FhirSearchSnapshotDao searchSnapshotDao = Context.getRegisteredComponents(FhirSearchSnapshotDao.class).get(0);
+		FhirGlobalPropertyService globalPropertyService = Context
+		        .getRegisteredComponents(FhirGlobalPropertyService.class).get(0);
+		
+		int deleted = searchSnapshotDao.deleteExpiredSnapshots(new Date());
+		
+		int maximumCount = globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_COUNT,
+		    1000);
+		int deletedOldest;
+		do {
+			deletedOldest = searchSnapshotDao.deleteOldestSnapshots(maximumCount);
+			deleted += deletedOldest;
+		} while (deletedOldest > 0);
+		
+		log.debug("Removed {} search snapshots", deleted);
+	}
+}
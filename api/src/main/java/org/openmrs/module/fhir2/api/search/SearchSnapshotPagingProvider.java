@@ -0,0 +1,306 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.primitive.InstantDt;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.Auditable;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirDao;
+import org.openmrs.module.fhir2.api.dao.FhirSearchSnapshotDao;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.ToFhirTranslator;
+import org.openmrs.module.fhir2.model.FhirSearchSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * A paging provider that stores the results of searches in the database, so that the pages of a
+ * search can be served by any node in a cluster and survive a restart. Only the ordered ids of the
+ * results are stored, so each page is loaded by id rather than by re-running the search with an
+ * offset.
+ * <p/>
+ * Snapshots expire after {@link FhirConstants#OPENMRS_FHIR_SEARCH_SNAPSHOT_TTL} seconds and at most
+ * {@link FhirConstants#OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_COUNT} snapshots are kept; expired and
+ * excess snapshots are removed by {@link SearchSnapshotCleanupTask}. Searches that
+ * cannot be captured as a list of ids, e.g. because they have more than
+ * {@link FhirConstants#OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_RESULTS} results, are held in memory in
+ * the same way as {@link FifoMemoryPagingProvider}.
+ */
+@Slf4j
+@Component
+@Setter(AccessLevel.PACKAGE)
+public class SearchSnapshotPagingProvider extends FifoMemoryPagingProvider {
+	
+	private static final int MEMORY_CACHE_SIZE = 100;
+	
+	private static final String FHIR_VERSION_R3 = "R3";
+	
+	private static final String FHIR_VERSION_R4 = "R4";
+	
+	@Autowired
+	private FhirSearchSnapshotDao searchSnapshotDao;
+	
+	@Autowired
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Autowired
+	private ApplicationContext applicationContext;
+	
+	@Autowired
+	@Qualifier("fhirR4")
+	private FhirContext fhirContext;
+	
+	private final Map<Object, String> beanNames = Collections.synchronizedMap(new IdentityHashMap<>());
+	
+	private final Map<String, IBundleProvider> loadedSnapshots = Collections
+	        .synchronizedMap(new LinkedHashMap<String, IBundleProvider>(16, 0.75f, true) {
+		
+		        private static final long serialVersionUID = 1L;
+		
+		        @Override
+		        protected boolean removeEldestEntry(Map.Entry<String, IBundleProvider> eldest) {
+			        return size() > MEMORY_CACHE_SIZE;
+		        }
+	        });
+	
+	public SearchSnapshotPagingProvider() {
+		super(MEMORY_CACHE_SIZE);
+	}
+	
+	@Override
+	public String storeResultList(@Nullable RequestDetails theRequestDetails, IBundleProvider theList) {
+		IBundleProvider bundleProvider = theList;
+		boolean isR3 = false;
+		if (bundleProvider instanceof SearchQueryBundleProviderR3Wrapper) {
+			bundleProvider = ((SearchQueryBundleProviderR3Wrapper) bundleProvider).getBundleProvider();
+			isR3 = true;
+		}
+		
+		if (bundleProvider instanceof SearchQueryBundleProvider) {
+			try {
+				Optional<String> snapshotId = createSnapshot((SearchQueryBundleProvider<?, ?>) bundleProvider, isR3);
+				if (snapshotId.isPresent()) {
+					return snapshotId.get();
+				}
+			}
+			catch (RuntimeException e) {
+				log.warn("Unable to store snapshot of search results; falling back to in-memory paging", e);
+			}
+		}
+		
+		return super.storeResultList(theRequestDetails, theList);
+	}
+	
+	@Override
+	public IBundleProvider retrieveResultList(@Nullable RequestDetails theRequest, @Nonnull String theId) {
+		IBundleProvider result = super.retrieveResultList(theRequest, theId);
+		if (result != null) {
+			return result;
+		}
+		
+		Date now = new Date();
+		IBundleProvider loadedSnapshot = loadedSnapshots.get(theId);
+		if (loadedSnapshot != null) {
+			IBundleProvider snapshotBundleProvider = loadedSnapshot instanceof SearchQueryBundleProviderR3Wrapper
+			        ? ((SearchQueryBundleProviderR3Wrapper) loadedSnapshot).getBundleProvider()
+			        : loadedSnapshot;
+			if (((SearchSnapshotBundleProvider<?, ?>) snapshotBundleProvider).getExpires().after(now)) {
+				return loadedSnapshot;
+			}
+			
+			loadedSnapshots.remove(theId);
+		}
+		
+		return searchSnapshotDao.getSnapshotByUuid(theId, now).map(this::loadSnapshot).orElse(null);
+	}
+	
+	private <T extends OpenmrsObject & Auditable, U extends IBaseResource> Optional<String> createSnapshot(
+	        SearchQueryBundleProvider<T, U> bundleProvider, boolean isR3) {
+		int maximumResults = globalPropertyService
+		        .getGlobalProperty(FhirConstants.OPENMRS_FHIR_SEARCH_SNAPSHOT_MAXIMUM_RESULTS, 10000);
+		if (maximumResults <= 0) {
+			return Optional.empty();
+		}
+		
+		String daoBean = getBeanName(bundleProvider.getDao(), FhirDao.class);
+		String translatorBean = getBeanName(bundleProvider.getTranslator(), ToFhirTranslator.class);
+		String includeBean = getBeanName(bundleProvider.getSearchQueryInclude(), SearchQueryInclude.class);
+		if (daoBean == null || translatorBean == null || includeBean == null) {
+			return Optional.empty();
+		}
+		
+		SearchParameterMap searchParameterMap = bundleProvider.getSearchParameterMap();
+		// loading every id would undo the work saved by not counting the results exactly
+		if (searchParameterMap.getTotalMode() == SearchTotalModeEnum.NONE
+		        || searchParameterMap.getTotalMode() == SearchTotalModeEnum.ESTIMATED) {
+			return Optional.empty();
+		}
+		
+		String searchParameters;
+		try {
+			searchParameters = SearchParameterMapCodec.encode(fhirContext, searchParameterMap);
+		}
+		catch (IllegalArgumentException e) {
+			log.debug("Unable to store search parameters; search results will be held in memory", e);
+			return Optional.empty();
+		}
+		
+		Optional<List<Integer>> resultIds = bundleProvider.getDao().getSearchResultIds(searchParameterMap, maximumResults);
+		if (!resultIds.isPresent()) {
+			return Optional.empty();
+		}
+		
+		Date now = new Date();
+		Date expires = new Date(now.getTime()
+		        + globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_SEARCH_SNAPSHOT_TTL, 3600) * 1000L);
+		
+		FhirSearchSnapshot snapshot = new FhirSearchSnapshot();
+		snapshot.setUuid(bundleProvider.getUuid());
+		snapshot.setDaoBean(daoBean);
+		snapshot.setTranslatorBean(translatorBean);
+		snapshot.setIncludeBean(includeBean);
+		snapshot.setFhirVersion(isR3 ? FHIR_VERSION_R3 : FHIR_VERSION_R4);
+		snapshot.setSearchParameters(searchParameters);
+		snapshot.setResultIds(encodeIds(resultIds.get()));
+		snapshot.setResultCount(resultIds.get().size());
+		snapshot.setDateCreated(now);
+		snapshot.setExpires(expires);
+		
+		searchSnapshotDao.saveSnapshot(snapshot);
+		
+		IBundleProvider snapshotBundleProvider = new SearchSnapshotBundleProvider<>(snapshot.getUuid(),
+		        bundleProvider.getPublished(), expires, resultIds.get(), searchParameterMap, bundleProvider.getDao(),
+		        bundleProvider.getTranslator(), globalPropertyService, bundleProvider.getSearchQueryInclude());
+		loadedSnapshots.put(snapshot.getUuid(),
+		    isR3 ? new SearchQueryBundleProviderR3Wrapper(snapshotBundleProvider) : snapshotBundleProvider);
+		
+		return Optional.of(snapshot.getUuid());
+	}
+	
+	private IBundleProvider loadSnapshot(FhirSearchSnapshot snapshot) {
+		SearchParameterMap searchParameterMap;
+		try {
+			searchParameterMap = SearchParameterMapCodec.decode(fhirContext, snapshot.getSearchParameters());
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Unable to read the search parameters of search snapshot {}", snapshot.getUuid(), e);
+			return null;
+		}
+		
+		IBundleProvider snapshotBundleProvider = createSnapshotBundleProvider(snapshot, searchParameterMap);
+		if (FHIR_VERSION_R3.equals(snapshot.getFhirVersion())) {
+			snapshotBundleProvider = new SearchQueryBundleProviderR3Wrapper(snapshotBundleProvider);
+		}
+		
+		loadedSnapshots.put(snapshot.getUuid(), snapshotBundleProvider);
+		
+		return snapshotBundleProvider;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T extends OpenmrsObject & Auditable, U extends IBaseResource> SearchSnapshotBundleProvider<T, U> createSnapshotBundleProvider(
+	        FhirSearchSnapshot snapshot, SearchParameterMap searchParameterMap) {
+		FhirDao<T> dao = applicationContext.getBean(snapshot.getDaoBean(), FhirDao.class);
+		ToFhirTranslator<T, U> translator = applicationContext.getBean(snapshot.getTranslatorBean(),
+		    ToFhirTranslator.class);
+		SearchQueryInclude<U> searchQueryInclude = applicationContext.getBean(snapshot.getIncludeBean(),
+		    SearchQueryInclude.class);
+		
+		return new SearchSnapshotBundleProvider<>(snapshot.getUuid(), new InstantDt(snapshot.getDateCreated()),
+		        snapshot.getExpires(), decodeIds(snapshot.getResultIds()), searchParameterMap, dao, translator,
+		        globalPropertyService, searchQueryInclude);
+	}
+	
+	/**
+	 * Finds the name under which the given bean is registered, so that another node can look up the
+	 * same bean when it loads the snapshot
+	 */
+	private String getBeanName(Object bean, Class<?> beanType) {
+		String beanName = beanNames.get(bean);
+		if (beanName == null) {
+			beanName = applicationContext.getBeansOfType(beanType).entrySet().stream()
+			        .filter(entry -> entry.getValue() == bean).map(Map.Entry::getKey).findFirst().orElse(null);
+			if (beanName != null) {
+				beanNames.put(bean, beanName);
+			}
+		}
+		
+		return beanName;
+	}
+	
+	/**
+	 * Encodes a list of ids as the zig-zag encoded differences between consecutive ids, written as
+	 * variable-length integers. Search results are mostly ordered by id, so most ids take one or two
+	 * bytes.
+	 */
+	static byte[] encodeIds(List<Integer> ids) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(ids.size() * 2);
+		int previous = 0;
+		for (Integer id : ids) {
+			int delta = id - previous;
+			int value = (delta << 1) ^ (delta >> 31);
+			while ((value & ~0x7F) != 0) {
+				out.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write(value);
+			previous = id;
+		}
+		
+		return out.toByteArray();
+	}
+	
+	static List<Integer> decodeIds(byte[] encodedIds) {
+		List<Integer> ids = new ArrayList<>(encodedIds.length);
+		int previous = 0;
+		int value = 0;
+		int shift = 0;
+		for (byte b : encodedIds) {
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) != 0) {
+				shift += 7;
+				continue;
+			}
+			
+			previous += (value >>> 1) ^ -(value & 1);
+			ids.add(previous);
+			value = 0;
+			shift = 0;
+		}
+		
+		return ids;
+	}
+}
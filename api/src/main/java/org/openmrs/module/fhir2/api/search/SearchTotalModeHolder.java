@@ -0,0 +1,41 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+
+/**
+ * Holds the value of the {@code _total} parameter of the request being processed by the current
+ * thread, so that searches can decide how to determine their total without each resource provider
+ * having to declare the parameter
+ */
+public final class SearchTotalModeHolder {
+	
+	private static final ThreadLocal<SearchTotalModeEnum> totalMode = new ThreadLocal<>();
+	
+	private SearchTotalModeHolder() {
+	}
+	
+	public static SearchTotalModeEnum getTotalMode() {
+		return totalMode.get();
+	}
+	
+	public static void setTotalMode(SearchTotalModeEnum mode) {
+		if (mode == null) {
+			totalMode.remove();
+		} else {
+			totalMode.set(mode);
+		}
+	}
+	
+	public static void clear() {
+		totalMode.remove();
+	}
+}
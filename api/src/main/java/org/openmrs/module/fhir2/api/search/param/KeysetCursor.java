@@ -0,0 +1,42 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search.param;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Describes the position of a search result page for keyset (seek) pagination. A cursor records the
+ * values of the sort properties and the id of the last row of a page, so that the following page can
+ * be loaded with a {@code WHERE (sortKey, id) > (?, ?)} predicate instead of an offset.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The index of the first result that follows this cursor
+	 */
+	private int offset;
+	
+	/**
+	 * The values of the sort properties of the last row before this cursor, in the order of the sort
+	 */
+	private Object[] sortValues;
+	
+	/**
+	 * The id of the last row before this cursor
+	 */
+	private Serializable id;
+}
@@ -0,0 +1,31 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search.param;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A page of search results loaded using keyset pagination, together with the cursor for the page that
+ * follows it
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+	
+	private List<T> results;
+	
+	/**
+	 * The cursor for the page following these results or null if no cursor could be created for them
+	 */
+	private KeysetCursor nextCursor;
+}
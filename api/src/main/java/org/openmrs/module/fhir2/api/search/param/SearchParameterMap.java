@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import ca.uhn.fhir.rest.api.SortSpec;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -43,6 +44,14 @@ public class SearchParameterMap implements Serializable {
 	@Setter
 	private int toIndex = Integer.MAX_VALUE;
 	
+	/**
+	 * How the total number of results should be determined, as requested by the {@code _total}
+	 * parameter. When null, the total is counted exactly.
+	 */
+	@Getter
+	@Setter
+	private SearchTotalModeEnum totalMode;
+	
 	private final Map<String, List<PropParam<?>>> params = new LinkedCaseInsensitiveMap<>();
 	
 	/**
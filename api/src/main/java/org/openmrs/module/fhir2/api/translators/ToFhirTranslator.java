@@ -11,6 +11,9 @@ package org.openmrs.module.fhir2.api.translators;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Generic interface for a translator between OpenMRS data and FHIR resources
  * 
@@ -26,4 +29,22 @@ public interface ToFhirTranslator<T, U> extends FhirTranslator {
 	 * @return the corresponding FHIR resource
 	 */
 	U toFhirResource(@Nonnull T data);
+	
+	/**
+	 * Maps a list of OpenMRS data elements, e.g. a page of search results, to FHIR resources.
+	 * Translators that need data not held by the elements themselves can override this to load that
+	 * data for all of the elements at once instead of once per element.
+	 * 
+	 * @param data the OpenMRS data elements to translate
+	 * @return the corresponding FHIR resources in the order of the data elements, with {@code null} for
+	 *         any element that could not be translated
+	 */
+	default List<U> toFhirResources(@Nonnull List<T> data) {
+		List<U> resources = new ArrayList<>(data.size());
+		for (T element : data) {
+			resources.add(toFhirResource(element));
+		}
+		
+		return resources;
+	}
 }
@@ -0,0 +1,153 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.hl7.fhir.r4.model.Base;
+import org.openmrs.Auditable;
+import org.openmrs.OpenmrsObject;
+
+/**
+ * Remembers the FHIR elements translated from OpenMRS objects while a request is processed, so that
+ * objects shared by many results, e.g. the concept, patient and location of each observation on a
+ * page, are only translated once per request. The memo is only active between {@link #begin()} and
+ * {@link #end()}, which are called at the start and the end of each request; outside of a request,
+ * every translation is performed.
+ * <p/>
+ * Translations are keyed by their purpose and the class, id and date changed of the translated
+ * object. Callers always receive a copy of the remembered element, so they are free to modify it.
+ */
+public final class TranslationMemo {
+	
+	private static final int MAX_TRANSLATIONS = 10000;
+	
+	private static final ThreadLocal<TranslationMemo> current = new ThreadLocal<>();
+	
+	private final Map<Key, Base> translations = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger hits = new AtomicInteger();
+	
+	private final AtomicInteger misses = new AtomicInteger();
+	
+	private TranslationMemo() {
+	}
+	
+	/**
+	 * Starts a new memo for the current thread
+	 *
+	 * @return the new memo
+	 */
+	public static TranslationMemo begin() {
+		TranslationMemo memo = new TranslationMemo();
+		current.set(memo);
+		return memo;
+	}
+	
+	/**
+	 * Ends the memo of the current thread
+	 *
+	 * @return the memo that was ended or null if there was no memo
+	 */
+	public static TranslationMemo end() {
+		TranslationMemo memo = current.get();
+		current.remove();
+		return memo;
+	}
+	
+	/**
+	 * @return the memo of the current thread or null if there is none
+	 */
+	public static TranslationMemo getCurrent() {
+		return current.get();
+	}
+	
+	/**
+	 * Makes the given memo the memo of the current thread, so that work done on behalf of a request
+	 * by other threads shares the memo of the request
+	 *
+	 * @param memo the memo to use or null to use no memo
+	 */
+	public static void setCurrent(TranslationMemo memo) {
+		if (memo == null) {
+			current.remove();
+		} else {
+			current.set(memo);
+		}
+	}
+	
+	/**
+	 * Returns the remembered translation of the given object or performs and remembers it
+	 *
+	 * @param purpose distinguishes different translations of the same object
+	 * @param object the object being translated
+	 * @param translation performs the translation
+	 * @return a copy of the translation
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Base> T memoize(String purpose, OpenmrsObject object, Supplier<T> translation) {
+		TranslationMemo memo = current.get();
+		if (memo == null || object == null || object.getId() == null) {
+			return translation.get();
+		}
+		
+		Date dateChanged = object instanceof Auditable ? ((Auditable) object).getDateChanged() : null;
+		Key key = new Key(purpose, HibernateProxyHelper.getClassWithoutInitializingProxy(object), object.getId(),
+		        dateChanged);
+		
+		Base result = memo.translations.get(key);
+		if (result != null) {
+			memo.hits.incrementAndGet();
+			return (T) result.copy();
+		}
+		
+		memo.misses.incrementAndGet();
+		T translated = translation.get();
+		if (translated != null && memo.translations.size() < MAX_TRANSLATIONS) {
+			memo.translations.put(key, translated.copy());
+		}
+		
+		return translated;
+	}
+	
+	/**
+	 * @return the number of translations answered from this memo
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+	
+	/**
+	 * @return the number of translations that had to be performed
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+	
+	@EqualsAndHashCode
+	@AllArgsConstructor
+	private static class Key {
+		
+		private final String purpose;
+		
+		private final Class<?> type;
+		
+		private final Integer id;
+		
+		private final Date dateChanged;
+	}
+}
@@ -9,8 +9,6 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
-import static org.openmrs.module.fhir2.api.util.FhirUtils.getMetadataTranslation;
-
 import javax.annotation.Nonnull;
 
 import java.util.Optional;
@@ -26,6 +24,7 @@ import org.openmrs.DrugOrder;
 import org.openmrs.Encounter;
 import org.openmrs.Location;
 import org.openmrs.Obs;
+import org.openmrs.OpenmrsMetadata;
 import org.openmrs.OpenmrsObject;
 import org.openmrs.Order;
 import org.openmrs.Patient;
@@ -37,12 +36,22 @@ import org.openmrs.TestOrder;
 import org.openmrs.User;
 import org.openmrs.Visit;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.translators.TranslationMemo;
 import org.openmrs.module.fhir2.api.util.FhirUtils;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
+import org.springframework.beans.factory.annotation.Autowired;
 
 @Setter(AccessLevel.PACKAGE)
 @Slf4j
 public abstract class BaseReferenceHandlingTranslator {
 	
+	@Autowired
+	private MetadataTranslationCache metadataTranslationCache;
+	
+	protected String getMetadataTranslation(OpenmrsMetadata metadata) {
+		return metadataTranslationCache.getMetadataTranslation(metadata);
+	}
+	
 	protected Reference createEncounterReference(@Nonnull Encounter encounter) {
 		return createEncounterReference((OpenmrsObject) encounter);
 	}
@@ -79,11 +88,16 @@ public abstract class BaseReferenceHandlingTranslator {
 	}
 	
 	protected Reference createLocationReference(@Nonnull Location location) {
-		return new Reference().setReference(FhirConstants.LOCATION + "/" + location.getUuid())
-		        .setType(FhirConstants.LOCATION).setDisplay(getMetadataTranslation(location));
+		return TranslationMemo.memoize("LocationReference", location,
+		    () -> new Reference().setReference(FhirConstants.LOCATION + "/" + location.getUuid())
+		            .setType(FhirConstants.LOCATION).setDisplay(getMetadataTranslation(location)));
 	}
 	
 	protected Reference createPatientReference(@Nonnull Patient patient) {
+		return TranslationMemo.memoize("PatientReference", patient, () -> translatePatientReference(patient));
+	}
+	
+	private Reference translatePatientReference(Patient patient) {
 		Reference reference = new Reference().setReference(FhirConstants.PATIENT + "/" + patient.getUuid())
 		        .setType(FhirConstants.PATIENT);
 		
@@ -109,6 +123,10 @@ public abstract class BaseReferenceHandlingTranslator {
 	}
 	
 	protected Reference createPractitionerReference(@Nonnull User user) {
+		return TranslationMemo.memoize("UserReference", user, () -> translatePractitionerReference(user));
+	}
+	
+	private Reference translatePractitionerReference(User user) {
 		Reference reference = new Reference().setReference(FhirConstants.PRACTITIONER + "/" + user.getUuid())
 		        .setType(FhirConstants.PRACTITIONER);
 		
@@ -122,6 +140,10 @@ public abstract class BaseReferenceHandlingTranslator {
 	}
 	
 	protected Reference createPractitionerReference(@Nonnull Provider provider) {
+		return TranslationMemo.memoize("ProviderReference", provider, () -> translatePractitionerReference(provider));
+	}
+	
+	private Reference translatePractitionerReference(Provider provider) {
 		Reference reference = new Reference().setReference(FhirConstants.PRACTITIONER + "/" + provider.getUuid())
 		        .setType(FhirConstants.PRACTITIONER);
 		
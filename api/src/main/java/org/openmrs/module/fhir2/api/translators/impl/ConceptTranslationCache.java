@@ -0,0 +1,142 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators.impl;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.openmrs.Concept;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the {@link CodeableConcept} built for each concept across requests, so that the mappings of
+ * frequently used concepts are not resolved to their FHIR systems again for every result. Entries are
+ * keyed by the id and date changed of the concept and the locale of the request, and at most
+ * {@link #MAX_SIZE} of the most recently used concepts are kept.
+ * <p/>
+ * The whole cache is dropped the next time it is used after the version of the concepts kept by
+ * {@link MetadataVersionInterceptor} has moved on, which covers changes to names and mappings that
+ * leave the date changed of the concept as it was.
+ */
+@Component
+public class ConceptTranslationCache {
+	
+	static final int MAX_SIZE = 1000;
+	
+	@Autowired
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private final Map<Key, CodeableConcept> cache;
+	
+	// the version of the concepts the cached translations were made from
+	private long cacheVersion;
+	
+	private final AtomicLong hits = new AtomicLong();
+	
+	private final AtomicLong misses = new AtomicLong();
+	
+	public ConceptTranslationCache() {
+		cache = Collections.synchronizedMap(new LinkedHashMap<Key, CodeableConcept>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CodeableConcept> eldest) {
+				return size() > MAX_SIZE;
+			}
+		});
+	}
+	
+	ConceptTranslationCache(MetadataVersionInterceptor metadataVersion) {
+		this();
+		this.metadataVersion = metadataVersion;
+	}
+	
+	/**
+	 * Returns a copy of the cached translation of the given concept or translates and caches it
+	 *
+	 * @param concept the concept to translate
+	 * @param translation translates the concept
+	 * @return the translated concept
+	 */
+	public CodeableConcept get(Concept concept, Function<Concept, CodeableConcept> translation) {
+		if (concept.getId() == null) {
+			return translation.apply(concept);
+		}
+		
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.CONCEPTS);
+		Key key = new Key(concept.getId(), concept.getDateChanged(), Context.getLocale());
+		CodeableConcept cached;
+		synchronized (cache) {
+			if (version > cacheVersion) {
+				cache.clear();
+				cacheVersion = version;
+			}
+			
+			cached = cache.get(key);
+		}
+		
+		if (cached != null) {
+			hits.incrementAndGet();
+			return cached.copy();
+		}
+		
+		misses.incrementAndGet();
+		CodeableConcept result = translation.apply(concept);
+		if (result != null) {
+			synchronized (cache) {
+				// skipped if the cache was dropped for a newer version while translating
+				if (version == cacheVersion) {
+					cache.put(key, result.copy());
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @return the number of concepts in the cache
+	 */
+	public int size() {
+		return cache.size();
+	}
+	
+	/**
+	 * @return the share of translations answered from the cache since it was created
+	 */
+	public double getHitRate() {
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		return total == 0 ? 0.0 : (double) hitCount / total;
+	}
+	
+	@EqualsAndHashCode
+	@AllArgsConstructor
+	private static class Key {
+		
+		private final Integer conceptId;
+		
+		private final Date dateChanged;
+		
+		private final Locale locale;
+	}
+}
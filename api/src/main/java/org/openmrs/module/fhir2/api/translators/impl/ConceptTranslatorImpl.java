@@ -29,6 +29,7 @@ import org.openmrs.ConceptSource;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
 import org.openmrs.module.fhir2.api.translators.ConceptTranslator;
+import org.openmrs.module.fhir2.api.translators.TranslationMemo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -43,12 +44,21 @@ public class ConceptTranslatorImpl implements ConceptTranslator {
 	@Autowired
 	private FhirConceptSourceService conceptSourceService;
 	
+	@Autowired
+	private ConceptTranslationCache conceptTranslationCache;
+	
 	@Override
 	public CodeableConcept toFhirResource(@Nonnull Concept concept) {
 		if (concept == null) {
 			return null;
 		}
 		
+		// the same concepts are used by many of the results of a request
+		return TranslationMemo.memoize("Concept", concept,
+		    () -> conceptTranslationCache.get(concept, this::translateConcept));
+	}
+	
+	private CodeableConcept translateConcept(Concept concept) {
 		CodeableConcept codeableConcept = new CodeableConcept();
 		codeableConcept.setText(concept.getDisplayString());
 		addConceptCoding(codeableConcept.addCoding(), null, concept.getUuid(), concept);
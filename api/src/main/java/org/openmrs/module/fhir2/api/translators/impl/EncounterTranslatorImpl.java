@@ -11,12 +11,14 @@ package org.openmrs.module.fhir2.api.translators.impl;
 
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getLastUpdated;
+import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getReferencedIds;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getVersionId;
 
 import javax.annotation.Nonnull;
 
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,6 +29,7 @@ import org.openmrs.EncounterProvider;
 import org.openmrs.EncounterType;
 import org.openmrs.Visit;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.translators.EncounterLocationTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterParticipantTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterPeriodTranslator;
@@ -59,6 +62,18 @@ public class EncounterTranslatorImpl extends BaseEncounterTranslator implements
 	@Autowired
 	private EncounterPeriodTranslator<org.openmrs.Encounter> encounterPeriodTranslator;
 	
+	@Autowired
+	private FhirPatientDao patientDao;
+	
+	@Override
+	public List<Encounter> toFhirResources(@Nonnull List<org.openmrs.Encounter> openmrsEncounters) {
+		// the patients of all of the encounters are loaded with their names and identifiers in a single query, so
+		// that these are not loaded one patient at a time during the translation
+		patientDao.prefetchByIds(getReferencedIds(openmrsEncounters, org.openmrs.Encounter::getPatient));
+		
+		return EncounterTranslator.super.toFhirResources(openmrsEncounters);
+	}
+	
 	@Override
 	public Encounter toFhirResource(@Nonnull org.openmrs.Encounter openmrsEncounter) {
 		notNull(openmrsEncounter, "The Openmrs Encounter object should not be null");
@@ -9,8 +9,6 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
-import static org.openmrs.module.fhir2.api.util.FhirUtils.getMetadataTranslation;
-
 import javax.annotation.Nonnull;
 
 import java.util.Collections;
@@ -25,6 +23,7 @@ import org.openmrs.EncounterType;
 import org.openmrs.api.EncounterService;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.translators.EncounterTypeTranslator;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -35,6 +34,9 @@ public class EncounterTypeTranslatorImpl implements EncounterTypeTranslator<Enco
 	@Autowired
 	private EncounterService encounterService;
 	
+	@Autowired
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	@Override
 	public List<CodeableConcept> toFhirResource(@Nonnull EncounterType encounterType) {
 		if (encounterType == null) {
@@ -43,7 +45,7 @@ public class EncounterTypeTranslatorImpl implements EncounterTypeTranslator<Enco
 		
 		CodeableConcept code = new CodeableConcept();
 		code.addCoding().setSystem(FhirConstants.ENCOUNTER_TYPE_SYSTEM_URI).setCode(encounterType.getUuid())
-		        .setDisplay(getMetadataTranslation(encounterType));
+		        .setDisplay(metadataTranslationCache.getMetadataTranslation(encounterType));
 		return Collections.singletonList(code);
 	}
 	
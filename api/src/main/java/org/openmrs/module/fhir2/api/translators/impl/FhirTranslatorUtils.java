@@ -9,8 +9,16 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
+import org.hibernate.proxy.HibernateProxy;
 import org.openmrs.Auditable;
 import org.openmrs.OpenmrsObject;
 
@@ -39,4 +47,28 @@ public class FhirTranslatorUtils {
 		return String.valueOf(lastUpdate.getTime());
 	}
 	
+	/**
+	 * Collects the ids of the objects referenced by the given data, so that these objects can be loaded
+	 * in bulk. Objects that are Hibernate proxies are not initialised.
+	 *
+	 * @param data the data referencing the objects
+	 * @param reference returns the object referenced by an element of the data or null
+	 * @return the distinct ids of the referenced objects
+	 */
+	public static <T> List<Integer> getReferencedIds(Collection<T> data, Function<T, ? extends OpenmrsObject> reference) {
+		Set<Integer> ids = new LinkedHashSet<>();
+		for (T element : data) {
+			OpenmrsObject object = element == null ? null : reference.apply(element);
+			if (object instanceof HibernateProxy) {
+				Serializable id = ((HibernateProxy) object).getHibernateLazyInitializer().getIdentifier();
+				if (id instanceof Integer) {
+					ids.add((Integer) id);
+				}
+			} else if (object != null && object.getId() != null) {
+				ids.add(object.getId());
+			}
+		}
+		
+		return new ArrayList<>(ids);
+	}
 }
@@ -12,8 +12,6 @@ package org.openmrs.module.fhir2.api.translators.impl;
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getLastUpdated;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getVersionId;
-import static org.openmrs.module.fhir2.api.util.FhirUtils.getMetadataTranslation;
-
 import javax.annotation.Nonnull;
 
 import java.util.List;
@@ -11,11 +11,13 @@ package org.openmrs.module.fhir2.api.translators.impl;
 
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getLastUpdated;
+import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getReferencedIds;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getVersionId;
 
 import javax.annotation.Nonnull;
 
 import java.util.Collections;
+import java.util.List;
 
 import lombok.AccessLevel;
 import lombok.Setter;
@@ -30,6 +32,10 @@ import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.Provider;
 import org.openmrs.annotation.OpenmrsProfile;
+import org.openmrs.module.fhir2.api.dao.FhirMedicationDao;
+import org.openmrs.module.fhir2.api.dao.FhirMedicationRequestDao;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
+import org.openmrs.module.fhir2.api.dao.FhirPractitionerDao;
 import org.openmrs.module.fhir2.api.translators.ConceptTranslator;
 import org.openmrs.module.fhir2.api.translators.DosageTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterReferenceTranslator;
@@ -79,6 +85,30 @@ public class MedicationRequestTranslatorImpl extends BaseReferenceHandlingTransl
 	@Autowired
 	private MedicationRequestDispenseRequestComponentTranslator medicationRequestDispenseRequestComponentTranslator;
 	
+	@Autowired
+	private FhirPatientDao patientDao;
+	
+	@Autowired
+	private FhirPractitionerDao practitionerDao;
+	
+	@Autowired
+	private FhirMedicationDao medicationDao;
+	
+	@Autowired
+	private FhirMedicationRequestDao medicationRequestDao;
+	
+	@Override
+	public List<MedicationRequest> toFhirResources(@Nonnull List<DrugOrder> drugOrders) {
+		// the patients, orderers, drugs and previous orders of all of the drug orders are each loaded with a single
+		// query, so that they are not loaded one at a time during the translation
+		patientDao.prefetchByIds(getReferencedIds(drugOrders, DrugOrder::getPatient));
+		practitionerDao.prefetchByIds(getReferencedIds(drugOrders, DrugOrder::getOrderer));
+		medicationDao.prefetchByIds(getReferencedIds(drugOrders, DrugOrder::getDrug));
+		medicationRequestDao.prefetchByIds(getReferencedIds(drugOrders, DrugOrder::getPreviousOrder));
+		
+		return MedicationRequestTranslator.super.toFhirResources(drugOrders);
+	}
+	
 	@Override
 	public MedicationRequest toFhirResource(@Nonnull DrugOrder drugOrder) {
 		notNull(drugOrder, "The DrugOrder object should not be null");
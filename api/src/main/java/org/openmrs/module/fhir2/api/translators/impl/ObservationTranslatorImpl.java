@@ -11,10 +11,12 @@ package org.openmrs.module.fhir2.api.translators.impl;
 
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getLastUpdated;
+import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getReferencedIds;
 import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getVersionId;
 
 import javax.annotation.Nonnull;
 
+import java.util.List;
 import java.util.function.Supplier;
 
 import lombok.AccessLevel;
@@ -31,6 +33,8 @@ import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.openmrs.api.db.hibernate.HibernateUtil;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.dao.FhirConceptDao;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.translators.ConceptTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.ObservationBasedOnReferenceTranslator;
@@ -83,6 +87,23 @@ public class ObservationTranslatorImpl extends BaseReferenceHandlingTranslator i
 	@Autowired
 	private ObservationEffectiveDatetimeTranslator datetimeTranslator;
 	
+	@Autowired
+	private FhirPatientDao patientDao;
+	
+	@Autowired
+	private FhirConceptDao conceptDao;
+	
+	@Override
+	public List<Observation> toFhirResources(@Nonnull List<Obs> observations) {
+		// the concepts of the observations, which determine the code, category and reference range, are prefetched
+		// and deproxied by the observation dao; the patients, with their names and identifiers, and the coded values
+		// are each loaded here with a single query, so that they are not loaded one at a time during the translation
+		patientDao.prefetchByIds(getReferencedIds(observations, Obs::getPerson));
+		conceptDao.prefetchByIds(getReferencedIds(observations, Obs::getValueCoded));
+		
+		return ObservationTranslator.super.toFhirResources(observations);
+	}
+	
 	@Override
 	public Observation toFhirResource(@Nonnull Obs observation) {
 		notNull(observation, "The Obs object should not be null");
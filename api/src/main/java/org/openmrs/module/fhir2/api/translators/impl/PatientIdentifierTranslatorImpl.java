@@ -9,8 +9,6 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
-import static org.openmrs.module.fhir2.api.util.FhirUtils.getMetadataTranslation;
-
 import javax.annotation.Nonnull;
 
 import lombok.AccessLevel;
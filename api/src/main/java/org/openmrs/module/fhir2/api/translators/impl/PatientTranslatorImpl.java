@@ -15,9 +15,11 @@ import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import lombok.AccessLevel;
 import lombok.Setter;
@@ -34,9 +36,6 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttribute;
 import org.openmrs.PersonName;
-import org.openmrs.module.fhir2.FhirConstants;
-import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
-import org.openmrs.module.fhir2.api.dao.FhirPersonDao;
 import org.openmrs.module.fhir2.api.translators.BirthDateTranslator;
 import org.openmrs.module.fhir2.api.translators.GenderTranslator;
 import org.openmrs.module.fhir2.api.translators.PatientIdentifierTranslator;
@@ -44,6 +43,7 @@ import org.openmrs.module.fhir2.api.translators.PatientTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -67,10 +67,7 @@ public class PatientTranslatorImpl implements PatientTranslator {
 	private PersonAddressTranslator addressTranslator;
 	
 	@Autowired
-	private FhirGlobalPropertyService globalPropertyService;
-	
-	@Autowired
-	private FhirPersonDao fhirPersonDao;
+	private PersonContactPointHelper contactPointHelper;
 	
 	@Autowired
 	private TelecomTranslator<BaseOpenmrsData> telecomTranslator;
@@ -78,7 +75,26 @@ public class PatientTranslatorImpl implements PatientTranslator {
 	@Override
 	public Patient toFhirResource(@Nonnull org.openmrs.Patient openmrsPatient) {
 		notNull(openmrsPatient, "The Openmrs Patient object should not be null");
+		return toFhirResource(openmrsPatient, getPatientContactDetails(openmrsPatient));
+	}
+	
+	@Override
+	public List<Patient> toFhirResources(@Nonnull List<org.openmrs.Patient> openmrsPatients) {
+		// the contact points of all of the patients are loaded with a single query
+		Map<Integer, List<ContactPoint>> contactPoints = contactPointHelper.getContactPoints(openmrsPatients,
+		    patient -> patient);
+		
+		List<Patient> patients = new ArrayList<>(openmrsPatients.size());
+		for (org.openmrs.Patient openmrsPatient : openmrsPatients) {
+			notNull(openmrsPatient, "The Openmrs Patient object should not be null");
+			patients.add(toFhirResource(openmrsPatient,
+			    contactPoints.getOrDefault(openmrsPatient.getId(), Collections.emptyList())));
+		}
 		
+		return patients;
+	}
+	
+	private Patient toFhirResource(org.openmrs.Patient openmrsPatient, List<ContactPoint> contactPoints) {
 		Patient patient = new Patient();
 		patient.setId(openmrsPatient.getUuid());
 		patient.setActive(!openmrsPatient.getVoided());
@@ -111,7 +127,7 @@ public class PatientTranslatorImpl implements PatientTranslator {
 			patient.addAddress(addressTranslator.toFhirResource(address));
 		}
 		
-		patient.setTelecom(getPatientContactDetails(openmrsPatient));
+		patient.setTelecom(new ArrayList<>(contactPoints));
 		patient.getMeta().setLastUpdated(getLastUpdated(openmrsPatient));
 		patient.getMeta().setVersionId(getVersionId(openmrsPatient));
 		
@@ -119,10 +135,7 @@ public class PatientTranslatorImpl implements PatientTranslator {
 	}
 	
 	public List<ContactPoint> getPatientContactDetails(@Nonnull org.openmrs.Patient patient) {
-		return fhirPersonDao
-		        .getActiveAttributesByPersonAndAttributeTypeUuid(patient,
-		            globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE))
-		        .stream().map(telecomTranslator::toFhirResource).collect(Collectors.toList());
+		return contactPointHelper.getContactPoints(patient);
 	}
 	
 	@Override
@@ -15,11 +15,16 @@ import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import lombok.AccessLevel;
 import lombok.Setter;
 import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.ContactPoint;
 import org.hl7.fhir.r4.model.HumanName;
 import org.openmrs.BaseOpenmrsData;
 import org.openmrs.Person;
@@ -34,6 +39,7 @@ import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonTranslator;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -62,10 +68,32 @@ public class PersonTranslatorImpl implements PersonTranslator {
 	@Autowired
 	private FhirPatientDao patientDao;
 	
+	@Autowired
+	private PersonContactPointHelper contactPointHelper;
+	
 	@Override
 	public org.hl7.fhir.r4.model.Person toFhirResource(@Nonnull Person openmrsPerson) {
 		notNull(openmrsPerson, "The Openmrs Person object should not be null");
+		return toFhirResource(openmrsPerson, contactPointHelper.getContactPoints(openmrsPerson));
+	}
+	
+	@Override
+	public List<org.hl7.fhir.r4.model.Person> toFhirResources(@Nonnull List<Person> openmrsPersons) {
+		// the contact points of all of the persons are loaded with a single query
+		Map<Integer, List<ContactPoint>> contactPoints = contactPointHelper.getContactPoints(openmrsPersons,
+		    person -> person);
+		
+		List<org.hl7.fhir.r4.model.Person> persons = new ArrayList<>(openmrsPersons.size());
+		for (Person openmrsPerson : openmrsPersons) {
+			notNull(openmrsPerson, "The Openmrs Person object should not be null");
+			persons.add(toFhirResource(openmrsPerson,
+			    contactPoints.getOrDefault(openmrsPerson.getId(), Collections.emptyList())));
+		}
 		
+		return persons;
+	}
+	
+	private org.hl7.fhir.r4.model.Person toFhirResource(Person openmrsPerson, List<ContactPoint> contactPoints) {
 		org.hl7.fhir.r4.model.Person person = new org.hl7.fhir.r4.model.Person();
 		person.setId(openmrsPerson.getUuid());
 		person.setActive(true);
@@ -84,7 +112,7 @@ public class PersonTranslatorImpl implements PersonTranslator {
 			person.addAddress(addressTranslator.toFhirResource(address));
 		}
 		
-		person.addTelecom(telecomTranslator.toFhirResource(openmrsPerson));
+		person.setTelecom(new ArrayList<>(contactPoints));
 		
 		if (openmrsPerson.getIsPatient()) {
 			person.addLink(new org.hl7.fhir.r4.model.Person.PersonLinkComponent()
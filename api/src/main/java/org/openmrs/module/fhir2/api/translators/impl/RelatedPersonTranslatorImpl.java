@@ -13,10 +13,15 @@ import static org.apache.commons.lang3.Validate.notNull;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import lombok.AccessLevel;
 import lombok.Setter;
+import org.hl7.fhir.r4.model.ContactPoint;
 import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Period;
 import org.hl7.fhir.r4.model.RelatedPerson;
@@ -32,6 +37,7 @@ import org.openmrs.module.fhir2.api.translators.PatientReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
 import org.openmrs.module.fhir2.api.translators.RelatedPersonTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -57,13 +63,35 @@ public class RelatedPersonTranslatorImpl implements RelatedPersonTranslator {
 	@Autowired
 	private FhirPatientDao patientDao;
 	
+	@Autowired
+	private PersonContactPointHelper contactPointHelper;
+	
 	/**
 	 * @see org.openmrs.module.fhir2.api.translators.RelatedPersonTranslator#toFhirResource(org.openmrs.Relationship)
 	 */
 	@Override
 	public RelatedPerson toFhirResource(@Nonnull Relationship relationship) {
 		notNull(relationship, "The Relationship object should not be null");
+		return toFhirResource(relationship, contactPointHelper.getContactPoints(relationship.getPersonA()));
+	}
+	
+	@Override
+	public List<RelatedPerson> toFhirResources(@Nonnull List<Relationship> relationships) {
+		// the contact points of all of the related persons are loaded with a single query
+		Map<Integer, List<ContactPoint>> contactPoints = contactPointHelper.getContactPoints(relationships,
+		    Relationship::getPersonA);
 		
+		List<RelatedPerson> relatedPersons = new ArrayList<>(relationships.size());
+		for (Relationship relationship : relationships) {
+			notNull(relationship, "The Relationship object should not be null");
+			relatedPersons.add(toFhirResource(relationship,
+			    contactPoints.getOrDefault(relationship.getPersonA().getId(), Collections.emptyList())));
+		}
+		
+		return relatedPersons;
+	}
+	
+	private RelatedPerson toFhirResource(Relationship relationship, List<ContactPoint> contactPoints) {
 		Person omrsRelatedPerson = relationship.getPersonA();
 		RelatedPerson relatedPerson = new RelatedPerson();
 		relatedPerson.setId(relationship.getUuid());
@@ -89,6 +117,8 @@ public class RelatedPersonTranslatorImpl implements RelatedPersonTranslator {
 			relatedPerson.addAddress(addressTranslator.toFhirResource(address));
 		}
 		
+		relatedPerson.setTelecom(new ArrayList<>(contactPoints));
+		
 		//identifier
 		Identifier relationshipIdentifier = new Identifier();
 		relationshipIdentifier.setSystem(FhirConstants.RELATED_PERSON);
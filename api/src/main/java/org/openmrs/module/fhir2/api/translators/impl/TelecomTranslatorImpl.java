@@ -9,16 +9,26 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
+import static org.openmrs.module.fhir2.api.translators.TranslationMemo.memoize;
 import static org.openmrs.module.fhir2.api.util.GeneralUtils.isVoidedOrRetired;
 
 import javax.annotation.Nonnull;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import lombok.AccessLevel;
 import lombok.Setter;
 import org.hl7.fhir.r4.model.ContactPoint;
 import org.openmrs.BaseOpenmrsData;
 import org.openmrs.LocationAttribute;
+import org.openmrs.OpenmrsObject;
 import org.openmrs.PersonAttribute;
+import org.openmrs.PersonAttributeType;
 import org.openmrs.ProviderAttribute;
 import org.openmrs.api.LocationService;
 import org.openmrs.api.PersonService;
@@ -28,11 +38,19 @@ import org.openmrs.attribute.BaseAttributeType;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirContactPointMapService;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
 import org.openmrs.module.fhir2.model.FhirContactPointMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * The attribute types that contact points are stored as are resolved once per global property value.
+ * Only their ids are held in memory, until the attribute types change, see
+ * {@link MetadataVersionInterceptor}; the attribute types themselves are loaded by id in the current
+ * session. The system, use and rank that an attribute type maps to are looked up once
+ * per request.
+ */
 @Component
 @Setter(AccessLevel.PACKAGE)
 public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData> {
@@ -52,6 +70,12 @@ public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData>
 	@Autowired
 	private FhirGlobalPropertyService globalPropertyService;
 	
+	@Autowired
+	private MetadataVersionInterceptor metadataVersion;
+	
+	@Setter(AccessLevel.NONE)
+	private final Map<String, CachedAttributeType> attributeTypes = new ConcurrentHashMap<>();
+	
 	@Override
 	public BaseOpenmrsData toOpenmrsType(@Nonnull BaseOpenmrsData attribute, @Nonnull ContactPoint contactPoint) {
 		if (attribute == null || contactPoint == null) {
@@ -65,24 +89,24 @@ public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData>
 			}
 			
 			personAttribute.setValue(contactPoint.getValue());
-			personAttribute.setAttributeType(personService.getPersonAttributeTypeByUuid(
-			    globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE)));
+			personAttribute.setAttributeType(getAttributeType(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE,
+			    personService::getPersonAttributeTypeByUuid, personService::getPersonAttributeType));
 		} else if (attribute instanceof LocationAttribute) {
 			LocationAttribute locationAttribute = (LocationAttribute) attribute;
 			if (contactPoint.hasId()) {
 				locationAttribute.setUuid(contactPoint.getId());
 			}
 			locationAttribute.setValue(contactPoint.getValue());
-			locationAttribute.setAttributeType(locationService.getLocationAttributeTypeByUuid(
-			    globalPropertyService.getGlobalProperty(FhirConstants.LOCATION_CONTACT_POINT_ATTRIBUTE_TYPE)));
+			locationAttribute.setAttributeType(getAttributeType(FhirConstants.LOCATION_CONTACT_POINT_ATTRIBUTE_TYPE,
+			    locationService::getLocationAttributeTypeByUuid, locationService::getLocationAttributeType));
 		} else if (attribute instanceof ProviderAttribute) {
 			ProviderAttribute providerAttribute = (ProviderAttribute) attribute;
 			if (contactPoint.hasId()) {
 				providerAttribute.setUuid(contactPoint.getId());
 			}
 			providerAttribute.setValue(contactPoint.getValue());
-			providerAttribute.setAttributeType(providerService.getProviderAttributeTypeByUuid(
-			    globalPropertyService.getGlobalProperty(FhirConstants.PROVIDER_CONTACT_POINT_ATTRIBUTE_TYPE)));
+			providerAttribute.setAttributeType(getAttributeType(FhirConstants.PROVIDER_CONTACT_POINT_ATTRIBUTE_TYPE,
+			    providerService::getProviderAttributeTypeByUuid, providerService::getProviderAttributeType));
 		}
 		
 		return attribute;
@@ -101,9 +125,9 @@ public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData>
 			contactPoint.setId(personAttribute.getUuid());
 			contactPoint.setValue(personAttribute.getValue());
 			
-			fhirContactPointMapService
-			        .getFhirContactPointMapForPersonAttributeType(((PersonAttribute) attribute).getAttributeType())
-			        .ifPresent(contactPointMap -> mapContactPoint(contactPoint, contactPointMap));
+			PersonAttributeType attributeType = personAttribute.getAttributeType();
+			mapContactPoint(contactPoint, attributeType,
+			    () -> fhirContactPointMapService.getFhirContactPointMapForPersonAttributeType(attributeType));
 		} else if (attribute instanceof LocationAttribute) {
 			LocationAttribute locationAttribute = (LocationAttribute) attribute;
 			contactPoint.setId(locationAttribute.getUuid());
@@ -115,15 +139,52 @@ public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData>
 		}
 		
 		if (attribute instanceof BaseAttribute) {
-			fhirContactPointMapService
-			        .getFhirContactPointMapForAttributeType(
-			            (BaseAttributeType<?>) ((BaseAttribute<?, ?>) attribute).getAttributeType())
-			        .ifPresent(contactPointMap -> mapContactPoint(contactPoint, contactPointMap));
+			BaseAttributeType<?> attributeType = (BaseAttributeType<?>) ((BaseAttribute<?, ?>) attribute).getAttributeType();
+			mapContactPoint(contactPoint, attributeType,
+			    () -> fhirContactPointMapService.getFhirContactPointMapForAttributeType(attributeType));
 		}
 		
 		return contactPoint;
 	}
 	
+	private <T extends OpenmrsObject> T getAttributeType(String globalProperty, Function<String, T> attributeTypeByUuid,
+	        Function<Integer, T> attributeTypeById) {
+		String uuid = globalPropertyService.getGlobalProperty(globalProperty);
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.CONTACT_POINT_ATTRIBUTE_TYPES);
+		
+		CachedAttributeType cached = attributeTypes.get(globalProperty);
+		if (cached != null && cached.isCurrent(version, uuid)) {
+			return cached.id == null ? null : attributeTypeById.apply(cached.id);
+		}
+		
+		T attributeType = attributeTypeByUuid.apply(uuid);
+		attributeTypes.put(globalProperty,
+		    new CachedAttributeType(version, uuid, attributeType == null ? null : attributeType.getId()));
+		return attributeType;
+	}
+	
+	private static void mapContactPoint(ContactPoint contactPoint, OpenmrsObject attributeType,
+	        Supplier<Optional<FhirContactPointMap>> contactPointMap) {
+		// the contact points of a page usually share a handful of attribute types
+		ContactPoint mapping = memoize("contactPointMap", attributeType, () -> {
+			ContactPoint result = new ContactPoint();
+			contactPointMap.get().ifPresent(map -> mapContactPoint(result, map));
+			return result;
+		});
+		
+		if (mapping.hasSystem()) {
+			contactPoint.setSystem(mapping.getSystem());
+		}
+		
+		if (mapping.hasUse()) {
+			contactPoint.setUse(mapping.getUse());
+		}
+		
+		if (mapping.hasRank()) {
+			contactPoint.setRank(mapping.getRank());
+		}
+	}
+	
 	private static void mapContactPoint(ContactPoint contactPoint, FhirContactPointMap contactPointMap) {
 		contactPoint.setSystem(contactPointMap.getSystem());
 		contactPoint.setUse(contactPointMap.getUse());
@@ -131,4 +192,23 @@ public class TelecomTranslatorImpl implements TelecomTranslator<BaseOpenmrsData>
 			contactPoint.setRank(contactPointMap.getRank());
 		}
 	}
+	
+	private static class CachedAttributeType {
+		
+		private final long version;
+		
+		private final String uuid;
+		
+		private final Integer id;
+		
+		private CachedAttributeType(long version, String uuid, Integer id) {
+			this.version = version;
+			this.uuid = uuid;
+			this.id = id;
+		}
+		
+		private boolean isCurrent(long version, String uuid) {
+			return this.version == version && Objects.equals(this.uuid, uuid);
+		}
+	}
 }
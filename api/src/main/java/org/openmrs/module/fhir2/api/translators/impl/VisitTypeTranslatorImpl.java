@@ -9,8 +9,6 @@
  */
 package org.openmrs.module.fhir2.api.translators.impl;
 
-import static org.openmrs.module.fhir2.api.util.FhirUtils.getMetadataTranslation;
-
 import javax.annotation.Nonnull;
 
 import java.util.Collections;
@@ -25,6 +23,7 @@ import org.openmrs.VisitType;
 import org.openmrs.api.VisitService;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.translators.VisitTypeTranslator;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -35,6 +34,9 @@ public class VisitTypeTranslatorImpl implements VisitTypeTranslator<VisitType> {
 	@Autowired
 	private VisitService visitService;
 	
+	@Autowired
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	@Override
 	public List<CodeableConcept> toFhirResource(@Nonnull VisitType visitType) {
 		if (visitType == null) {
@@ -43,7 +45,7 @@ public class VisitTypeTranslatorImpl implements VisitTypeTranslator<VisitType> {
 		
 		CodeableConcept code = new CodeableConcept();
 		code.addCoding().setSystem(FhirConstants.VISIT_TYPE_SYSTEM_URI).setCode(visitType.getUuid())
-		        .setDisplay(getMetadataTranslation(visitType));
+		        .setDisplay(metadataTranslationCache.getMetadataTranslation(visitType));
 		return Collections.singletonList(code);
 	}
 	
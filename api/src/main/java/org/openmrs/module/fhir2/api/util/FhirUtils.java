@@ -10,8 +10,10 @@
 package org.openmrs.module.fhir2.api.util;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -145,11 +147,24 @@ public class FhirUtils {
 	 * @return localization for the given metadata, from message source, in the authenticated locale
 	 */
 	public static String getMetadataTranslation(OpenmrsMetadata metadata) {
+		return getMetadataTranslation(metadata, FhirUtils::lookupLocalization);
+	}
+	
+	/**
+	 * Localizes OpenMRS Metadata like {@link #getMetadataTranslation(OpenmrsMetadata)}, looking up the
+	 * localization with the given function
+	 *
+	 * @param metadata the piece of OpenMRS Metadata to localize
+	 * @param lookup looks up the localization of a message code in a locale, returning {@code null} if
+	 *            there is none
+	 * @return localization for the given metadata, from the lookup, in the authenticated locale
+	 */
+	static String getMetadataTranslation(OpenmrsMetadata metadata, BiFunction<String, Locale, String> lookup) {
 		
 		String className = metadata.getClass().getSimpleName();
 		String uuid = metadata.getUuid();
 		
-		String localization = getLocalization(className, uuid);
+		String localization = getLocalization(className, uuid, lookup);
 		
 		if (localization == null) {
 			return metadata.getName();
@@ -163,7 +178,7 @@ public class FhirUtils {
 		String className = concept.getClass().getSimpleName();
 		String uuid = concept.getUuid();
 		
-		String localization = getLocalization(className, uuid);
+		String localization = getLocalization(className, uuid, FhirUtils::lookupLocalization);
 		
 		if (localization == null) {
 			return concept.getName().getName();
@@ -173,7 +188,7 @@ public class FhirUtils {
 	}
 	
 	// This code is from the REST module which derived it from the UI framework
-	private static String getLocalization(String shortClassName, String uuid) {
+	private static String getLocalization(String shortClassName, String uuid, BiFunction<String, Locale, String> lookup) {
 		// in case this is a hibernate proxy, strip off anything after an underscore
 		// ie: EncounterType_$$_javassist_26 needs to be converted to EncounterType
 		int underscoreIndex = shortClassName.indexOf("_$");
@@ -182,13 +197,19 @@ public class FhirUtils {
 		}
 		
 		String code = "ui.i18n." + shortClassName + ".name." + uuid;
-		String localization = null;
 		try {
-			localization = Context.getMessageSourceService().getMessage(code);
+			return lookup.apply(code, Context.getLocale());
 		}
 		catch (Exception e) {
 			log.info("Caught exception while attempting to localize code [{}]", code, e);
 		}
+		
+		return null;
+	}
+	
+	static String lookupLocalization(String code, Locale locale) {
+		// passing the code as the default message avoids an exception for the common case of no translation
+		String localization = Context.getMessageSourceService().getMessage(code, null, code, locale);
 		if (localization == null || localization.equals(code)) {
 			return null;
 		} else {
@@ -19,17 +19,21 @@ import javax.annotation.Nonnull;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import ca.uhn.fhir.rest.server.exceptions.NotImplementedOperationException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
+import lombok.AccessLevel;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
-import org.openmrs.BaseOpenmrsObject;
 import org.openmrs.Concept;
 import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
@@ -39,9 +43,17 @@ import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.ObsService;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * The concepts, encounter type and encounter role that immunizations are stored with are resolved
+ * once, so that translating an immunization does not search for them again. Only their ids are held
+ * in memory; the metadata itself is loaded by id in the current session. They are resolved again
+ * whenever concepts, their mappings or the encounter metadata change, see
+ * {@link MetadataVersionInterceptor}, or when the global properties point to different metadata.
+ */
 @Component
 @Setter
 public class ImmunizationObsGroupHelper {
@@ -58,6 +70,18 @@ public class ImmunizationObsGroupHelper {
 	@Autowired
 	private FhirGlobalPropertyService globalPropertyService;
 	
+	@Autowired
+	private MetadataVersionInterceptor metadataVersion;
+	
+	@Setter(AccessLevel.NONE)
+	private volatile ImmunizationConceptRegistry conceptRegistry;
+	
+	@Setter(AccessLevel.NONE)
+	private volatile CachedMetadata immunizationsEncounterType;
+	
+	@Setter(AccessLevel.NONE)
+	private volatile CachedMetadata administeringEncounterRole;
+	
 	public static UnprocessableEntityException createImmunizationRequestValidationError(@Nonnull String errMsg) {
 		return new UnprocessableEntityException(errMsg, createExceptionErrorOperationOutcome(errMsg));
 	}
@@ -68,36 +92,65 @@ public class ImmunizationObsGroupHelper {
 	
 	public EncounterType getImmunizationsEncounterType() {
 		String uuid = globalPropertyService.getGlobalProperty(IMMUNIZATIONS_ENCOUNTER_TYPE_PROPERTY);
-		return Optional.ofNullable(encounterService.getEncounterTypeByUuid(uuid)).orElseThrow(
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.IMMUNIZATION_METADATA);
+		
+		CachedMetadata cached = immunizationsEncounterType;
+		if (cached != null && cached.isCurrent(version, uuid)) {
+			return encounterService.getEncounterType(cached.id);
+		}
+		
+		EncounterType encounterType = Optional.ofNullable(encounterService.getEncounterTypeByUuid(uuid)).orElseThrow(
 		    () -> createImmunizationRequestSetupError(
 		        "The Immunization resource requires an immunizations encounter type to be defined in the global property '"
 		                + IMMUNIZATIONS_ENCOUNTER_TYPE_PROPERTY
 		                + "', but no immunizations encounter type is defined for this instance."));
+		immunizationsEncounterType = new CachedMetadata(version, uuid, encounterType.getId());
+		return encounterType;
 	}
 	
 	public EncounterRole getAdministeringEncounterRole() {
 		String uuid = globalPropertyService.getGlobalProperty(ADMINISTERING_ENCOUNTER_ROLE_PROPERTY);
-		return Optional.ofNullable(encounterService.getEncounterRoleByUuid(uuid)).orElseThrow(
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.IMMUNIZATION_METADATA);
+		
+		CachedMetadata cached = administeringEncounterRole;
+		if (cached != null && cached.isCurrent(version, uuid)) {
+			return encounterService.getEncounterRole(cached.id);
+		}
+		
+		EncounterRole encounterRole = Optional.ofNullable(encounterService.getEncounterRoleByUuid(uuid)).orElseThrow(
 		    () -> createImmunizationRequestSetupError(
 		        "The Immunization resource requires an administering encounter role to be defined in the global property '"
 		                + ADMINISTERING_ENCOUNTER_ROLE_PROPERTY
 		                + "', but no administering encounter role is defined for this instance."));
+		administeringEncounterRole = new CachedMetadata(version, uuid, encounterRole.getId());
+		return encounterRole;
 	}
 	
 	public Concept concept(String refTerm) {
-		return getConceptFromMapping(refTerm).orElseThrow(
-		    () -> createImmunizationRequestSetupError("The Immunization resource requires a concept mapped to '" + refTerm
-		            + "', however either multiple concepts are mapped to that term or not concepts are mapped to that term."));
+		return concept(getConceptRegistry(), refTerm);
+	}
+	
+	/**
+	 * Discards the resolved concepts and encounter metadata, so that they are looked up again when they
+	 * are next used. This is only needed when the database has been changed without going through
+	 * Hibernate.
+	 */
+	public void refresh() {
+		conceptRegistry = null;
+		immunizationsEncounterType = null;
+		administeringEncounterRole = null;
 	}
 	
 	public Obs newImmunizationObsGroup() {
+		ImmunizationConceptRegistry registry = getConceptRegistry();
+		
 		Obs obs = new Obs();
-		obs.setConcept(concept(IMMUNIZATION_GROUPING_CONCEPT));
+		obs.setConcept(concept(registry, IMMUNIZATION_GROUPING_CONCEPT));
 		obs.setObsDatetime(new Date());
 		
 		IMMUNIZATION_CONCEPTS.forEach(refTerm -> {
 			Obs o = new Obs();
-			o.setConcept(concept(refTerm));
+			o.setConcept(concept(registry, refTerm));
 			o.setObsDatetime(obs.getObsDatetime());
 			obs.addGroupMember(o);
 		});
@@ -132,15 +185,16 @@ public class ImmunizationObsGroupHelper {
 	}
 	
 	public void validateImmunizationObsGroup(Obs obs) {
-		if (!concept(IMMUNIZATION_GROUPING_CONCEPT).equals(obs.getConcept())) {
+		ImmunizationConceptRegistry registry = getConceptRegistry();
+		
+		if (!concept(registry, IMMUNIZATION_GROUPING_CONCEPT).equals(obs.getConcept())) {
 			throw createImmunizationRequestSetupError(
 			    "The Immunization resource requires the underlying OpenMRS immunization obs group to be defined by a concept mapped as same as "
 			            + IMMUNIZATION_GROUPING_CONCEPT + ". That is not the case for obs '" + obs.getUuid()
 			            + "' that is defined by the concept named '" + obs.getConcept().getName().toString() + "'.");
 		}
 		
-		final Set<String> refConcepts = IMMUNIZATION_CONCEPTS.stream().map(this::getConceptFromMapping)
-		        .filter(Optional::isPresent).map(Optional::get).map(BaseOpenmrsObject::getUuid).collect(Collectors.toSet());
+		final Set<String> refConcepts = new HashSet<>(registry.memberConceptUuids);
 		
 		// filtering the obs' concepts that are immunization concepts (but there could be others)
 		List<String> obsConcepts = obs.getGroupMembers().stream().map(o -> o.getConcept().getUuid())
@@ -168,11 +222,41 @@ public class ImmunizationObsGroupHelper {
 			return Collections.emptyMap();
 		}
 		
-		Map<Concept, String> concepts = IMMUNIZATION_CONCEPTS.stream()
-		        .collect(Collectors.toMap(this::concept, refTerm -> refTerm));
+		ImmunizationConceptRegistry registry = getConceptRegistry();
+		if (!registry.complete) {
+			// fails with the setup error for the first immunization concept that cannot be resolved
+			IMMUNIZATION_CONCEPTS.forEach(refTerm -> concept(registry, refTerm));
+		}
+		
+		Map<Integer, String> refTerms = registry.memberRefTermsByConceptId;
+		return obs.getGroupMembers().stream().filter(o -> refTerms.containsKey(o.getConcept().getId()))
+		        .collect(Collectors.toMap(o -> refTerms.get(o.getConcept().getId()), o -> o));
+	}
+	
+	private Concept concept(ImmunizationConceptRegistry registry, String refTerm) {
+		Integer conceptId = registry.conceptIdsByRefTerm.get(refTerm);
+		Optional<Concept> result = conceptId != null ? Optional.ofNullable(conceptService.getConcept(conceptId))
+		        : getConceptFromMapping(refTerm);
+		
+		return result.orElseThrow(
+		    () -> createImmunizationRequestSetupError("The Immunization resource requires a concept mapped to '" + refTerm
+		            + "', however either multiple concepts are mapped to that term or not concepts are mapped to that term."));
+	}
+	
+	private ImmunizationConceptRegistry getConceptRegistry() {
+		long version = metadataVersion.getVersion(MetadataVersionInterceptor.Metadata.IMMUNIZATION_METADATA);
+		ImmunizationConceptRegistry current = conceptRegistry;
+		// an incomplete registry is resolved again, as the missing concepts may have been set up since
+		if (current == null || current.version != version || !current.complete) {
+			Map<String, Concept> concepts = new HashMap<>();
+			Stream.concat(Stream.of(IMMUNIZATION_GROUPING_CONCEPT), IMMUNIZATION_CONCEPTS.stream()).forEach(
+			    refTerm -> getConceptFromMapping(refTerm).ifPresent(concept -> concepts.put(refTerm, concept)));
+			
+			current = new ImmunizationConceptRegistry(version, concepts);
+			conceptRegistry = current;
+		}
 		
-		return obs.getGroupMembers().stream().filter(o -> concepts.containsKey(o.getConcept()))
-		        .collect(Collectors.toMap(o -> concepts.get(o.getConcept()), o -> o));
+		return current;
 	}
 	
 	private Optional<Concept> getConceptFromMapping(String refTerm) {
@@ -194,4 +278,57 @@ public class ImmunizationObsGroupHelper {
 		
 		return Optional.of(result);
 	}
+	
+	private static class ImmunizationConceptRegistry {
+		
+		private final long version;
+		
+		private final Map<String, Integer> conceptIdsByRefTerm;
+		
+		private final Map<Integer, String> memberRefTermsByConceptId;
+		
+		private final Set<String> memberConceptUuids;
+		
+		private final boolean complete;
+		
+		private ImmunizationConceptRegistry(long version, Map<String, Concept> conceptsByRefTerm) {
+			this.version = version;
+			
+			Map<String, Integer> conceptIdsByRefTerm = new HashMap<>();
+			conceptsByRefTerm.forEach((refTerm, concept) -> conceptIdsByRefTerm.put(refTerm, concept.getId()));
+			this.conceptIdsByRefTerm = Collections.unmodifiableMap(conceptIdsByRefTerm);
+			
+			Map<Integer, String> memberRefTermsByConceptId = new HashMap<>();
+			Set<String> memberConceptUuids = new HashSet<>();
+			IMMUNIZATION_CONCEPTS.stream().filter(conceptsByRefTerm::containsKey).forEach(refTerm -> {
+				Concept concept = conceptsByRefTerm.get(refTerm);
+				memberRefTermsByConceptId.put(concept.getId(), refTerm);
+				memberConceptUuids.add(concept.getUuid());
+			});
+			
+			this.memberRefTermsByConceptId = Collections.unmodifiableMap(memberRefTermsByConceptId);
+			this.memberConceptUuids = Collections.unmodifiableSet(memberConceptUuids);
+			this.complete = conceptsByRefTerm.containsKey(IMMUNIZATION_GROUPING_CONCEPT)
+			        && conceptsByRefTerm.keySet().containsAll(IMMUNIZATION_CONCEPTS);
+		}
+	}
+	
+	private static class CachedMetadata {
+		
+		private final long version;
+		
+		private final String uuid;
+		
+		private final Integer id;
+		
+		private CachedMetadata(long version, String uuid, Integer id) {
+			this.version = version;
+			this.uuid = uuid;
+			this.id = id;
+		}
+		
+		private boolean isCurrent(long version, String uuid) {
+			return this.version == version && Objects.equals(this.uuid, uuid);
+		}
+	}
 }
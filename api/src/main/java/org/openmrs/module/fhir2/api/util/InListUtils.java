@@ -0,0 +1,89 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import javax.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for building the value lists of {@code IN} clauses
+ */
+public final class InListUtils {
+	
+	/**
+	 * The sizes that the value lists of {@code IN} clauses are padded to. Keeping the number of
+	 * distinct list sizes small allows the database and the driver to reuse prepared statements. The
+	 * largest bucket is also the largest number of values placed in a single {@code IN} clause.
+	 */
+	private static final int[] IN_LIST_BUCKET_SIZES = { 10, 50, 100, 500, 1000 };
+	
+	public static final int MAX_IN_LIST_SIZE = IN_LIST_BUCKET_SIZES[IN_LIST_BUCKET_SIZES.length - 1];
+	
+	private InListUtils() {
+	}
+	
+	/**
+	 * Splits a collection of values into lists of at most {@link #MAX_IN_LIST_SIZE} distinct values,
+	 * each suitable for a single {@code IN} clause. Null values are dropped and the order of the values
+	 * is preserved.
+	 *
+	 * @param values the values to split
+	 * @param <K> the type of the values
+	 * @return the values, split into chunks
+	 */
+	public static <K> List<List<K>> chunkInList(@Nonnull Collection<K> values) {
+		List<K> distinctValues = values.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		
+		List<List<K>> chunks = new ArrayList<>((distinctValues.size() + MAX_IN_LIST_SIZE - 1) / MAX_IN_LIST_SIZE);
+		for (int i = 0; i < distinctValues.size(); i += MAX_IN_LIST_SIZE) {
+			chunks.add(distinctValues.subList(i, Math.min(i + MAX_IN_LIST_SIZE, distinctValues.size())));
+		}
+		
+		return chunks;
+	}
+	
+	/**
+	 * Pads a list of values for an {@code IN} clause to the next bucket size by repeating its last
+	 * value, which does not change which rows the clause matches
+	 *
+	 * @param values the values, at most {@link #MAX_IN_LIST_SIZE} of them
+	 * @param <K> the type of the values
+	 * @return the values padded to a bucket size
+	 */
+	public static <K> List<K> padInList(@Nonnull List<K> values) {
+		if (values.isEmpty()) {
+			return values;
+		}
+		
+		for (int bucketSize : IN_LIST_BUCKET_SIZES) {
+			if (values.size() <= bucketSize) {
+				if (values.size() == bucketSize) {
+					return values;
+				}
+				
+				List<K> padded = new ArrayList<>(bucketSize);
+				padded.addAll(values);
+				K last = values.get(values.size() - 1);
+				while (padded.size() < bucketSize) {
+					padded.add(last);
+				}
+				
+				return padded;
+			}
+		}
+		
+		return values;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.openmrs.OpenmrsMetadata;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the localized display strings of OpenMRS metadata per locale, so that the message source is
+ * not consulted again for every reference to the same location, identifier type, encounter type or
+ * visit type. Codes without a translation are cached too, as they are by far the most common case.
+ * Each locale holds at most {@link #MAX_SIZE_PER_LOCALE} translations, evicting the least recently
+ * used one to make room for another.
+ * <p/>
+ * OpenMRS reloads the message properties whenever the application context is refreshed, so the cache
+ * is cleared when that happens.
+ */
+@Component
+public class MetadataTranslationCache implements ApplicationListener<ContextRefreshedEvent> {
+	
+	static final int MAX_SIZE_PER_LOCALE = 10000;
+	
+	private final Map<Locale, Map<String, Optional<String>>> translations = new ConcurrentHashMap<>();
+	
+	/**
+	 * Provides the localization of OpenMRS Metadata like
+	 * {@link FhirUtils#getMetadataTranslation(OpenmrsMetadata)}, using cached localizations
+	 *
+	 * @param metadata the piece of OpenMRS Metadata to localize
+	 * @return localization for the given metadata, from message source, in the authenticated locale
+	 */
+	public String getMetadataTranslation(OpenmrsMetadata metadata) {
+		return FhirUtils.getMetadataTranslation(metadata,
+		    (code, locale) -> getTranslation(locale, code, c -> FhirUtils.lookupLocalization(c, locale)));
+	}
+	
+	/**
+	 * Returns the cached translation of a message code or looks it up and caches it. Nothing is cached
+	 * if the lookup throws an exception.
+	 *
+	 * @param locale the locale to translate the code into
+	 * @param code the message code
+	 * @param lookup looks up the translation of the code in the given locale, returning {@code null} if
+	 *            there is none
+	 * @return the translation of the code or {@code null} if there is none
+	 */
+	String getTranslation(Locale locale, String code, Function<String, String> lookup) {
+		Map<String, Optional<String>> localeTranslations = translations.computeIfAbsent(locale,
+		    l -> newLocaleTranslations());
+		
+		Optional<String> translation = localeTranslations.get(code);
+		if (translation == null) {
+			translation = Optional.ofNullable(lookup.apply(code));
+			localeTranslations.put(code, translation);
+		}
+		
+		return translation.orElse(null);
+	}
+	
+	public void clear() {
+		translations.clear();
+	}
+	
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		clear();
+	}
+	
+	private static Map<String, Optional<String>> newLocaleTranslations() {
+		return Collections.synchronizedMap(new LinkedHashMap<String, Optional<String>>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Optional<String>> eldest) {
+				return size() > MAX_SIZE_PER_LOCALE;
+			}
+		});
+	}
+}
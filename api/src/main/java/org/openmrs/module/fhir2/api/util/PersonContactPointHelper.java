@@ -0,0 +1,84 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getReferencedIds;
+
+import javax.annotation.Nonnull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.Setter;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.openmrs.BaseOpenmrsData;
+import org.openmrs.Person;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirPersonDao;
+import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the contact points of persons, which are stored as person attributes of the type named by the
+ * {@link FhirConstants#PERSON_CONTACT_POINT_ATTRIBUTE_TYPE} global property. The contact points of a
+ * page of results are loaded with a single query and grouped by person in memory.
+ */
+@Component
+@Setter
+public class PersonContactPointHelper {
+	
+	@Autowired
+	private FhirPersonDao fhirPersonDao;
+	
+	@Autowired
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Autowired
+	private TelecomTranslator<BaseOpenmrsData> telecomTranslator;
+	
+	/**
+	 * @param person the person to load the contact points of
+	 * @return the contact points of the person
+	 */
+	public List<ContactPoint> getContactPoints(@Nonnull Person person) {
+		return fhirPersonDao
+		        .getActiveAttributesByPersonAndAttributeTypeUuid(person,
+		            globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE))
+		        .stream().map(telecomTranslator::toFhirResource).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Loads the contact points of the persons referenced by the given objects with a single query
+	 *
+	 * @param data the objects referencing the persons, e.g. patients or relationships
+	 * @param person returns the person referenced by an object
+	 * @return the contact points of the persons keyed by person id; persons without contact points are
+	 *         not included
+	 */
+	public <T> Map<Integer, List<ContactPoint>> getContactPoints(@Nonnull Collection<T> data,
+	        @Nonnull Function<T, ? extends Person> person) {
+		String personAttributeTypeUuid = globalPropertyService
+		        .getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE);
+		List<Integer> personIds = getReferencedIds(data, person);
+		if (personAttributeTypeUuid == null || personIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		
+		return fhirPersonDao.getActiveAttributesByPersonIdsAndAttributeTypeUuid(personIds, personAttributeTypeUuid)
+		        .stream().collect(Collectors.groupingBy(attribute -> attribute.getPerson().getPersonId(),
+		            Collectors.mapping(telecomTranslator::toFhirResource, Collectors.toList())));
+	}
+}
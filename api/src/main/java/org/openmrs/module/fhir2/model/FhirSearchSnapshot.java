@@ -0,0 +1,83 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A snapshot of the results of a search, used to serve the pages of a search from any node in a
+ * cluster. Rather than the resources themselves, the snapshot records the ordered ids of the search
+ * results, along with the beans needed to turn those ids back into FHIR resources.
+ */
+@Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = { "searchParameters", "resultIds" })
+@Entity
+@Table(name = "fhir_search_snapshot")
+@NoArgsConstructor
+public class FhirSearchSnapshot implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@EqualsAndHashCode.Include
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO)
+	@Column(name = "fhir_search_snapshot_id")
+	private Integer id;
+	
+	@Column(name = "uuid", unique = true, nullable = false, length = 38)
+	private String uuid;
+	
+	@Column(name = "dao_bean", nullable = false)
+	private String daoBean;
+	
+	@Column(name = "translator_bean", nullable = false)
+	private String translatorBean;
+	
+	@Column(name = "include_bean", nullable = false)
+	private String includeBean;
+	
+	@Column(name = "fhir_version", nullable = false, length = 10)
+	private String fhirVersion;
+	
+	/**
+	 * The parameters of the search, as written by {@code SearchParameterMapCodec}
+	 */
+	@Lob
+	@Column(name = "search_parameters", nullable = false)
+	private String searchParameters;
+	
+	@Lob
+	@Column(name = "result_ids", nullable = false)
+	private byte[] resultIds;
+	
+	@Column(name = "result_count", nullable = false)
+	private Integer resultCount;
+	
+	@Column(name = "date_created", nullable = false)
+	private Date dateCreated;
+	
+	@Column(name = "expires", nullable = false)
+	private Date expires;
+}
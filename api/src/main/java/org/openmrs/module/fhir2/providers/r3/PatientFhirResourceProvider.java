@@ -22,6 +22,7 @@ import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
 import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
 import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -31,8 +32,11 @@ import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.SortSpec;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.param.NumberParam;
 import ca.uhn.fhir.rest.param.StringAndListParam;
+import ca.uhn.fhir.rest.param.StringOrListParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
@@ -53,6 +57,7 @@ import org.hl7.fhir.dstu3.model.Patient;
 import org.hl7.fhir.dstu3.model.ProcedureRequest;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.ServiceRequest;
+import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.api.annotations.R3Provider;
 import org.openmrs.module.fhir2.api.search.SearchQueryBundleProviderR3Wrapper;
@@ -175,10 +180,16 @@ public class PatientFhirResourceProvider implements IResourceProvider {
 	 * The $everything operation fetches all the information related the specified patient
 	 *
 	 * @param patientId The id of the patient
+	 * @param since if set, only resources updated since this instant are returned
+	 * @param type if set, only resources of these types are returned
+	 * @param count the number of resources to return per page
 	 * @return a bundle of resources which reference to or are referenced from the patient
 	 */
 	@Operation(name = "everything", idempotent = true, type = Patient.class, bundleType = BundleTypeEnum.SEARCHSET)
-	public IBundleProvider getPatientEverything(@IdParam IdType patientId) {
+	public IBundleProvider getPatientEverything(@IdParam IdType patientId,
+	        @OperationParam(name = FhirConstants.SINCE_PARAMETER) DateParam since,
+	        @OperationParam(name = FhirConstants.TYPE_PARAMETER) StringOrListParam type,
+	        @OperationParam(name = FhirConstants.COUNT_PARAMETER) NumberParam count) {
 		
 		if (patientId == null || patientId.getIdPart() == null || patientId.getIdPart().isEmpty()) {
 			return null;
@@ -186,16 +197,25 @@ public class PatientFhirResourceProvider implements IResourceProvider {
 		
 		TokenParam patientReference = new TokenParam().setValue(patientId.getIdPart());
 		
-		return new SearchQueryBundleProviderR3Wrapper(patientService.getPatientEverything(patientReference));
+		return new SearchQueryBundleProviderR3Wrapper(
+		        patientService.getPatientEverything(patientReference, FhirProviderUtils.sinceToLastUpdated(since),
+		            FhirProviderUtils.typesToSet(type), FhirProviderUtils.countToPageSize(count)));
 	}
 	
 	/**
 	 * The $everything operation fetches all the information related to all the patients
 	 *
+	 * @param since if set, only resources updated since this instant are returned
+	 * @param type if set, only resources of these types are returned
+	 * @param count the number of resources to return per page
 	 * @return a bundle of resources which reference to or are referenced from the patients
 	 */
 	@Operation(name = "everything", idempotent = true, type = Patient.class, bundleType = BundleTypeEnum.SEARCHSET)
-	public IBundleProvider getPatientEverything() {
-		return new SearchQueryBundleProviderR3Wrapper(patientService.getPatientEverything());
+	public IBundleProvider getPatientEverything(@OperationParam(name = FhirConstants.SINCE_PARAMETER) DateParam since,
+	        @OperationParam(name = FhirConstants.TYPE_PARAMETER) StringOrListParam type,
+	        @OperationParam(name = FhirConstants.COUNT_PARAMETER) NumberParam count) {
+		return new SearchQueryBundleProviderR3Wrapper(patientService.getPatientEverything(
+		    FhirProviderUtils.sinceToLastUpdated(since), FhirProviderUtils.typesToSet(type),
+		    FhirProviderUtils.countToPageSize(count)));
 	}
 }
@@ -9,7 +9,15 @@
  */
 package org.openmrs.module.fhir2.providers.util;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.param.DateParam;
+import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.param.NumberParam;
+import ca.uhn.fhir.rest.param.ParamPrefixEnum;
+import ca.uhn.fhir.rest.param.StringOrListParam;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.hl7.fhir.instance.model.api.IAnyResource;
@@ -63,6 +71,41 @@ public class FhirProviderUtils {
 		return outcome;
 	}
 	
+	/**
+	 * Converts the {@code _since} parameter of an operation into the equivalent range of last updated
+	 * dates
+	 */
+	public static DateRangeParam sinceToLastUpdated(DateParam since) {
+		if (since == null || since.getValue() == null) {
+			return null;
+		}
+		
+		return new DateRangeParam(new DateParam(ParamPrefixEnum.GREATERTHAN_OR_EQUALS, since.getValue()), null);
+	}
+	
+	/**
+	 * Converts the {@code _type} parameter of an operation into the set of resource types it lists
+	 */
+	public static Set<String> typesToSet(StringOrListParam types) {
+		if (types == null) {
+			return null;
+		}
+		
+		return types.getValuesAsQueryTokens().stream().map(type -> type.getValue().trim()).filter(type -> !type.isEmpty())
+		        .collect(Collectors.toSet());
+	}
+	
+	/**
+	 * Converts the {@code _count} parameter of an operation into a page size
+	 */
+	public static Integer countToPageSize(NumberParam count) {
+		if (count == null || count.getValue() == null || count.getValue().signum() <= 0) {
+			return null;
+		}
+		
+		return count.getValue().intValue();
+	}
+	
 	private static MethodOutcome buildWithResource(MethodOutcome methodOutcome, IAnyResource resource) {
 		if (resource != null) {
 			methodOutcome.setId(resource.getIdElement());
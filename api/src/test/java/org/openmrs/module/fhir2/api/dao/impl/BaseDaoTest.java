@@ -0,0 +1,57 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.dao.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.openmrs.module.fhir2.api.util.InListUtils.MAX_IN_LIST_SIZE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class BaseDaoTest {
+	
+	@Test
+	public void getInChunks_shouldReturnResultsInOrderOfKeys() {
+		List<Integer> keys = IntStream.range(0, MAX_IN_LIST_SIZE + 5).map(i -> MAX_IN_LIST_SIZE + 5 - i)
+		        .boxed().collect(Collectors.toList());
+		List<Integer> queriedChunkSizes = new ArrayList<>();
+		
+		List<String> results = BaseDao.getInChunks(keys, chunk -> {
+			queriedChunkSizes.add(chunk.size());
+			// return the results in a different order from the keys and skip the key 7
+			return chunk.stream().distinct().sorted().filter(key -> key != 7).map(String::valueOf)
+			        .collect(Collectors.toList());
+		}, Integer::valueOf);
+		
+		assertThat(queriedChunkSizes, contains(MAX_IN_LIST_SIZE, 10));
+		assertThat(results, hasSize(keys.size() - 1));
+		assertThat(results.get(0), equalTo(String.valueOf(keys.get(0))));
+		assertThat(results.get(results.size() - 1), equalTo(String.valueOf(keys.get(keys.size() - 1))));
+		assertThat(results.get(results.size() - 7), equalTo("8"));
+	}
+	
+	@Test
+	public void getInChunks_shouldNotQueryWithoutKeys() {
+		List<String> results = BaseDao.getInChunks(Collections.<Integer> emptyList(), chunk -> {
+			throw new AssertionError("query should not be run");
+		}, Integer::valueOf);
+		
+		assertThat(results, empty());
+	}
+}
@@ -91,6 +91,24 @@ public class FhirConceptSourceDaoImplTest extends BaseModuleContextSensitiveTest
 		assertThat(result.get().getUrl(), equalTo(FhirTestConstants.LOINC_SYSTEM_URL));
 	}
 	
+	@Test
+	public void getFhirConceptSourceById_shouldReturnSourceForId() {
+		FhirConceptSource source = fhirConceptSourceDao.getFhirConceptSourceByUrl(FhirTestConstants.LOINC_SYSTEM_URL).get();
+		
+		Optional<FhirConceptSource> result = fhirConceptSourceDao.getFhirConceptSourceById(source.getId());
+		
+		assertThat(result, contains(hasProperty("url", equalTo(FhirTestConstants.LOINC_SYSTEM_URL))));
+	}
+	
+	@Test
+	public void getConceptSourceById_shouldReturnSourceForId() {
+		ConceptSource conceptSource = conceptService.getConceptSourceByName("LOINC");
+		
+		Optional<ConceptSource> result = fhirConceptSourceDao.getConceptSourceById(conceptSource.getId());
+		
+		assertThat(result, contains(hasProperty("name", equalTo("LOINC"))));
+	}
+	
 	@Test
 	public void getFhirConceptSourceByUrl_shouldReturnEmptyOptionalForMissingUrl() {
 		Optional<FhirConceptSource> result = fhirConceptSourceDao.getFhirConceptSourceByUrl("https://www.example.com");
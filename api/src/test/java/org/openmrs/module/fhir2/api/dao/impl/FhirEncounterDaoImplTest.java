@@ -15,6 +15,8 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.openmrs.test.OpenmrsMatchers.hasId;
 
 import java.util.List;
@@ -22,7 +24,13 @@ import java.util.List;
 import ca.uhn.fhir.rest.param.HasAndListParam;
 import ca.uhn.fhir.rest.param.HasOrListParam;
 import ca.uhn.fhir.rest.param.HasParam;
+import ca.uhn.fhir.rest.param.NumberParam;
+import ca.uhn.fhir.rest.param.ReferenceAndListParam;
+import ca.uhn.fhir.rest.param.ReferenceOrListParam;
+import ca.uhn.fhir.rest.param.ReferenceParam;
+import ca.uhn.fhir.rest.param.StringParam;
 import org.hibernate.SessionFactory;
+import org.hl7.fhir.r4.model.Practitioner;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.DrugOrder;
@@ -58,8 +66,18 @@ public class FhirEncounterDaoImplTest extends BaseModuleContextSensitiveTest {
 	
 	private static final Integer ENCOUNTER_WITH_ONLY_EXPIRED_DRUG_ORDER = 2004;
 	
+	private static final Integer ENCOUNTER_WITH_TWO_PARTICIPANTS = 2005;
+	
+	private static final String SHARED_PARTICIPANT_IDENTIFIER = "multi-participant";
+	
 	private static final String ENCOUNTER_INITIAL_DATA_XML = "org/openmrs/module/fhir2/api/dao/impl/FhirEncounterDaoImplTest_initial_data.xml";
 	
+	private static final String LASTN_PATIENT_UUID = "4b2a6f1e-9c3d-4e7a-8b5f-2d1c6e9a3f71";
+	
+	private static final String ENCOUNTER_LASTN_DATA_XML = "org/openmrs/module/fhir2/api/dao/impl/FhirEncounterDaoImplTest_lastn.xml";
+	
+	private static final String ENCOUNTER_PARTICIPANTS_DATA_XML = "org/openmrs/module/fhir2/api/dao/impl/FhirEncounterDaoImplTest_participants.xml";
+	
 	@Autowired
 	@Qualifier("sessionFactory")
 	private SessionFactory sessionFactory;
@@ -199,6 +217,45 @@ public class FhirEncounterDaoImplTest extends BaseModuleContextSensitiveTest {
 		    not(hasItem(hasId(ENCOUNTER_WITH_ONLY_DISCONTINUE_DRUG_ORDER))));
 	}
 	
+	@Test
+	public void shouldReturnEncounterMatchingSeveralParticipantsOnce() throws Exception {
+		executeDataSet(ENCOUNTER_PARTICIPANTS_DATA_XML);
+		
+		ReferenceParam participant = new ReferenceParam();
+		participant.setValue(SHARED_PARTICIPANT_IDENTIFIER);
+		participant.setChain(Practitioner.SP_IDENTIFIER);
+		SearchParameterMap theParams = new SearchParameterMap().addParameter(
+		    FhirConstants.PARTICIPANT_REFERENCE_SEARCH_HANDLER,
+		    new ReferenceAndListParam().addAnd(new ReferenceOrListParam().add(participant)));
+		
+		List<Encounter> matchingResources = dao.getSearchResults(theParams);
+		
+		assertThat(dao.hasDistinctResults(), equalTo(true));
+		assertThat(matchingResources, contains(hasId(ENCOUNTER_WITH_TWO_PARTICIPANTS)));
+		assertThat(dao.getSearchResultsCount(theParams), equalTo(1));
+	}
+	
+	@Test
+	public void getSearchResultIdsCriteria_shouldKeepEncountersSharingTheLastIncludedDate() throws Exception {
+		executeDataSet(ENCOUNTER_LASTN_DATA_XML);
+		
+		assertThat(getLastnEncounterIds(2), containsInAnyOrder(2101, 2102, 2103));
+	}
+	
+	@Test
+	public void getSearchResultIdsCriteria_shouldIgnoreVoidedEncountersWhenFindingTheMostRecentDates() throws Exception {
+		executeDataSet(ENCOUNTER_LASTN_DATA_XML);
+		
+		assertThat(getLastnEncounterIds(1), contains(2101));
+	}
+	
+	@Test
+	public void getSearchResultIdsCriteria_shouldKeepAllEncountersIfThereAreFewerDatesThanMax() throws Exception {
+		executeDataSet(ENCOUNTER_LASTN_DATA_XML);
+		
+		assertThat(getLastnEncounterIds(10), containsInAnyOrder(2101, 2102, 2103, 2104));
+	}
+	
 	@Test
 	public void delete_shouldVoidEncounterAndUnderlyingObservations() {
 		Encounter encounter = dao.delete(ENCOUNTER_UUID);
@@ -208,4 +265,17 @@ public class FhirEncounterDaoImplTest extends BaseModuleContextSensitiveTest {
 		assertThat(encounter.getVoidReason(), equalTo("Voided via FHIR API"));
 		assertThat(encounter.getObs().size(), equalTo(0)); // "getObs" does not return voided obs, so if all obs are voided, this count should be 0
 	}
+	
+	@SuppressWarnings("unchecked")
+	private List<Integer> getLastnEncounterIds(int max) {
+		ReferenceParam patient = new ReferenceParam();
+		patient.setValue(LASTN_PATIENT_UUID);
+		SearchParameterMap theParams = new SearchParameterMap()
+		        .addParameter(FhirConstants.PATIENT_REFERENCE_SEARCH_HANDLER,
+		            new ReferenceAndListParam().addAnd(new ReferenceOrListParam().add(patient)))
+		        .addParameter(FhirConstants.LASTN_ENCOUNTERS_SEARCH_HANDLER, new StringParam())
+		        .addParameter(FhirConstants.MAX_SEARCH_HANDLER, new NumberParam(max));
+		
+		return dao.getSearchResultIdsCriteria(theParams).getExecutableCriteria(sessionFactory.getCurrentSession()).list();
+	}
 }
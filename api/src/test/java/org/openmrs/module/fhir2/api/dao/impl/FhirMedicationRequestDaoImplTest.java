@@ -15,6 +15,7 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -24,6 +25,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
@@ -33,6 +35,8 @@ import org.junit.Test;
 import org.openmrs.DrugOrder;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -109,6 +113,32 @@ public class FhirMedicationRequestDaoImplTest extends BaseModuleContextSensitive
 		assertThat(drugOrders, hasSize(11));
 	}
 	
+	@Test
+	public void getSearchResultsPage_shouldReturnSamePageWithKeysetCursorAsWithOffset() {
+		SearchParameterMap firstPageParams = new SearchParameterMap();
+		firstPageParams.setFromIndex(0);
+		firstPageParams.setToIndex(5);
+		Optional<KeysetPage<DrugOrder>> firstPage = medicationRequestDao.getSearchResultsPage(firstPageParams, null);
+		
+		assertThat(firstPage.isPresent(), is(true));
+		KeysetCursor cursor = firstPage.get().getNextCursor();
+		assertThat(cursor, notNullValue());
+		assertThat(cursor.getOffset(), equalTo(5));
+		
+		SearchParameterMap theParams = new SearchParameterMap();
+		theParams.setFromIndex(5);
+		theParams.setToIndex(10);
+		Optional<KeysetPage<DrugOrder>> keysetPage = medicationRequestDao.getSearchResultsPage(theParams, cursor);
+		Optional<KeysetPage<DrugOrder>> offsetPage = medicationRequestDao.getSearchResultsPage(theParams, null);
+		List<DrugOrder> offsetResults = medicationRequestDao.getSearchResults(theParams);
+		
+		assertThat(keysetPage.isPresent(), is(true));
+		assertThat(offsetPage.isPresent(), is(true));
+		assertThat(keysetPage.get().getResults(), not(empty()));
+		assertThat(keysetPage.get().getResults(), equalTo(offsetResults));
+		assertThat(keysetPage.get(), equalTo(offsetPage.get()));
+	}
+	
 	@Test
 	public void search_shouldReturnSearchQuery() {
 		TokenAndListParam code = new TokenAndListParam();
@@ -10,12 +10,20 @@
 package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import ca.uhn.fhir.rest.param.NumberParam;
+import ca.uhn.fhir.rest.param.ReferenceAndListParam;
+import ca.uhn.fhir.rest.param.ReferenceOrListParam;
+import ca.uhn.fhir.rest.param.ReferenceParam;
+import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.junit.Before;
@@ -34,6 +42,10 @@ public class FhirObservationDaoImplTest extends BaseModuleContextSensitiveTest {
 	
 	private static final String OBS_DATA_XML = "org/openmrs/module/fhir2/api/dao/impl/FhirObservationDaoImplTest_initial_data_suppl.xml";
 	
+	private static final String OBS_LASTN_XML = "org/openmrs/module/fhir2/api/dao/impl/FhirObservationDaoImplTest_lastn.xml";
+	
+	private static final String LASTN_PATIENT_UUID = "8d3c5a7e-1b2f-4c6d-9e8a-7f6b5c4d3e21";
+	
 	private static final String OBS_UUID = "39fb7f47-e80a-4056-9285-bd798be13c63";
 	
 	private static final String BAD_OBS_UUID = "121b73a6-e1a4-4424-8610-d5765bf2fdf7";
@@ -78,4 +90,50 @@ public class FhirObservationDaoImplTest extends BaseModuleContextSensitiveTest {
 		assertThat(obs, notNullValue());
 	}
 	
+	@Test
+	public void searchForLastnObs_shouldReturnObsWithinTheMaxMostRecentDatesForEachConcept() {
+		executeDataSet(OBS_LASTN_XML);
+		
+		SearchParameterMap theParams = getLastnParams(2);
+		
+		List<Integer> ids = dao.getSearchResults(theParams).stream().map(Obs::getId).collect(Collectors.toList());
+		
+		assertThat(ids, contains(2201, 2202, 2203, 2205, 2206));
+		assertThat(dao.getSearchResultsCount(theParams), equalTo(5));
+	}
+	
+	@Test
+	public void searchForLastnObs_shouldReturnOnlyTheMostRecentObsForEachConceptWhenMaxIsOne() {
+		executeDataSet(OBS_LASTN_XML);
+		
+		SearchParameterMap theParams = getLastnParams(1);
+		
+		List<Integer> ids = dao.getSearchResults(theParams).stream().map(Obs::getId).collect(Collectors.toList());
+		
+		assertThat(ids, contains(2201, 2205));
+		assertThat(dao.getSearchResultIds(theParams, 10).orElse(null), contains(2201, 2205));
+	}
+	
+	@Test
+	public void searchForLastnObs_shouldReturnTheRequestedPage() {
+		executeDataSet(OBS_LASTN_XML);
+		
+		SearchParameterMap theParams = getLastnParams(3);
+		theParams.setFromIndex(2);
+		theParams.setToIndex(5);
+		
+		List<Integer> ids = dao.getSearchResults(theParams).stream().map(Obs::getId).collect(Collectors.toList());
+		
+		assertThat(ids, contains(2203, 2204, 2205));
+		assertThat(dao.getSearchResultsCount(theParams), equalTo(6));
+	}
+	
+	private SearchParameterMap getLastnParams(int max) {
+		ReferenceAndListParam patientReference = new ReferenceAndListParam()
+		        .addAnd(new ReferenceOrListParam().add(new ReferenceParam().setValue(LASTN_PATIENT_UUID)));
+		
+		return new SearchParameterMap().addParameter(FhirConstants.PATIENT_REFERENCE_SEARCH_HANDLER, patientReference)
+		        .addParameter(FhirConstants.MAX_SEARCH_HANDLER, new NumberParam(max))
+		        .addParameter(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER, new StringParam());
+	}
 }
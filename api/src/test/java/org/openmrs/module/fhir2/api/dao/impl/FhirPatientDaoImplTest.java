@@ -10,15 +10,29 @@
 package org.openmrs.module.fhir2.api.dao.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Optional;
+
+import ca.uhn.fhir.rest.param.TokenAndListParam;
+import ca.uhn.fhir.rest.param.TokenParam;
 import org.hibernate.SessionFactory;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
+import org.openmrs.module.fhir2.api.FhirPatientIdentifierSystemService;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -30,12 +44,16 @@ public class FhirPatientDaoImplTest extends BaseModuleContextSensitiveTest {
 	
 	private static final String BAD_PATIENT_UUID = "282390a6-3608-496d-9025-aecbc1235670";
 	
+	private static final String IDENTIFIER_SYSTEM_URL = "http://example.org/identifiers/test";
+	
 	private static final String[] PATIENT_SEARCH_DATA_FILES = {
 	        "org/openmrs/module/fhir2/api/dao/impl/FhirPatientDaoImplTest_initial_data.xml",
 	        "org/openmrs/module/fhir2/api/dao/impl/FhirPatientDaoImplTest_address_data.xml" };
 	
 	private FhirPatientDaoImpl dao;
 	
+	private FhirPatientIdentifierSystemService patientIdentifierSystemService;
+	
 	@Autowired
 	private SessionFactory sessionFactory;
 	
@@ -43,6 +61,8 @@ public class FhirPatientDaoImplTest extends BaseModuleContextSensitiveTest {
 	public void setup() throws Exception {
 		dao = new FhirPatientDaoImpl();
 		dao.setSessionFactory(sessionFactory);
+		patientIdentifierSystemService = mock(FhirPatientIdentifierSystemService.class);
+		dao.setPatientIdentifierSystemService(patientIdentifierSystemService);
 		for (String search_data : PATIENT_SEARCH_DATA_FILES) {
 			executeDataSet(search_data);
 		}
@@ -76,4 +96,37 @@ public class FhirPatientDaoImplTest extends BaseModuleContextSensitiveTest {
 		
 		assertThat(result, nullValue());
 	}
+	
+	@Test
+	public void search_shouldMatchIdentifiersOfTheTypeRegisteredForTheSystem() {
+		PatientIdentifierType identifierType = (PatientIdentifierType) sessionFactory.getCurrentSession()
+		        .get(PatientIdentifierType.class, 1);
+		when(patientIdentifierSystemService.getPatientIdentifierTypeByUrl(IDENTIFIER_SYSTEM_URL))
+		        .thenReturn(Optional.of(identifierType));
+		
+		List<Patient> results = dao.getSearchResults(getIdentifierParams());
+		
+		assertThat(results, hasItem(hasProperty("patientId", equalTo(2))));
+	}
+	
+	@Test
+	public void search_shouldNotMatchIdentifiersOfARetiredTypeRegisteredForTheSystem() {
+		PatientIdentifierType identifierType = (PatientIdentifierType) sessionFactory.getCurrentSession()
+		        .get(PatientIdentifierType.class, 1);
+		identifierType.setRetired(true);
+		sessionFactory.getCurrentSession().flush();
+		// the registered systems may have been resolved before the identifier type was retired
+		when(patientIdentifierSystemService.getPatientIdentifierTypeByUrl(IDENTIFIER_SYSTEM_URL))
+		        .thenReturn(Optional.of(identifierType));
+		
+		List<Patient> results = dao.getSearchResults(getIdentifierParams());
+		
+		assertThat(results, empty());
+	}
+	
+	private SearchParameterMap getIdentifierParams() {
+		TokenAndListParam identifier = new TokenAndListParam()
+		        .addAnd(new TokenParam().setSystem(IDENTIFIER_SYSTEM_URL).setValue("1234-4"));
+		return new SearchParameterMap().addParameter(FhirConstants.IDENTIFIER_SEARCH_HANDLER, identifier);
+	}
 }
@@ -77,6 +77,19 @@ public class FhirPatientIdentifierSystemDaoImplTest extends BaseModuleContextSen
 		assertThat(fhirSystem.isPresent(), equalTo(false));
 	}
 	
+	@Test
+	public void shouldGetPatientIdentifierTypeById() {
+		Optional<PatientIdentifierType> identifierType = dao.getPatientIdentifierTypeById(1);
+		assertThat(identifierType.isPresent(), equalTo(true));
+		assertThat(identifierType.get().getId(), equalTo(1));
+	}
+	
+	@Test
+	public void shouldGetNoPatientIdentifierTypeByIdNotFound() {
+		Optional<PatientIdentifierType> identifierType = dao.getPatientIdentifierTypeById(9999);
+		assertThat(identifierType.isPresent(), equalTo(false));
+	}
+	
 	@Test
 	public void shouldSavePatientIdentifierSystem() {
 		PatientIdentifierType identifierType = patientService.getPatientIdentifierType(2);
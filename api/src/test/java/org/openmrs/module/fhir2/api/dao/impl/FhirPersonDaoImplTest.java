@@ -12,9 +12,11 @@ package org.openmrs.module.fhir2.api.dao.impl;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.hamcrest.CoreMatchers;
@@ -23,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.Person;
 import org.openmrs.PersonAttribute;
+import org.openmrs.PersonAttributeType;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
@@ -43,6 +46,8 @@ public class FhirPersonDaoImplTest extends BaseModuleContextSensitiveTest {
 	
 	private static final String PERSON_ATTRIBUTE_TYPE_UUID = "14d4f066-15f5-102d-96e4-000c29c2a5d7";
 	
+	private static final String PERSON_ATTRIBUTE_VALUE = "254723723456";
+	
 	private FhirPersonDaoImpl fhirPersonDao;
 	
 	@Autowired
@@ -82,6 +87,25 @@ public class FhirPersonDaoImplTest extends BaseModuleContextSensitiveTest {
 		assertThat(attributeList, notNullValue());
 	}
 	
+	@Test
+	public void getActiveAttributesByPersonIdsAndAttributeTypeUuid_shouldReturnPersonAttributesOfAllPersons() {
+		PersonAttributeType attributeType = new PersonAttributeType();
+		attributeType.setName("Contact");
+		attributeType.setFormat("java.lang.String");
+		attributeType.setUuid(PERSON_ATTRIBUTE_TYPE_UUID);
+		sessionFactory.getCurrentSession().save(attributeType);
+		
+		Person person = fhirPersonDao.get(PERSON_UUID);
+		person.addAttribute(new PersonAttribute(attributeType, PERSON_ATTRIBUTE_VALUE));
+		sessionFactory.getCurrentSession().flush();
+		
+		List<PersonAttribute> attributeList = fhirPersonDao.getActiveAttributesByPersonIdsAndAttributeTypeUuid(
+		    Arrays.asList(person.getId(), 3), PERSON_ATTRIBUTE_TYPE_UUID);
+		
+		assertThat(attributeList, hasSize(1));
+		assertThat(attributeList.get(0).getValue(), equalTo(PERSON_ATTRIBUTE_VALUE));
+	}
+	
 	@Test
 	public void delete_shouldVoidPerson() {
 		Person person = fhirPersonDao.delete(PERSON_UUID);
@@ -90,5 +114,5 @@ public class FhirPersonDaoImplTest extends BaseModuleContextSensitiveTest {
 		assertThat(person.getVoidedBy(), CoreMatchers.equalTo(Context.getAuthenticatedUser()));
 		assertThat(person.getVoidReason(), CoreMatchers.equalTo("Voided via FHIR API"));
 	}
-	
+
 }
@@ -27,6 +27,7 @@ import org.openmrs.Concept;
 import org.openmrs.api.db.hibernate.HibernateConceptDAO;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.model.FhirReference;
 import org.openmrs.module.fhir2.model.FhirTask;
 import org.openmrs.module.fhir2.model.FhirTaskInput;
@@ -303,4 +304,21 @@ public class FhirTaskDaoImplTest extends BaseModuleContextSensitiveTest {
 		assertThat(result.getBasedOnReferences().size(), greaterThan(0));
 	}
 	
+	@Test
+	public void getSearchResultsCountEstimate_shouldCountExactlyWhenTheSampleCoversAllIds() {
+		// tasks 1 to 7 exist, of which task 6 is retired
+		assertThat(dao.getSearchResultsCountEstimate(new SearchParameterMap(), 7), equalTo(6));
+		assertThat(dao.getSearchResultsCountEstimate(new SearchParameterMap(), 1000), equalTo(6));
+	}
+	
+	@Test
+	public void getSearchResultsCountEstimate_shouldExtrapolateFromTheResultsWithinTheSampledIds() {
+		// ids 1 to 4 all match, which extrapolates to all 7 ids
+		assertThat(dao.getSearchResultsCountEstimate(new SearchParameterMap(), 4), equalTo(7));
+		// ids 1 to 6 have 5 matches, which extrapolates to 5.8 of the 7 ids
+		assertThat(dao.getSearchResultsCountEstimate(new SearchParameterMap(), 6), equalTo(6));
+		// id 1 matches and is extrapolated to all 7 ids
+		assertThat(dao.getSearchResultsCountEstimate(new SearchParameterMap(), 1), equalTo(7));
+	}
+	
 }
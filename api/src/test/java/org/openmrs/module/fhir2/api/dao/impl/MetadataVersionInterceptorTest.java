@@ -0,0 +1,67 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.dao.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor.Metadata.CONCEPTS;
+import static org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor.Metadata.IMMUNIZATION_METADATA;
+import static org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor.Metadata.PATIENT_IDENTIFIER_SYSTEMS;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Obs;
+
+public class MetadataVersionInterceptorTest {
+	
+	private MetadataVersionInterceptor metadataVersion;
+	
+	@Before
+	public void setup() {
+		metadataVersion = new MetadataVersionInterceptor();
+	}
+	
+	@Test
+	public void shouldIncrementTheVersionOfEveryGroupAWrittenEntityBelongsTo() {
+		long conceptsVersion = metadataVersion.getVersion(CONCEPTS);
+		long immunizationMetadataVersion = metadataVersion.getVersion(IMMUNIZATION_METADATA);
+		long patientIdentifierSystemsVersion = metadataVersion.getVersion(PATIENT_IDENTIFIER_SYSTEMS);
+		
+		metadataVersion.onSave(new Concept(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		
+		assertThat(metadataVersion.getVersion(CONCEPTS), equalTo(conceptsVersion + 1));
+		assertThat(metadataVersion.getVersion(IMMUNIZATION_METADATA), equalTo(immunizationMetadataVersion + 1));
+		assertThat(metadataVersion.getVersion(PATIENT_IDENTIFIER_SYSTEMS), equalTo(patientIdentifierSystemsVersion));
+	}
+	
+	@Test
+	public void shouldIncrementTheVersionOnceForEachTransaction() {
+		long conceptsVersion = metadataVersion.getVersion(CONCEPTS);
+		
+		metadataVersion.onSave(new Concept(), 1, null, null, null);
+		metadataVersion.onFlushDirty(new Concept(), 2, null, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		metadataVersion.afterTransactionCompletion(null);
+		
+		assertThat(metadataVersion.getVersion(CONCEPTS), equalTo(conceptsVersion + 1));
+	}
+	
+	@Test
+	public void shouldNotIncrementAnyVersionForOtherEntities() {
+		long conceptsVersion = metadataVersion.getVersion(CONCEPTS);
+		
+		metadataVersion.onSave(new Obs(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		
+		assertThat(metadataVersion.getVersion(CONCEPTS), equalTo(conceptsVersion));
+	}
+}
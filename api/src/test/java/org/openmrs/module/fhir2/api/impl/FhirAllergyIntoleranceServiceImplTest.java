@@ -22,6 +22,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -101,6 +102,8 @@ public class FhirAllergyIntoleranceServiceImplTest {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		service = new FhirAllergyIntoleranceServiceImpl() {
 			
 			@Override
@@ -158,7 +161,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -189,7 +192,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -220,7 +223,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -251,7 +254,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -278,7 +281,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -305,7 +308,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -332,7 +335,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -359,7 +362,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -385,7 +388,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(allergies);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -408,7 +411,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(Collections.singletonList(omrsAllergy));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -431,7 +434,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(Collections.singletonList(omrsAllergy));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -454,7 +457,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(Collections.singletonList(omrsAllergy));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Patient()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Patient()));
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -477,7 +480,7 @@ public class FhirAllergyIntoleranceServiceImplTest {
 		when(allergyIntoleranceDao.getSearchResults(any())).thenReturn(Collections.singletonList(omrsAllergy));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        allergyIntoleranceDao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(omrsAllergy)).thenReturn(fhirAllergy);
 		
 		IBundleProvider results = service.searchForAllergies(
@@ -16,6 +16,11 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -31,20 +36,28 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.ConceptSource;
 import org.openmrs.module.fhir2.api.dao.FhirConceptSourceDao;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.model.FhirConceptSource;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FhirConceptSourceServiceImplTest {
 	
+	private static final String URL = "http://www.example.com";
+	
 	@Mock
 	private FhirConceptSourceDao dao;
 	
+	private MetadataVersionInterceptor metadataVersion;
+	
 	private FhirConceptSourceServiceImpl fhirConceptSourceService;
 	
 	@Before
 	public void setup() {
+		metadataVersion = new MetadataVersionInterceptor();
+		
 		fhirConceptSourceService = new FhirConceptSourceServiceImpl();
 		fhirConceptSourceService.setDao(dao);
+		fhirConceptSourceService.setMetadataVersion(metadataVersion);
 	}
 	
 	@Test
@@ -70,10 +83,11 @@ public class FhirConceptSourceServiceImplTest {
 	
 	@Test
 	public void getFhirConceptSourceByUrl_shouldReturnConceptSourceForUrl() {
-		FhirConceptSource source = new FhirConceptSource();
-		when(dao.getFhirConceptSourceByUrl("http://www.example.com")).thenReturn(Optional.of(source));
+		FhirConceptSource source = fhirConceptSource(1, URL, conceptSource(1, null));
+		when(dao.getFhirConceptSources()).thenReturn(Lists.newArrayList(source));
+		when(dao.getFhirConceptSourceById(1)).thenReturn(Optional.of(source));
 		
-		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSourceByUrl("http://www.example.com");
+		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
 		
 		assertThat(result.isPresent(), is(true));
 		assertThat(result.get(), equalTo(source));
@@ -81,18 +95,28 @@ public class FhirConceptSourceServiceImplTest {
 	
 	@Test
 	public void getFhirConceptSourceByUrl_shouldReturnEmptyWhenNoConceptSourceFound() {
-		when(dao.getFhirConceptSourceByUrl("http://www.example.com")).thenReturn(Optional.empty());
+		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
 		
-		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSourceByUrl("http://www.example.com");
+		assertThat(result.isPresent(), is(false));
+	}
+	
+	@Test
+	public void getFhirConceptSourceByUrl_shouldIgnoreRetiredFhirConceptSources() {
+		FhirConceptSource source = fhirConceptSource(1, URL, conceptSource(1, null));
+		source.setRetired(true);
+		when(dao.getFhirConceptSources()).thenReturn(Lists.newArrayList(source));
+		
+		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
 		
 		assertThat(result.isPresent(), is(false));
 	}
 	
 	@Test
 	public void getFhirConceptSourceByConceptSource_shouldReturnSourceWherePresent() {
-		FhirConceptSource fhirSource = new FhirConceptSource();
-		ConceptSource source = new ConceptSource();
-		when(dao.getFhirConceptSourceByConceptSource(source)).thenReturn(Optional.of(fhirSource));
+		ConceptSource source = conceptSource(1, null);
+		FhirConceptSource fhirSource = fhirConceptSource(1, URL, source);
+		when(dao.getFhirConceptSources()).thenReturn(Lists.newArrayList(fhirSource));
+		when(dao.getFhirConceptSourceById(1)).thenReturn(Optional.of(fhirSource));
 		
 		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSource(source);
 		assertThat(result.isPresent(), is(true));
@@ -101,26 +125,91 @@ public class FhirConceptSourceServiceImplTest {
 	
 	@Test
 	public void getFhirConceptSourceByConceptSource_shouldReturnEmptyOptionalWhereNoFhirConceptSourceExists() {
-		ConceptSource conceptSource = new ConceptSource();
+		ConceptSource conceptSource = conceptSource(1, null);
 		Optional<FhirConceptSource> result = fhirConceptSourceService.getFhirConceptSource(conceptSource);
 		assertThat(result.isPresent(), is(false));
 	}
 	
 	@Test
 	public void getConceptSourceByHl7Code_shouldReturnSourceForHl7Code() {
-		ConceptSource source = new ConceptSource();
-		when(dao.getConceptSourceByHl7Code("SCT")).thenReturn(Optional.of(source));
+		ConceptSource source = conceptSource(1, "SCT");
+		when(dao.getConceptSources()).thenReturn(Lists.newArrayList(source));
+		when(dao.getConceptSourceById(1)).thenReturn(Optional.of(source));
 		
-		Optional<ConceptSource> result = fhirConceptSourceService.getConceptSourceByHl7Code("SCT");
+		Optional<ConceptSource> result = fhirConceptSourceService.getConceptSourceByHl7Code("sct");
 		
 		assertThat(result, not(OptionalMatchers.empty()));
 		assertThat(result, contains(equalTo(source)));
 	}
 	
+	@Test
+	public void getConceptSourceByHl7Code_shouldPreferSourcesThatAreNotRetired() {
+		ConceptSource retiredSource = conceptSource(1, "SCT");
+		retiredSource.setRetired(true);
+		ConceptSource source = conceptSource(2, "SCT");
+		when(dao.getConceptSources()).thenReturn(Lists.newArrayList(retiredSource, source));
+		when(dao.getConceptSourceById(2)).thenReturn(Optional.of(source));
+		
+		Optional<ConceptSource> result = fhirConceptSourceService.getConceptSourceByHl7Code("SCT");
+		
+		assertThat(result, contains(equalTo(source)));
+	}
+	
 	@Test
 	public void getFhirConceptSourceByHl7Code_shouldReturnNullForMissingSourceName() {
 		Optional<ConceptSource> result = fhirConceptSourceService.getConceptSourceByHl7Code("SNOMED CT");
 		
 		assertThat(result, OptionalMatchers.empty());
 	}
+	
+	@Test
+	public void getFhirConceptSourceByUrl_shouldOnlyReloadSourcesWhenTheyChanged() {
+		when(dao.getFhirConceptSources()).thenReturn(new ArrayList<>());
+		
+		fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
+		fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
+		verify(dao, times(1)).getFhirConceptSources();
+		
+		metadataVersion.onSave(new ConceptSource(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		fhirConceptSourceService.getFhirConceptSourceByUrl(URL);
+		verify(dao, times(2)).getFhirConceptSources();
+	}
+	
+	@Test
+	public void getFhirConceptSourceByUrl_shouldLoadSourceInCurrentSession() {
+		when(dao.getFhirConceptSources()).thenReturn(Lists.newArrayList(fhirConceptSource(1, URL, conceptSource(1, null))));
+		FhirConceptSource loadedSource = fhirConceptSource(1, URL, conceptSource(1, null));
+		when(dao.getFhirConceptSourceById(1)).thenReturn(Optional.of(loadedSource));
+		
+		assertThat(fhirConceptSourceService.getFhirConceptSourceByUrl(URL), contains(sameInstance(loadedSource)));
+		assertThat(fhirConceptSourceService.getFhirConceptSourceByUrl(URL), contains(sameInstance(loadedSource)));
+		verify(dao, times(2)).getFhirConceptSourceById(1);
+		verify(dao, times(1)).getFhirConceptSources();
+	}
+	
+	@Test
+	public void getUrlForConceptSource_shouldNotLoadSources() {
+		ConceptSource conceptSource = conceptSource(1, null);
+		when(dao.getFhirConceptSources()).thenReturn(Lists.newArrayList(fhirConceptSource(1, URL, conceptSource)));
+		
+		assertThat(fhirConceptSourceService.getUrlForConceptSource(conceptSource), equalTo(URL));
+		verify(dao, never()).getFhirConceptSourceById(any());
+	}
+	
+	private static ConceptSource conceptSource(Integer id, String hl7Code) {
+		ConceptSource conceptSource = new ConceptSource(id);
+		conceptSource.setHl7Code(hl7Code);
+		conceptSource.setRetired(false);
+		return conceptSource;
+	}
+	
+	private static FhirConceptSource fhirConceptSource(Integer id, String url, ConceptSource conceptSource) {
+		FhirConceptSource fhirConceptSource = new FhirConceptSource();
+		fhirConceptSource.setId(id);
+		fhirConceptSource.setUrl(url);
+		fhirConceptSource.setConceptSource(conceptSource);
+		fhirConceptSource.setRetired(false);
+		return fhirConceptSource;
+	}
 }
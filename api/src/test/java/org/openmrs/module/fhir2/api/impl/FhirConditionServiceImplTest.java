@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -95,6 +96,8 @@ public class FhirConditionServiceImplTest {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		fhirConditionService = new FhirConditionServiceImpl() {
 			
 			@Override
@@ -229,7 +232,7 @@ public class FhirConditionServiceImplTest {
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(obsCondition));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(obsCondition)).thenReturn(condition);
 		
 		IBundleProvider result = fhirConditionService.searchConditions(new ConditionSearchParams(patientReference, codeList,
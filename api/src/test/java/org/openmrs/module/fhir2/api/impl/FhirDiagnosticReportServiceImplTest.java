@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -85,6 +86,8 @@ public class FhirDiagnosticReportServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(translator);
+		
 		service = new FhirDiagnosticReportServiceImpl() {
 			
 			@Override
@@ -212,7 +215,7 @@ public class FhirDiagnosticReportServiceImplTest {
 		when(translator.toFhirResource(fhirDiagnosticReport)).thenReturn(diagnosticReport);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = service.searchForDiagnosticReports(
 		    new DiagnosticReportSearchParams(null, null, null, null, null, null, null, null, null));
@@ -244,7 +247,7 @@ public class FhirDiagnosticReportServiceImplTest {
 		when(translator.toFhirResource(fhirDiagnosticReport)).thenReturn(diagnosticReport);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Patient()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Patient()));
 		
 		IBundleProvider results = service.searchForDiagnosticReports(
 		    new DiagnosticReportSearchParams(null, null, null, null, null, null, null, null, includes));
@@ -277,7 +280,7 @@ public class FhirDiagnosticReportServiceImplTest {
 		when(translator.toFhirResource(fhirDiagnosticReport)).thenReturn(diagnosticReport);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = service.searchForDiagnosticReports(
 		    new DiagnosticReportSearchParams(null, null, null, null, null, null, null, null, includes));
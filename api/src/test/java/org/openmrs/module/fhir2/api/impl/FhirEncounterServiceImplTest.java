@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -118,6 +119,8 @@ public class FhirEncounterServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(encounterTranslator);
+		
 		encounterService = new FhirEncounterServiceImpl() {
 			
 			@Override
@@ -307,11 +310,10 @@ public class FhirEncounterServiceImplTest {
 		fhirEncounter.setId(ENCOUNTER_UUID);
 		
 		when(dao.getSearchResults(any())).thenReturn(encounters);
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -339,11 +341,10 @@ public class FhirEncounterServiceImplTest {
 		    location);
 		
 		when(dao.getSearchResults(any())).thenReturn(encounters);
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -374,11 +375,10 @@ public class FhirEncounterServiceImplTest {
 		        .addParameter(FhirConstants.PARTICIPANT_REFERENCE_SEARCH_HANDLER, participant);
 		
 		when(dao.getSearchResults(any())).thenReturn(encounters);
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -409,11 +409,10 @@ public class FhirEncounterServiceImplTest {
 		    subject);
 		
 		when(dao.getSearchResults(any())).thenReturn(encounters);
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -436,11 +435,10 @@ public class FhirEncounterServiceImplTest {
 		    FhirConstants.ID_PROPERTY, uuid);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -467,11 +465,10 @@ public class FhirEncounterServiceImplTest {
 		fhirEncounter.setId(ENCOUNTER_UUID);
 		
 		when(dao.getSearchResults(any())).thenReturn(encounters);
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -494,11 +491,10 @@ public class FhirEncounterServiceImplTest {
 		    FhirConstants.LAST_UPDATED_PROPERTY, lastUpdated);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -521,11 +517,10 @@ public class FhirEncounterServiceImplTest {
 		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.INCLUDE_SEARCH_HANDLER, includes);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Patient()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Patient()));
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -548,11 +543,10 @@ public class FhirEncounterServiceImplTest {
 		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.INCLUDE_SEARCH_HANDLER, includes);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -576,11 +570,10 @@ public class FhirEncounterServiceImplTest {
 		    revIncludes);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Observation()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Observation()));
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -604,11 +597,10 @@ public class FhirEncounterServiceImplTest {
 		    revIncludes);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -633,11 +625,10 @@ public class FhirEncounterServiceImplTest {
 		    hasAndListParam);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		when(visitService.searchForVisits(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -741,7 +732,6 @@ public class FhirEncounterServiceImplTest {
 		populateReverseIncludeForEverythingOperationParams(theParams);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(openMrsEncounter));
-		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(encounterTranslator.toFhirResource(openMrsEncounter)).thenReturn(fhirEncounter);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, encounterTranslator, globalPropertyService, searchQueryInclude));
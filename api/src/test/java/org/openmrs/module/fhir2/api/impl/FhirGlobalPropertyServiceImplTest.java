@@ -16,6 +16,8 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
@@ -25,11 +27,17 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.dao.FhirGlobalPropertyDao;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FhirGlobalPropertyServiceImplTest {
@@ -42,6 +50,8 @@ public class FhirGlobalPropertyServiceImplTest {
 	
 	private static final String DEFAULT_PAGE_SIZE = "default.page.size";
 	
+	private static final String PAGE_SIZE_PROPERTY = FhirConstants.OPENMRS_FHIR_DEFAULT_PAGE_SIZE;
+	
 	private static final String DEFAULT_PAGE_SIZE_STRING_VALUE = "10";
 	
 	private static final Integer DEFAULT_PAGE_SIZE_INTEGER_VALUE = 10;
@@ -49,6 +59,9 @@ public class FhirGlobalPropertyServiceImplTest {
 	@Mock
 	private FhirGlobalPropertyDao fhirGlobalPropertyDao;
 	
+	@Mock
+	private AdministrationService administrationService;
+	
 	private FhirGlobalPropertyServiceImpl globalPropertyService;
 	
 	@Before
@@ -126,10 +139,123 @@ public class FhirGlobalPropertyServiceImplTest {
 	
 	@Test
 	public void shouldThrowNumberFormatException() {
-		when(globalPropertyService.getGlobalProperty(DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE_STRING_VALUE))
-		        .thenReturn("Invalid");
+		when(fhirGlobalPropertyDao.getGlobalProperty(DEFAULT_PAGE_SIZE)).thenReturn("Invalid");
 		Integer result = globalPropertyService.getGlobalProperty(DEFAULT_PAGE_SIZE, 0);
 		assertThat(result, notNullValue());
 		assertThat(result, is(0));
 	}
+	
+	@Test
+	public void shouldOnlyReadGlobalPropertyOnce() {
+		when(fhirGlobalPropertyDao.getGlobalProperty(PAGE_SIZE_PROPERTY)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE);
+		
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY, 0), is(DEFAULT_PAGE_SIZE_INTEGER_VALUE));
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is(DEFAULT_PAGE_SIZE_STRING_VALUE));
+		
+		verify(fhirGlobalPropertyDao, times(1)).getGlobalProperty(PAGE_SIZE_PROPERTY);
+	}
+	
+	@Test
+	public void shouldReadGlobalPropertyAgainOnceExpired() {
+		when(fhirGlobalPropertyDao.getGlobalProperty(PAGE_SIZE_PROPERTY)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE,
+		    "20");
+		globalPropertyService.setRefreshInterval(-1);
+		
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is(DEFAULT_PAGE_SIZE_STRING_VALUE));
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is("20"));
+		
+		verify(fhirGlobalPropertyDao, times(2)).getGlobalProperty(PAGE_SIZE_PROPERTY);
+	}
+	
+	@Test
+	public void shouldReadPropertiesOfOtherModulesEveryTime() {
+		when(fhirGlobalPropertyDao.getGlobalProperty(DEFAULT_PAGE_SIZE)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE);
+		
+		globalPropertyService.getGlobalProperty(DEFAULT_PAGE_SIZE);
+		globalPropertyService.getGlobalProperty(DEFAULT_PAGE_SIZE);
+		
+		verify(fhirGlobalPropertyDao, times(2)).getGlobalProperty(DEFAULT_PAGE_SIZE);
+	}
+	
+	@Test
+	public void shouldOnlyReadMissingGlobalProperties() {
+		when(fhirGlobalPropertyDao.getGlobalProperty(FhirConstants.GLOBAL_PROPERTY_MODERATE))
+		        .thenReturn(GLOBAL_PROPERTY_MODERATE);
+		when(fhirGlobalPropertyDao.getGlobalProperties(FhirConstants.GLOBAL_PROPERTY_SEVERE))
+		        .thenReturn(new HashMap<>());
+		globalPropertyService.getGlobalProperty(FhirConstants.GLOBAL_PROPERTY_MODERATE);
+		
+		Map<String, String> values = globalPropertyService.getGlobalProperties(FhirConstants.GLOBAL_PROPERTY_MODERATE,
+		    FhirConstants.GLOBAL_PROPERTY_SEVERE);
+		
+		assertThat(values.size(), is(1));
+		assertThat(values.get(FhirConstants.GLOBAL_PROPERTY_MODERATE), equalTo(GLOBAL_PROPERTY_MODERATE));
+		assertThat(globalPropertyService.getGlobalProperty(FhirConstants.GLOBAL_PROPERTY_SEVERE), nullValue());
+	}
+	
+	@Test
+	public void shouldOnlyListenForPropertiesReadByTheModule() {
+		GlobalPropertyListener listener = registerListener();
+		
+		assertThat(listener.supportsPropertyName(PAGE_SIZE_PROPERTY), is(true));
+		assertThat(listener.supportsPropertyName(FhirConstants.GLOBAL_PROPERTY_SEVERE), is(true));
+		assertThat(listener.supportsPropertyName(DEFAULT_PAGE_SIZE), is(false));
+	}
+	
+	@Test
+	public void shouldReadGlobalPropertyAgainWhenChanged() {
+		GlobalPropertyListener listener = registerListener();
+		when(fhirGlobalPropertyDao.getGlobalProperty(PAGE_SIZE_PROPERTY)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE,
+		    "20");
+		globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY);
+		
+		listener.globalPropertyChanged(new GlobalProperty(PAGE_SIZE_PROPERTY, "20"));
+		
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is("20"));
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY, 0), is(20));
+		verify(fhirGlobalPropertyDao, times(2)).getGlobalProperty(PAGE_SIZE_PROPERTY);
+	}
+	
+	@Test
+	public void shouldKeepCommittedValueUntilTheChangeIsCommitted() {
+		GlobalPropertyListener listener = registerListener();
+		when(fhirGlobalPropertyDao.getGlobalProperty(PAGE_SIZE_PROPERTY)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE,
+		    "20");
+		globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY);
+		
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			listener.globalPropertyChanged(new GlobalProperty(PAGE_SIZE_PROPERTY, "20"));
+			assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is(DEFAULT_PAGE_SIZE_STRING_VALUE));
+			
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), is("20"));
+	}
+	
+	@Test
+	public void shouldReturnDefaultValueWhenGlobalPropertyDeleted() {
+		GlobalPropertyListener listener = registerListener();
+		when(fhirGlobalPropertyDao.getGlobalProperty(PAGE_SIZE_PROPERTY)).thenReturn(DEFAULT_PAGE_SIZE_STRING_VALUE,
+		    (String) null);
+		globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY);
+		
+		listener.globalPropertyDeleted(PAGE_SIZE_PROPERTY);
+		
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY), nullValue());
+		assertThat(globalPropertyService.getGlobalProperty(PAGE_SIZE_PROPERTY, 5), is(5));
+	}
+	
+	private GlobalPropertyListener registerListener() {
+		globalPropertyService.setAdministrationService(administrationService);
+		globalPropertyService.addGlobalPropertyListener();
+		
+		ArgumentCaptor<GlobalPropertyListener> listener = ArgumentCaptor.forClass(GlobalPropertyListener.class);
+		verify(administrationService).addGlobalPropertyListener(listener.capture());
+		return listener.getValue();
+	}
 }
@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -86,6 +87,8 @@ public class FhirGroupServiceImplTest {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		groupService = new FhirGroupServiceImpl() {
 			
 			@Override
@@ -212,7 +215,7 @@ public class FhirGroupServiceImplTest {
 		when(translator.toFhirResource(cohort)).thenReturn(group);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = groupService.searchForGroups(participant);
 		
@@ -83,6 +83,8 @@ public class FhirImmunizationServiceImplTest extends BaseModuleContextSensitiveT
 		executeDataSet(IMMUNIZATIONS_METADATA_XML);
 		executeDataSet(IMMUNIZATIONS_INITIAL_DATA_XML);
 		executeDataSet(PRACTITIONER_INITIAL_DATA_XML);
+		// the immunization metadata is loaded directly into the database, so any resolved metadata is stale
+		helper.refresh();
 	}
 	
 	/**
@@ -18,6 +18,7 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -95,6 +96,8 @@ public class FhirLocationServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(locationTranslator);
+		
 		fhirLocationService = new FhirLocationServiceImpl() {
 			
 			@Override
@@ -153,7 +156,7 @@ public class FhirLocationServiceImplTest {
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        locationDao, locationTranslator, globalPropertyService, searchQueryInclude));
 		
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(locationTranslator.toFhirResource(location)).thenReturn(fhirLocation);
 		when(locationDao.getSearchResults(any())).thenReturn(locations);
 		
@@ -10,10 +10,18 @@
 package org.openmrs.module.fhir2.api.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+import java.util.Optional;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -21,6 +29,8 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.api.dao.FhirPatientIdentifierSystemDao;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+import org.openmrs.module.fhir2.model.FhirPatientIdentifierSystem;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FhirPatientIdentifierSystemServiceImplTest {
@@ -30,32 +40,103 @@ public class FhirPatientIdentifierSystemServiceImplTest {
 	@Mock
 	private FhirPatientIdentifierSystemDao dao;
 	
+	private MetadataVersionInterceptor metadataVersion;
+	
 	private FhirPatientIdentifierSystemServiceImpl patientIdentifierSystemService;
 	
 	private PatientIdentifierType patientIdentifierType;
 	
 	@Before
 	public void setup() {
+		metadataVersion = new MetadataVersionInterceptor();
+		
 		patientIdentifierSystemService = new FhirPatientIdentifierSystemServiceImpl();
-		patientIdentifierType = new PatientIdentifierType();
+		patientIdentifierType = new PatientIdentifierType(1);
+		patientIdentifierType.setRetired(false);
 		patientIdentifierSystemService.setDao(dao);
+		patientIdentifierSystemService.setMetadataVersion(metadataVersion);
 	}
 	
 	@Test
 	public void getUrlByPatientIdentifierType_shouldReturnUrl() {
-		when(dao.getUrlByPatientIdentifierType(patientIdentifierType)).thenReturn(PATIENT_IDENTIFIER_URL);
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.singletonList(system()));
 		
 		String result = patientIdentifierSystemService.getUrlByPatientIdentifierType(patientIdentifierType);
 		
 		assertThat(result, notNullValue());
+		assertThat(result, equalTo(PATIENT_IDENTIFIER_URL));
 	}
 	
 	@Test
 	public void getUrlByPatientIdentifierType_shouldReturnNullWhenPatientIdentifierTypeNotFound() {
-		when(dao.getUrlByPatientIdentifierType(patientIdentifierType)).thenReturn(null);
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.emptyList());
 		
 		String result = patientIdentifierSystemService.getUrlByPatientIdentifierType(patientIdentifierType);
 		
 		assertThat(result, nullValue());
 	}
+	
+	@Test
+	public void getPatientIdentifierTypeByUrl_shouldReturnPatientIdentifierType() {
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.singletonList(system()));
+		when(dao.getPatientIdentifierTypeById(1)).thenReturn(Optional.of(patientIdentifierType));
+		
+		Optional<PatientIdentifierType> result = patientIdentifierSystemService
+		        .getPatientIdentifierTypeByUrl(PATIENT_IDENTIFIER_URL);
+		
+		assertThat(result.isPresent(), is(true));
+		assertThat(result.get(), equalTo(patientIdentifierType));
+	}
+	
+	@Test
+	public void getPatientIdentifierTypeByUrl_shouldIgnoreRetiredPatientIdentifierTypes() {
+		patientIdentifierType.setRetired(true);
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.singletonList(system()));
+		
+		Optional<PatientIdentifierType> result = patientIdentifierSystemService
+		        .getPatientIdentifierTypeByUrl(PATIENT_IDENTIFIER_URL);
+		
+		assertThat(result.isPresent(), is(false));
+		assertThat(patientIdentifierSystemService.getUrlByPatientIdentifierType(patientIdentifierType),
+		    equalTo(PATIENT_IDENTIFIER_URL));
+	}
+	
+	@Test
+	public void getPatientIdentifierTypeByUrl_shouldLoadPatientIdentifierTypeInCurrentSession() {
+		PatientIdentifierType loadedPatientIdentifierType = new PatientIdentifierType(1);
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.singletonList(system()));
+		when(dao.getPatientIdentifierTypeById(1)).thenReturn(Optional.of(loadedPatientIdentifierType));
+		
+		patientIdentifierSystemService.getPatientIdentifierTypeByUrl(PATIENT_IDENTIFIER_URL);
+		Optional<PatientIdentifierType> result = patientIdentifierSystemService
+		        .getPatientIdentifierTypeByUrl(PATIENT_IDENTIFIER_URL);
+		
+		assertThat(result.isPresent(), is(true));
+		assertThat(result.get(), sameInstance(loadedPatientIdentifierType));
+		verify(dao, times(1)).getFhirPatientIdentifierSystems();
+		verify(dao, times(2)).getPatientIdentifierTypeById(1);
+	}
+	
+	@Test
+	public void getUrlByPatientIdentifierType_shouldOnlyReloadSystemsWhenTheyChanged() {
+		when(dao.getFhirPatientIdentifierSystems()).thenReturn(Collections.singletonList(system()));
+		when(dao.getPatientIdentifierTypeById(1)).thenReturn(Optional.of(patientIdentifierType));
+		
+		patientIdentifierSystemService.getUrlByPatientIdentifierType(patientIdentifierType);
+		patientIdentifierSystemService.getPatientIdentifierTypeByUrl(PATIENT_IDENTIFIER_URL);
+		verify(dao, times(1)).getFhirPatientIdentifierSystems();
+		
+		metadataVersion.onSave(new FhirPatientIdentifierSystem(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		patientIdentifierSystemService.getUrlByPatientIdentifierType(patientIdentifierType);
+		verify(dao, times(2)).getFhirPatientIdentifierSystems();
+	}
+	
+	private FhirPatientIdentifierSystem system() {
+		FhirPatientIdentifierSystem system = new FhirPatientIdentifierSystem();
+		system.setPatientIdentifierType(patientIdentifierType);
+		system.setUrl(PATIENT_IDENTIFIER_URL);
+		system.setRetired(false);
+		return system;
+	}
 }
@@ -21,9 +21,13 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -33,6 +37,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
@@ -41,8 +46,10 @@ import ca.uhn.fhir.rest.param.StringAndListParam;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Observation;
 import org.junit.Before;
 import org.junit.Test;
@@ -50,10 +57,12 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdentifierType;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonName;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.FhirPatientIdentifierSystemService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.search.SearchQuery;
 import org.openmrs.module.fhir2.api.search.SearchQueryBundleProvider;
@@ -90,6 +99,8 @@ public class FhirPatientServiceImplTest {
 	
 	private static final String DATE = "1996-12-12";
 	
+	private static final String OBSERVATION_UUID = "5a3c1c5f-1d33-4b3f-8e8d-6b4f1a1d2e3c";
+	
 	private static final String UNKNOWN_DATE = "0001-10-10";
 	
 	private static final String CITY = "Washington";
@@ -117,6 +128,9 @@ public class FhirPatientServiceImplTest {
 	@Mock
 	private FhirGlobalPropertyService globalPropertyService;
 	
+	@Mock
+	private FhirPatientIdentifierSystemService patientIdentifierSystemService;
+	
 	@Mock
 	private SearchQueryInclude<org.hl7.fhir.r4.model.Patient> searchQueryInclude;
 	
@@ -131,6 +145,8 @@ public class FhirPatientServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(patientTranslator);
+		
 		patientService = new FhirPatientServiceImpl() {
 			
 			@Override
@@ -142,6 +158,8 @@ public class FhirPatientServiceImplTest {
 		patientService.setTranslator(patientTranslator);
 		patientService.setSearchQuery(searchQuery);
 		patientService.setSearchQueryInclude(searchQueryInclude);
+		patientService.setGlobalPropertyService(globalPropertyService);
+		patientService.setPatientIdentifierSystemService(patientIdentifierSystemService);
 		
 		PersonName name = new PersonName();
 		name.setFamilyName(PATIENT_FAMILY_NAME);
@@ -216,7 +234,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(stringAndListParam, null, null,
@@ -240,7 +258,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, stringAndListParam, null,
@@ -266,7 +284,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, stringAndListParam,
@@ -290,7 +308,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, stringAndListParam, null,
@@ -314,7 +332,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, stringAndListParam,
@@ -388,7 +406,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResults(any())).thenReturn(patients);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null,
@@ -431,7 +449,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -474,7 +492,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -513,7 +531,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -552,7 +570,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -591,7 +609,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -629,7 +647,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -667,7 +685,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -706,7 +724,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -746,7 +764,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(patient));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Observation()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Observation()));
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -770,7 +788,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(patient));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService.searchForPatients(new PatientSearchParams(null, null, null, null, null,
@@ -795,7 +813,7 @@ public class FhirPatientServiceImplTest {
 		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		
 		IBundleProvider results = patientService
@@ -811,58 +829,67 @@ public class FhirPatientServiceImplTest {
 	public void getPatientEverything_shouldReturnAllInformationAboutSpecifiedPatient() {
 		TokenParam patientId = new TokenParam().setValue(PATIENT_UUID);
 		
-		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.EVERYTHING_SEARCH_HANDLER, "")
-		        .addParameter(FhirConstants.COMMON_SEARCH_HANDLER, FhirConstants.ID_PROPERTY, patientId);
-		
-		HashSet<Include> revIncludes = new HashSet<>();
-		
-		revIncludes.add(new Include(FhirConstants.OBSERVATION + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ALLERGY_INTOLERANCE + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.DIAGNOSTIC_REPORT + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ENCOUNTER + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.MEDICATION_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.SERVICE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.PROCEDURE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
+		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.COMMON_SEARCH_HANDLER,
+		    FhirConstants.ID_PROPERTY, new TokenAndListParam().addAnd(patientId));
 		
-		theParams.addParameter(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER, revIncludes);
+		Observation observation = new Observation();
+		observation.setId(OBSERVATION_UUID);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(patient));
+		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
+		when(dao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
-		
-		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
+		when(searchQueryInclude.getPatientCompartmentResources(anyList(), eq(Collections.singletonList(PATIENT_UUID)),
+		    isNull())).thenReturn(
+		        Collections.singletonList(new SimpleBundleProvider(Collections.singletonList(observation))));
 		
 		IBundleProvider results = patientService.getPatientEverything(patientId);
 		
 		List<IBaseResource> resultList = get(results);
 		
 		assertThat(results, notNullValue());
-		assertThat(resultList, not(empty()));
-		assertThat(resultList.size(), greaterThanOrEqualTo(1));
-		
+		assertThat(results.size(), equalTo(2));
+		assertThat(resultList, hasSize(2));
+		assertThat(resultList.get(0), equalTo(fhirPatient));
+		assertThat(resultList.get(1), equalTo(observation));
 	}
 	
 	@Test
-	public void getPatientEverything_shouldReturnAllInformationAboutAllPatients() {
-		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.EVERYTHING_SEARCH_HANDLER, "");
-		
-		HashSet<Include> revIncludes = new HashSet<>();
+	public void getPatientEverything_shouldOnlyReturnRequestedTypes() {
+		TokenParam patientId = new TokenParam().setValue(PATIENT_UUID);
 		
-		revIncludes.add(new Include(FhirConstants.OBSERVATION + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ALLERGY_INTOLERANCE + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.DIAGNOSTIC_REPORT + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.ENCOUNTER + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.MEDICATION_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.SERVICE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
-		revIncludes.add(new Include(FhirConstants.PROCEDURE_REQUEST + ":" + FhirConstants.INCLUDE_PATIENT_PARAM));
+		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.COMMON_SEARCH_HANDLER,
+		    FhirConstants.ID_PROPERTY, new TokenAndListParam().addAnd(patientId));
+		DateRangeParam lastUpdated = new DateRangeParam().setLowerBound(DATE);
 		
-		theParams.addParameter(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER, revIncludes);
+		Observation observation = new Observation();
+		observation.setId(OBSERVATION_UUID);
 		
 		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(patient));
+		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, patientTranslator, globalPropertyService, searchQueryInclude));
+		when(searchQueryInclude.getPatientCompartmentResources(Collections.singletonList(FhirConstants.OBSERVATION),
+		    Collections.singletonList(PATIENT_UUID), lastUpdated))
+		            .thenReturn(Collections.singletonList(new SimpleBundleProvider(Collections.singletonList(observation))));
+		
+		IBundleProvider results = patientService.getPatientEverything(patientId, lastUpdated,
+		    Collections.singleton(FhirConstants.OBSERVATION), 5);
 		
+		List<IBaseResource> resultList = get(results);
+		
+		assertThat(results.preferredPageSize(), equalTo(5));
+		assertThat(resultList, hasSize(1));
+		assertThat(resultList.get(0), equalTo(observation));
+	}
+	
+	@Test
+	public void getPatientEverything_shouldReturnAllInformationAboutAllPatients() {
+		when(dao.getSearchResults(any())).thenReturn(Collections.singletonList(patient));
 		when(patientTranslator.toFhirResource(patient)).thenReturn(fhirPatient);
+		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(
+		        new SearchParameterMap(), dao, patientTranslator, globalPropertyService, searchQueryInclude));
 		
 		IBundleProvider results = patientService.getPatientEverything();
 		
@@ -873,6 +900,29 @@ public class FhirPatientServiceImplTest {
 		assertThat(resultList.size(), greaterThanOrEqualTo(1));
 	}
 	
+	@Test
+	public void getPatientIdentifierTypeByIdentifier_shouldReturnIdentifierTypeForSystem() {
+		PatientIdentifierType identifierType = new PatientIdentifierType(1);
+		when(patientIdentifierSystemService.getPatientIdentifierTypeByUrl("http://example.com/id"))
+		        .thenReturn(Optional.of(identifierType));
+		
+		PatientIdentifierType result = patientService
+		        .getPatientIdentifierTypeByIdentifier(new Identifier().setSystem("http://example.com/id").setValue("1234"));
+		
+		assertThat(result, equalTo(identifierType));
+	}
+	
+	@Test
+	public void getPatientIdentifierTypeByIdentifier_shouldPreferIdentifierTypeName() {
+		PatientIdentifierType identifierType = new PatientIdentifierType(2);
+		when(dao.getPatientIdentifierTypeByNameOrUuid("Old Identification Number", null)).thenReturn(identifierType);
+		
+		Identifier identifier = new Identifier().setSystem("http://example.com/id").setValue("1234");
+		identifier.getType().setText("Old Identification Number");
+		
+		assertThat(patientService.getPatientIdentifierTypeByIdentifier(identifier), equalTo(identifierType));
+	}
+	
 	private List<IBaseResource> get(IBundleProvider results) {
 		return results.getResources(0, 10);
 	}
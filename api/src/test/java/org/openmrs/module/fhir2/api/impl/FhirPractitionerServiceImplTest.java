@@ -22,13 +22,12 @@ import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.openmrs.module.fhir2.FhirConstants.FAMILY_PROPERTY;
 import static org.openmrs.module.fhir2.FhirConstants.NAME_PROPERTY;
 import static org.openmrs.module.fhir2.FhirConstants.NAME_SEARCH_HANDLER;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -59,6 +58,7 @@ import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.FhirUserService;
 import org.openmrs.module.fhir2.api.dao.FhirPractitionerDao;
+import org.openmrs.module.fhir2.api.dao.FhirUserDao;
 import org.openmrs.module.fhir2.api.search.SearchQuery;
 import org.openmrs.module.fhir2.api.search.SearchQueryBundleProvider;
 import org.openmrs.module.fhir2.api.search.SearchQueryInclude;
@@ -140,7 +140,10 @@ public class FhirPractitionerServiceImplTest {
 	private FhirUserService userService;
 	
 	@Mock
-	private SearchQueryBundleProvider<User, Practitioner> userPractitionerSearchQueryBundleProvider;
+	private FhirUserDao userDao;
+	
+	@Mock
+	private PractitionerTranslator<User> userTranslator;
 	
 	private FhirPractitionerServiceImpl practitionerService;
 	
@@ -152,6 +155,8 @@ public class FhirPractitionerServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(practitionerTranslator, userTranslator);
+		
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
 		practitionerService = new FhirPractitionerServiceImpl();
@@ -215,7 +220,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
@@ -255,10 +260,9 @@ public class FhirPractitionerServiceImplTest {
 		SearchParameterMap theParams = new SearchParameterMap().addParameter(NAME_SEARCH_HANDLER, NAME_PROPERTY, name);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider(practitioner2));
@@ -301,7 +305,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -342,10 +346,9 @@ public class FhirPractitionerServiceImplTest {
 		    FhirConstants.GIVEN_PROPERTY, givenName);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider(practitioner2));
@@ -388,7 +391,7 @@ public class FhirPractitionerServiceImplTest {
 		    FhirConstants.FAMILY_PROPERTY, familyName);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
@@ -432,10 +435,9 @@ public class FhirPractitionerServiceImplTest {
 		    familyName);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider(practitioner2));
 		
@@ -476,7 +478,7 @@ public class FhirPractitionerServiceImplTest {
 		    FhirConstants.CITY_PROPERTY, city);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
@@ -518,7 +520,7 @@ public class FhirPractitionerServiceImplTest {
 		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.ADDRESS_SEARCH_HANDLER,
 		    FhirConstants.STATE_PROPERTY, state);
 		
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
@@ -564,7 +566,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -607,7 +609,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -651,7 +653,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -696,7 +698,7 @@ public class FhirPractitionerServiceImplTest {
 		when(practitionerDao.getSearchResults(any())).thenReturn(Collections.singletonList(provider));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
 		when(userService.searchForUsers(any())).thenReturn(new SimpleBundleProvider());
 		
@@ -741,8 +743,7 @@ public class FhirPractitionerServiceImplTest {
 		    revIncludes);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Encounter()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Encounter()));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
@@ -768,8 +769,7 @@ public class FhirPractitionerServiceImplTest {
 		    revIncludes);
 		
 		when(practitionerDao.getSearchResults(any())).thenReturn(singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
@@ -793,17 +793,18 @@ public class FhirPractitionerServiceImplTest {
 		SearchParameterMap theParams = new SearchParameterMap().addParameter(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER,
 		    revIncludes);
 		
+		User user = new User();
+		
 		when(practitionerDao.getSearchResults(any())).thenReturn(singletonList(provider));
-		when(practitionerDao.getSearchResultsCount(any())).thenReturn(1);
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Encounter()));
+		when(userDao.getSearchResults(any())).thenReturn(singletonList(user));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any()))
+		        .thenReturn(Collections.singleton(new Encounter()), Collections.singleton(new Encounter()));
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(new SearchQueryBundleProvider<>(theParams,
 		        practitionerDao, practitionerTranslator, globalPropertyService, searchQueryInclude));
 		when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
-		when(userService.searchForUsers(any())).thenReturn(userPractitionerSearchQueryBundleProvider);
-		
-		when(userPractitionerSearchQueryBundleProvider.size()).thenReturn(1);
-		when(userPractitionerSearchQueryBundleProvider.getResources(anyInt(), anyInt()))
-		        .thenReturn(Arrays.asList(practitioner2, new Encounter()));
+		when(userTranslator.toFhirResource(user)).thenReturn(practitioner2);
+		when(userService.searchForUsers(any())).thenReturn(new SearchQueryBundleProvider<>(theParams, userDao,
+		        userTranslator, globalPropertyService, searchQueryInclude));
 		
 		IBundleProvider results = practitionerService.searchForPractitioners(
 		    new PractitionerSearchParams(null, null, null, null, null, null, null, null, null, null, revIncludes));
@@ -28,6 +28,7 @@ import static org.openmrs.module.fhir2.FhirConstants.DATE_RANGE_SEARCH_HANDLER;
 import static org.openmrs.module.fhir2.FhirConstants.ENCOUNTER_REFERENCE_SEARCH_HANDLER;
 import static org.openmrs.module.fhir2.FhirConstants.PARTICIPANT_REFERENCE_SEARCH_HANDLER;
 import static org.openmrs.module.fhir2.FhirConstants.PATIENT_REFERENCE_SEARCH_HANDLER;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -106,6 +107,8 @@ public class FhirServiceRequestServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(translator);
+		
 		serviceRequestService = new FhirServiceRequestServiceImpl() {
 			
 			@Override
@@ -154,7 +157,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(patientReference, null, null, null, null,
 		    null, null, null);
@@ -177,7 +180,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, code, null, null, null, null, null,
 		    null);
@@ -201,7 +204,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, encounterReference, null, null,
 		    null, null, null);
@@ -225,7 +228,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, participantReference,
 		    null, null, null, null);
@@ -248,7 +251,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, occurrence, null,
 		    null, null);
@@ -271,7 +274,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, null, uuid, null,
 		    null);
@@ -294,7 +297,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, null, null,
 		    lastUpdated, null);
@@ -317,7 +320,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Patient()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Patient()));
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, null, null, null,
 		    includes);
@@ -341,7 +344,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.singleton(new Patient()));
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.singleton(new Patient()));
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, null, null, null,
 		    includes);
@@ -364,7 +367,7 @@ public class FhirServiceRequestServiceImplTest {
 		when(translator.toFhirResource(order)).thenReturn(fhirServiceRequest);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, globalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		
 		IBundleProvider results = serviceRequestService.searchForServiceRequests(null, null, null, null, null, null, null,
 		    includes);
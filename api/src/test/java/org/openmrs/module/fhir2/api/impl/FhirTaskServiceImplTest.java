@@ -18,6 +18,7 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -87,6 +88,8 @@ public class FhirTaskServiceImplTest {
 	
 	@Before
 	public void setUp() {
+		translateEachElement(translator);
+		
 		fhirTaskService = new FhirTaskServiceImpl() {
 			
 			@Override
@@ -212,7 +215,7 @@ public class FhirTaskServiceImplTest {
 		when(dao.getSearchResults(any())).thenReturn(openmrsTasks);
 		when(searchQuery.getQueryResults(any(), any(), any(), any())).thenReturn(
 		    new SearchQueryBundleProvider<>(theParams, dao, translator, fhirGlobalPropertyService, searchQueryInclude));
-		when(searchQueryInclude.getIncludedResources(any(), any())).thenReturn(Collections.emptySet());
+		when(searchQueryInclude.getIncludedResources(any(), any(), any())).thenReturn(Collections.emptySet());
 		when(translator.toFhirResource(openmrsTask)).thenReturn(task);
 		
 		IBundleProvider results = fhirTaskService
@@ -0,0 +1,103 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.mappings;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+import org.openmrs.module.fhir2.model.FhirObservationCategoryMap;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+
+@ContextConfiguration(classes = TestFhirSpringConfiguration.class, inheritLocations = false)
+public class ObservationCategoryMapTest extends BaseModuleContextSensitiveTest {
+	
+	private static final String OBSERVATION_CATEGORY_CONCEPT_CLASS_DATA = "org/openmrs/module/fhir2/mapping/FhirObservationCategoryTest_initial_data.xml";
+	
+	private static final String LABORATORY_CONCEPT_CLASS_UUID = "8d4907b2-c2cc-11de-8d13-0010c6dffd0f";
+	
+	@Autowired
+	private SessionFactory sessionFactory;
+	
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private ObservationCategoryMap categoryMap;
+	
+	@Before
+	public void setup() throws Exception {
+		categoryMap = new ObservationCategoryMap();
+		metadataVersion = new MetadataVersionInterceptor();
+		categoryMap.setSessionFactory(sessionFactory);
+		categoryMap.setMetadataVersion(metadataVersion);
+		
+		executeDataSet(OBSERVATION_CATEGORY_CONCEPT_CLASS_DATA);
+	}
+	
+	@Test
+	public void shouldReturnCategoryForConceptClass() {
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("laboratory"));
+	}
+	
+	@Test
+	public void shouldReturnNullForUnmappedConceptClass() {
+		assertThat(categoryMap.getCategory("0"), nullValue());
+	}
+	
+	@Test
+	public void shouldReturnConceptClassIdsForCategory() {
+		assertThat(categoryMap.getConceptClassIdsByCategory("laboratory"), contains(1));
+		assertThat(categoryMap.getConceptClassIdsByCategory("Laboratory"), contains(1));
+	}
+	
+	@Test
+	public void shouldReturnEmptyListForUnknownCategory() {
+		assertThat(categoryMap.getConceptClassIdsByCategory("imaging"), empty());
+	}
+	
+	@Test
+	public void shouldOnlyReloadCategoriesWhenRefreshed() {
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("laboratory"));
+		
+		FhirObservationCategoryMap mapping = (FhirObservationCategoryMap) sessionFactory.getCurrentSession()
+		        .get(FhirObservationCategoryMap.class, 1);
+		mapping.setObservationCategory("imaging");
+		sessionFactory.getCurrentSession().flush();
+		
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("laboratory"));
+		
+		categoryMap.refresh();
+		
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("imaging"));
+		assertThat(categoryMap.getConceptClassIdsByCategory("imaging"), contains(1));
+	}
+	
+	@Test
+	public void shouldReloadCategoriesWhenMappingWasSaved() {
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("laboratory"));
+		
+		FhirObservationCategoryMap mapping = (FhirObservationCategoryMap) sessionFactory.getCurrentSession()
+		        .get(FhirObservationCategoryMap.class, 1);
+		mapping.setObservationCategory("imaging");
+		sessionFactory.getCurrentSession().flush();
+		metadataVersion.onFlushDirty(mapping, 1, null, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		
+		assertThat(categoryMap.getCategory(LABORATORY_CONCEPT_CLASS_UUID), equalTo("imaging"));
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.SortOrderEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.PatientTranslator;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MergedSearchQueryBundleProviderTest {
+	
+	private static final Comparator<IBaseResource> BY_ID = Comparator
+	        .comparing(resource -> resource.getIdElement().getIdPart());
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Mock
+	private IBundleProvider source;
+	
+	@Mock
+	private FhirPatientDao firstDao;
+	
+	@Mock
+	private FhirPatientDao secondDao;
+	
+	@Mock
+	private PatientTranslator translator;
+	
+	@Mock
+	private SearchQueryInclude<Patient> searchQueryInclude;
+	
+	@Test
+	public void getResources_shouldReturnResultsOfEachSourceInTurnWithoutSort() {
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(patients("c", "a"), patients("b")), null, globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 10)), contains("c", "a", "b"));
+		assertThat(ids(provider.getResources(1, 3)), contains("a", "b"));
+	}
+	
+	@Test
+	public void getResources_shouldMergeSourcesInSortOrder() {
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(patients("a", "c", "e"), patients("b", "d")), BY_ID, globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 2)), contains("a", "b"));
+		assertThat(ids(provider.getResources(2, 4)), contains("c", "d"));
+		assertThat(ids(provider.getResources(4, 10)), contains("e"));
+		assertThat(provider.size(), equalTo(5));
+	}
+	
+	@Test
+	public void getResources_shouldSkipToRequestedPageWithoutReadingEarlierPages() {
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(patients("a", "c", "e"), patients("b", "d")), BY_ID, globalPropertyService);
+		
+		assertThat(ids(provider.getResources(3, 5)), contains("d", "e"));
+	}
+	
+	@Test
+	public void getResources_shouldMergeSourcesBySearchParameter() {
+		SortSpec sort = new SortSpec("name", SortOrderEnum.ASC);
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(patients("c", "a"), patients("b")),
+		        SearchResultComparator.forSort(FhirContext.forR4(), sort), globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 10)), contains("c", "b", "a"));
+	}
+	
+	@Test
+	public void getResources_shouldNotCountSources() {
+		when(source.getResources(0, 10)).thenReturn(Collections.singletonList(patient("a")));
+		
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(source, patients("b")), null, globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 10)), contains("a", "b"));
+		verify(source, never()).size();
+	}
+	
+	@Test
+	public void getResources_shouldPageSearchQueriesWithUntranslatableRowsAndIncludes() {
+		givenTranslations(patient("a"), patient("c"), patient("d"), patient("e"));
+		when(searchQueryInclude.getIncludedResources(anyList(), anyList(), any())).thenAnswer(invocation -> {
+			List<IBaseResource> resources = invocation.getArgument(1);
+			Set<IBaseResource> includedResources = new LinkedHashSet<>();
+			for (IBaseResource resource : resources) {
+				Practitioner practitioner = new Practitioner();
+				practitioner.setId("included-" + resource.getIdElement().getIdPart());
+				includedResources.add(practitioner);
+			}
+			return includedResources;
+		});
+		
+		// "b" cannot be translated, but still takes up a row of the first search
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(searchQuery(firstDao, "a", "b", "c"), searchQuery(secondDao, "d", "e")), null,
+		        globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 2)), contains("a", "c", "included-a", "included-c"));
+		assertThat(ids(provider.getResources(2, 4)), contains("d", "e", "included-d", "included-e"));
+		assertThat(provider.getResources(4, 6), empty());
+		assertThat(provider.size(), equalTo(4));
+		verify(firstDao, never()).getSearchResultsCount(any());
+		verify(secondDao, never()).getSearchResultsCount(any());
+	}
+	
+	@Test
+	public void getResources_shouldMergeNamesInTheOrderOfTheDatabase() {
+		// the database sorts by family name and then by given name, ignoring case
+		givenTranslations(patient("1", "adams", "Zoe"), patient("2", "Baker", "Bob"), patient("3", "Smith", "Anna"),
+		    patient("4", "SMITH", "Zoe"), patient("5", "smith jones", "Al"), patient("6", "Smith Jones", "Zed"));
+		
+		SortSpec sort = new SortSpec("name", SortOrderEnum.ASC);
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(searchQuery(firstDao, "1", "3", "5"), searchQuery(secondDao, "2", "4", "6")),
+		        SearchResultComparator.forSort(FhirContext.forR4(), sort), globalPropertyService);
+		
+		assertThat(ids(provider.getResources(0, 2)), contains("1", "2"));
+		assertThat(ids(provider.getResources(2, 4)), contains("3", "4"));
+		assertThat(ids(provider.getResources(4, 6)), contains("5", "6"));
+	}
+	
+	@Test
+	public void size_shouldReturnNullIfTheSizeOfAnySourceIsUnknown() {
+		when(source.size()).thenReturn(null);
+		
+		MergedSearchQueryBundleProvider provider = new MergedSearchQueryBundleProvider(
+		        Arrays.asList(patients("a"), source), null, globalPropertyService);
+		
+		assertThat(provider.size(), nullValue());
+	}
+	
+	/**
+	 * A search whose rows are OpenMRS patients with the given uuids
+	 */
+	private IBundleProvider searchQuery(FhirPatientDao dao, String... uuids) {
+		List<org.openmrs.Patient> rows = Arrays.stream(uuids).map(uuid -> {
+			org.openmrs.Patient patient = new org.openmrs.Patient();
+			patient.setUuid(uuid);
+			return patient;
+		}).collect(Collectors.toList());
+		
+		when(dao.getSearchResults(any())).thenAnswer(invocation -> {
+			SearchParameterMap theParams = invocation.getArgument(0);
+			int toIndex = Math.min(theParams.getToIndex(), rows.size());
+			return theParams.getFromIndex() >= toIndex ? Collections.emptyList()
+			        : rows.subList(theParams.getFromIndex(), toIndex);
+		});
+		
+		return new SearchQueryBundleProvider<>(new SearchParameterMap(), dao, translator, globalPropertyService,
+		        searchQueryInclude);
+	}
+	
+	/**
+	 * Translates the OpenMRS patient with the uuid of each of the given resources to that resource;
+	 * other patients translate to null
+	 */
+	private void givenTranslations(Patient... patients) {
+		Map<String, Patient> translations = new HashMap<>();
+		for (Patient patient : patients) {
+			translations.put(patient.getIdElement().getIdPart(), patient);
+		}
+		
+		when(translator.toFhirResources(anyList())).thenAnswer(invocation -> {
+			List<org.openmrs.Patient> rows = invocation.getArgument(0);
+			return rows.stream().map(row -> translations.get(row.getUuid())).collect(Collectors.toList());
+		});
+	}
+	
+	private static IBundleProvider patients(String... ids) {
+		return new SimpleBundleProvider(Arrays.stream(ids).map(MergedSearchQueryBundleProviderTest::patient)
+		        .collect(Collectors.toList()));
+	}
+	
+	private static Patient patient(String id) {
+		Patient patient = new Patient();
+		patient.setId(id);
+		// family names sort in the opposite order to the ids
+		patient.addName().setFamily(id.equals("a") ? "Zulu" : id.equals("b") ? "Yankee" : "Xray");
+		return patient;
+	}
+	
+	private static Patient patient(String id, String family, String given) {
+		Patient patient = new Patient();
+		patient.setId(id);
+		patient.addName().setFamily(family).addGiven(given);
+		return patient;
+	}
+	
+	private static List<String> ids(List<IBaseResource> resources) {
+		return resources.stream().map(resource -> resource.getIdElement().getIdPart()).collect(Collectors.toList());
+	}
+}
@@ -74,6 +74,7 @@ import org.openmrs.module.fhir2.FhirTestConstants;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
 import org.openmrs.module.fhir2.api.dao.FhirEncounterDao;
 import org.openmrs.module.fhir2.api.dao.FhirObservationDao;
+import org.openmrs.module.fhir2.api.mappings.ObservationCategoryMap;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.api.translators.ObservationTranslator;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
@@ -167,9 +168,14 @@ public class ObservationSearchQueryTest extends BaseModuleContextSensitiveTest {
 	@Autowired
 	private FhirEncounterDao encounterDao;
 	
+	@Autowired
+	private ObservationCategoryMap categoryMap;
+	
 	@Before
 	public void setup() throws Exception {
 		executeDataSet(OBS_DATA_XML);
+		// the categories are loaded directly into the database, so any cached categories are stale
+		categoryMap.refresh();
 	}
 	
 	@Test
@@ -0,0 +1,205 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ParallelSearchExecutorTest {
+	
+	private static final int SEARCH_COUNT = 6;
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	private final List<UserContext> workerUserContexts = Collections.synchronizedList(new ArrayList<>());
+	
+	private UserContext userContext;
+	
+	private ParallelSearchExecutor executor;
+	
+	private int maximumWorkers = 4;
+	
+	@Before
+	public void setup() {
+		userContext = mock(UserContext.class);
+		Context.setUserContext(userContext);
+		
+		executor = new ParallelSearchExecutor() {
+			
+			@Override
+			protected void openSession(UserContext userContext) {
+				workerUserContexts.add(userContext);
+			}
+			
+			@Override
+			protected void closeSession() {
+			}
+			
+			@Override
+			protected int getMaximumWorkers() {
+				return maximumWorkers;
+			}
+		};
+		executor.setGlobalPropertyService(globalPropertyService);
+		executor.setTransactionManager(transactionManager);
+	}
+	
+	@After
+	public void tearDown() {
+		executor.destroy();
+		Context.clearUserContext();
+	}
+	
+	@Test
+	public void invokeAll_shouldRunSearchesOnCallingThreadByDefault() {
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_REV_INCLUDE_PARALLELISM), anyInt()))
+		        .thenReturn(1);
+		
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> results = executor.invokeAll(createSearches(threads));
+		
+		assertThat(results, contains(0, 1, 2, 3, 4, 5));
+		assertThat(threads, everyItem(equalTo(Thread.currentThread())));
+		assertThat(workerUserContexts.isEmpty(), equalTo(true));
+	}
+	
+	@Test
+	public void invokeAll_shouldReturnResultsInOrderOfSearchesWhenRunInParallel() {
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_REV_INCLUDE_PARALLELISM), anyInt()))
+		        .thenReturn(3);
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> results = executor.invokeAll(createSearches(threads));
+		
+		assertThat(results, contains(0, 1, 2, 3, 4, 5));
+		assertThat(threads, everyItem(not(equalTo(Thread.currentThread()))));
+		assertThat(workerUserContexts, everyItem(equalTo(userContext)));
+	}
+	
+	@Test
+	public void invokeAll_shouldRunSearchesOnCallingThreadWhenNoWorkerIsAvailable() throws InterruptedException {
+		maximumWorkers = 1;
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_REV_INCLUDE_PARALLELISM), anyInt()))
+		        .thenReturn(2);
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		
+		CountDownLatch workerStarted = new CountDownLatch(1);
+		CountDownLatch releaseWorker = new CountDownLatch(1);
+		List<Supplier<Integer>> blockingSearches = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			int result = i;
+			blockingSearches.add(() -> {
+				workerStarted.countDown();
+				try {
+					releaseWorker.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return result;
+			});
+		}
+		
+		// the only worker is taken by a search running on another thread
+		Thread otherRequest = new Thread(() -> {
+			Context.setUserContext(userContext);
+			try {
+				executor.invokeAll(blockingSearches);
+			}
+			finally {
+				Context.clearUserContext();
+			}
+		});
+		otherRequest.start();
+		
+		try {
+			assertThat(workerStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+			
+			List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+			List<Integer> results = executor.invokeAll(createSearches(threads));
+			
+			assertThat(results, contains(0, 1, 2, 3, 4, 5));
+			assertThat(threads, everyItem(equalTo(Thread.currentThread())));
+		}
+		finally {
+			releaseWorker.countDown();
+			otherRequest.join();
+		}
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void invokeAll_shouldRethrowExceptionsThrownBySearches() {
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_REV_INCLUDE_PARALLELISM), anyInt()))
+		        .thenReturn(2);
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		
+		List<Supplier<Integer>> searches = new ArrayList<>();
+		searches.add(() -> 0);
+		searches.add(() -> {
+			throw new IllegalStateException();
+		});
+		
+		executor.invokeAll(searches);
+	}
+	
+	private List<Supplier<Integer>> createSearches(List<Thread> threads) {
+		List<Supplier<Integer>> searches = new ArrayList<>();
+		for (int i = 0; i < SEARCH_COUNT; i++) {
+			int result = i;
+			searches.add(() -> {
+				threads.add(Thread.currentThread());
+				try {
+					// later searches complete first
+					Thread.sleep((SEARCH_COUNT - result) * 10L);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return result;
+			});
+		}
+		
+		return searches;
+	}
+}
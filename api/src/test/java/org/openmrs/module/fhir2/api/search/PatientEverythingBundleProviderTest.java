@@ -0,0 +1,197 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.Obs;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PatientEverythingBundleProviderTest {
+	
+	private static final String PATIENT_UUID = "a7e04421-525f-442f-8138-05b619d16def";
+	
+	private static final String OTHER_PATIENT_UUID = "ca17fcc5-ec96-487f-b9ea-42973c8973e3";
+	
+	private static final List<String> COMPARTMENT_TYPES = Arrays.asList(FhirConstants.OBSERVATION,
+	    FhirConstants.ENCOUNTER);
+	
+	@Mock
+	private SearchQueryInclude<?> searchQueryInclude;
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	private Patient patient;
+	
+	private List<IBaseResource> observations;
+	
+	private List<IBaseResource> encounters;
+	
+	private IBundleProvider observationSearch;
+	
+	private IBundleProvider encounterSearch;
+	
+	@Before
+	public void setup() {
+		patient = new Patient();
+		patient.setId(PATIENT_UUID);
+		
+		observations = resources(Observation::new, 3);
+		encounters = resources(Encounter::new, 2);
+		
+		observationSearch = spy(new SimpleBundleProvider(observations));
+		encounterSearch = spy(new SimpleBundleProvider(encounters));
+	}
+	
+	@Test
+	public void getResources_shouldPageThroughCompartmentsWithoutCountingThem() {
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(PATIENT_UUID)), isNull()))
+		            .thenReturn(Arrays.asList(observationSearch, encounterSearch));
+		
+		PatientEverythingBundleProvider everything = everything(Collections.singletonList(patient), 10);
+		
+		assertThat(everything.getResources(0, 2), contains(patient, observations.get(0)));
+		assertThat(everything.getResources(2, 4), contains(observations.get(1), observations.get(2)));
+		assertThat(everything.getResources(4, 6), contains(encounters.get(0), encounters.get(1)));
+		assertThat(everything.getResources(6, 8), empty());
+		assertThat(everything.size(), equalTo(6));
+		
+		verify(observationSearch, never()).size();
+		verify(encounterSearch, never()).size();
+	}
+	
+	@Test
+	public void getResources_shouldCountSearchesBeforeTheRequestedResourcesOnce() {
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(PATIENT_UUID)), isNull()))
+		            .thenReturn(Arrays.asList(observationSearch, encounterSearch));
+		
+		PatientEverythingBundleProvider everything = everything(Collections.singletonList(patient), 10);
+		
+		assertThat(everything.getResources(4, 6), contains(encounters.get(0), encounters.get(1)));
+		assertThat(everything.getResources(1, 3), contains(observations.get(0), observations.get(1)));
+		assertThat(everything.getResources(4, 6), contains(encounters.get(0), encounters.get(1)));
+		
+		verify(observationSearch, times(1)).size();
+	}
+	
+	@Test
+	public void getResources_shouldReadSearchesWhichCannotBeCountedPageByPage() {
+		doReturn(null).when(observationSearch).size();
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(PATIENT_UUID)), isNull()))
+		            .thenReturn(Arrays.asList(observationSearch, encounterSearch));
+		
+		PatientEverythingBundleProvider everything = everything(Collections.singletonList(patient), 2);
+		
+		assertThat(everything.getResources(4, 6), contains(encounters.get(0), encounters.get(1)));
+		
+		verify(observationSearch).getResources(0, 2);
+		verify(observationSearch).getResources(2, 4);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void getResources_shouldNotEndSearchAtAPageWithUntranslatableRows() {
+		SearchQueryBundleProvider<Obs, Observation> observationQuery = mock(SearchQueryBundleProvider.class);
+		doReturn(new SearchQueryBundleProvider.SearchResults<>(Arrays.asList(new Obs(1), new Obs(2)),
+		        Arrays.asList((Observation) observations.get(0), null))).when(observationQuery).getSearchResults(0, 2);
+		doReturn(new SearchQueryBundleProvider.SearchResults<>(Collections.singletonList(new Obs(3)),
+		        Collections.singletonList((Observation) observations.get(2)))).when(observationQuery).getSearchResults(2, 5);
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(PATIENT_UUID)), isNull()))
+		            .thenReturn(Arrays.asList(observationQuery, encounterSearch));
+		
+		PatientEverythingBundleProvider everything = everything(Collections.singletonList(patient), 10);
+		
+		assertThat(everything.getResources(0, 3), contains(patient, observations.get(0)));
+		assertThat(everything.getResources(3, 6), contains(observations.get(2), encounters.get(0), encounters.get(1)));
+		assertThat(everything.size(), equalTo(6));
+		
+		verify(observationQuery, never()).size();
+	}
+	
+	@Test
+	public void size_shouldOnlyBeKnownOnceEveryBlockHasBeenPagedThrough() {
+		Patient otherPatient = new Patient();
+		otherPatient.setId(OTHER_PATIENT_UUID);
+		IBundleProvider otherEncounterSearch = spy(new SimpleBundleProvider(encounters));
+		
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(PATIENT_UUID)), isNull())).thenReturn(Collections.singletonList(observationSearch));
+		when(searchQueryInclude.getPatientCompartmentResources(eq(COMPARTMENT_TYPES),
+		    eq(Collections.singletonList(OTHER_PATIENT_UUID)), isNull()))
+		            .thenReturn(Collections.singletonList(otherEncounterSearch));
+		
+		PatientEverythingBundleProvider everything = new PatientEverythingBundleProvider(
+		        new SimpleBundleProvider(Arrays.asList(patient, otherPatient)), COMPARTMENT_TYPES, false, null, 10,
+		        searchQueryInclude, globalPropertyService, 1);
+		
+		assertThat(everything.size(), nullValue());
+		assertThat(everything.getResources(0, 10), contains(observations.get(0), observations.get(1),
+		    observations.get(2), encounters.get(0), encounters.get(1)));
+		assertThat(everything.size(), equalTo(5));
+		assertThat(everything.getResources(3, 5), contains(encounters.get(0), encounters.get(1)));
+		
+		verify(observationSearch, never()).size();
+		verify(otherEncounterSearch, never()).size();
+	}
+	
+	private PatientEverythingBundleProvider everything(List<IBaseResource> patients, int pageSize) {
+		return new PatientEverythingBundleProvider(new SimpleBundleProvider(patients), COMPARTMENT_TYPES, true, null,
+		        pageSize, searchQueryInclude, globalPropertyService);
+	}
+	
+	private static List<IBaseResource> resources(Supplier<? extends IBaseResource> factory, int count) {
+		List<IBaseResource> resources = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			IBaseResource resource = factory.get();
+			resource.setId("resource-" + i);
+			resources.add(resource);
+		}
+		
+		return resources;
+	}
+}
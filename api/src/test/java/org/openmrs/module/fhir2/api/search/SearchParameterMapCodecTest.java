@@ -0,0 +1,128 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.SortOrderEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.param.NumberParam;
+import ca.uhn.fhir.rest.param.ReferenceAndListParam;
+import ca.uhn.fhir.rest.param.ReferenceOrListParam;
+import ca.uhn.fhir.rest.param.ReferenceParam;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.param.TokenAndListParam;
+import ca.uhn.fhir.rest.param.TokenParam;
+import org.junit.Test;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.search.param.PropParam;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+
+public class SearchParameterMapCodecTest {
+	
+	private final FhirContext fhirContext = FhirContext.forR4();
+	
+	@Test
+	public void shouldRoundTripSearchParameters() {
+		HashSet<Include> includes = new HashSet<>();
+		includes.add(new Include("Observation:patient"));
+		includes.add(new Include("Observation:encounter", true));
+		
+		SearchParameterMap searchParameterMap = new SearchParameterMap()
+		        .addParameter(FhirConstants.CODED_SEARCH_HANDLER,
+		            new TokenAndListParam().addAnd(new TokenParam("http://loinc.org", "5085-8"), new TokenParam("5089-0")))
+		        .addParameter(FhirConstants.PATIENT_REFERENCE_SEARCH_HANDLER,
+		            new ReferenceAndListParam()
+		                    .addAnd(new ReferenceOrListParam().add(new ReferenceParam("Patient", "name", "Doe"))))
+		        .addParameter(FhirConstants.DATE_RANGE_SEARCH_HANDLER, "obsDatetime",
+		            new DateRangeParam().setLowerBound("ge2020-01-01").setUpperBound("lt2021-01-01"))
+		        .addParameter(FhirConstants.MAX_SEARCH_HANDLER, new NumberParam(3))
+		        .addParameter(FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER, new StringParam())
+		        .addParameter(FhirConstants.COMMON_SEARCH_HANDLER, FhirConstants.ID_PROPERTY, "some-uuid")
+		        .addParameter(FhirConstants.EXACT_TOTAL_SEARCH_PARAMETER, Boolean.FALSE)
+		        .addParameter(FhirConstants.INCLUDE_SEARCH_HANDLER, includes)
+		        .setSortSpec(new SortSpec("date", SortOrderEnum.DESC, new SortSpec("_id")));
+		searchParameterMap.setTotalMode(SearchTotalModeEnum.ACCURATE);
+		
+		String json = SearchParameterMapCodec.encode(fhirContext, searchParameterMap);
+		SearchParameterMap result = SearchParameterMapCodec.decode(fhirContext, json);
+		
+		assertThat(SearchParameterMapCodec.encode(fhirContext, result), equalTo(json));
+		assertThat(result.getTotalMode(), equalTo(SearchTotalModeEnum.ACCURATE));
+		assertThat(result.getSortSpec().getParamName(), equalTo("date"));
+		assertThat(result.getSortSpec().getOrder(), equalTo(SortOrderEnum.DESC));
+		assertThat(result.getSortSpec().getChain().getParamName(), equalTo("_id"));
+		
+		TokenAndListParam code = (TokenAndListParam) getParam(result, FhirConstants.CODED_SEARCH_HANDLER);
+		assertThat(code.getValuesAsQueryTokens(), hasSize(1));
+		List<TokenParam> codes = code.getValuesAsQueryTokens().get(0).getValuesAsQueryTokens();
+		assertThat(codes, hasSize(2));
+		assertThat(codes.get(0).getSystem(), equalTo("http://loinc.org"));
+		assertThat(codes.get(0).getValue(), equalTo("5085-8"));
+		assertThat(codes.get(1).getValue(), equalTo("5089-0"));
+		
+		ReferenceParam patient = ((ReferenceAndListParam) getParam(result, FhirConstants.PATIENT_REFERENCE_SEARCH_HANDLER))
+		        .getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0);
+		assertThat(patient.getResourceType(), equalTo("Patient"));
+		assertThat(patient.getChain(), equalTo("name"));
+		assertThat(patient.getValue(), equalTo("Doe"));
+		
+		DateRangeParam dateRange = (DateRangeParam) getParam(result, FhirConstants.DATE_RANGE_SEARCH_HANDLER);
+		assertThat(result.getParameters(FhirConstants.DATE_RANGE_SEARCH_HANDLER).get(0).getPropertyName(),
+		    equalTo("obsDatetime"));
+		assertThat(dateRange.getLowerBound().getValueAsString(), equalTo("2020-01-01"));
+		assertThat(dateRange.getUpperBound().getValueAsString(), equalTo("2021-01-01"));
+		
+		assertThat(((NumberParam) getParam(result, FhirConstants.MAX_SEARCH_HANDLER)).getValue().intValue(), equalTo(3));
+		assertThat(((StringParam) getParam(result, FhirConstants.LASTN_OBSERVATION_SEARCH_HANDLER)).getValue(),
+		    nullValue());
+		assertThat(getParam(result, FhirConstants.COMMON_SEARCH_HANDLER), equalTo("some-uuid"));
+		assertThat(getParam(result, FhirConstants.EXACT_TOTAL_SEARCH_PARAMETER), equalTo(Boolean.FALSE));
+		
+		Object resultIncludes = getParam(result, FhirConstants.INCLUDE_SEARCH_HANDLER);
+		assertThat(resultIncludes, instanceOf(HashSet.class));
+		assertThat(
+		    ((Collection<?>) resultIncludes).stream().map(include -> ((Include) include).getValue() + ":"
+		            + ((Include) include).isRecurse()).collect(Collectors.toList()),
+		    containsInAnyOrder("Observation:patient:false", "Observation:encounter:true"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void encode_shouldRejectUnsupportedParameterTypes() {
+		SearchParameterMapCodec.encode(fhirContext,
+		    new SearchParameterMap().addParameter(FhirConstants.COMMON_SEARCH_HANDLER, new StringBuilder("value")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void decode_shouldRejectClassesOutsideOfHapiParameters() {
+		SearchParameterMapCodec.decode(fhirContext,
+		    "{\"parameters\":[{\"key\":\"key\",\"type\":\"java.util.ArrayList\",\"value\":{\"values\":[\"1\"]}}]}");
+	}
+	
+	private static Object getParam(SearchParameterMap searchParameterMap, String key) {
+		List<PropParam<?>> params = searchParameterMap.getParameters(key);
+		assertThat(params, hasSize(1));
+		return params.get(0).getParam();
+	}
+}
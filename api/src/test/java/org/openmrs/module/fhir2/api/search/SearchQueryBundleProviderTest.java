@@ -12,17 +12,25 @@ package org.openmrs.module.fhir2.api.search;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import org.exparity.hamcrest.date.DateMatchers;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
@@ -35,6 +43,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.Obs;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.dao.FhirObservationDao;
+import org.openmrs.module.fhir2.api.search.param.KeysetCursor;
+import org.openmrs.module.fhir2.api.search.param.KeysetPage;
 import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
 import org.openmrs.module.fhir2.api.translators.ObservationTranslator;
 
@@ -57,6 +67,8 @@ public class SearchQueryBundleProviderTest {
 	
 	@Before
 	public void setup() {
+		translateEachElement(translator);
+		
 		searchQueryBundleProvider = new SearchQueryBundleProvider<>(new SearchParameterMap(), observationDao, translator,
 		        globalPropertyService, searchQueryInclude);
 	}
@@ -83,6 +95,69 @@ public class SearchQueryBundleProviderTest {
 		assertThat(resources, empty());
 	}
 	
+	@Test
+	public void shouldReuseKeysetCursorForSequentialPages() {
+		List<KeysetCursor> cursors = new ArrayList<>();
+		when(observationDao.getSearchResultsPage(any(), any())).thenAnswer(invocation -> {
+			SearchParameterMap theParams = invocation.getArgument(0);
+			cursors.add(invocation.getArgument(1));
+			return Optional.of(new KeysetPage<>(Collections.singletonList(new Obs()),
+			        new KeysetCursor(theParams.getToIndex(), new Object[0], theParams.getToIndex())));
+		});
+		
+		searchQueryBundleProvider.getResources(0, 10);
+		searchQueryBundleProvider.getResources(10, 20);
+		searchQueryBundleProvider.getResources(50, 60);
+		
+		assertThat(cursors, hasSize(3));
+		assertThat(cursors.get(0), nullValue());
+		assertThat(cursors.get(1), notNullValue());
+		assertThat(cursors.get(1).getOffset(), equalTo(10));
+		assertThat(cursors.get(2), nullValue());
+	}
+	
+	@Test
+	public void shouldNotCountResultsWhenTotalIsNone() {
+		SearchParameterMap theParams = new SearchParameterMap();
+		theParams.setTotalMode(SearchTotalModeEnum.NONE);
+		searchQueryBundleProvider = new SearchQueryBundleProvider<>(theParams, observationDao, translator,
+		        globalPropertyService, searchQueryInclude);
+		when(observationDao.getSearchResults(any())).thenAnswer(invocation -> {
+			SearchParameterMap params = invocation.getArgument(0);
+			// two full pages and a partial page
+			List<Obs> results = new ArrayList<>();
+			for (int i = params.getFromIndex(); i < Math.min(params.getToIndex(), 5); i++) {
+				results.add(new Obs());
+			}
+			return results;
+		});
+		when(translator.toFhirResource(any())).thenReturn(new Observation());
+		
+		assertThat(searchQueryBundleProvider.size(), nullValue());
+		assertThat(searchQueryBundleProvider.getResources(0, 2), hasSize(2));
+		assertThat(searchQueryBundleProvider.size(), nullValue());
+		assertThat(searchQueryBundleProvider.getResources(2, 4), hasSize(2));
+		assertThat(searchQueryBundleProvider.size(), nullValue());
+		assertThat(searchQueryBundleProvider.getResources(4, 6), hasSize(1));
+		assertThat(searchQueryBundleProvider.size(), equalTo(5));
+		
+		verify(observationDao, never()).getSearchResultsCount(any());
+	}
+	
+	@Test
+	public void shouldEstimateResultsWhenTotalIsEstimate() {
+		SearchParameterMap theParams = new SearchParameterMap();
+		theParams.setTotalMode(SearchTotalModeEnum.ESTIMATED);
+		searchQueryBundleProvider = new SearchQueryBundleProvider<>(theParams, observationDao, translator,
+		        globalPropertyService, searchQueryInclude);
+		when(globalPropertyService.getGlobalProperty(anyString(), anyInt())).thenReturn(1000);
+		when(observationDao.getSearchResultsCountEstimate(theParams, 1000)).thenReturn(12345);
+		
+		assertThat(searchQueryBundleProvider.size(), equalTo(12345));
+		
+		verify(observationDao, never()).getSearchResultsCount(any());
+	}
+	
 	@Test
 	public void shouldReturnDifferentUuid() {
 		assertThat(searchQueryBundleProvider.getUuid(), notNullValue());
@@ -0,0 +1,211 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.rest.param.ReferenceParam;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.FhirObservationService;
+import org.openmrs.module.fhir2.api.search.param.ObservationSearchParams;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchQueryIncludeTest {
+	
+	private static final Include HAS_MEMBER_ITERATE = new Include("Observation:has-member", true);
+	
+	@Mock
+	private FhirObservationService observationService;
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Mock
+	private ParallelSearchExecutor parallelSearchExecutor;
+	
+	@InjectMocks
+	private SearchQueryInclude<Observation> searchQueryInclude;
+	
+	private final Map<String, Observation> observations = new HashMap<>();
+	
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		lenient().when(parallelSearchExecutor.invokeAll(anyList())).thenAnswer(invocation -> ((List<Supplier<?>>) invocation
+		        .getArgument(0)).stream().map(Supplier::get).collect(Collectors.toList()));
+		
+		lenient().when(observationService.get(anyCollection()))
+		        .thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0)).stream().map(observations::get)
+		                .filter(Objects::nonNull).collect(Collectors.toList()));
+		
+		// the observations which have any of the searched for observations as a member
+		lenient().when(observationService.searchForObservations(any(ObservationSearchParams.class))).thenAnswer(invocation -> {
+			Set<String> memberIds = ((ObservationSearchParams) invocation.getArgument(0)).getHasMember()
+			        .getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().stream().map(ReferenceParam::getIdPart)
+			        .collect(Collectors.toSet());
+			
+			return new SimpleBundleProvider(observations.values().stream()
+			        .filter(observation -> observation.getHasMember().stream()
+			                .anyMatch(member -> memberIds.contains(member.getReferenceElement().getIdPart())))
+			        .collect(Collectors.toList())) {
+				
+				@Override
+				public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+					// reverse includes read every result
+					return getAllResources();
+				}
+			};
+		});
+	}
+	
+	@Test
+	public void getIncludedResources_shouldIterateIncludesUpToTheMaximumDepth() {
+		setIterateLimits(2, 1000);
+		List<Observation> chain = createChain(6);
+		
+		Set<IBaseResource> included = searchQueryInclude.getIncludedResources(Collections.singletonList(chain.get(0)),
+		    includes(FhirConstants.INCLUDE_SEARCH_HANDLER, HAS_MEMBER_ITERATE));
+		
+		// the first member is included by the _include itself, the next two by iterating it twice
+		assertThat(included, containsInAnyOrder(chain.get(1), chain.get(2), chain.get(3)));
+	}
+	
+	@Test
+	public void getIncludedResources_shouldStopIteratingOnceTheMaximumNumberOfResourcesIsIncluded() {
+		setIterateLimits(3, 3);
+		Observation root = createObservation("root");
+		Observation group = createObservation("group");
+		root.addHasMember(reference(group));
+		List<Observation> members = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Observation member = createObservation("member-" + i);
+			group.addHasMember(reference(member));
+			members.add(member);
+		}
+		
+		Set<IBaseResource> included = searchQueryInclude.getIncludedResources(Collections.singletonList(root),
+		    includes(FhirConstants.INCLUDE_SEARCH_HANDLER, HAS_MEMBER_ITERATE));
+		
+		assertThat(included, hasSize(3));
+		included.remove(group);
+		assertThat(members.containsAll(included), is(true));
+	}
+	
+	@Test
+	public void getIncludedResources_shouldNotVisitResourcesAgainWhenReferencesFormACycle() {
+		setIterateLimits(10, 1000);
+		List<Observation> chain = createChain(3);
+		chain.get(2).addHasMember(reference(chain.get(0)));
+		
+		Set<IBaseResource> included = searchQueryInclude.getIncludedResources(Collections.singletonList(chain.get(0)),
+		    includes(FhirConstants.INCLUDE_SEARCH_HANDLER, HAS_MEMBER_ITERATE));
+		
+		assertThat(included, containsInAnyOrder(chain.get(1), chain.get(2)));
+		// the _include, then one level for chain[2] and one which only finds chain[0] again
+		verify(observationService, times(3)).get(anyCollection());
+	}
+	
+	@Test
+	public void getIncludedResources_shouldIterateReverseIncludes() {
+		setIterateLimits(3, 1000);
+		List<Observation> chain = createChain(4);
+		
+		Set<IBaseResource> included = searchQueryInclude.getIncludedResources(Collections.singletonList(chain.get(3)),
+		    includes(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER, HAS_MEMBER_ITERATE));
+		
+		assertThat(included, containsInAnyOrder(chain.get(0), chain.get(1), chain.get(2)));
+	}
+	
+	@Test
+	public void getIncludedResources_shouldIterateReverseIncludesUpToTheMaximumDepth() {
+		setIterateLimits(1, 1000);
+		List<Observation> chain = createChain(4);
+		
+		Set<IBaseResource> included = searchQueryInclude.getIncludedResources(Collections.singletonList(chain.get(3)),
+		    includes(FhirConstants.REVERSE_INCLUDE_SEARCH_HANDLER, HAS_MEMBER_ITERATE));
+		
+		assertThat(included, containsInAnyOrder(chain.get(1), chain.get(2)));
+	}
+	
+	private void setIterateLimits(int maximumDepth, int maximumResources) {
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_ITERATE_MAXIMUM_DEPTH), anyInt()))
+		        .thenReturn(maximumDepth);
+		when(globalPropertyService.getGlobalProperty(eq(FhirConstants.OPENMRS_FHIR_ITERATE_MAXIMUM_RESOURCES), anyInt()))
+		        .thenReturn(maximumResources);
+	}
+	
+	/**
+	 * @return observations of which each one has the next one as its member
+	 */
+	private List<Observation> createChain(int length) {
+		List<Observation> chain = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			Observation observation = createObservation("obs-" + i);
+			if (i > 0) {
+				chain.get(i - 1).addHasMember(reference(observation));
+			}
+			chain.add(observation);
+		}
+		
+		return chain;
+	}
+	
+	private Observation createObservation(String id) {
+		Observation observation = new Observation();
+		observation.setId(id);
+		observations.put(id, observation);
+		return observation;
+	}
+	
+	private static Reference reference(Observation observation) {
+		return new Reference(FhirConstants.OBSERVATION + "/" + observation.getIdElement().getIdPart());
+	}
+	
+	private static SearchParameterMap includes(String searchHandler, Include include) {
+		return new SearchParameterMap().addParameter(searchHandler, new HashSet<>(Collections.singleton(include)));
+	}
+}
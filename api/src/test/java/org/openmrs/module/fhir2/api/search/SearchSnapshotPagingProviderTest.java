@@ -0,0 +1,206 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateEachElement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Observation;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.Obs;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.FhirDao;
+import org.openmrs.module.fhir2.api.dao.FhirObservationDao;
+import org.openmrs.module.fhir2.api.dao.FhirSearchSnapshotDao;
+import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.ObservationTranslator;
+import org.openmrs.module.fhir2.api.translators.ToFhirTranslator;
+import org.openmrs.module.fhir2.model.FhirSearchSnapshot;
+import org.springframework.context.ApplicationContext;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchSnapshotPagingProviderTest {
+	
+	private static final String DAO_BEAN = "fhirObservationDaoImpl";
+	
+	private static final String TRANSLATOR_BEAN = "observationTranslatorImpl";
+	
+	private static final String INCLUDE_BEAN = "searchQueryInclude";
+	
+	@Mock
+	private FhirSearchSnapshotDao searchSnapshotDao;
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	@Mock
+	private ApplicationContext applicationContext;
+	
+	@Mock
+	private FhirObservationDao observationDao;
+	
+	@Mock
+	private ObservationTranslator translator;
+	
+	@Mock
+	private SearchQueryInclude<Observation> searchQueryInclude;
+	
+	private final FhirContext fhirContext = FhirContext.forR4();
+	
+	private SearchSnapshotPagingProvider pagingProvider;
+	
+	private SearchQueryBundleProvider<Obs, Observation> bundleProvider;
+	
+	@Before
+	public void setup() {
+		translateEachElement(translator);
+		
+		pagingProvider = createPagingProvider();
+		bundleProvider = new SearchQueryBundleProvider<>(new SearchParameterMap(), observationDao, translator,
+		        globalPropertyService, searchQueryInclude);
+	}
+	
+	@Test
+	public void encodeIds_shouldRoundTripIds() {
+		List<Integer> ids = Arrays.asList(1, 2, 3, 150, 7, 7, 1_000_000, 0, Integer.MAX_VALUE, 5);
+		
+		assertThat(SearchSnapshotPagingProvider.decodeIds(SearchSnapshotPagingProvider.encodeIds(ids)), equalTo(ids));
+	}
+	
+	@Test
+	public void storeResultList_shouldStoreSearchResultsAsSnapshot() {
+		mockSnapshotDependencies();
+		when(observationDao.getSearchResultIds(any(), anyInt())).thenReturn(Optional.of(Arrays.asList(3, 1, 2)));
+		
+		String searchId = pagingProvider.storeResultList(null, bundleProvider);
+		
+		assertThat(searchId, equalTo(bundleProvider.getUuid()));
+		
+		ArgumentCaptor<FhirSearchSnapshot> snapshotCaptor = ArgumentCaptor.forClass(FhirSearchSnapshot.class);
+		verify(searchSnapshotDao).saveSnapshot(snapshotCaptor.capture());
+		FhirSearchSnapshot snapshot = snapshotCaptor.getValue();
+		assertThat(snapshot.getUuid(), equalTo(searchId));
+		assertThat(snapshot.getDaoBean(), equalTo(DAO_BEAN));
+		assertThat(snapshot.getTranslatorBean(), equalTo(TRANSLATOR_BEAN));
+		assertThat(snapshot.getIncludeBean(), equalTo(INCLUDE_BEAN));
+		assertThat(snapshot.getResultCount(), equalTo(3));
+		verify(searchSnapshotDao, never()).deleteExpiredSnapshots(any());
+		verify(searchSnapshotDao, never()).deleteOldestSnapshots(anyInt());
+		
+		Obs obs = new Obs();
+		when(observationDao.getByIds(Arrays.asList(3, 1))).thenReturn(Collections.singletonList(obs));
+		when(translator.toFhirResource(obs)).thenReturn(new Observation());
+		
+		IBundleProvider result = pagingProvider.retrieveResultList(null, searchId);
+		
+		assertThat(result, notNullValue());
+		assertThat(result.size(), equalTo(3));
+		assertThat(result.getResources(0, 2), hasSize(1));
+	}
+	
+	@Test
+	public void retrieveResultList_shouldOnlyIncludeResourcesForTranslatedResults() {
+		mockSnapshotDependencies();
+		when(observationDao.getSearchResultIds(any(), anyInt())).thenReturn(Optional.of(Arrays.asList(1, 2)));
+		
+		String searchId = pagingProvider.storeResultList(null, bundleProvider);
+		
+		Obs untranslatedObs = new Obs(1);
+		Obs obs = new Obs(2);
+		Observation observation = new Observation();
+		when(observationDao.getByIds(Arrays.asList(1, 2))).thenReturn(Arrays.asList(untranslatedObs, obs));
+		when(translator.toFhirResource(obs)).thenReturn(observation);
+		
+		List<IBaseResource> resources = pagingProvider.retrieveResultList(null, searchId).getResources(0, 2);
+		
+		assertThat(resources, hasSize(1));
+		verify(searchQueryInclude).getIncludedResources(eq(Collections.singletonList(obs)),
+		    eq(Collections.singletonList(observation)), any());
+	}
+	
+	@Test
+	public void storeResultList_shouldKeepSearchInMemoryWhenResultIdsAreUnavailable() {
+		mockSnapshotDependencies();
+		when(observationDao.getSearchResultIds(any(), anyInt())).thenReturn(Optional.empty());
+		
+		String searchId = pagingProvider.storeResultList(null, bundleProvider);
+		
+		verify(searchSnapshotDao, never()).saveSnapshot(any());
+		assertThat(pagingProvider.retrieveResultList(null, searchId), sameInstance(bundleProvider));
+	}
+	
+	@Test
+	public void retrieveResultList_shouldLoadSnapshotStoredByAnotherServer() {
+		mockSnapshotDependencies();
+		when(observationDao.getSearchResultIds(any(), anyInt())).thenReturn(Optional.of(Arrays.asList(3, 1, 2)));
+		
+		String searchId = pagingProvider.storeResultList(null, new SearchQueryBundleProviderR3Wrapper(bundleProvider));
+		
+		ArgumentCaptor<FhirSearchSnapshot> snapshotCaptor = ArgumentCaptor.forClass(FhirSearchSnapshot.class);
+		verify(searchSnapshotDao).saveSnapshot(snapshotCaptor.capture());
+		when(searchSnapshotDao.getSnapshotByUuid(eq(searchId), any())).thenReturn(Optional.of(snapshotCaptor.getValue()));
+		when(applicationContext.getBean(DAO_BEAN, FhirDao.class)).thenReturn(observationDao);
+		when(applicationContext.getBean(TRANSLATOR_BEAN, ToFhirTranslator.class)).thenReturn(translator);
+		when(applicationContext.getBean(INCLUDE_BEAN, SearchQueryInclude.class)).thenReturn(searchQueryInclude);
+		when(observationDao.getByIds(Arrays.asList(3, 1, 2))).thenReturn(Collections.emptyList());
+		
+		IBundleProvider result = createPagingProvider().retrieveResultList(null, searchId);
+		
+		assertThat(result, instanceOf(SearchQueryBundleProviderR3Wrapper.class));
+		assertThat(result.size(), equalTo(3));
+		List<IBaseResource> resources = result.getResources(0, 10);
+		assertThat(resources, hasSize(0));
+	}
+	
+	private SearchSnapshotPagingProvider createPagingProvider() {
+		SearchSnapshotPagingProvider provider = new SearchSnapshotPagingProvider();
+		provider.setSearchSnapshotDao(searchSnapshotDao);
+		provider.setGlobalPropertyService(globalPropertyService);
+		provider.setApplicationContext(applicationContext);
+		provider.setFhirContext(fhirContext);
+		return provider;
+	}
+	
+	private void mockSnapshotDependencies() {
+		when(globalPropertyService.getGlobalProperty(anyString(), anyInt()))
+		        .thenAnswer(invocation -> invocation.getArgument(1));
+		when(applicationContext.getBeansOfType(FhirDao.class))
+		        .thenReturn(Collections.singletonMap(DAO_BEAN, observationDao));
+		when(applicationContext.getBeansOfType(ToFhirTranslator.class))
+		        .thenReturn(Collections.singletonMap(TRANSLATOR_BEAN, translator));
+		when(applicationContext.getBeansOfType(SearchQueryInclude.class))
+		        .thenReturn(Collections.singletonMap(INCLUDE_BEAN, searchQueryInclude));
+	}
+}
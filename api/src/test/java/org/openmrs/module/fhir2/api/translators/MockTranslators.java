@@ -0,0 +1,51 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+
+import org.openmrs.OpenmrsMetadata;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
+
+/**
+ * Helpers for tests that use mocked translators
+ */
+public final class MockTranslators {
+	
+	private MockTranslators() {
+	}
+	
+	/**
+	 * Makes the given mocked translators translate lists with the default
+	 * {@link ToFhirTranslator#toFhirResources(java.util.List)}, i.e. by calling the mocked
+	 * {@link ToFhirTranslator#toFhirResource(Object)} for each element, so that tests only need to stub
+	 * the translation of single elements
+	 *
+	 * @param translators the mocked translators
+	 */
+	public static void translateEachElement(ToFhirTranslator<?, ?>... translators) {
+		for (ToFhirTranslator<?, ?> translator : translators) {
+			lenient().when(translator.toFhirResources(anyList())).thenCallRealMethod();
+		}
+	}
+	
+	/**
+	 * Makes the given mocked metadata translation cache translate metadata to its name, as it does for
+	 * metadata without a localization
+	 *
+	 * @param metadataTranslationCache the mocked metadata translation cache
+	 */
+	public static void translateMetadataToName(MetadataTranslationCache metadataTranslationCache) {
+		lenient().when(metadataTranslationCache.getMetadataTranslation(any()))
+		        .thenAnswer(invocation -> ((OpenmrsMetadata) invocation.getArgument(0)).getName());
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.Concept;
+
+public class TranslationMemoTest {
+	
+	private final AtomicInteger translations = new AtomicInteger();
+	
+	@After
+	public void tearDown() {
+		TranslationMemo.end();
+	}
+	
+	@Test
+	public void memoize_shouldTranslateEveryTimeWithoutMemo() {
+		Concept concept = new Concept(1);
+		
+		TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		
+		assertThat(translations.get(), equalTo(2));
+	}
+	
+	@Test
+	public void memoize_shouldTranslateSameObjectOnceAndReturnCopies() {
+		Concept concept = new Concept(1);
+		TranslationMemo memo = TranslationMemo.begin();
+		
+		CodeableConcept first = TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		CodeableConcept second = TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		
+		assertThat(translations.get(), equalTo(1));
+		assertThat(second, not(sameInstance(first)));
+		assertThat(second.getText(), equalTo(first.getText()));
+		assertThat(memo.getHits(), equalTo(1));
+		assertThat(memo.getMisses(), equalTo(1));
+	}
+	
+	@Test
+	public void memoize_shouldTranslateAgainAfterObjectChanged() {
+		Concept concept = new Concept(1);
+		TranslationMemo.begin();
+		
+		TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		concept.setDateChanged(new Date());
+		TranslationMemo.memoize("Concept", concept, () -> translate(concept));
+		TranslationMemo.memoize("OtherPurpose", concept, () -> translate(concept));
+		
+		assertThat(translations.get(), equalTo(3));
+	}
+	
+	@Test
+	public void end_shouldRemoveMemoOfCurrentThread() {
+		TranslationMemo memo = TranslationMemo.begin();
+		
+		assertThat(TranslationMemo.end(), sameInstance(memo));
+		assertThat(TranslationMemo.getCurrent(), nullValue());
+	}
+	
+	private CodeableConcept translate(Concept concept) {
+		translations.incrementAndGet();
+		return new CodeableConcept().setText("concept " + concept.getId());
+	}
+}
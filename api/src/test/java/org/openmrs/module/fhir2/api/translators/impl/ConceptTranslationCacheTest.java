@@ -0,0 +1,134 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.collection.internal.PersistentSet;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.ConceptMap;
+import org.openmrs.Obs;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+
+public class ConceptTranslationCacheTest {
+	
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private ConceptTranslationCache cache;
+	
+	private AtomicInteger translations;
+	
+	@Before
+	public void setup() {
+		metadataVersion = new MetadataVersionInterceptor();
+		cache = new ConceptTranslationCache(metadataVersion);
+		translations = new AtomicInteger();
+	}
+	
+	@Test
+	public void get_shouldTranslateConceptOnceAndReturnCopies() {
+		Concept concept = new Concept(1);
+		
+		CodeableConcept first = cache.get(concept, this::translate);
+		CodeableConcept second = cache.get(concept, this::translate);
+		second.setText("changed");
+		CodeableConcept third = cache.get(concept, this::translate);
+		
+		assertThat(translations.get(), equalTo(1));
+		assertThat(second, not(sameInstance(first)));
+		assertThat(third.getText(), equalTo("concept 1"));
+		assertThat(cache.size(), equalTo(1));
+		assertThat(cache.getHitRate(), closeTo(2.0 / 3, 0.001));
+	}
+	
+	@Test
+	public void get_shouldTranslateConceptAgainAfterItChanged() {
+		Concept concept = new Concept(1);
+		
+		cache.get(concept, this::translate);
+		concept.setDateChanged(new Date());
+		cache.get(concept, this::translate);
+		
+		assertThat(translations.get(), equalTo(2));
+	}
+	
+	@Test
+	public void get_shouldNotCacheUnsavedConcepts() {
+		Concept concept = new Concept();
+		
+		cache.get(concept, this::translate);
+		cache.get(concept, this::translate);
+		
+		assertThat(translations.get(), equalTo(2));
+		assertThat(cache.size(), equalTo(0));
+	}
+	
+	@Test
+	public void get_shouldKeepOnlyMostRecentlyUsedConcepts() {
+		for (int i = 0; i <= ConceptTranslationCache.MAX_SIZE; i++) {
+			cache.get(new Concept(i), this::translate);
+		}
+		
+		assertThat(cache.size(), equalTo(ConceptTranslationCache.MAX_SIZE));
+	}
+	
+	@Test
+	public void get_shouldTranslateConceptAgainAfterConceptMappingWasSaved() {
+		cache.get(new Concept(1), this::translate);
+		
+		metadataVersion.onSave(new ConceptMap(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		cache.get(new Concept(1), this::translate);
+		
+		assertThat(translations.get(), equalTo(2));
+		assertThat(cache.size(), equalTo(1));
+	}
+	
+	@Test
+	public void get_shouldTranslateConceptAgainAfterConceptNamesWereUpdated() {
+		Concept concept = new Concept(1);
+		cache.get(concept, this::translate);
+		
+		PersistentSet names = new PersistentSet(null, new HashSet<>());
+		names.setOwner(concept);
+		metadataVersion.onCollectionUpdate(names, 1);
+		metadataVersion.afterTransactionCompletion(null);
+		cache.get(concept, this::translate);
+		
+		assertThat(translations.get(), equalTo(2));
+	}
+	
+	@Test
+	public void get_shouldKeepTranslationsWhenOtherEntitiesWereSaved() {
+		cache.get(new Concept(1), this::translate);
+		
+		metadataVersion.onSave(new Obs(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		cache.get(new Concept(1), this::translate);
+		
+		assertThat(translations.get(), equalTo(1));
+	}
+	
+	private CodeableConcept translate(Concept concept) {
+		translations.incrementAndGet();
+		return new CodeableConcept().setText("concept " + concept.getId());
+	}
+}
@@ -43,6 +43,7 @@ import org.openmrs.ConceptSource;
 import org.openmrs.module.fhir2.FhirTestConstants;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.model.FhirConceptSource;
 import org.openmrs.util.LocaleUtility;
 
@@ -85,6 +86,7 @@ public class ConceptTranslatorImplTest {
 		conceptTranslator = new ConceptTranslatorImpl();
 		conceptTranslator.setConceptService(conceptService);
 		conceptTranslator.setConceptSourceService(conceptSourceService);
+		conceptTranslator.setConceptTranslationCache(new ConceptTranslationCache(new MetadataVersionInterceptor()));
 		
 		sameAs = new ConceptMapType();
 		sameAs.setName("SAME-AS");
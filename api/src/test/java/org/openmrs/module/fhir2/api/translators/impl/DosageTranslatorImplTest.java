@@ -44,6 +44,7 @@ import org.openmrs.api.OrderService;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.util.LocaleUtility;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -79,6 +80,7 @@ public class DosageTranslatorImplTest {
 		conceptTranslator = new ConceptTranslatorImpl();
 		conceptTranslator.setConceptService(conceptService);
 		conceptTranslator.setConceptSourceService(conceptSourceService);
+		conceptTranslator.setConceptTranslationCache(new ConceptTranslationCache(new MetadataVersionInterceptor()));
 		
 		quantityCodingTranslator = new MedicationQuantityCodingTranslatorImpl();
 		quantityCodingTranslator.setConceptTranslator(conceptTranslator);
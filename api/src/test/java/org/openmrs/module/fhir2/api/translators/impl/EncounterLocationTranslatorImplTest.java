@@ -13,6 +13,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateMetadataToName;
 
 import org.hl7.fhir.r4.model.Encounter;
 import org.hl7.fhir.r4.model.Reference;
@@ -24,6 +25,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.Location;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirLocationDao;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EncounterLocationTranslatorImplTest {
@@ -37,6 +39,9 @@ public class EncounterLocationTranslatorImplTest {
 	@Mock
 	private FhirLocationDao locationDao;
 	
+	@Mock
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	private EncounterLocationTranslatorImpl encounterLocationTranslator;
 	
 	private Encounter.EncounterLocationComponent encounterLocationComponent;
@@ -47,6 +52,8 @@ public class EncounterLocationTranslatorImplTest {
 	public void setUp() {
 		encounterLocationTranslator = new EncounterLocationTranslatorImpl();
 		encounterLocationTranslator.setLocationDao(locationDao);
+		encounterLocationTranslator.setMetadataTranslationCache(metadataTranslationCache);
+		translateMetadataToName(metadataTranslationCache);
 		
 		location = new Location();
 		location.setUuid(LOCATION_UUID);
@@ -15,9 +15,11 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -45,6 +47,7 @@ import org.openmrs.PersonName;
 import org.openmrs.Provider;
 import org.openmrs.Visit;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.mappings.EncounterClassMap;
 import org.openmrs.module.fhir2.api.translators.EncounterLocationTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterParticipantTranslator;
@@ -111,6 +114,9 @@ public class EncounterTranslatorImplTest {
 	@Mock
 	private EncounterClassMap encounterClassMap;
 	
+	@Mock
+	private FhirPatientDao patientDao;
+	
 	private Patient patient;
 	
 	private Encounter fhirEncounter;
@@ -135,6 +141,7 @@ public class EncounterTranslatorImplTest {
 		encounterTranslator.setVisitReferenceTranlator(visitReferenceTranslator);
 		encounterTranslator.setEncounterTypeTranslator(encounterTypeTranslator);
 		encounterTranslator.setEncounterPeriodTranslator(encounterPeriodTranslator);
+		encounterTranslator.setPatientDao(patientDao);
 		
 		PatientIdentifier identifier = new PatientIdentifier();
 		identifier.setIdentifier(PATIENT_IDENTIFIER);
@@ -172,6 +179,18 @@ public class EncounterTranslatorImplTest {
 		assertThat(result.getId(), equalTo(ENCOUNTER_UUID));
 	}
 	
+	@Test
+	public void toFhirResources_shouldPrefetchPatientsOfAllEncounters() {
+		omrsEncounter.setUuid(ENCOUNTER_UUID);
+		
+		List<Encounter> result = encounterTranslator
+		        .toFhirResources(Arrays.asList(omrsEncounter, new org.openmrs.Encounter()));
+		
+		assertThat(result.size(), equalTo(2));
+		assertThat(result.get(0).getId(), equalTo(ENCOUNTER_UUID));
+		verify(patientDao).prefetchByIds(Collections.singletonList(0));
+	}
+	
 	@Test
 	public void toOpenMrsType_shouldTranslateIdToUuid() {
 		fhirEncounter.setId(ENCOUNTER_UUID);
@@ -0,0 +1,75 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.translators.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.openmrs.module.fhir2.api.translators.impl.FhirTranslatorUtils.getReferencedIds;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.Test;
+import org.openmrs.Obs;
+import org.openmrs.Patient;
+import org.openmrs.Person;
+
+public class FhirTranslatorUtilsTest {
+	
+	@Test
+	public void getReferencedIds_shouldReturnDistinctIdsInOrder() {
+		List<Integer> ids = getReferencedIds(Arrays.asList(obs(new Patient(2)), obs(new Patient(1)), obs(new Patient(2))),
+		    Obs::getPerson);
+		
+		assertThat(ids, contains(2, 1));
+	}
+	
+	@Test
+	public void getReferencedIds_shouldSkipMissingReferencesAndIds() {
+		List<Integer> ids = getReferencedIds(Arrays.asList(obs(null), null, obs(new Patient()), obs(new Patient(1))),
+		    Obs::getPerson);
+		
+		assertThat(ids, contains(1));
+	}
+	
+	@Test
+	public void getReferencedIds_shouldReturnEmptyListForNoData() {
+		assertThat(getReferencedIds(Collections.<Obs> emptyList(), Obs::getPerson), empty());
+	}
+	
+	@Test
+	public void getReferencedIds_shouldReadIdOfProxyWithoutInitialisingIt() {
+		Person proxy = mock(Person.class, withSettings().extraInterfaces(HibernateProxy.class));
+		LazyInitializer lazyInitializer = mock(LazyInitializer.class);
+		when(((HibernateProxy) proxy).getHibernateLazyInitializer()).thenReturn(lazyInitializer);
+		when(lazyInitializer.getIdentifier()).thenReturn(3);
+		
+		List<Integer> ids = getReferencedIds(Collections.singletonList(obs(proxy)), Obs::getPerson);
+		
+		assertThat(ids, contains(3));
+		verify(proxy, never()).getId();
+		verify(lazyInitializer, never()).initialize();
+	}
+	
+	private Obs obs(Person person) {
+		Obs obs = new Obs();
+		obs.setPerson(person);
+		return obs;
+	}
+}
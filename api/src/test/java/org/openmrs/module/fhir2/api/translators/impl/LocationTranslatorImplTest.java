@@ -19,6 +19,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateMetadataToName;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -49,6 +50,7 @@ import org.openmrs.module.fhir2.api.translators.LocationAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.LocationTagTranslator;
 import org.openmrs.module.fhir2.api.translators.LocationTypeTranslator;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class LocationTranslatorImplTest {
@@ -105,6 +107,9 @@ public class LocationTranslatorImplTest {
 	@Mock
 	private FhirGlobalPropertyService propertyService;
 	
+	@Mock
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	private LocationTranslatorImpl locationTranslator;
 	
 	private Location omrsLocation;
@@ -119,6 +124,8 @@ public class LocationTranslatorImplTest {
 		locationTranslator.setPropertyService(propertyService);
 		locationTranslator.setLocationTagTranslator(locationTagTranslator);
 		locationTranslator.setLocationTypeTranslator(locationTypeTranslator);
+		locationTranslator.setMetadataTranslationCache(metadataTranslationCache);
+		translateMetadataToName(metadataTranslationCache);
 	}
 	
 	@Test
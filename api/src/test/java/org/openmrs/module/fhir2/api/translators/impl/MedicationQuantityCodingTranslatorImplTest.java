@@ -36,6 +36,7 @@ import org.openmrs.Duration;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.util.LocaleUtility;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -58,6 +59,7 @@ public class MedicationQuantityCodingTranslatorImplTest {
 		conceptTranslator = new ConceptTranslatorImpl();
 		conceptTranslator.setConceptService(conceptService);
 		conceptTranslator.setConceptSourceService(conceptSourceService);
+		conceptTranslator.setConceptTranslationCache(new ConceptTranslationCache(new MetadataVersionInterceptor()));
 		
 		quantityCodingTranslator = new MedicationQuantityCodingTranslatorImpl();
 		quantityCodingTranslator.setConceptTranslator(conceptTranslator);
@@ -34,6 +34,7 @@ import org.openmrs.ConceptName;
 import org.openmrs.DrugOrder;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.util.LocaleUtility;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -64,6 +65,7 @@ public class MedicationRequestDispenseRequestComponentTranslatorImplTest {
 		conceptTranslator = new ConceptTranslatorImpl();
 		conceptTranslator.setConceptService(conceptService);
 		conceptTranslator.setConceptSourceService(conceptSourceService);
+		conceptTranslator.setConceptTranslationCache(new ConceptTranslationCache(new MetadataVersionInterceptor()));
 		
 		quantityCodingTranslator = new MedicationQuantityCodingTranslatorImpl();
 		quantityCodingTranslator.setConceptTranslator(conceptTranslator);
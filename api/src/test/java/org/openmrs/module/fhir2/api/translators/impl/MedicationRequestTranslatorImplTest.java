@@ -17,10 +17,14 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import lombok.SneakyThrows;
 import org.exparity.hamcrest.date.DateMatchers;
@@ -47,6 +51,10 @@ import org.openmrs.Patient;
 import org.openmrs.Provider;
 import org.openmrs.User;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.dao.FhirMedicationDao;
+import org.openmrs.module.fhir2.api.dao.FhirMedicationRequestDao;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
+import org.openmrs.module.fhir2.api.dao.FhirPractitionerDao;
 import org.openmrs.module.fhir2.api.translators.ConceptTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.MedicationReferenceTranslator;
@@ -110,6 +118,18 @@ public class MedicationRequestTranslatorImplTest {
 	@Mock
 	private MedicationRequestTimingTranslator timingTranslator;
 	
+	@Mock
+	private FhirPatientDao patientDao;
+	
+	@Mock
+	private FhirPractitionerDao practitionerDao;
+	
+	@Mock
+	private FhirMedicationDao medicationDao;
+	
+	@Mock
+	private FhirMedicationRequestDao medicationRequestDao;
+	
 	private MedicationRequestDispenseRequestComponentTranslatorImpl dispenseRequestComponentTranslator;
 	
 	private DosageTranslatorImpl dosageTranslator;
@@ -149,6 +169,10 @@ public class MedicationRequestTranslatorImplTest {
 		medicationRequestTranslator.setOrderIdentifierTranslator(new OrderIdentifierTranslatorImpl());
 		medicationRequestTranslator
 		        .setMedicationRequestDispenseRequestComponentTranslator(dispenseRequestComponentTranslator);
+		medicationRequestTranslator.setPatientDao(patientDao);
+		medicationRequestTranslator.setPractitionerDao(practitionerDao);
+		medicationRequestTranslator.setMedicationDao(medicationDao);
+		medicationRequestTranslator.setMedicationRequestDao(medicationRequestDao);
 		
 		drugOrder = new DrugOrder();
 		drugOrder.setUuid(DRUG_ORDER_UUID);
@@ -185,6 +209,27 @@ public class MedicationRequestTranslatorImplTest {
 		assertThat(result.getId(), equalTo(DRUG_ORDER_UUID));
 	}
 	
+	@Test
+	public void toFhirResources_shouldPrefetchReferencedObjectsOfAllDrugOrders() {
+		drugOrder.setOrderId(1);
+		drugOrder.setPatient(new Patient(2));
+		drugOrder.setOrderer(new Provider(3));
+		drugOrder.setDrug(new Drug(4));
+		discontinuedDrugOrder.setPatient(drugOrder.getPatient());
+		discontinuedDrugOrder.setAction(Order.Action.DISCONTINUE);
+		
+		List<MedicationRequest> result = medicationRequestTranslator
+		        .toFhirResources(Arrays.asList(drugOrder, discontinuedDrugOrder));
+		
+		assertThat(result.size(), equalTo(2));
+		assertThat(result.get(0).getId(), equalTo(DRUG_ORDER_UUID));
+		assertThat(result.get(1).getId(), equalTo(DISCONTINUED_DRUG_ORDER_UUID));
+		verify(patientDao).prefetchByIds(Collections.singletonList(2));
+		verify(practitionerDao).prefetchByIds(Collections.singletonList(3));
+		verify(medicationDao).prefetchByIds(Collections.singletonList(4));
+		verify(medicationRequestDao).prefetchByIds(Collections.singletonList(1));
+	}
+	
 	@Test
 	public void toFhirResource_shouldTranslateToFhirResourceWithReplacesFieldGivenDiscontinuedOrder() {
 		discontinuedDrugOrder.setAction(Order.Action.DISCONTINUE);
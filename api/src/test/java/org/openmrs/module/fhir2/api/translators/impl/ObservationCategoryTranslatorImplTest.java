@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.openmrs.Concept;
 import org.openmrs.ConceptClass;
 import org.openmrs.module.fhir2.TestFhirSpringConfiguration;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.api.mappings.ObservationCategoryMap;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +56,7 @@ public class ObservationCategoryTranslatorImplTest extends BaseModuleContextSens
 		categoryMap = new ObservationCategoryMap();
 		concept = new Concept();
 		categoryMap.setSessionFactory(sessionFactory);
+		categoryMap.setMetadataVersion(new MetadataVersionInterceptor());
 		observationCategoryTranslator.setCategoryMap(categoryMap);
 		
 		executeDataSet(OBSERVATION_CATEGORY_CONCEPT_CLASS_DATA);
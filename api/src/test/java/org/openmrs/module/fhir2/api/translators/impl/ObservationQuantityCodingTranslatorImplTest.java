@@ -46,6 +46,7 @@ import org.openmrs.ConceptReferenceTerm;
 import org.openmrs.ConceptSource;
 import org.openmrs.module.fhir2.api.FhirConceptService;
 import org.openmrs.module.fhir2.api.FhirConceptSourceService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 
 @RunWith(JUnitParamsRunner.class)
 public class ObservationQuantityCodingTranslatorImplTest {
@@ -72,6 +73,7 @@ public class ObservationQuantityCodingTranslatorImplTest {
 		ConceptTranslatorImpl conceptTranslator = new ConceptTranslatorImpl();
 		conceptTranslator.setConceptService(conceptService);
 		conceptTranslator.setConceptSourceService(conceptSourceService);
+		conceptTranslator.setConceptTranslationCache(new ConceptTranslationCache(new MetadataVersionInterceptor()));
 		
 		// Define UCUM services
 		ArrayList<UcumEssenceService> ucumServices = new ArrayList<>();
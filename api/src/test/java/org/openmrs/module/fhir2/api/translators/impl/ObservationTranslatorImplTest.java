@@ -19,11 +19,13 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -49,6 +51,8 @@ import org.openmrs.Order;
 import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.dao.FhirConceptDao;
+import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
 import org.openmrs.module.fhir2.api.translators.ConceptTranslator;
 import org.openmrs.module.fhir2.api.translators.EncounterReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.ObservationBasedOnReferenceTranslator;
@@ -113,6 +117,12 @@ public class ObservationTranslatorImplTest {
 	@Mock
 	private ObservationEffectiveDatetimeTranslator datetimeTranslator;
 	
+	@Mock
+	private FhirPatientDao patientDao;
+	
+	@Mock
+	private FhirConceptDao conceptDao;
+	
 	private ObservationTranslatorImpl observationTranslator;
 	
 	@Before
@@ -129,6 +139,8 @@ public class ObservationTranslatorImplTest {
 		observationTranslator.setReferenceRangeTranslator(referenceRangeTranslator);
 		observationTranslator.setBasedOnReferenceTranslator(basedOnReferenceTranslator);
 		observationTranslator.setDatetimeTranslator(datetimeTranslator);
+		observationTranslator.setPatientDao(patientDao);
+		observationTranslator.setConceptDao(conceptDao);
 	}
 	
 	@Test
@@ -150,6 +162,24 @@ public class ObservationTranslatorImplTest {
 		assertThat(result.getId(), equalTo(OBS_UUID));
 	}
 	
+	@Test
+	public void toFhirResources_shouldPrefetchPatientsAndCodedValuesOfAllObservations() {
+		Patient patient = new Patient(1);
+		Obs codedObservation = new Obs();
+		codedObservation.setUuid(OBS_UUID);
+		codedObservation.setPerson(patient);
+		codedObservation.setValueCoded(new Concept(2));
+		Obs observation = new Obs();
+		observation.setPerson(patient);
+		
+		List<Observation> result = observationTranslator.toFhirResources(Arrays.asList(codedObservation, observation));
+		
+		assertThat(result.size(), equalTo(2));
+		assertThat(result.get(0).getId(), equalTo(OBS_UUID));
+		verify(patientDao, times(1)).prefetchByIds(Collections.singletonList(1));
+		verify(conceptDao, times(1)).prefetchByIds(Collections.singletonList(2));
+	}
+	
 	@Test
 	public void toFhirResource_shouldConvertStatus() {
 		Obs observation = new Obs();
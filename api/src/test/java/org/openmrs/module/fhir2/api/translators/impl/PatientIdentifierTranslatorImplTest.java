@@ -16,6 +16,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateMetadataToName;
 
 import org.hl7.fhir.r4.model.Identifier;
 import org.junit.Before;
@@ -27,6 +28,7 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.api.impl.FhirPatientIdentifierSystemServiceImpl;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PatientIdentifierTranslatorImplTest {
@@ -49,11 +51,16 @@ public class PatientIdentifierTranslatorImplTest {
 	@Mock
 	private FhirPatientService patientService;
 	
+	@Mock
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	@Before
 	public void setup() {
 		identifierTranslator = new PatientIdentifierTranslatorImpl();
 		identifierTranslator.setPatientService(patientService);
 		identifierTranslator.setPatientIdentifierSystemService(patientIdentifierSystemService);
+		identifierTranslator.setMetadataTranslationCache(metadataTranslationCache);
+		translateMetadataToName(metadataTranslationCache);
 	}
 	
 	@Test
@@ -14,6 +14,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateMetadataToName;
 
 import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Reference;
@@ -25,6 +26,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.Patient;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PatientReferenceTranslatorImplTest {
@@ -34,12 +36,17 @@ public class PatientReferenceTranslatorImplTest {
 	@Mock
 	private FhirPatientDao dao;
 	
+	@Mock
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	private PatientReferenceTranslatorImpl patientReferenceTranslator;
 	
 	@Before
 	public void setup() {
 		patientReferenceTranslator = new PatientReferenceTranslatorImpl();
 		patientReferenceTranslator.setPatientDao(dao);
+		patientReferenceTranslator.setMetadataTranslationCache(metadataTranslationCache);
+		translateMetadataToName(metadataTranslationCache);
 	}
 	
 	@Test
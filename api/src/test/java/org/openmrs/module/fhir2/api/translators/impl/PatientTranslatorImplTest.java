@@ -15,15 +15,20 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -50,6 +55,7 @@ import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttribute;
 import org.openmrs.PersonAttributeType;
 import org.openmrs.PersonName;
+import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.dao.FhirPersonDao;
 import org.openmrs.module.fhir2.api.translators.BirthDateTranslator;
@@ -58,6 +64,7 @@ import org.openmrs.module.fhir2.api.translators.PatientIdentifierTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PatientTranslatorImplTest {
@@ -117,9 +124,13 @@ public class PatientTranslatorImplTest {
 		patientTranslator.setGenderTranslator(genderTranslator);
 		patientTranslator.setAddressTranslator(addressTranslator);
 		patientTranslator.setTelecomTranslator(telecomTranslator);
-		patientTranslator.setFhirPersonDao(fhirPersonDao);
-		patientTranslator.setGlobalPropertyService(globalPropertyService);
 		patientTranslator.setBirthDateTranslator(birthDateTranslator);
+		
+		PersonContactPointHelper contactPointHelper = new PersonContactPointHelper();
+		contactPointHelper.setFhirPersonDao(fhirPersonDao);
+		contactPointHelper.setGlobalPropertyService(globalPropertyService);
+		contactPointHelper.setTelecomTranslator(telecomTranslator);
+		patientTranslator.setContactPointHelper(contactPointHelper);
 	}
 	
 	@Test
@@ -364,6 +375,32 @@ public class PatientTranslatorImplTest {
 		assertThat(contactPoints, notNullValue());
 	}
 	
+	@Test
+	public void shouldLoadContactPointsOfAllPatientsWithOneQuery() {
+		org.openmrs.Patient patient1 = new org.openmrs.Patient(1);
+		org.openmrs.Patient patient2 = new org.openmrs.Patient(2);
+		
+		PersonAttribute personAttribute = new PersonAttribute();
+		personAttribute.setUuid(PERSON_ATTRIBUTE_UUID);
+		personAttribute.setValue(PERSON_ATTRIBUTE_VALUE);
+		personAttribute.setPerson(patient2);
+		
+		when(globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE))
+		        .thenReturn(PERSON_ATTRIBUTE_TYPE_UUID);
+		when(fhirPersonDao.getActiveAttributesByPersonIdsAndAttributeTypeUuid(Arrays.asList(1, 2),
+		    PERSON_ATTRIBUTE_TYPE_UUID)).thenReturn(Collections.singletonList(personAttribute));
+		when(telecomTranslator.toFhirResource(personAttribute))
+		        .thenReturn(new ContactPoint().setValue(PERSON_ATTRIBUTE_VALUE));
+		
+		List<Patient> result = patientTranslator.toFhirResources(Arrays.asList(patient1, patient2));
+		
+		assertThat(result, hasSize(2));
+		assertThat(result.get(0).getTelecom(), empty());
+		assertThat(result.get(1).getTelecom(), hasSize(1));
+		assertThat(result.get(1).getTelecom().get(0).getValue(), equalTo(PERSON_ATTRIBUTE_VALUE));
+		verify(fhirPersonDao, never()).getActiveAttributesByPersonAndAttributeTypeUuid(any(), any());
+	}
+	
 	@Test
 	public void shouldTranslateOpenMrsDateChangedToLastUpdatedDate() {
 		org.openmrs.Patient patient = new org.openmrs.Patient();
@@ -24,8 +24,11 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import ca.uhn.fhir.model.api.TemporalPrecisionEnum;
 import org.exparity.hamcrest.date.DateMatchers;
@@ -56,6 +59,7 @@ import org.openmrs.module.fhir2.api.translators.PatientReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
 import org.openmrs.module.fhir2.api.translators.TelecomTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PersonTranslatorImplTest {
@@ -104,6 +108,9 @@ public class PersonTranslatorImplTest {
 	@Mock
 	private PatientReferenceTranslator patientReferenceTranslator;
 	
+	@Mock
+	private PersonContactPointHelper contactPointHelper;
+	
 	private BirthDateTranslator birthDateTranslator = new BirthDateTranslatorImpl();
 	
 	private PersonTranslatorImpl personTranslator;
@@ -120,6 +127,7 @@ public class PersonTranslatorImplTest {
 		personTranslator.setPatientDao(patientDao);
 		personTranslator.setPatientReferenceTranslator(patientReferenceTranslator);
 		personTranslator.setBirthDateTranslator(birthDateTranslator);
+		personTranslator.setContactPointHelper(contactPointHelper);
 	}
 	
 	@Before
@@ -395,10 +403,34 @@ public class PersonTranslatorImplTest {
 		personAttribute.setAttributeType(attributeType);
 		Person person = new Person();
 		
+		when(contactPointHelper.getContactPoints(person)).thenReturn(Collections.singletonList(contactPoint));
+		
 		org.hl7.fhir.r4.model.Person result = personTranslator.toFhirResource(person);
 		
 		assertThat(result, notNullValue());
-		assertThat(result.getTelecom(), notNullValue());
+		assertThat(result.getTelecom(), hasSize(1));
+		assertThat(result.getTelecom().get(0).getValue(), equalTo(CONTACT_VALUE));
+	}
+	
+	@Test
+	public void shouldLoadContactPointsOfAllPersonsWithOneQuery() {
+		Person person1 = new Person(1);
+		Person person2 = new Person(2);
+		List<Person> persons = Arrays.asList(person1, person2);
+		
+		ContactPoint contactPoint = new ContactPoint();
+		contactPoint.setId(CONTACT_ID);
+		contactPoint.setValue(CONTACT_VALUE);
+		
+		when(contactPointHelper.getContactPoints(argThat(equalTo(persons)), any()))
+		        .thenReturn(Collections.singletonMap(2, Collections.singletonList(contactPoint)));
+		
+		List<org.hl7.fhir.r4.model.Person> result = personTranslator.toFhirResources(persons);
+		
+		assertThat(result, hasSize(2));
+		assertThat(result.get(0).getTelecom(), empty());
+		assertThat(result.get(1).getTelecom(), hasSize(1));
+		assertThat(result.get(1).getTelecom().get(0).getValue(), equalTo(CONTACT_VALUE));
 	}
 	
 	@Test
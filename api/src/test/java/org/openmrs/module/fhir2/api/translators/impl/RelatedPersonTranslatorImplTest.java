@@ -14,19 +14,30 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import ca.uhn.fhir.model.api.TemporalPrecisionEnum;
 import org.exparity.hamcrest.date.DateMatchers;
 import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.ContactPoint;
 import org.hl7.fhir.r4.model.DateType;
 import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.HumanName;
@@ -51,6 +62,7 @@ import org.openmrs.module.fhir2.api.translators.GenderTranslator;
 import org.openmrs.module.fhir2.api.translators.PatientReferenceTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonAddressTranslator;
 import org.openmrs.module.fhir2.api.translators.PersonNameTranslator;
+import org.openmrs.module.fhir2.api.util.PersonContactPointHelper;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RelatedPersonTranslatorImplTest {
@@ -75,6 +87,10 @@ public class RelatedPersonTranslatorImplTest {
 	
 	private static final String USER_UUID = "68b1e787-e68d-424e-8aac-c3387a0ab7b5";
 	
+	private static final String OTHER_RELATIONSHIP_UUID = "8c3bf4b5-8ac8-4d0c-9b1c-2f0b1b7e7a61";
+	
+	private static final String CONTACT_POINT_VALUE = "+254 722 000 000";
+	
 	@Mock
 	private GenderTranslator genderTranslator;
 	
@@ -90,6 +106,9 @@ public class RelatedPersonTranslatorImplTest {
 	@Mock
 	private FhirPatientDao patientDao;
 	
+	@Mock
+	private PersonContactPointHelper contactPointHelper;
+	
 	private BirthDateTranslator birthDateTranslator = new BirthDateTranslatorImpl();
 	
 	private RelatedPersonTranslatorImpl relatedPersonTranslator;
@@ -107,6 +126,7 @@ public class RelatedPersonTranslatorImplTest {
 		relatedPersonTranslator.setPatientDao(patientDao);
 		relatedPersonTranslator.setPatientReferenceTranslator(patientReferenceTranslator);
 		relatedPersonTranslator.setBirthDateTranslator(birthDateTranslator);
+		relatedPersonTranslator.setContactPointHelper(contactPointHelper);
 		
 		User user = new User();
 		user.setUuid(USER_UUID);
@@ -325,4 +345,39 @@ public class RelatedPersonTranslatorImplTest {
 		assertThat(result.getBirthDateElement().getYear(), equalTo(dateType.getYear()));
 		assertThat(result.getBirthDateElement().getMonth(), equalTo(dateType.getMonth()));
 	}
+	
+	@Test
+	public void shouldTranslatePersonAContactPointsToTelecom() {
+		ContactPoint contactPoint = new ContactPoint().setValue(CONTACT_POINT_VALUE);
+		when(contactPointHelper.getContactPoints(personA)).thenReturn(Collections.singletonList(contactPoint));
+		
+		RelatedPerson result = relatedPersonTranslator.toFhirResource(relationship);
+		
+		assertThat(result.getTelecom(), hasSize(1));
+		assertThat(result.getTelecomFirstRep().getValue(), equalTo(CONTACT_POINT_VALUE));
+	}
+	
+	@Test
+	public void toFhirResources_shouldTranslateContactPointsOfEachPersonA() {
+		personA.setPersonId(1);
+		Person otherPersonA = new Person(3);
+		Relationship otherRelationship = new Relationship();
+		otherRelationship.setUuid(OTHER_RELATIONSHIP_UUID);
+		otherRelationship.setPersonA(otherPersonA);
+		otherRelationship.setPersonB(relationship.getPersonB());
+		List<Relationship> relationships = Arrays.asList(relationship, otherRelationship);
+		
+		Map<Integer, List<ContactPoint>> contactPoints = new HashMap<>();
+		contactPoints.put(1, Collections.singletonList(new ContactPoint().setValue(CONTACT_POINT_VALUE)));
+		when(contactPointHelper.getContactPoints(eq(relationships), any())).thenReturn(contactPoints);
+		
+		List<RelatedPerson> results = relatedPersonTranslator.toFhirResources(relationships);
+		
+		assertThat(results, hasSize(2));
+		assertThat(results.get(0).getTelecom(), hasSize(1));
+		assertThat(results.get(0).getTelecomFirstRep().getValue(), equalTo(CONTACT_POINT_VALUE));
+		assertThat(results.get(1).getId(), equalTo(OTHER_RELATIONSHIP_UUID));
+		assertThat(results.get(1).getTelecom(), empty());
+		verify(contactPointHelper, never()).getContactPoints(any(Person.class));
+	}
 }
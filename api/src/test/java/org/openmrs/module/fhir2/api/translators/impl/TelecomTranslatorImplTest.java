@@ -12,8 +12,13 @@ package org.openmrs.module.fhir2.api.translators.impl;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
@@ -36,6 +41,7 @@ import org.openmrs.api.ProviderService;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirContactPointMapService;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
 import org.openmrs.module.fhir2.model.FhirContactPointMap;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -124,6 +130,7 @@ public class TelecomTranslatorImplTest {
 		telecomTranslator.setProviderService(providerService);
 		telecomTranslator.setGlobalPropertyService(globalPropertyService);
 		telecomTranslator.setFhirContactPointMapService(fhirContactPointMapService);
+		telecomTranslator.setMetadataVersion(new MetadataVersionInterceptor());
 		
 		locationAttribute = new LocationAttribute();
 		personAttribute = new PersonAttribute();
@@ -355,6 +362,45 @@ public class TelecomTranslatorImplTest {
 		assertThat(result.getAttributeType().getUuid(), equalTo(PERSON_ATTRIBUTE_TYPE_UUID));
 	}
 	
+	@Test
+	public void toOpenmrsType_shouldLookUpPersonAttributeTypeOnlyOnce() {
+		ContactPoint contactPoint = new ContactPoint();
+		contactPoint.setId(CONTACT_POINT_ID);
+		contactPoint.setValue(CONTACT_POINT_VALUE);
+		personAttributeType.setId(1);
+		personAttributeType.setUuid(PERSON_ATTRIBUTE_TYPE_UUID);
+		PersonAttributeType loadedPersonAttributeType = new PersonAttributeType(1);
+		
+		when(globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE))
+		        .thenReturn(PERSON_ATTRIBUTE_TYPE_UUID);
+		when(personService.getPersonAttributeTypeByUuid(PERSON_ATTRIBUTE_TYPE_UUID)).thenReturn(personAttributeType);
+		when(personService.getPersonAttributeType(1)).thenReturn(loadedPersonAttributeType);
+		
+		PersonAttribute first = (PersonAttribute) telecomTranslator.toOpenmrsType(new PersonAttribute(), contactPoint);
+		PersonAttribute second = (PersonAttribute) telecomTranslator.toOpenmrsType(new PersonAttribute(), contactPoint);
+		
+		assertThat(first.getAttributeType(), sameInstance(personAttributeType));
+		assertThat(second.getAttributeType(), sameInstance(loadedPersonAttributeType));
+		verify(personService, times(1)).getPersonAttributeTypeByUuid(PERSON_ATTRIBUTE_TYPE_UUID);
+	}
+	
+	@Test
+	public void toOpenmrsType_shouldLookUpMissingPersonAttributeTypeOnlyOnce() {
+		ContactPoint contactPoint = new ContactPoint();
+		contactPoint.setId(CONTACT_POINT_ID);
+		contactPoint.setValue(CONTACT_POINT_VALUE);
+		
+		when(globalPropertyService.getGlobalProperty(FhirConstants.PERSON_CONTACT_POINT_ATTRIBUTE_TYPE))
+		        .thenReturn(PERSON_ATTRIBUTE_TYPE_UUID);
+		
+		telecomTranslator.toOpenmrsType(new PersonAttribute(), contactPoint);
+		PersonAttribute result = (PersonAttribute) telecomTranslator.toOpenmrsType(new PersonAttribute(), contactPoint);
+		
+		assertThat(result.getAttributeType(), nullValue());
+		verify(personService, times(1)).getPersonAttributeTypeByUuid(PERSON_ATTRIBUTE_TYPE_UUID);
+		verify(personService, never()).getPersonAttributeType(anyInt());
+	}
+	
 	@Test
 	public void toFhirResource_shouldTranslateUuidToId() {
 		locationAttribute.setUuid(LOCATION_ATTRIBUTE_UUID);
@@ -452,7 +498,7 @@ public class TelecomTranslatorImplTest {
 		assertThat(attribute.getValue(), notNullValue());
 		assertThat(attribute.getAttributeType().getUuid(), equalTo(LOCATION_ATTRIBUTE_TYPE_UUID));
 		assertThat(attribute.getAttributeType().getName(), equalTo(LOCATION_ATTRIBUTE_TYPE_NAME));
-		
+	
 	}
 	
 	@Test
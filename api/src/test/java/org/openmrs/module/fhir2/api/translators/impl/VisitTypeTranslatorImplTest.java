@@ -16,6 +16,7 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.api.translators.MockTranslators.translateMetadataToName;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -31,6 +32,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.openmrs.VisitType;
 import org.openmrs.api.VisitService;
 import org.openmrs.module.fhir2.FhirConstants;
+import org.openmrs.module.fhir2.api.util.MetadataTranslationCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class VisitTypeTranslatorImplTest {
@@ -42,12 +44,17 @@ public class VisitTypeTranslatorImplTest {
 	@Mock
 	private VisitService visitService;
 	
+	@Mock
+	private MetadataTranslationCache metadataTranslationCache;
+	
 	private VisitTypeTranslatorImpl visitTypeTranslator;
 	
 	@Before
 	public void setup() {
 		visitTypeTranslator = new VisitTypeTranslatorImpl();
 		visitTypeTranslator.setVisitService(visitService);
+		visitTypeTranslator.setMetadataTranslationCache(metadataTranslationCache);
+		translateMetadataToName(metadataTranslationCache);
 	}
 	
 	@Test
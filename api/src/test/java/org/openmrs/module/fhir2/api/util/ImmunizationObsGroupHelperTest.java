@@ -0,0 +1,213 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openmrs.module.fhir2.FhirConstants.ADMINISTERING_ENCOUNTER_ROLE_PROPERTY;
+import static org.openmrs.module.fhir2.FhirConstants.IMMUNIZATIONS_ENCOUNTER_TYPE_PROPERTY;
+import static org.openmrs.module.fhir2.api.translators.impl.ImmunizationTranslatorImpl.CIEL_1410;
+import static org.openmrs.module.fhir2.api.translators.impl.ImmunizationTranslatorImpl.CIEL_984;
+import static org.openmrs.module.fhir2.api.translators.impl.ImmunizationTranslatorImpl.IMMUNIZATION_CONCEPTS;
+import static org.openmrs.module.fhir2.api.translators.impl.ImmunizationTranslatorImpl.IMMUNIZATION_GROUPING_CONCEPT;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import ca.uhn.fhir.rest.server.exceptions.NotImplementedOperationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openmrs.Concept;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
+import org.openmrs.Obs;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.EncounterService;
+import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
+import org.openmrs.module.fhir2.api.dao.impl.MetadataVersionInterceptor;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ImmunizationObsGroupHelperTest {
+	
+	private static final String ENCOUNTER_TYPE_UUID = "29c02aff-9a93-46c9-bf6f-48b552fcb1fa";
+	
+	private static final String OTHER_ENCOUNTER_TYPE_UUID = "07000be2-26b6-4cce-8b40-866d8435b613";
+	
+	private static final String ENCOUNTER_ROLE_UUID = "546cce2d-6d58-4097-ba92-206c1a2a0462";
+	
+	@Mock
+	private ConceptService conceptService;
+	
+	@Mock
+	private EncounterService encounterService;
+	
+	@Mock
+	private FhirGlobalPropertyService globalPropertyService;
+	
+	private MetadataVersionInterceptor metadataVersion;
+	
+	private ImmunizationObsGroupHelper helper;
+	
+	private Map<Integer, Concept> concepts;
+	
+	@Before
+	public void setup() {
+		metadataVersion = new MetadataVersionInterceptor();
+		
+		helper = new ImmunizationObsGroupHelper();
+		helper.setConceptService(conceptService);
+		helper.setEncounterService(encounterService);
+		helper.setGlobalPropertyService(globalPropertyService);
+		helper.setMetadataVersion(metadataVersion);
+		
+		concepts = new HashMap<>();
+	}
+	
+	@Test
+	public void concept_shouldOnlyResolveConceptMappingsOnce() {
+		givenConceptMappings();
+		
+		helper.concept(CIEL_984);
+		Concept concept = helper.concept(CIEL_984);
+		
+		assertThat(concept, sameInstance(concepts.get(984)));
+		verify(conceptService, times(1)).getConceptByMapping("984", "CIEL");
+		verify(conceptService, times(2)).getConcept(984);
+	}
+	
+	@Test
+	public void concept_shouldResolveConceptMappingsAgainWhenConceptsChanged() {
+		givenConceptMappings();
+		helper.concept(CIEL_984);
+		
+		metadataVersion.onSave(new Concept(), 1, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		helper.concept(CIEL_984);
+		
+		verify(conceptService, times(2)).getConceptByMapping("984", "CIEL");
+	}
+	
+	@Test
+	public void concept_shouldResolveConceptMappingsAgainWhenRefreshed() {
+		givenConceptMappings();
+		helper.concept(CIEL_984);
+		
+		helper.refresh();
+		helper.concept(CIEL_984);
+		
+		verify(conceptService, times(2)).getConceptByMapping("984", "CIEL");
+	}
+	
+	@Test
+	public void concept_shouldResolveConceptMappingsAgainWhileAConceptIsMissing() {
+		givenConceptMappings();
+		when(conceptService.getConceptByMapping("1410", "CIEL")).thenReturn(null);
+		
+		helper.concept(CIEL_984);
+		helper.concept(CIEL_984);
+		
+		verify(conceptService, times(2)).getConceptByMapping("984", "CIEL");
+		verify(conceptService, never()).getConcept(1410);
+	}
+	
+	@Test(expected = NotImplementedOperationException.class)
+	public void concept_shouldThrowSetupErrorForUnmappedConcept() {
+		givenConceptMappings();
+		when(conceptService.getConceptByMapping("1410", "CIEL")).thenReturn(null);
+		
+		helper.concept(CIEL_1410);
+	}
+	
+	@Test
+	public void getObsMembersMap_shouldMapMembersByTheirReferenceTerm() {
+		givenConceptMappings();
+		Obs group = new Obs();
+		group.setConcept(concepts.get(1421));
+		Obs member = new Obs();
+		member.setConcept(new Concept(984));
+		group.addGroupMember(member);
+		
+		Map<String, Obs> members = helper.getObsMembersMap(group);
+		
+		assertThat(members.size(), equalTo(1));
+		assertThat(members.get(CIEL_984), sameInstance(member));
+	}
+	
+	@Test
+	public void getImmunizationsEncounterType_shouldLoadEncounterTypeByIdOnceResolved() {
+		EncounterType encounterType = new EncounterType(5);
+		EncounterType loadedEncounterType = new EncounterType(5);
+		when(globalPropertyService.getGlobalProperty(IMMUNIZATIONS_ENCOUNTER_TYPE_PROPERTY))
+		        .thenReturn(ENCOUNTER_TYPE_UUID);
+		when(encounterService.getEncounterTypeByUuid(ENCOUNTER_TYPE_UUID)).thenReturn(encounterType);
+		when(encounterService.getEncounterType(5)).thenReturn(loadedEncounterType);
+		
+		assertThat(helper.getImmunizationsEncounterType(), sameInstance(encounterType));
+		assertThat(helper.getImmunizationsEncounterType(), sameInstance(loadedEncounterType));
+		verify(encounterService, times(1)).getEncounterTypeByUuid(ENCOUNTER_TYPE_UUID);
+	}
+	
+	@Test
+	public void getImmunizationsEncounterType_shouldResolveEncounterTypeAgainWhenGlobalPropertyChanged() {
+		EncounterType otherEncounterType = new EncounterType(6);
+		when(globalPropertyService.getGlobalProperty(IMMUNIZATIONS_ENCOUNTER_TYPE_PROPERTY))
+		        .thenReturn(ENCOUNTER_TYPE_UUID, OTHER_ENCOUNTER_TYPE_UUID);
+		when(encounterService.getEncounterTypeByUuid(ENCOUNTER_TYPE_UUID)).thenReturn(new EncounterType(5));
+		when(encounterService.getEncounterTypeByUuid(OTHER_ENCOUNTER_TYPE_UUID)).thenReturn(otherEncounterType);
+		
+		helper.getImmunizationsEncounterType();
+		
+		assertThat(helper.getImmunizationsEncounterType(), sameInstance(otherEncounterType));
+		verify(encounterService, never()).getEncounterType(anyInt());
+	}
+	
+	@Test
+	public void getAdministeringEncounterRole_shouldResolveEncounterRoleAgainWhenEncounterMetadataChanged() {
+		EncounterRole encounterRole = new EncounterRole(3);
+		when(globalPropertyService.getGlobalProperty(ADMINISTERING_ENCOUNTER_ROLE_PROPERTY)).thenReturn(ENCOUNTER_ROLE_UUID);
+		when(encounterService.getEncounterRoleByUuid(ENCOUNTER_ROLE_UUID)).thenReturn(encounterRole);
+		when(encounterService.getEncounterRole(3)).thenReturn(encounterRole);
+		
+		helper.getAdministeringEncounterRole();
+		helper.getAdministeringEncounterRole();
+		verify(encounterService, times(1)).getEncounterRoleByUuid(ENCOUNTER_ROLE_UUID);
+		
+		metadataVersion.onDelete(new EncounterRole(4), 4, null, null, null);
+		metadataVersion.afterTransactionCompletion(null);
+		
+		assertThat(helper.getAdministeringEncounterRole(), sameInstance(encounterRole));
+		verify(encounterService, times(2)).getEncounterRoleByUuid(ENCOUNTER_ROLE_UUID);
+	}
+	
+	private void givenConceptMappings() {
+		Stream.concat(Stream.of(IMMUNIZATION_GROUPING_CONCEPT), IMMUNIZATION_CONCEPTS.stream()).forEach(refTerm -> {
+			Integer conceptId = Integer.valueOf(refTerm.split(":")[1]);
+			concepts.put(conceptId, new Concept(conceptId));
+		});
+		
+		when(conceptService.getConceptByMapping(anyString(), eq("CIEL")))
+		        .thenAnswer(invocation -> concepts.get(Integer.valueOf(invocation.<String> getArgument(0))));
+		lenient().when(conceptService.getConcept(anyInt()))
+		        .thenAnswer(invocation -> concepts.get(invocation.<Integer> getArgument(0)));
+	}
+}
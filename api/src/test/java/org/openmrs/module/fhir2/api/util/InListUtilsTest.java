@@ -0,0 +1,58 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class InListUtilsTest {
+	
+	@Test
+	public void chunkInList_shouldSplitDistinctValuesIntoChunksOfMaximumSize() {
+		List<Integer> values = IntStream.range(0, InListUtils.MAX_IN_LIST_SIZE * 2 + 1).boxed().collect(Collectors.toList());
+		List<Integer> valuesWithDuplicates = new ArrayList<>(values);
+		valuesWithDuplicates.addAll(values);
+		valuesWithDuplicates.add(null);
+		
+		List<List<Integer>> chunks = InListUtils.chunkInList(valuesWithDuplicates);
+		
+		assertThat(chunks, hasSize(3));
+		assertThat(chunks.get(0), hasSize(InListUtils.MAX_IN_LIST_SIZE));
+		assertThat(chunks.get(2), contains(InListUtils.MAX_IN_LIST_SIZE * 2));
+		assertThat(chunks.stream().flatMap(List::stream).collect(Collectors.toList()), equalTo(values));
+	}
+	
+	@Test
+	public void padInList_shouldPadValuesToBucketSizeWithLastValue() {
+		List<Integer> padded = InListUtils.padInList(Arrays.asList(1, 2, 3));
+		
+		assertThat(padded, hasSize(10));
+		assertThat(padded.subList(0, 3), contains(1, 2, 3));
+		assertThat(padded.subList(3, 10), everyItem(equalTo(3)));
+	}
+	
+	@Test
+	public void padInList_shouldNotPadValuesOfBucketSize() {
+		List<Integer> values = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+		
+		assertThat(InListUtils.padInList(values), equalTo(values));
+	}
+}
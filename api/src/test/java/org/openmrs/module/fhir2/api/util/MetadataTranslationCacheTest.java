@@ -0,0 +1,114 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.api.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataTranslationCacheTest {
+	
+	private static final String CODE = "ui.i18n.Location.name.c0938432-1691-11df-97a5-7038c432aabf";
+	
+	private MetadataTranslationCache metadataTranslationCache;
+	
+	private AtomicInteger lookups;
+	
+	@Before
+	public void setup() {
+		metadataTranslationCache = new MetadataTranslationCache();
+		lookups = new AtomicInteger();
+	}
+	
+	@Test
+	public void shouldOnlyLookUpTranslationOnce() {
+		Function<String, String> lookup = countingLookup("Unknown Location");
+		
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, lookup), equalTo("Unknown Location"));
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, lookup), equalTo("Unknown Location"));
+		assertThat(lookups.get(), is(1));
+	}
+	
+	@Test
+	public void shouldCacheMissingTranslation() {
+		Function<String, String> lookup = countingLookup(null);
+		
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, lookup), nullValue());
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, lookup), nullValue());
+		assertThat(lookups.get(), is(1));
+	}
+	
+	@Test
+	public void shouldCacheTranslationsPerLocale() {
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup("Unknown Location"));
+		
+		assertThat(metadataTranslationCache.getTranslation(Locale.FRENCH, CODE, countingLookup("Lieu inconnu")),
+		    equalTo("Lieu inconnu"));
+		assertThat(lookups.get(), is(2));
+	}
+	
+	@Test
+	public void shouldLookUpTranslationAgainOnceCleared() {
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup(null));
+		
+		metadataTranslationCache.onApplicationEvent(null);
+		
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup("Unknown Location")),
+		    equalTo("Unknown Location"));
+		assertThat(lookups.get(), is(2));
+	}
+	
+	@Test
+	public void shouldNotCacheFailedLookup() {
+		try {
+			metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, code -> {
+				throw new IllegalStateException();
+			});
+		}
+		catch (IllegalStateException ignored) {}
+		
+		assertThat(metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup("Unknown Location")),
+		    equalTo("Unknown Location"));
+	}
+	
+	@Test
+	public void shouldEvictLeastRecentlyUsedTranslationOnceLocaleIsFull() {
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup(null));
+		for (int i = 1; i < MetadataTranslationCache.MAX_SIZE_PER_LOCALE; i++) {
+			metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE + i, countingLookup(null));
+		}
+		
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup(null));
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE + "-new", countingLookup(null));
+		metadataTranslationCache.getTranslation(Locale.FRENCH, CODE + 1, countingLookup(null));
+		assertThat(lookups.get(), is(MetadataTranslationCache.MAX_SIZE_PER_LOCALE + 2));
+		
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE, countingLookup(null));
+		assertThat(lookups.get(), is(MetadataTranslationCache.MAX_SIZE_PER_LOCALE + 2));
+		
+		metadataTranslationCache.getTranslation(Locale.ENGLISH, CODE + 1, countingLookup(null));
+		assertThat(lookups.get(), is(MetadataTranslationCache.MAX_SIZE_PER_LOCALE + 3));
+	}
+	
+	private Function<String, String> countingLookup(String translation) {
+		return code -> {
+			lookups.incrementAndGet();
+			return translation;
+		};
+	}
+}
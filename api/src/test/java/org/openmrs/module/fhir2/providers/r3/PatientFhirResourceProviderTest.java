@@ -498,10 +498,10 @@ public class PatientFhirResourceProviderTest extends BaseFhirR3ProvenanceResourc
 	
 	@Test
 	public void searchForPatients_shouldReturnPatientEverything() {
-		when(patientService.getPatientEverything(any()))
+		when(patientService.getPatientEverything(any(), any(), any(), any()))
 		        .thenReturn(new MockIBundleProvider<>(Collections.singletonList(patient), 10, 1));
 		
-		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType(PATIENT_UUID));
+		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType(PATIENT_UUID), null, null, null);
 		
 		List<IBaseResource> resultList = getAllResources(results);
 		
@@ -513,31 +513,31 @@ public class PatientFhirResourceProviderTest extends BaseFhirR3ProvenanceResourc
 	
 	@Test
 	public void searchForPatients_shouldReturnNullForPatientEverythingWhenIdParamIsMissing() {
-		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(null);
+		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(null, null, null, null);
 		
 		assertThat(results, nullValue());
 	}
 	
 	@Test
 	public void searchForPatients_shouldReturnNullForPatientEverythingWhenIdPartIsMissingInIdParam() {
-		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType());
+		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType(), null, null, null);
 		
 		assertThat(results, nullValue());
 	}
 	
 	@Test
 	public void searchForPatients_shouldReturnNullPatientEverythingWhenIdPartIsEmptyInIdParam() {
-		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType(""));
+		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(new IdType(""), null, null, null);
 		
 		assertThat(results, nullValue());
 	}
 	
 	@Test
 	public void searchForPatients_shouldReturnPatientEverythingForTypeLevel() {
-		when(patientService.getPatientEverything())
+		when(patientService.getPatientEverything(any(), any(), any()))
 		        .thenReturn(new MockIBundleProvider<>(Collections.singletonList(patient), 10, 1));
 		
-		IBundleProvider results = patientFhirResourceProvider.getPatientEverything();
+		IBundleProvider results = patientFhirResourceProvider.getPatientEverything(null, null, null);
 		
 		List<IBaseResource> resultList = getAllResources(results);
 		
@@ -49,6 +49,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.dao.FhirEncounterDao;
+import org.openmrs.module.fhir2.api.mappings.ObservationCategoryMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -90,12 +91,17 @@ public class ObservationFhirResourceProviderIntegrationTest extends BaseFhirR3In
 	@Autowired
 	private FhirEncounterDao encounterDao;
 	
+	@Autowired
+	private ObservationCategoryMap categoryMap;
+	
 	@Before
 	@Override
 	public void setup() throws Exception {
 		super.setup();
 		
 		executeDataSet(OBS_DATA_XML);
+		// the categories are loaded directly into the database, so any cached categories are stale
+		categoryMap.refresh();
 	}
 	
 	@Test
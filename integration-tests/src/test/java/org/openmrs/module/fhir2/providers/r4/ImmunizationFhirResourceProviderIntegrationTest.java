@@ -39,6 +39,7 @@ import org.hl7.fhir.r4.model.OperationOutcome;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.module.fhir2.BaseFhirIntegrationTest;
+import org.openmrs.module.fhir2.api.util.ImmunizationObsGroupHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -73,6 +74,9 @@ public class ImmunizationFhirResourceProviderIntegrationTest extends BaseFhirR4I
 	@Autowired
 	private ImmunizationFhirResourceProvider resourceProvider;
 	
+	@Autowired
+	private ImmunizationObsGroupHelper helper;
+	
 	@Before
 	@Override
 	public void setup() throws Exception {
@@ -80,6 +84,8 @@ public class ImmunizationFhirResourceProviderIntegrationTest extends BaseFhirR4I
 		
 		executeDataSet(IMMUNIZATIONS_METADATA_XML);
 		executeDataSet(IMMUNIZATION_INITIAL_DATA_XML);
+		// the immunization metadata is loaded directly into the database, so any resolved metadata is stale
+		helper.refresh();
 	}
 	
 	@Test
@@ -40,13 +40,16 @@ import org.openmrs.module.fhir2.FhirActivator;
 import org.openmrs.module.fhir2.FhirConstants;
 import org.openmrs.module.fhir2.api.FhirGlobalPropertyService;
 import org.openmrs.module.fhir2.api.annotations.R4Provider;
+import org.openmrs.module.fhir2.api.search.SearchSnapshotPagingProvider;
 import org.openmrs.module.fhir2.api.spi.ModuleLifecycleListener;
 import org.openmrs.module.fhir2.narrative.OpenmrsThymeleafNarrativeGenerator;
 import org.openmrs.module.fhir2.web.authentication.RequireAuthenticationInterceptor;
 import org.openmrs.module.fhir2.web.util.DisableCacheInterceptor;
 import org.openmrs.module.fhir2.web.util.NarrativeUtils;
+import org.openmrs.module.fhir2.web.util.SearchTotalModeInterceptor;
 import org.openmrs.module.fhir2.web.util.SummaryInterceptor;
 import org.openmrs.module.fhir2.web.util.SupportMergePatchInterceptor;
+import org.openmrs.module.fhir2.web.util.TranslationMemoInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -70,6 +73,9 @@ public class FhirRestServlet extends RestfulServer implements ModuleLifecycleLis
 	@Autowired
 	private FhirGlobalPropertyService globalPropertyService;
 	
+	@Autowired(required = false)
+	private SearchSnapshotPagingProvider searchSnapshotPagingProvider;
+	
 	@Autowired
 	@Qualifier("hapiLoggingInterceptor")
 	private LoggingInterceptor loggingInterceptor;
@@ -149,6 +155,8 @@ public class FhirRestServlet extends RestfulServer implements ModuleLifecycleLis
 		registerInterceptor(new RequireAuthenticationInterceptor());
 		registerInterceptor(new DisableCacheInterceptor());
 		registerInterceptor(new SummaryInterceptor());
+		registerInterceptor(new SearchTotalModeInterceptor());
+		registerInterceptor(new TranslationMemoInterceptor());
 		registerInterceptor(new SupportMergePatchInterceptor());
 
 		String narrativesOverridePropertyFile = NarrativeUtils.getValidatedPropertiesFilePath(
@@ -211,7 +219,9 @@ public class FhirRestServlet extends RestfulServer implements ModuleLifecycleLis
 		int maximumPageSize = NumberUtils
 		        .toInt(globalPropertyService.getGlobalProperty(FhirConstants.OPENMRS_FHIR_MAXIMUM_PAGE_SIZE), 100);
 		
-		BasePagingProvider pagingProvider = new FifoMemoryPagingProvider(100);
+		// search results are stored in the database when possible so that any node can serve their pages
+		BasePagingProvider pagingProvider = searchSnapshotPagingProvider != null ? searchSnapshotPagingProvider
+		        : new FifoMemoryPagingProvider(100);
 		pagingProvider.setDefaultPageSize(defaultPageSize);
 		pagingProvider.setMaximumPageSize(maximumPageSize);
 		return pagingProvider;
@@ -246,11 +256,14 @@ public class FhirRestServlet extends RestfulServer implements ModuleLifecycleLis
 				registerInterceptor(new RequireAuthenticationInterceptor());
 				registerInterceptor(new DisableCacheInterceptor());
 				registerInterceptor(new SummaryInterceptor());
+				registerInterceptor(new SearchTotalModeInterceptor());
+				registerInterceptor(new TranslationMemoInterceptor());
 				registerInterceptor(new SupportMergePatchInterceptor());
 				
 				setAdministrationService(ctx.getBean("adminService", AdministrationService.class));
 				setGlobalPropertyService(ctx.getBean(FhirGlobalPropertyService.class));
 				setServerAddressStrategy(ctx.getBean(IServerAddressStrategy.class));
+				setSearchSnapshotPagingProvider(ctx.getBean(SearchSnapshotPagingProvider.class));
 				setPagingProvider(createPagingProvider());
 				
 				administrationService.addGlobalPropertyListener(fhirRestServletListener);
@@ -0,0 +1,46 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.web.util;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import org.openmrs.module.fhir2.api.search.SearchTotalModeHolder;
+
+/**
+ * Makes the {@code _total} parameter of a request available to the searches run while processing
+ * it, see {@link SearchTotalModeHolder}
+ */
+@Interceptor
+public class SearchTotalModeInterceptor {
+	
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public void handleTotalMode(RequestDetails requestDetails) {
+		SearchTotalModeHolder.clear();
+		
+		String[] total = requestDetails.getParameters().get("_total");
+		if (total != null && total.length > 0) {
+			SearchTotalModeEnum totalMode = SearchTotalModeEnum.fromCode(total[0]);
+			if (totalMode == null) {
+				throw new InvalidRequestException("Invalid value for _total: " + total[0]);
+			}
+			
+			SearchTotalModeHolder.setTotalMode(totalMode);
+		}
+	}
+	
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void clearTotalMode() {
+		SearchTotalModeHolder.clear();
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.fhir2.web.util;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import lombok.extern.slf4j.Slf4j;
+import org.openmrs.module.fhir2.api.translators.TranslationMemo;
+
+/**
+ * Limits the {@link TranslationMemo} to the request being processed, so that objects shared by the
+ * results of a request are translated once, but changes are visible to the next request
+ */
+@Slf4j
+@Interceptor
+public class TranslationMemoInterceptor {
+	
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public void beginTranslationMemo() {
+		TranslationMemo.begin();
+	}
+	
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void endTranslationMemo() {
+		TranslationMemo memo = TranslationMemo.end();
+		if (memo != null && log.isDebugEnabled()) {
+			log.debug("Translation memo answered {} of {} translations", memo.getHits(),
+			    memo.getHits() + memo.getMisses());
+		}
+	}
+}
@@ -23,6 +23,8 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,7 @@ import static org.openmrs.module.fhir2.api.util.GeneralUtils.inputStreamToString
 import javax.servlet.ServletException;
 
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashSet;
@@ -38,6 +41,7 @@ import java.util.Objects;
 
 import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.param.ParamPrefixEnum;
 import ca.uhn.fhir.rest.param.StringAndListParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
@@ -86,6 +90,9 @@ public class PatientFhirResourceProviderWebTest extends BaseFhirR4ResourceProvid
 	@Captor
 	private ArgumentCaptor<TokenParam> tokenCaptor;
 	
+	@Captor
+	private ArgumentCaptor<DateRangeParam> dateRangeCaptor;
+	
 	@Captor
 	private ArgumentCaptor<PatientSearchParams> patientSearchParamsCaptor;
 	
@@ -731,24 +738,37 @@ public class PatientFhirResourceProviderWebTest extends BaseFhirR4ResourceProvid
 	public void getPatientEverything_shouldHandlePatientId() throws Exception {
 		verifyEverythingOperation("/Patient/" + PATIENT_UUID + "/$everything?");
 		
-		verify(patientService).getPatientEverything(tokenCaptor.capture());
+		verify(patientService).getPatientEverything(tokenCaptor.capture(), isNull(), isNull(), isNull());
 		
 		assertThat(tokenCaptor.getValue(), notNullValue());
 		assertThat(tokenCaptor.getValue().getValue(), equalTo(PATIENT_UUID));
 	}
 	
+	@Test
+	public void getPatientEverything_shouldHandleSinceTypeAndCountParameters() throws Exception {
+		verifyEverythingOperation(
+		    "/Patient/" + PATIENT_UUID + "/$everything?_since=2020-09-03T00:00:00Z&_type=Observation,Encounter&_count=5");
+		
+		verify(patientService).getPatientEverything(tokenCaptor.capture(), dateRangeCaptor.capture(),
+		    eq(new HashSet<>(Arrays.asList("Observation", "Encounter"))), eq(5));
+		
+		assertThat(tokenCaptor.getValue().getValue(), equalTo(PATIENT_UUID));
+		assertThat(dateRangeCaptor.getValue().getLowerBound().getPrefix(), equalTo(ParamPrefixEnum.GREATERTHAN_OR_EQUALS));
+		assertThat(dateRangeCaptor.getValue().getUpperBound(), nullValue());
+	}
+	
 	@Test
 	public void getPatientEverything_shouldHandleNoPatientId() throws Exception {
 		verifyEverythingTypeOperation("/Patient/$everything?");
 		
-		verify(patientService).getPatientEverything();
+		verify(patientService).getPatientEverything(isNull(), isNull(), isNull());
 	}
 	
 	private void verifyEverythingOperation(String uri) throws Exception {
 		Patient patient = new Patient();
 		patient.setId(PATIENT_UUID);
 		
-		when(patientService.getPatientEverything(any()))
+		when(patientService.getPatientEverything(any(), any(), any(), any()))
 		        .thenReturn(new MockIBundleProvider<>(Collections.singletonList(patient), 10, 1));
 		
 		MockHttpServletResponse response = get(uri).accept(FhirMediaTypes.JSON).go();
@@ -767,7 +787,7 @@ public class PatientFhirResourceProviderWebTest extends BaseFhirR4ResourceProvid
 		Patient patient = new Patient();
 		patient.setId(PATIENT_UUID);
 		
-		when(patientService.getPatientEverything())
+		when(patientService.getPatientEverything(any(), any(), any()))
 		        .thenReturn(new MockIBundleProvider<>(Collections.singletonList(patient), 10, 1));
 		
 		MockHttpServletResponse response = get(uri).accept(FhirMediaTypes.JSON).go();